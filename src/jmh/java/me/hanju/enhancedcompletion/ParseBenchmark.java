@@ -0,0 +1,67 @@
+package me.hanju.enhancedcompletion;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import me.hanju.enhancedcompletion.assembler.TokenStreams;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+
+/**
+ * SSE chunk JSON 파싱 벤치마크.
+ * 한 번의 실행이 응답 하나의 모든 chunk를 스트림 하나의 reader로 파싱하므로 점수는 초당 처리한 응답 수입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+  @Param({ TokenStreams.PLAIN, TokenStreams.CITED })
+  public String scenario;
+
+  @Param({ "500" })
+  public int words;
+
+  private EnhancedCompletionClient client;
+  private String[] json;
+
+  @Setup
+  public void setUp() throws JsonProcessingException {
+    final ObjectMapper objectMapper = new ObjectMapper();
+    client = new EnhancedCompletionClient(WebClient.builder(), objectMapper,
+        new EnhancedCompletionProperties("http://localhost", null));
+    final List<ChatCompletionResponse> chunks = TokenStreams.chunks(scenario, words);
+    json = new String[chunks.size()];
+    for (int i = 0; i < json.length; i++) {
+      json[i] = objectMapper.writeValueAsString(chunks.get(i));
+    }
+  }
+
+  @Benchmark
+  public void parse(final Blackhole blackhole) {
+    final ObjectReader reader = client.chunkReader();
+    for (final String data : json) {
+      blackhole.consume(client.parse(reader, data));
+    }
+  }
+}
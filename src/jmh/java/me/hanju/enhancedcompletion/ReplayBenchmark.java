@@ -0,0 +1,105 @@
+package me.hanju.enhancedcompletion;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import me.hanju.enhancedcompletion.assembler.EnhancedCompletionDeltaMapper;
+import me.hanju.enhancedcompletion.assembler.TokenStreams;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.transport.SseRecording;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+import reactor.core.publisher.Flux;
+
+/**
+ * 녹화된 SSE 스트림으로 파싱 → cite 변환 → 병합 전체를 측정하는 벤치마크.
+ * 한 번의 실행이 녹화 파일의 모든 스트림을 처리합니다.
+ *
+ * <p>
+ * {@code recording}에 {@code sseRecordFile}로 녹화한 파일을 지정하면 실제 토큰 분포로 측정합니다.
+ * 지정하지 않으면 합성 스트림(cited, 500단어) 하나를 사용합니다.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplayBenchmark {
+
+  private static final FluxListener<EnhancedCompletionResponse> IGNORING = new FluxListener<>() {
+    @Override
+    public void onNext(final EnhancedCompletionResponse delta) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void onError(final Throwable e) {
+    }
+  };
+
+  @Param({ "" })
+  public String recording;
+
+  private EnhancedCompletionClient client;
+  private List<List<String>> streams;
+
+  @Setup
+  public void setUp() throws JsonProcessingException {
+    final ObjectMapper objectMapper = new ObjectMapper();
+    client = new EnhancedCompletionClient(WebClient.builder(), objectMapper,
+        new EnhancedCompletionProperties("http://localhost", null));
+    streams = new ArrayList<>();
+    if (recording.isEmpty()) {
+      final List<String> frames = new ArrayList<>();
+      for (final ChatCompletionResponse chunk : TokenStreams.chunks(TokenStreams.CITED, 500)) {
+        frames.add(objectMapper.writeValueAsString(chunk));
+      }
+      streams.add(frames);
+    } else {
+      for (final SseRecording stream : SseRecording.readAll(Path.of(recording))) {
+        streams.add(stream.getFrames());
+      }
+    }
+  }
+
+  @Benchmark
+  public int pipeline() {
+    int merged = 0;
+    for (final List<String> frames : streams) {
+      final StreamHandle<EnhancedCompletionResponse> handle = new StreamHandle<>(
+          EnhancedCompletionResponse.class, IGNORING);
+      final ObjectReader reader = client.chunkReader();
+      handle.subscribe(Flux.fromIterable(frames).map(json -> client.parse(reader, json)),
+          new EnhancedCompletionDeltaMapper());
+      if (handle.get() != null) {
+        merged++;
+      }
+    }
+    return merged;
+  }
+}
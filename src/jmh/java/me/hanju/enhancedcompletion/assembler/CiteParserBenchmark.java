@@ -0,0 +1,100 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import me.hanju.adapter.ContentStreamAdapter;
+import me.hanju.adapter.transition.TransitionSchema;
+
+/**
+ * cite 태그 파싱만 떼어 비교하는 벤치마크.
+ * 범용 {@link ContentStreamAdapter}(이전 구현)와 {@link CiteTagParser}가 같은 토큰 스트림을 끝까지 읽습니다.
+ * 한 번의 실행이 응답 하나 전체이므로 점수는 초당 처리한 응답 수입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CiteParserBenchmark {
+
+  private static final TransitionSchema CITE_SCHEMA = TransitionSchema.root()
+      .tag("cite", cite -> cite.tag("id")).alias("rag");
+
+  @Param({ TokenStreams.CITED, TokenStreams.KOREAN })
+  public String scenario;
+
+  @Param({ "500" })
+  public int words;
+
+  private List<String> tokens;
+
+  @Setup
+  public void setUp() {
+    tokens = TokenStreams.tokens(scenario, words);
+  }
+
+  @Benchmark
+  public void adapter(final Blackhole blackhole) {
+    final ContentStreamAdapter adapter = new ContentStreamAdapter(CITE_SCHEMA);
+    for (final String token : tokens) {
+      blackhole.consume(adapter.feedToken(token));
+    }
+    blackhole.consume(adapter.flush());
+  }
+
+  @Benchmark
+  public void parser(final Blackhole blackhole) {
+    final CiteTagParser parser = new CiteTagParser();
+    final ConsumingHandler handler = new ConsumingHandler(blackhole);
+    for (final String token : tokens) {
+      parser.feed(token, handler);
+    }
+    parser.flush(handler);
+  }
+
+  /**
+   * 이벤트를 Blackhole로 넘기는 Handler.
+   */
+  private static final class ConsumingHandler implements CiteTagParser.Handler {
+    private final Blackhole blackhole;
+
+    ConsumingHandler(final Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void text(final String text) {
+      blackhole.consume(text);
+    }
+
+    @Override
+    public void citeOpened() {
+      blackhole.consume(true);
+    }
+
+    @Override
+    public void citeId(final String source, final int start, final int end) {
+      blackhole.consume(end - start);
+    }
+
+    @Override
+    public void citeClosed() {
+      blackhole.consume(false);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+
+/**
+ * EnhancedCompletionDeltaMapper 벤치마크.
+ * 한 번의 실행이 응답 하나 전체(map 반복 후 flush)이므로 점수는 초당 처리한 응답 수입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeltaMapperBenchmark {
+
+  @Param({ TokenStreams.PLAIN, TokenStreams.CITED, TokenStreams.SPLIT })
+  public String scenario;
+
+  @Param({ "500" })
+  public int words;
+
+  private List<ChatCompletionResponse> chunks;
+
+  @Setup
+  public void setUp() {
+    chunks = TokenStreams.chunks(scenario, words);
+  }
+
+  @Benchmark
+  public void mapAndFlush(final Blackhole blackhole) {
+    final EnhancedCompletionDeltaMapper mapper = new EnhancedCompletionDeltaMapper();
+    for (final ChatCompletionResponse chunk : chunks) {
+      blackhole.consume(mapper.map(chunk));
+    }
+    final List<EnhancedCompletionResponse> rest = mapper.flush();
+    blackhole.consume(rest);
+  }
+}
@@ -0,0 +1,98 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+import me.hanju.streambind.map.StreamMapper;
+import reactor.core.publisher.Flux;
+
+/**
+ * 긴 출력(기본 5만 토큰)의 병합 벤치마크.
+ * 기본 StreamHandle(content 이어 붙이기), {@link EnhancedCompletionStreamHandle}(rope에 모아 한 번에 결합),
+ * 임시 파일 spill을 비교합니다. spill은 병합 후 mmap view의 길이만 읽습니다.
+ * 한 번의 실행이 응답 하나 전체를 병합하므로 평균 시간과 op당 할당량을 봅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class LongContentMergeBenchmark {
+
+  public static final String STREAM = "stream";
+  public static final String ROPE = "rope";
+  public static final String SPILL = "spill";
+
+  /** spill 시나리오 임계값: 64K자를 넘으면 임시 파일로 */
+  private static final int SPILL_THRESHOLD = 64 * 1024;
+
+  private static final StreamMapper<EnhancedCompletionResponse, EnhancedCompletionResponse> IDENTITY = List::of;
+
+  private static final FluxListener<EnhancedCompletionResponse> IGNORING = new FluxListener<>() {
+    @Override
+    public void onNext(final EnhancedCompletionResponse delta) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void onError(final Throwable e) {
+    }
+  };
+
+  @Param({ STREAM, ROPE, SPILL })
+  public String handle;
+
+  @Param({ "50000" })
+  public int words;
+
+  private List<EnhancedCompletionResponse> deltas;
+
+  @Setup
+  public void setUp() {
+    final EnhancedCompletionDeltaMapper mapper = new EnhancedCompletionDeltaMapper();
+    deltas = new ArrayList<>();
+    for (final ChatCompletionResponse chunk : TokenStreams.chunks(TokenStreams.PLAIN, words)) {
+      deltas.addAll(mapper.map(chunk));
+    }
+    deltas.addAll(mapper.flush());
+  }
+
+  @Benchmark
+  public int merge() {
+    if (SPILL.equals(handle)) {
+      try (EnhancedCompletionStreamHandle target = new EnhancedCompletionStreamHandle(IGNORING, SPILL_THRESHOLD, null)) {
+        target.subscribe(Flux.fromIterable(deltas), IDENTITY);
+        return target.getContent().length();
+      }
+    }
+    if (ROPE.equals(handle)) {
+      final EnhancedCompletionStreamHandle target = new EnhancedCompletionStreamHandle(IGNORING);
+      target.subscribe(Flux.fromIterable(deltas), IDENTITY);
+      return target.get().getChoices().get(0).getDelta().getContent().length();
+    }
+    final StreamHandle<EnhancedCompletionResponse> target = new StreamHandle<>(EnhancedCompletionResponse.class, IGNORING);
+    target.subscribe(Flux.fromIterable(deltas), IDENTITY);
+    return target.get().getChoices().get(0).getDelta().getContent().length();
+  }
+}
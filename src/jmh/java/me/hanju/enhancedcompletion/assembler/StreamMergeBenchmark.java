@@ -0,0 +1,77 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.streambind.map.StreamMapper;
+import reactor.core.publisher.Flux;
+
+/**
+ * 클라이언트가 쓰는 StreamHandle({@link EnhancedCompletionStreamHandle})의 delta 병합 벤치마크.
+ * mapper가 만든 delta를 미리 준비해 두고, 병합(content 이어 붙이기, citations 누적)만 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamMergeBenchmark {
+
+  private static final StreamMapper<EnhancedCompletionResponse, EnhancedCompletionResponse> IDENTITY = List::of;
+
+  private static final FluxListener<EnhancedCompletionResponse> IGNORING = new FluxListener<>() {
+    @Override
+    public void onNext(final EnhancedCompletionResponse delta) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void onError(final Throwable e) {
+    }
+  };
+
+  @Param({ TokenStreams.PLAIN, TokenStreams.CITED })
+  public String scenario;
+
+  @Param({ "500" })
+  public int words;
+
+  private List<EnhancedCompletionResponse> deltas;
+
+  @Setup
+  public void setUp() {
+    final EnhancedCompletionDeltaMapper mapper = new EnhancedCompletionDeltaMapper();
+    deltas = new ArrayList<>();
+    for (final ChatCompletionResponse chunk : TokenStreams.chunks(scenario, words)) {
+      deltas.addAll(mapper.map(chunk));
+    }
+    deltas.addAll(mapper.flush());
+  }
+
+  @Benchmark
+  public EnhancedCompletionResponse merge() {
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(IGNORING);
+    handle.subscribe(Flux.fromIterable(deltas), IDENTITY);
+    return handle.get();
+  }
+}
@@ -0,0 +1,98 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+
+/**
+ * 벤치마크용 토큰 스트림 생성기. 같은 seed로 항상 같은 스트림을 만듭니다.
+ *
+ * <ul>
+ * <li>{@code plain}: cite 태그 없이 단어 하나씩</li>
+ * <li>{@code cited}: 대여섯 단어마다 {@code <cite><id>..</id>..</cite>}, 태그는 토큰 하나씩</li>
+ * <li>{@code split}: cited와 같은 본문을 3글자씩 잘라 태그가 chunk 경계에 걸침</li>
+ * <li>{@code korean}: split과 같되 본문이 한글(일부 emoji)뿐</li>
+ * </ul>
+ */
+public final class TokenStreams {
+
+  public static final String PLAIN = "plain";
+  public static final String CITED = "cited";
+  public static final String SPLIT = "split";
+  public static final String KOREAN = "korean";
+
+  private static final String[] WORDS = {
+      "서울은", "대한민국의", "수도이며", "인구는", "약", "천만", "명입니다", "검색된", "문서에", "따르면",
+      "the", "capital", "city", "has", "a", "population", "of", "about", "ten", "million", "people",
+  };
+
+  private static final String[] KOREAN_WORDS = {
+      "서울은", "대한민국의", "수도이며", "인구는", "약", "천만", "명입니다", "검색된", "문서에", "따르면",
+      "한강을", "끼고", "있고", "경제와", "문화의", "중심지입니다", "🙂",
+  };
+
+  private TokenStreams() {
+  }
+
+  /**
+   * content 토큰 목록.
+   *
+   * @param scenario {@link #PLAIN}, {@link #CITED}, {@link #SPLIT}, {@link #KOREAN}
+   * @param words    본문 단어 수
+   */
+  public static List<String> tokens(final String scenario, final int words) {
+    final Random random = new Random(42);
+    final boolean cited = !PLAIN.equals(scenario);
+    final String[] dict = KOREAN.equals(scenario) ? KOREAN_WORDS : WORDS;
+    final List<String> tokens = new ArrayList<>(words * 2);
+    int untilCite = 3;
+    for (int i = 0; i < words; i++) {
+      if (cited && --untilCite == 0) {
+        tokens.add("<cite>");
+        tokens.add("<id>");
+        tokens.add("doc-" + random.nextInt(20));
+        tokens.add("</id>");
+        for (int j = 0; j < 3 && i < words; j++, i++) {
+          tokens.add(" " + dict[random.nextInt(dict.length)]);
+        }
+        tokens.add("</cite>");
+        untilCite = 3 + random.nextInt(5);
+      }
+      tokens.add(" " + dict[random.nextInt(dict.length)]);
+    }
+    if (!SPLIT.equals(scenario) && !KOREAN.equals(scenario)) {
+      return tokens;
+    }
+    final String content = String.join("", tokens);
+    final List<String> split = new ArrayList<>(content.length() / 3 + 1);
+    for (int i = 0; i < content.length(); i += 3) {
+      split.add(content.substring(i, Math.min(content.length(), i + 3)));
+    }
+    return split;
+  }
+
+  /**
+   * 토큰마다 content delta chunk 하나.
+   */
+  public static List<ChatCompletionResponse> chunks(final String scenario, final int words) {
+    final List<String> tokens = tokens(scenario, words);
+    final List<ChatCompletionResponse> chunks = new ArrayList<>(tokens.size());
+    for (final String token : tokens) {
+      chunks.add(ChatCompletionResponse.builder()
+          .id("chatcmpl-bench")
+          .object("chat.completion.chunk")
+          .created(1_700_000_000L)
+          .model("bench-model")
+          .choices(List.of(BaseCompletionResponse.Choice.<ResponseMessage>builder()
+              .index(0)
+              .delta(ResponseMessage.builder().content(token).build())
+              .build()))
+          .build());
+    }
+    return chunks;
+  }
+}
@@ -0,0 +1,124 @@
+package me.hanju.enhancedcompletion.payload.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.hanju.enhancedcompletion.assembler.EnhancedCompletionDeltaMapper;
+import me.hanju.enhancedcompletion.assembler.TokenStreams;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.document.IDocument;
+import me.hanju.enhancedcompletion.payload.document.SimpleDocument;
+
+/**
+ * 다음 요청으로 보낼 때의 메시지 직렬화 벤치마크.
+ *
+ * <ul>
+ * <li>{@code getContentWithCitations}: 같은 메시지를 history로 다시 보낼 때 (캐시된 결과)</li>
+ * <li>{@code renderContentWithCitations}: 병합된 응답의 citations를 cite 태그로 처음 되돌릴 때</li>
+ * <li>{@code serializeDocuments}: 첨부 문서 목록을 프롬프트 문자열로 직렬화</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageSerializationBenchmark {
+
+  @Param({ "500" })
+  public int words;
+
+  @Param({ "20" })
+  public int documents;
+
+  private CitedMessage cited;
+  private AttachedMessage attached;
+
+  @Setup
+  public void setUp() {
+    cited = mergedMessage(words);
+    attached = AttachedMessage.builder()
+        .role("user")
+        .content("검색된 문서를 참고해서 답변해주세요.")
+        .documents(documents(documents))
+        .build();
+  }
+
+  @Benchmark
+  public String getContentWithCitations() {
+    return cited.getContentWithCitations();
+  }
+
+  @Benchmark
+  public String renderContentWithCitations() {
+    // 캐시가 비어 있는 복사본 (복사 비용은 필드 몇 개)
+    return cited.toBuilder().build().getContentWithCitations();
+  }
+
+  @Benchmark
+  public String serializeDocuments() {
+    return attached.serializeDocuments();
+  }
+
+  /**
+   * cite가 많은 응답을 mapper로 변환한 뒤 content와 citations를 합친 메시지.
+   */
+  private static CitedMessage mergedMessage(final int words) {
+    final EnhancedCompletionDeltaMapper mapper = new EnhancedCompletionDeltaMapper();
+    final List<EnhancedCompletionResponse> deltas = new ArrayList<>();
+    for (final ChatCompletionResponse chunk : TokenStreams.chunks(TokenStreams.CITED, words)) {
+      deltas.addAll(mapper.map(chunk));
+    }
+    deltas.addAll(mapper.flush());
+
+    final StringBuilder content = new StringBuilder();
+    final List<Citation> citations = new ArrayList<>();
+    for (final EnhancedCompletionResponse delta : deltas) {
+      final CitedMessage message = delta.getChoices().get(0).getDelta();
+      if (message.getContent() != null) {
+        content.append(message.getContent());
+      }
+      if (message.getCitations() != null) {
+        citations.addAll(message.getCitations());
+      }
+    }
+    return CitedMessage.builder()
+        .role("assistant")
+        .content(content.toString())
+        .citations(citations)
+        .build();
+  }
+
+  private static List<IDocument> documents(final int count) {
+    final Random random = new Random(42);
+    final List<IDocument> documents = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final StringBuilder content = new StringBuilder();
+      for (int j = 0; j < 200; j++) {
+        content.append(random.nextBoolean() ? "서울 " : "capital ");
+      }
+      documents.add(SimpleDocument.builder()
+          .id("doc-" + i)
+          .title("문서 " + i)
+          .content(content.toString())
+          .build());
+    }
+    return documents;
+  }
+}
@@ -0,0 +1,133 @@
+package me.hanju.enhancedcompletion.tokenizer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BpeTokenizer 처리량 벤치마크.
+ * 입력 corpus가 정확히 1 MiB(UTF-8)이므로 점수(ops/s)가 곧 MiB/s입니다.
+ *
+ * <p>
+ * 실제 어휘로 측정하려면 {@code rankFile} 파라미터에 tiktoken rank 파일 경로를 지정합니다.
+ * 지정하지 않으면 corpus에서 만든 합성 어휘(단어 prefix 집합)를 사용합니다.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BpeTokenizerBenchmark {
+
+  private static final int CORPUS_BYTES = 1 << 20;
+
+  private static final String[] WORDS = {
+      "the", "streaming", "completion", "client", "parses", "citation", "tags", "while", "tokens",
+      "arrive", "from", "server", "retrieval", "augmented", "generation", "document", "answer",
+      "서울은", "대한민국의", "수도입니다", "인용", "문서", "검색", "결과를", "참고하여", "답변합니다",
+      "function", "return", "null", "List<String>", "{\"id\":", "42", "2024", "3.14", "---"
+  };
+
+  private static final String[] SEPARATORS = { " ", " ", " ", ", ", ". ", "\n", "\n\n", "  " };
+
+  @Param({ "" })
+  public String rankFile;
+
+  private BpeTokenizer tokenizer;
+  private String corpus;
+
+  @Setup
+  public void setUp() {
+    corpus = buildCorpus();
+    tokenizer = rankFile.isEmpty()
+        ? syntheticTokenizer(corpus)
+        : BpeTokenizer.load(Path.of(rankFile));
+  }
+
+  @Benchmark
+  public int countTokens() {
+    return tokenizer.countTokens(corpus);
+  }
+
+  @Benchmark
+  public int[] encode() {
+    return tokenizer.encode(corpus);
+  }
+
+  private static String buildCorpus() {
+    final Random random = new Random(42);
+    final StringBuilder sb = new StringBuilder(CORPUS_BYTES);
+    int bytes = 0;
+    while (true) {
+      final String word = WORDS[random.nextInt(WORDS.length)];
+      final String separator = SEPARATORS[random.nextInt(SEPARATORS.length)];
+      final int wordBytes = word.getBytes(StandardCharsets.UTF_8).length + separator.length();
+      if (bytes + wordBytes > CORPUS_BYTES) {
+        break;
+      }
+      sb.append(word).append(separator);
+      bytes += wordBytes;
+    }
+    // ASCII로 정확히 1 MiB를 맞춤
+    while (bytes < CORPUS_BYTES) {
+      sb.append('x');
+      bytes++;
+    }
+    return sb.toString();
+  }
+
+  /**
+   * corpus의 모든 조각에 대해 바이트 prefix를 어휘로 등록한 합성 토크나이저.
+   * prefix가 모두 존재하므로 BPE 병합이 실제 어휘와 비슷한 깊이로 일어납니다.
+   */
+  private static BpeTokenizer syntheticTokenizer(final String corpus) {
+    final Set<String> tokens = new LinkedHashSet<>();
+    final Base64.Encoder encoder = Base64.getEncoder();
+    final StringBuilder file = new StringBuilder();
+    for (int b = 0; b < 256; b++) {
+      file.append(encoder.encodeToString(new byte[] { (byte) b })).append(' ').append(b).append('\n');
+    }
+
+    int pos = 0;
+    while (pos < corpus.length()) {
+      final int end = PreTokenizer.next(corpus, pos);
+      if (end - pos <= 32) {
+        tokens.add(corpus.substring(pos, end));
+      }
+      pos = end;
+    }
+
+    final Set<String> prefixes = new LinkedHashSet<>();
+    for (final String token : tokens) {
+      final byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+      for (int length = 2; length <= bytes.length; length++) {
+        prefixes.add(encoder.encodeToString(Arrays.copyOf(bytes, length)));
+      }
+    }
+    int rank = 256;
+    for (final String prefix : prefixes) {
+      file.append(prefix).append(' ').append(rank++).append('\n');
+    }
+    return BpeTokenizer.load(new ByteArrayInputStream(file.toString().getBytes(StandardCharsets.US_ASCII)));
+  }
+}
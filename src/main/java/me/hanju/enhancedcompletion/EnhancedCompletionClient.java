@@ -1,7 +1,12 @@
 package me.hanju.enhancedcompletion;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.springframework.http.MediaType;
@@ -9,42 +14,199 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import me.hanju.enhancedcompletion.assembler.AugmentResultDeltaMapper;
+import me.hanju.enhancedcompletion.assembler.DocumentIndex;
 import me.hanju.enhancedcompletion.assembler.EnhancedCompletionDeltaMapper;
+import me.hanju.enhancedcompletion.assembler.EnhancedCompletionStreamHandle;
+import me.hanju.enhancedcompletion.codec.CompletionRequestWriter;
+import me.hanju.enhancedcompletion.codec.StreamInterner;
+import me.hanju.enhancedcompletion.endpoint.BalancingStrategy;
+import me.hanju.enhancedcompletion.endpoint.Endpoint;
+import me.hanju.enhancedcompletion.endpoint.EndpointPool;
+import me.hanju.enhancedcompletion.endpoint.HedgePolicy;
 import me.hanju.enhancedcompletion.exception.EnhancedCompletionClientException;
+import me.hanju.enhancedcompletion.limit.AdaptiveConcurrencyLimiter;
+import me.hanju.enhancedcompletion.limit.FairWaitQueue;
+import me.hanju.enhancedcompletion.limit.FifoWaitQueue;
+import me.hanju.enhancedcompletion.limit.TokenRateLimiter;
+import me.hanju.enhancedcompletion.limit.WaitQueue;
 import me.hanju.enhancedcompletion.spi.augment.AugmentResult;
 import me.hanju.enhancedcompletion.spi.augment.Augmenter;
+import me.hanju.enhancedcompletion.spi.observe.AugmentObservations;
+import me.hanju.enhancedcompletion.spi.observe.CompletionObserver;
+import me.hanju.enhancedcompletion.spi.observe.ExchangeObservation;
+import me.hanju.enhancedcompletion.spi.observe.StreamObservation;
 import me.hanju.enhancedcompletion.payload.completion.ChatCompletionRequest;
 import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
 import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
 import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
-import me.hanju.enhancedcompletion.payload.document.IDocument;
-import me.hanju.enhancedcompletion.payload.message.AttachedMessage;
-import me.hanju.enhancedcompletion.payload.message.IMessageable;
+import me.hanju.enhancedcompletion.prompt.DocumentInjector;
+import me.hanju.enhancedcompletion.resilience.ResumableStream;
+import me.hanju.enhancedcompletion.resilience.RetryPolicy;
+import me.hanju.enhancedcompletion.tokenizer.BpeTokenizer;
+import me.hanju.enhancedcompletion.tokenizer.TokenCounter;
+import me.hanju.enhancedcompletion.transport.CompletionTransport;
+import me.hanju.enhancedcompletion.transport.SseRecorder;
 import me.hanju.fluxhandle.FluxListener;
 import me.hanju.fluxhandle.StreamHandle;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 /**
- * LLM Chat Completion API에 대한 커스텀 가능 확장 클라이언트
+ * LLM Chat Completion API에 대한 커스텀 가능 확장 클라이언트.
+ * {@code sseRecordFile}로 녹화 중이면 {@link #close()}로 녹화 파일을 닫아야 합니다.
  */
-public class EnhancedCompletionClient {
+public class EnhancedCompletionClient implements AutoCloseable {
 
   private static final Predicate<String> SSE_DONE = "[DONE]"::equals;
 
   private final WebClient client;
   private final ObjectMapper objectMapper;
+  private final ObjectReader chunkReader;
   private final EnhancedCompletionProperties properties;
+  private final CompletionRequestWriter requestWriter;
+  private final DocumentInjector documentInjector;
+  private final EndpointPool endpointPool;
+  private final HedgePolicy hedgePolicy;
+  private final RetryPolicy retryPolicy;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private final TokenRateLimiter rateLimiter;
+  private final CompletionObserver observer;
+  private final CompletionTransport transport;
+  private final SseRecorder recorder;
 
   public EnhancedCompletionClient(
       final WebClient.Builder clientBuilder,
       final ObjectMapper objectMapper,
       final EnhancedCompletionProperties properties) {
+    this(clientBuilder, objectMapper, properties, CompletionObserver.NOOP);
+  }
+
+  /**
+   * @param observer 스트리밍 단계별 이벤트를 받을 observer (메트릭, 트레이싱 등)
+   */
+  public EnhancedCompletionClient(
+      final WebClient.Builder clientBuilder,
+      final ObjectMapper objectMapper,
+      final EnhancedCompletionProperties properties,
+      final CompletionObserver observer) {
+    this(clientBuilder, objectMapper, properties, observer, null);
+  }
+
+  /**
+   * @param observer  스트리밍 단계별 이벤트를 받을 observer (메트릭, 트레이싱 등)
+   * @param transport SSE 스트림을 받을 transport (녹화 재생 등). null이면 WebClient로 endpoint에 요청
+   */
+  public EnhancedCompletionClient(
+      final WebClient.Builder clientBuilder,
+      final ObjectMapper objectMapper,
+      final EnhancedCompletionProperties properties,
+      final CompletionObserver observer,
+      final CompletionTransport transport) {
+    this.observer = observer != null ? observer : CompletionObserver.NOOP;
+    this.transport = transport;
+    this.recorder = properties.getSseRecordFile() != null
+        ? new SseRecorder(Path.of(properties.getSseRecordFile()))
+        : null;
     this.client = clientBuilder.build();
     this.objectMapper = objectMapper;
+    this.chunkReader = objectMapper.readerFor(ChatCompletionResponse.class);
     this.properties = properties;
+    this.requestWriter = new CompletionRequestWriter(objectMapper);
+    this.documentInjector = new DocumentInjector(
+        properties.getDocumentPlacement(),
+        properties.getDocumentRole(),
+        properties.isSortDocumentsById());
+    this.endpointPool = createEndpointPool(properties);
+    this.hedgePolicy = properties.isHedgingEnabled() && endpointPool.getEndpoints().size() > 1
+        ? new HedgePolicy(properties.getHedgePercentile(), properties.getHedgeMinDelay(), properties.getHedgeMaxDelay())
+        : null;
+    this.retryPolicy = properties.getMaxRetries() > 0
+        ? new RetryPolicy(properties.getMaxRetries(), properties.getRetryMinBackoff(),
+            properties.getRetryMaxBackoff(), properties.isResumeInterruptedStreams())
+        : null;
+    this.concurrencyLimiter = properties.isConcurrencyLimitEnabled()
+        ? new AdaptiveConcurrencyLimiter(properties.getInitialConcurrency(), properties.getMinConcurrency(),
+            properties.getMaxConcurrency(), properties.getMaxQueueSize(), properties.getMaxQueueWait(),
+            createWaitQueue(properties))
+        : null;
+    this.rateLimiter = properties.getRequestsPerMinute() > 0 || properties.getTokensPerMinute() > 0
+        ? new TokenRateLimiter(properties.getRequestsPerMinute(), properties.getTokensPerMinute(),
+            properties.getRateLimitMaxWait(), createTokenCounter(properties))
+        : null;
+  }
+
+  private static TokenCounter createTokenCounter(final EnhancedCompletionProperties properties) {
+    return properties.getTokenizerRankFile() != null
+        ? new TokenCounter(BpeTokenizer.load(Path.of(properties.getTokenizerRankFile())))
+        : null;
+  }
+
+  private static EndpointPool createEndpointPool(final EnhancedCompletionProperties properties) {
+    final List<Endpoint> endpoints = new ArrayList<>();
+    if (properties.getEndpoints() != null) {
+      for (final String baseUrl : properties.getEndpoints()) {
+        endpoints.add(new Endpoint(baseUrl));
+      }
+    }
+    if (endpoints.isEmpty() && properties.getBaseUrl() != null) {
+      endpoints.add(new Endpoint(properties.getBaseUrl()));
+    }
+    final BalancingStrategy strategy = properties.getBalancingStrategy() != null
+        ? properties.getBalancingStrategy()
+        : BalancingStrategy.ROUND_ROBIN;
+    return new EndpointPool(
+        endpoints,
+        strategy.createSelector(),
+        properties.getEjectionThreshold(),
+        properties.getEjectionDuration());
+  }
+
+  private static WaitQueue createWaitQueue(final EnhancedCompletionProperties properties) {
+    return properties.isFairQueueingEnabled()
+        ? new FairWaitQueue(properties.getTenantWeights(), properties.getInteractiveWeight(), properties.getBatchWeight())
+        : new FifoWaitQueue();
+  }
+
+  /**
+   * endpoint 목록과 관측 상태.
+   */
+  public EndpointPool getEndpointPool() {
+    return endpointPool;
+  }
+
+  /**
+   * 동시성 limiter. 비활성화되어 있으면 null.
+   */
+  public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+    return concurrencyLimiter;
+  }
+
+  /**
+   * RPM/TPM rate limiter. 비활성화되어 있으면 null.
+   */
+  public TokenRateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  /**
+   * SSE 녹화기. 녹화하지 않으면 null.
+   */
+  public SseRecorder getRecorder() {
+    return recorder;
+  }
+
+  /**
+   * 녹화 중이면 녹화 파일과 압축기를 닫습니다. 이후 요청은 녹화되지 않습니다.
+   */
+  @Override
+  public void close() {
+    if (recorder != null) {
+      recorder.close();
+    }
   }
 
   /**
@@ -54,22 +216,50 @@ public class EnhancedCompletionClient {
    *
    * @param request        요청 정보
    * @param outputListener 토큰 단위 delta를 수신할 리스너
-   * @return StreamHandle
+   * @return StreamHandle. get()은 항상 그때까지 받은 content 전체를 담습니다 (취소한 뒤에도)
    */
   public StreamHandle<EnhancedCompletionResponse> stream(
       final EnhancedCompletionRequest request,
       final FluxListener<EnhancedCompletionResponse> outputListener) {
+    // 호출자가 StreamHandle을 직접 취소할 수 있으므로 content를 delta마다 병합 (취소 뒤 get()에도 남도록)
+    return stream(request, outputListener, EnhancedCompletionStreamHandle::retainingContent).asStreamHandle();
+  }
 
-    final StreamHandle<EnhancedCompletionResponse> handle = new StreamHandle<>(
-        EnhancedCompletionResponse.class,
-        outputListener);
+  /**
+   * {@link #stream}과 같되, content/reasoning이 {@code contentSpillThreshold}를 넘으면 임시 파일로 옮기는 handle을 반환합니다.
+   * 옮겨진 뒤에는 handle의 {@code get()}이 실패하므로 {@code getContent()}, {@code openContentReader()},
+   * {@code getWithContent()}로 읽고, 다 읽은 뒤 {@code close()}로 임시 파일을 지웁니다.
+   *
+   * @param request        요청 정보
+   * @param outputListener 토큰 단위 delta를 수신할 리스너
+   */
+  public EnhancedCompletionStreamHandle streamSpillable(
+      final EnhancedCompletionRequest request,
+      final FluxListener<EnhancedCompletionResponse> outputListener) {
+    final Path spillDirectory = properties.getContentSpillDirectory() != null
+        ? Path.of(properties.getContentSpillDirectory())
+        : null;
+    // content/reasoning은 rope에 모았다가 get()에서 한 번만 String으로 만듦 (긴 출력의 반복 복사 방지)
+    return stream(request, outputListener, listener -> new EnhancedCompletionStreamHandle(
+        listener, properties.getContentSpillThreshold(), spillDirectory));
+  }
+
+  private EnhancedCompletionStreamHandle stream(
+      final EnhancedCompletionRequest request,
+      final FluxListener<EnhancedCompletionResponse> outputListener,
+      final Function<FluxListener<EnhancedCompletionResponse>, EnhancedCompletionStreamHandle> handleFactory) {
+
+    final StreamObservation observation = observer.start(request);
+    final EnhancedCompletionStreamHandle handle = handleFactory.apply(
+        observation == StreamObservation.NOOP ? outputListener : new ObservedListener(outputListener, observation));
 
     final Augmenter augmenter = request.getAugmenter();
 
     // Augmenter가 없으면 completion만 subscribe
     if (augmenter == null) {
-      final EnhancedCompletionDeltaMapper mapper = new EnhancedCompletionDeltaMapper();
-      handle.subscribe(createCompletionFlux(request), mapper);
+      final EnhancedCompletionDeltaMapper mapper = new EnhancedCompletionDeltaMapper(
+          observation, DocumentIndex.of(request.getMessages()), properties.getCitationOffsetUnit());
+      handle.subscribe(createCompletionFlux(request, observation), mapper);
       return handle;
     }
 
@@ -99,39 +289,173 @@ public class EnhancedCompletionClient {
             handle.cancel();
           }
         });
-    augmentHandle.subscribe(augmenter.augment(chatRequest), augmentMapper);
+    observation.augmentStarted(augmenter.getName(), null);
+    Flux<AugmentResult> augmentResults = augmenter.augment(chatRequest);
+    if (observation != StreamObservation.NOOP) {
+      // composite Augmenter가 AugmentObservations로 하위 Augmenter를 관측할 수 있도록 전달
+      augmentResults = augmentResults.contextWrite(AugmentObservations.context(observation, augmenter.getName()));
+    }
+    augmentHandle.subscribe(augmentResults, augmentMapper);
 
     // RAG 완료 대기 후 Completion 시작 (비동기)
     Schedulers.boundedElastic().schedule(() -> {
       final EnhancedCompletionResponse merged = augmentHandle.get();
       final AugmentResult augmentResult = merged != null ? merged.getAugmentResult() : null;
-      final EnhancedCompletionRequest augmentedRequest = applyAugmentResult(request, augmentResult);
-
-      final EnhancedCompletionDeltaMapper completionMapper = new EnhancedCompletionDeltaMapper();
-      handle.subscribe(createCompletionFlux(augmentedRequest), completionMapper);
+      observation.augmentFinished(augmenter.getName(),
+          augmentResult != null && augmentResult.getDocuments() != null ? augmentResult.getDocuments().size() : 0,
+          augmentHandle.getError());
+      final EnhancedCompletionRequest augmentedRequest = augmentResult != null
+          ? documentInjector.inject(request, augmentResult.getDocuments())
+          : request;
+
+      // 주입된 문서(사용자 첨부 포함)로 cite id를 매칭할 색인을 만듦
+      final EnhancedCompletionDeltaMapper completionMapper = new EnhancedCompletionDeltaMapper(
+          observation, DocumentIndex.of(augmentedRequest.getMessages()), properties.getCitationOffsetUnit());
+      handle.subscribe(createCompletionFlux(augmentedRequest, observation), completionMapper);
     });
 
     return handle;
   }
 
-  private Flux<ChatCompletionResponse> createCompletionFlux(final EnhancedCompletionRequest request) {
+  private Flux<ChatCompletionResponse> createCompletionFlux(
+      final EnhancedCompletionRequest request,
+      final StreamObservation observation) {
+    // 재시도/이어받기 시도마다 rate limit을 다시 예약하여 Retry-After를 지키고 보낸 시도마다 차감
+    final Function<EnhancedCompletionRequest, Flux<ChatCompletionResponse>> attempt = rateLimiter == null
+        ? next -> attempt(next, observation)
+        : next -> rateLimiter.limitAttempt(next, attempt(next, observation));
+    Flux<ChatCompletionResponse> responses = retryPolicy == null
+        ? attempt.apply(request)
+        : ResumableStream.of(request, attempt, retryPolicy);
+    if (concurrencyLimiter != null) {
+      // 재시도까지 permit 하나로 처리하여 재시도가 대기열을 다시 거치지 않도록 함
+      responses = concurrencyLimiter.limit(responses, request.getTenantKey(), request.getPriority());
+    }
+    if (rateLimiter != null) {
+      // 예약이 늦어지는 동안 동시성 permit을 잡고 있지 않도록 바깥에서 먼저 예약
+      responses = rateLimiter.limit(request, responses);
+    }
+    if (observation != StreamObservation.NOOP) {
+      responses = responses
+          .doOnNext(observation::chunkReceived)
+          .doOnComplete(observation::completed)
+          .doOnError(observation::failed)
+          .doOnCancel(observation::cancelled);
+    }
+    return responses.publishOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * 요청 한 번 (hedging 포함). 재시도 시 다시 호출됩니다.
+   */
+  private Flux<ChatCompletionResponse> attempt(
+      final EnhancedCompletionRequest request,
+      final StreamObservation observation) {
+    final Flux<String> exchanged;
+    if (transport != null) {
+      exchanged = Flux.defer(() -> transport.exchange(request));
+    } else if (hedgePolicy == null) {
+      exchanged = Flux.defer(() -> exchange(endpointPool.select(), request, observation, null));
+    } else {
+      exchanged = Flux.defer(() -> hedged(request, observation));
+    }
+    final Flux<String> data = recorder != null ? recorder.record(exchanged) : exchanged;
+    // 시도(구독)마다 새 intern 표: chunk마다 반복되는 id/object/model/created를 한 인스턴스로 공유
+    return Flux.defer(() -> {
+      final ObjectReader reader = chunkReader();
+      if (observation == StreamObservation.NOOP) {
+        return data.map(json -> parse(reader, json));
+      }
+      return data.map(json -> {
+        final long startNanos = System.nanoTime();
+        final ChatCompletionResponse response = parse(reader, json);
+        observation.chunkParsed(System.nanoTime() - startNanos, json.length());
+        return response;
+      });
+    });
+  }
+
+  /**
+   * Hedged request.
+   * 지연 시간 안에 첫 chunk가 오지 않으면 다른 endpoint로 같은 요청을 보내고,
+   * 먼저 chunk를 낸 스트림만 사용합니다. 진 스트림은 취소되며, 지연 전에 첫 chunk가 오면 hedge는 보내지 않습니다.
+   */
+  private Flux<String> hedged(final EnhancedCompletionRequest request, final StreamObservation observation) {
+    final Endpoint primary = endpointPool.select();
+    final AtomicBoolean won = new AtomicBoolean();
+    final Flux<String> hedge = Mono.delay(hedgePolicy.delay(endpointPool.getTtftWindow()))
+        .flatMapMany(tick -> exchange(endpointPool.select(primary), request, observation, won));
+    return Flux.firstWithValue(exchange(primary, request, observation, won), hedge);
+  }
+
+  /**
+   * endpoint 하나로 요청을 보내고 SSE data 문자열을 반환합니다.
+   * 진행 중 스트림 수, TTFT, 성공/실패를 endpoint에 기록합니다.
+   *
+   * @param hedgeWon hedge 경쟁 중이면 어느 쪽이든 첫 chunk를 받았는지 공유하는 플래그, 아니면 null.
+   *                 첫 chunk 전 취소는 상대가 이긴 경우에만 TTFT 하한으로 기록합니다 (사용자 취소, 타임아웃 제외).
+   */
+  private Flux<String> exchange(
+      final Endpoint endpoint,
+      final EnhancedCompletionRequest request,
+      final StreamObservation observation,
+      final AtomicBoolean hedgeWon) {
     final String apiKey = properties.getApiKey();
+    final String url = endpoint.getBaseUrl() + "/v1/chat/completions";
+    final Map<String, String> observedHeaders = new LinkedHashMap<>();
+    final ExchangeObservation exchangeObservation = observation.exchangeStarted(url, observedHeaders::put);
+    final long startNanos = System.nanoTime();
+    final AtomicBoolean firstReceived = new AtomicBoolean();
+    endpointPool.onStart(endpoint);
     return client.post()
-        .uri(properties.getBaseUrl() + "/v1/chat/completions")
+        .uri(url)
         .accept(MediaType.TEXT_EVENT_STREAM)
         .headers(headers -> {
           headers.setContentType(MediaType.APPLICATION_JSON);
           if (apiKey != null && !apiKey.isBlank()) {
             headers.setBearerAuth(apiKey);
           }
+          observedHeaders.forEach(headers::set);
+        })
+        .body(requestWriter.inserter(request, true))
+        .exchangeToFlux(response -> {
+          if (rateLimiter != null) {
+            rateLimiter.onResponseHeaders(response.headers().asHttpHeaders()::getFirst);
+          }
+          observation.responseReceived(response.statusCode().value());
+          exchangeObservation.responseReceived(response.statusCode().value());
+          return response.statusCode().isError()
+              ? response.<String>createError().flux()
+              : response.bodyToFlux(String.class);
         })
-        .bodyValue(toRequest(request, true))
-        .retrieve()
-        .bodyToFlux(String.class)
         .takeUntil(SSE_DONE)
+        .doOnNext(data -> {
+          if (firstReceived.compareAndSet(false, true)) {
+            if (hedgeWon != null) {
+              hedgeWon.set(true);
+            }
+            endpointPool.onFirstToken(endpoint, System.nanoTime() - startNanos);
+          }
+        })
         .filter(SSE_DONE.negate())
-        .map(this::parse)
-        .publishOn(Schedulers.boundedElastic());
+        // 종료 신호가 하류로 전달되기 전에 기록하여 handle.get() 이후의 endpoint 상태가 일관되도록 함
+        .doOnComplete(() -> {
+          endpointPool.onSuccess(endpoint);
+          endpointPool.onFinish(endpoint);
+          exchangeObservation.finished(null);
+        })
+        .doOnError(e -> {
+          endpointPool.onError(endpoint, e);
+          endpointPool.onFinish(endpoint);
+          exchangeObservation.finished(e);
+        })
+        .doOnCancel(() -> {
+          if (hedgeWon != null && hedgeWon.get() && !firstReceived.get()) {
+            endpointPool.onAbandoned(endpoint, System.nanoTime() - startNanos);
+          }
+          endpointPool.onFinish(endpoint);
+          exchangeObservation.finished(null);
+        });
   }
 
   /**
@@ -142,7 +466,8 @@ public class EnhancedCompletionClient {
    * @return 완성된 응답
    */
   public EnhancedCompletionResponse complete(final EnhancedCompletionRequest request) {
-    final StreamHandle<EnhancedCompletionResponse> handle = stream(request, new FluxListener<>() {
+    // handle을 밖에 내주지 않아 취소될 일이 없으므로 content를 rope에 모아 끝에 한 번만 병합
+    final EnhancedCompletionStreamHandle handle = stream(request, new FluxListener<>() {
       @Override
       public void onNext(EnhancedCompletionResponse delta) {
       }
@@ -158,71 +483,65 @@ public class EnhancedCompletionClient {
       @Override
       public void onCancel() {
       }
-    });
+    }, EnhancedCompletionStreamHandle::new);
 
     return handle.get();
   }
 
-  private ChatCompletionRequest toRequest(final EnhancedCompletionRequest request, final boolean stream) {
-    return request.toChatCompletionRequest().toBuilder()
-        .stream(stream)
-        .build();
-  }
-
-  private ChatCompletionResponse parse(final String json) {
-    try {
-      return objectMapper.readValue(json, ChatCompletionResponse.class);
-    } catch (JsonProcessingException e) {
-      throw new EnhancedCompletionClientException("Failed to parse response", e);
-    }
-  }
-
   /**
-   * RAG 결과를 요청에 적용합니다.
-   * documents를 마지막 user message에 주입합니다.
+   * 리스너로 전달된 delta 수를 세어 병합 완료 시 observation에 알리는 리스너.
    */
-  private EnhancedCompletionRequest applyAugmentResult(
-      final EnhancedCompletionRequest request,
-      final AugmentResult augmentResult) {
-
-    if (augmentResult == null || augmentResult.getDocuments() == null
-        || augmentResult.getDocuments().isEmpty()) {
-      return request;
+  private static final class ObservedListener implements FluxListener<EnhancedCompletionResponse> {
+    private final FluxListener<EnhancedCompletionResponse> delegate;
+    private final StreamObservation observation;
+    private int deltas;
+
+    ObservedListener(final FluxListener<EnhancedCompletionResponse> delegate, final StreamObservation observation) {
+      this.delegate = delegate;
+      this.observation = observation;
     }
 
-    final List<IMessageable> messages = request.getMessages();
-    if (messages == null || messages.isEmpty()) {
-      return request;
+    @Override
+    public void onNext(final EnhancedCompletionResponse delta) {
+      deltas++;
+      delegate.onNext(delta);
     }
 
-    // 마지막 user message를 찾아서 documents 주입
-    final List<IMessageable> newMessages = new ArrayList<>(messages.size());
-    int lastUserIndex = -1;
+    @Override
+    public void onComplete() {
+      observation.mergeCompleted(deltas);
+      delegate.onComplete();
+    }
 
-    for (int i = messages.size() - 1; i >= 0; i--) {
-      if ("user".equals(messages.get(i).getRole())) {
-        lastUserIndex = i;
-        break;
-      }
+    @Override
+    public void onError(final Throwable e) {
+      delegate.onError(e);
     }
 
-    for (int i = 0; i < messages.size(); i++) {
-      if (i == lastUserIndex) {
-        final IMessageable original = messages.get(i);
-        final List<IDocument> docs = new ArrayList<>(augmentResult.getDocuments());
-        final AttachedMessage attached = AttachedMessage.builder()
-            .role(original.getRole())
-            .content(original.getContent())
-            .documents(docs)
-            .build();
-        newMessages.add(attached);
-      } else {
-        newMessages.add(messages.get(i));
-      }
+    @Override
+    public void onCancel() {
+      delegate.onCancel();
     }
+  }
+
+  /**
+   * 스트림 하나의 chunk를 파싱할 reader. 스트림마다 새 {@link StreamInterner}를 붙입니다.
+   * 벤치마크에서 직접 호출하므로 package-private입니다.
+   */
+  ObjectReader chunkReader() {
+    return chunkReader.withAttribute(StreamInterner.ATTRIBUTE, new StreamInterner());
+  }
 
-    return request.toBuilder()
-        .messages(newMessages)
-        .build();
+  /**
+   * SSE data 하나를 chunk로 파싱합니다. 벤치마크에서 직접 호출하므로 package-private입니다.
+   *
+   * @param reader {@link #chunkReader()}로 만든 스트림별 reader
+   */
+  ChatCompletionResponse parse(final ObjectReader reader, final String json) {
+    try {
+      return reader.readValue(json);
+    } catch (JsonProcessingException e) {
+      throw new EnhancedCompletionClientException("Failed to parse response", e);
+    }
   }
 }
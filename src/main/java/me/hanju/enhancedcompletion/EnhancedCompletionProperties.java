@@ -1,9 +1,54 @@
 package me.hanju.enhancedcompletion;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.hanju.enhancedcompletion.assembler.CitationOffsetUnit;
+import me.hanju.enhancedcompletion.endpoint.BalancingStrategy;
+import me.hanju.enhancedcompletion.endpoint.EndpointPool;
+import me.hanju.enhancedcompletion.limit.FairWaitQueue;
+import me.hanju.enhancedcompletion.prompt.DocumentPlacement;
+
 public class EnhancedCompletionProperties {
 
   private String baseUrl;
   private String apiKey;
+  private List<String> endpoints = new ArrayList<>();
+  private BalancingStrategy balancingStrategy = BalancingStrategy.ROUND_ROBIN;
+  private int ejectionThreshold = EndpointPool.DEFAULT_EJECTION_THRESHOLD;
+  private Duration ejectionDuration = EndpointPool.DEFAULT_EJECTION_DURATION;
+  private int maxRetries = 0;
+  private Duration retryMinBackoff = Duration.ofMillis(200);
+  private Duration retryMaxBackoff = Duration.ofSeconds(5);
+  private boolean resumeInterruptedStreams = false;
+  private boolean concurrencyLimitEnabled = false;
+  private int initialConcurrency = 16;
+  private int minConcurrency = 1;
+  private int maxConcurrency = 128;
+  private int maxQueueSize = 256;
+  private Duration maxQueueWait = Duration.ofSeconds(5);
+  private boolean fairQueueingEnabled = false;
+  private long requestsPerMinute = 0;
+  private long tokensPerMinute = 0;
+  private Duration rateLimitMaxWait = Duration.ofSeconds(10);
+  private String tokenizerRankFile;
+  private String sseRecordFile;
+  private int contentSpillThreshold = 0;
+  private String contentSpillDirectory;
+  private CitationOffsetUnit citationOffsetUnit = CitationOffsetUnit.UTF_16;
+  private Map<String, Integer> tenantWeights = new HashMap<>();
+  private int interactiveWeight = FairWaitQueue.DEFAULT_INTERACTIVE_WEIGHT;
+  private int batchWeight = FairWaitQueue.DEFAULT_BATCH_WEIGHT;
+  private boolean hedgingEnabled = false;
+  private double hedgePercentile = 0.95;
+  private Duration hedgeMinDelay = Duration.ofMillis(50);
+  private Duration hedgeMaxDelay = Duration.ofSeconds(2);
+  private DocumentPlacement documentPlacement = DocumentPlacement.LAST_USER_MESSAGE;
+  private String documentRole = "user";
+  private boolean sortDocumentsById = false;
 
   public EnhancedCompletionProperties() {
   }
@@ -31,4 +76,357 @@ public class EnhancedCompletionProperties {
   public void setApiKey(final String apiKey) {
     this.apiKey = apiKey;
   }
+
+  public List<String> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * 여러 추론 백엔드의 base URL 목록. 비어 있으면 {@code baseUrl} 하나를 사용합니다.
+   */
+  public void setEndpoints(final List<String> endpoints) {
+    this.endpoints = endpoints;
+  }
+
+  public BalancingStrategy getBalancingStrategy() {
+    return balancingStrategy;
+  }
+
+  /**
+   * endpoint 분산 전략. 기본값은 {@link BalancingStrategy#ROUND_ROBIN}입니다.
+   */
+  public void setBalancingStrategy(final BalancingStrategy balancingStrategy) {
+    this.balancingStrategy = balancingStrategy;
+  }
+
+  public int getEjectionThreshold() {
+    return ejectionThreshold;
+  }
+
+  /**
+   * 이 횟수만큼 연속으로 실패한 endpoint를 일시적으로 제외합니다.
+   */
+  public void setEjectionThreshold(final int ejectionThreshold) {
+    this.ejectionThreshold = ejectionThreshold;
+  }
+
+  public Duration getEjectionDuration() {
+    return ejectionDuration;
+  }
+
+  /**
+   * 제외된 endpoint가 다시 후보가 되기까지의 시간.
+   */
+  public void setEjectionDuration(final Duration ejectionDuration) {
+    this.ejectionDuration = ejectionDuration;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * 연결 오류, 5xx/429, 스트림 끊김 시 최대 재시도 횟수. 0이면 재시도하지 않습니다 (기본값).
+   */
+  public void setMaxRetries(final int maxRetries) {
+    this.maxRetries = maxRetries;
+  }
+
+  public Duration getRetryMinBackoff() {
+    return retryMinBackoff;
+  }
+
+  public void setRetryMinBackoff(final Duration retryMinBackoff) {
+    this.retryMinBackoff = retryMinBackoff;
+  }
+
+  public Duration getRetryMaxBackoff() {
+    return retryMaxBackoff;
+  }
+
+  public void setRetryMaxBackoff(final Duration retryMaxBackoff) {
+    this.retryMaxBackoff = retryMaxBackoff;
+  }
+
+  public boolean isResumeInterruptedStreams() {
+    return resumeInterruptedStreams;
+  }
+
+  /**
+   * true이면 스트림 도중 끊겼을 때 생성된 content를 prefill로 보내 이어서 생성합니다.
+   * 서버가 vLLM의 {@code continue_final_message}를 지원해야 합니다.
+   */
+  public void setResumeInterruptedStreams(final boolean resumeInterruptedStreams) {
+    this.resumeInterruptedStreams = resumeInterruptedStreams;
+  }
+
+  public boolean isConcurrencyLimitEnabled() {
+    return concurrencyLimitEnabled;
+  }
+
+  /**
+   * true이면 TTFT와 오류로 동시 스트림 수 한도를 조절하고, 넘치는 요청은 대기열에서 기다리게 합니다.
+   */
+  public void setConcurrencyLimitEnabled(final boolean concurrencyLimitEnabled) {
+    this.concurrencyLimitEnabled = concurrencyLimitEnabled;
+  }
+
+  public int getInitialConcurrency() {
+    return initialConcurrency;
+  }
+
+  public void setInitialConcurrency(final int initialConcurrency) {
+    this.initialConcurrency = initialConcurrency;
+  }
+
+  public int getMinConcurrency() {
+    return minConcurrency;
+  }
+
+  public void setMinConcurrency(final int minConcurrency) {
+    this.minConcurrency = minConcurrency;
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  public void setMaxConcurrency(final int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * 동시성 한도를 넘은 요청의 대기열 최대 길이. 가득 차면 즉시 거절합니다.
+   */
+  public void setMaxQueueSize(final int maxQueueSize) {
+    this.maxQueueSize = maxQueueSize;
+  }
+
+  public Duration getMaxQueueWait() {
+    return maxQueueWait;
+  }
+
+  /**
+   * 대기열 최대 대기 시간. 넘으면 {@code AdmissionRejectedException}으로 실패합니다.
+   */
+  public void setMaxQueueWait(final Duration maxQueueWait) {
+    this.maxQueueWait = maxQueueWait;
+  }
+
+  public long getRequestsPerMinute() {
+    return requestsPerMinute;
+  }
+
+  /**
+   * 클라이언트 측 분당 요청 수 제한. 0이면 제한하지 않습니다 (기본값).
+   */
+  public void setRequestsPerMinute(final long requestsPerMinute) {
+    this.requestsPerMinute = requestsPerMinute;
+  }
+
+  public long getTokensPerMinute() {
+    return tokensPerMinute;
+  }
+
+  /**
+   * 클라이언트 측 분당 토큰 수 제한. 0이면 제한하지 않습니다 (기본값).
+   * 요청마다 프롬프트 토큰 추정치와 max_tokens를 미리 차감하고, 응답 후 실제 사용량으로 정산합니다.
+   */
+  public void setTokensPerMinute(final long tokensPerMinute) {
+    this.tokensPerMinute = tokensPerMinute;
+  }
+
+  public Duration getRateLimitMaxWait() {
+    return rateLimitMaxWait;
+  }
+
+  /**
+   * rate limit으로 기다릴 최대 시간. 넘으면 {@code AdmissionRejectedException}으로 실패합니다.
+   */
+  public void setRateLimitMaxWait(final Duration rateLimitMaxWait) {
+    this.rateLimitMaxWait = rateLimitMaxWait;
+  }
+
+  public String getTokenizerRankFile() {
+    return tokenizerRankFile;
+  }
+
+  /**
+   * 프롬프트 토큰 계산에 사용할 tiktoken rank 파일 경로. 없으면 글자 수로 추정합니다.
+   */
+  public void setTokenizerRankFile(final String tokenizerRankFile) {
+    this.tokenizerRankFile = tokenizerRankFile;
+  }
+
+  public String getSseRecordFile() {
+    return sseRecordFile;
+  }
+
+  /**
+   * 서버에서 받은 SSE frame을 도착 시각과 함께 녹화할 파일 경로. 없으면 녹화하지 않습니다.
+   * 녹화 파일은 {@code SseReplayTransport}로 재생할 수 있습니다.
+   */
+  public void setSseRecordFile(final String sseRecordFile) {
+    this.sseRecordFile = sseRecordFile;
+  }
+
+  public int getContentSpillThreshold() {
+    return contentSpillThreshold;
+  }
+
+  /**
+   * {@code streamSpillable()}의 content/reasoning이 이 길이(문자 수)를 넘으면 임시 파일로 옮깁니다. 0이면 옮기지 않습니다 (기본값).
+   * 옮겨진 content는 handle의 {@code getContent()}나 {@code openContentReader()}로 읽습니다. {@code stream()}에는 적용되지 않습니다.
+   */
+  public void setContentSpillThreshold(final int contentSpillThreshold) {
+    this.contentSpillThreshold = contentSpillThreshold;
+  }
+
+  public String getContentSpillDirectory() {
+    return contentSpillDirectory;
+  }
+
+  /**
+   * content를 옮길 임시 파일 디렉터리. 없으면 시스템 임시 디렉터리를 사용합니다.
+   */
+  public void setContentSpillDirectory(final String contentSpillDirectory) {
+    this.contentSpillDirectory = contentSpillDirectory;
+  }
+
+  public CitationOffsetUnit getCitationOffsetUnit() {
+    return citationOffsetUnit;
+  }
+
+  /**
+   * Citation 위치를 startIndex/endIndex(UTF-16) 외에 startOffset/endOffset으로도 셀 단위.
+   * CODE_POINT 또는 UTF_8이면 채우고, UTF_16이면 채우지 않습니다 (기본값).
+   */
+  public void setCitationOffsetUnit(final CitationOffsetUnit citationOffsetUnit) {
+    this.citationOffsetUnit = citationOffsetUnit;
+  }
+
+  public boolean isFairQueueingEnabled() {
+    return fairQueueingEnabled;
+  }
+
+  /**
+   * true이면 동시성 한도를 넘어 대기하는 요청을 tenant와 우선순위별로 공정하게 내보냅니다 (deficit round-robin).
+   * false이면 도착 순서대로 내보냅니다.
+   */
+  public void setFairQueueingEnabled(final boolean fairQueueingEnabled) {
+    this.fairQueueingEnabled = fairQueueingEnabled;
+  }
+
+  public Map<String, Integer> getTenantWeights() {
+    return tenantWeights;
+  }
+
+  /**
+   * tenant별 가중치. 없는 tenant는 1입니다.
+   */
+  public void setTenantWeights(final Map<String, Integer> tenantWeights) {
+    this.tenantWeights = tenantWeights;
+  }
+
+  public int getInteractiveWeight() {
+    return interactiveWeight;
+  }
+
+  /**
+   * 대기열에서 INTERACTIVE 요청의 가중치. 기본값은 4입니다.
+   */
+  public void setInteractiveWeight(final int interactiveWeight) {
+    this.interactiveWeight = interactiveWeight;
+  }
+
+  public int getBatchWeight() {
+    return batchWeight;
+  }
+
+  /**
+   * 대기열에서 BATCH 요청의 가중치. 기본값은 1입니다.
+   */
+  public void setBatchWeight(final int batchWeight) {
+    this.batchWeight = batchWeight;
+  }
+
+  public boolean isHedgingEnabled() {
+    return hedgingEnabled;
+  }
+
+  /**
+   * true이면 첫 chunk가 늦을 때 다른 endpoint로 같은 요청을 보내 먼저 응답한 스트림을 사용합니다.
+   * endpoint가 2개 이상일 때만 동작합니다.
+   */
+  public void setHedgingEnabled(final boolean hedgingEnabled) {
+    this.hedgingEnabled = hedgingEnabled;
+  }
+
+  public double getHedgePercentile() {
+    return hedgePercentile;
+  }
+
+  /**
+   * hedge 지연으로 사용할 최근 TTFT 백분위수 (0 초과 1 이하). 기본값은 0.95입니다.
+   */
+  public void setHedgePercentile(final double hedgePercentile) {
+    this.hedgePercentile = hedgePercentile;
+  }
+
+  public Duration getHedgeMinDelay() {
+    return hedgeMinDelay;
+  }
+
+  public void setHedgeMinDelay(final Duration hedgeMinDelay) {
+    this.hedgeMinDelay = hedgeMinDelay;
+  }
+
+  public Duration getHedgeMaxDelay() {
+    return hedgeMaxDelay;
+  }
+
+  /**
+   * hedge 지연 상한. TTFT 샘플이 충분히 모이기 전에는 이 값을 사용합니다.
+   */
+  public void setHedgeMaxDelay(final Duration hedgeMaxDelay) {
+    this.hedgeMaxDelay = hedgeMaxDelay;
+  }
+
+  public DocumentPlacement getDocumentPlacement() {
+    return documentPlacement;
+  }
+
+  /**
+   * RAG 문서 주입 위치. 기본값은 {@link DocumentPlacement#LAST_USER_MESSAGE}입니다.
+   */
+  public void setDocumentPlacement(final DocumentPlacement documentPlacement) {
+    this.documentPlacement = documentPlacement;
+  }
+
+  public String getDocumentRole() {
+    return documentRole;
+  }
+
+  /**
+   * 문서 전용 메시지의 role. 기본값은 {@code user}입니다.
+   * 대화 중간의 system 메시지를 거부하거나 무시하는 chat template이 있어 user로 둡니다.
+   */
+  public void setDocumentRole(final String documentRole) {
+    this.documentRole = documentRole;
+  }
+
+  public boolean isSortDocumentsById() {
+    return sortDocumentsById;
+  }
+
+  /**
+   * true이면 RAG 문서를 id 순으로 정렬하여 같은 문서 집합이 항상 같은 프롬프트가 되도록 합니다.
+   */
+  public void setSortDocumentsById(final boolean sortDocumentsById) {
+    this.sortDocumentsById = sortDocumentsById;
+  }
 }
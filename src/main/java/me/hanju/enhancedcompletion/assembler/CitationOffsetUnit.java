@@ -0,0 +1,53 @@
+package me.hanju.enhancedcompletion.assembler;
+
+/**
+ * Citation 위치를 세는 단위.
+ * {@code startIndex}/{@code endIndex}는 항상 Java String 인덱스(UTF-16)이며,
+ * 이 단위가 UTF-16이 아니면 같은 위치를 이 단위로 센 값을 {@code startOffset}/{@code endOffset}에 함께 채웁니다.
+ */
+public enum CitationOffsetUnit {
+
+  /**
+   * UTF-16 code unit (Java {@code String.length()}). 별도 offset을 채우지 않습니다 (기본값).
+   */
+  UTF_16,
+
+  /**
+   * Unicode code point (Python {@code len(str)} 등).
+   */
+  CODE_POINT,
+
+  /**
+   * UTF-8 바이트 (Go, Rust 등의 byte 인덱스).
+   */
+  UTF_8;
+
+  /**
+   * 텍스트 길이를 이 단위로 셉니다.
+   * chunk 경계에서 갈린 surrogate 쌍은 high surrogate 쪽에서 한 번만 셉니다 (짝 없는 surrogate는 없다고 가정).
+   */
+  public int length(final CharSequence text) {
+    if (this == UTF_16) {
+      return text.length();
+    }
+    int length = 0;
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (Character.isLowSurrogate(c)) {
+        continue;
+      }
+      if (this == CODE_POINT) {
+        length++;
+      } else if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c)) {
+        length += 4;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+}
@@ -0,0 +1,206 @@
+package me.hanju.enhancedcompletion.assembler;
+
+/**
+ * {@code <cite>}/{@code <rag>} + {@code <id>} 문법 전용 스트리밍 파서.
+ *
+ * <p>
+ * chunk를 {@code indexOf('<')}로 훑어 태그 사이의 텍스트는 잘라내지 않고 구간째 넘기며,
+ * 태그는 현재 상태에서 가능한 것만 비교합니다 (본문: {@code <cite> <rag>}, 인용: {@code <id> </cite> </rag>}, id: {@code </id>}).
+ * chunk 끝에서 잘린 태그는 최대 {@value #MAX_TAG_LENGTH}자 고정 버퍼에 두었다가 다음 chunk와 이어서 비교하고,
+ * 가능한 태그의 앞부분이 아니게 되는 순간 텍스트로 내보냅니다. 문법에 없는 태그와 {@code <}는 텍스트입니다.
+ * </p>
+ * <p>
+ * 동기화하지 않습니다. 스트림 하나에 하나씩 씁니다.
+ * </p>
+ */
+final class CiteTagParser {
+
+  /**
+   * 파싱 결과를 받는 쪽.
+   */
+  interface Handler {
+
+    /** 본문 또는 인용 본문 텍스트 */
+    void text(String text);
+
+    /** {@code <cite>} 또는 {@code <rag>} */
+    void citeOpened();
+
+    /** {@code <id>} 안의 텍스트 조각 (source의 [start, end)) */
+    void citeId(String source, int start, int end);
+
+    /** {@code </cite>} 또는 {@code </rag>} */
+    void citeClosed();
+  }
+
+  static final int MAX_TAG_LENGTH = 7;
+
+  private static final int TEXT = 0;
+  private static final int CITE = 1;
+  private static final int ID = 2;
+
+  private static final String OPEN_CITE = "<cite>";
+  private static final String OPEN_RAG = "<rag>";
+  private static final String OPEN_ID = "<id>";
+  private static final String CLOSE_CITE = "</cite>";
+  private static final String CLOSE_RAG = "</rag>";
+  private static final String CLOSE_ID = "</id>";
+
+  private static final String[][] TAGS = {
+      { OPEN_CITE, OPEN_RAG },
+      { OPEN_ID, CLOSE_CITE, CLOSE_RAG },
+      { CLOSE_ID },
+  };
+
+  /** 비교 결과: 태그가 아님 */
+  private static final int NONE = 0;
+  /** 비교 결과: 입력이 끝나 아직 판단할 수 없음 */
+  private static final int PARTIAL = -1;
+
+  private final char[] pending = new char[MAX_TAG_LENGTH];
+  private int pendingLength;
+  private int state = TEXT;
+
+  /**
+   * chunk 하나를 파싱합니다.
+   */
+  void feed(final String chunk, final Handler handler) {
+    int position = 0;
+    if (pendingLength > 0) {
+      position = resumePending(chunk, handler);
+    }
+    final int length = chunk.length();
+    int runStart = position;
+    int searchFrom = position;
+    while (searchFrom < length) {
+      final int lt = chunk.indexOf('<', searchFrom);
+      if (lt < 0) {
+        break;
+      }
+      final int matched = match(chunk, lt);
+      if (matched == NONE) {
+        searchFrom = lt + 1;
+        continue;
+      }
+      emit(chunk, runStart, lt, handler);
+      if (matched == PARTIAL) {
+        chunk.getChars(lt, length, pending, 0);
+        pendingLength = length - lt;
+        return;
+      }
+      transition(chunk, lt, handler);
+      runStart = lt + matched;
+      searchFrom = runStart;
+    }
+    emit(chunk, runStart, length, handler);
+  }
+
+  /**
+   * 버퍼에 남은 잘린 태그를 텍스트로 내보냅니다 (스트림 끝).
+   */
+  void flush(final Handler handler) {
+    if (pendingLength > 0) {
+      final String literal = new String(pending, 0, pendingLength);
+      pendingLength = 0;
+      emit(literal, 0, literal.length(), handler);
+    }
+  }
+
+  /**
+   * 버퍼의 잘린 태그에 chunk 앞부분을 한 글자씩 이어 비교합니다.
+   *
+   * @return chunk에서 이어서 읽을 위치
+   */
+  private int resumePending(final String chunk, final Handler handler) {
+    for (int i = 0; i < chunk.length(); i++) {
+      pending[pendingLength++] = chunk.charAt(i);
+      final String tag = matchPending();
+      if (tag == null) {
+        // 가능한 태그가 아님: 마지막 글자를 빼고 텍스트로 내보낸 뒤 그 글자부터 다시 읽음
+        pendingLength--;
+        flush(handler);
+        return i;
+      }
+      if (tag.length() == pendingLength) {
+        pendingLength = 0;
+        transition(tag, handler);
+        return i + 1;
+      }
+    }
+    return chunk.length();
+  }
+
+  /**
+   * 버퍼가 앞부분인 태그. 없으면 null.
+   */
+  private String matchPending() {
+    for (final String tag : TAGS[state]) {
+      if (tag.length() >= pendingLength && startsWith(tag, pending, pendingLength)) {
+        return tag;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * source의 offset에서 시작하는 태그의 길이, {@link #NONE}, 또는 {@link #PARTIAL}.
+   */
+  private int match(final String source, final int offset) {
+    final int available = source.length() - offset;
+    int result = NONE;
+    for (final String tag : TAGS[state]) {
+      if (tag.length() <= available) {
+        if (source.startsWith(tag, offset)) {
+          return tag.length();
+        }
+      } else if (tag.regionMatches(0, source, offset, available)) {
+        result = PARTIAL;
+      }
+    }
+    return result;
+  }
+
+  private void transition(final String source, final int offset, final Handler handler) {
+    for (final String tag : TAGS[state]) {
+      if (source.startsWith(tag, offset)) {
+        transition(tag, handler);
+        return;
+      }
+    }
+  }
+
+  private void transition(final String tag, final Handler handler) {
+    switch (tag) {
+      case OPEN_CITE, OPEN_RAG -> {
+        state = CITE;
+        handler.citeOpened();
+      }
+      case OPEN_ID -> state = ID;
+      case CLOSE_ID -> state = CITE;
+      default -> {
+        state = TEXT;
+        handler.citeClosed();
+      }
+    }
+  }
+
+  private void emit(final String source, final int start, final int end, final Handler handler) {
+    if (start >= end) {
+      return;
+    }
+    if (state == ID) {
+      handler.citeId(source, start, end);
+    } else {
+      handler.text(source.substring(start, end));
+    }
+  }
+
+  private static boolean startsWith(final String tag, final char[] chars, final int length) {
+    for (int i = 0; i < length; i++) {
+      if (tag.charAt(i) != chars[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,294 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import me.hanju.enhancedcompletion.exception.EnhancedCompletionClientException;
+
+/**
+ * 스트림으로 받은 텍스트 조각을 모아 두었다가 마지막에 한 번만 String으로 만드는 rope.
+ *
+ * <p>
+ * 조각은 복사하지 않고 참조로 모으며, {@value #BLOCK}개가 차면 한 블록 String으로 합칩니다.
+ * 조각마다 String을 새로 이어 붙이는 방식(매번 전체 복사)과 달리 문자 하나가 복사되는 횟수는 블록 압축과
+ * 최종 결합의 두 번뿐이고, 스트리밍 중에 만들어지는 배열은 블록 크기를 넘지 않아 긴 출력에서도 humongous 영역을 쓰지 않습니다.
+ * 최종 결합은 {@link String#join}이 길이와 coder(Latin-1/UTF-16)를 먼저 계산해 결과 배열을 한 번에 만듭니다.
+ * </p>
+ * <p>
+ * spill 임계값을 주면 길이가 임계값을 넘은 뒤의 블록은 heap 대신 임시 파일에 UTF-16BE로 씁니다.
+ * 문자당 2바이트 고정 폭이므로 {@link #content()}가 파일을 mmap한 {@link CharBuffer}를 그대로 CharSequence로 돌려줄 수 있습니다.
+ * 이때 heap에 남는 것은 아직 블록이 되지 않은 조각({@value #BLOCK}개 이하)뿐입니다.
+ * mmap 한 번에 담을 수 있는 약 10억 자를 넘으면 {@link #content()}는 실패하고 {@link #openReader()}로만 읽을 수 있습니다.
+ * </p>
+ * <p>
+ * 임시 파일은 {@link StandardOpenOption#DELETE_ON_CLOSE}로 엽니다. Unix에서는 열자마자 이름이 지워지므로
+ * {@link #close()}를 부르지 않아도 채널이 GC로 닫힐 때 디스크 공간이 반환됩니다.
+ * 닫은 뒤에는 옮겨진 텍스트를 읽을 수 없으며 {@link IllegalStateException}을 던집니다.
+ * </p>
+ * <p>
+ * 동기화하지 않습니다. 호출하는 쪽(StreamHandle)이 직렬화합니다.
+ * </p>
+ */
+final class ContentAccumulator implements AutoCloseable {
+
+  static final int BLOCK = 256;
+
+  private final int spillThreshold;
+  private final Path spillDirectory;
+  private final List<String> blocks = new ArrayList<>();
+  private final String[] pending = new String[BLOCK];
+  private int pendingCount;
+  private int length;
+  private boolean appended;
+  private String materialized;
+  private boolean spilled;
+  private boolean closed;
+
+  private Path spillFile;
+  private FileChannel spillChannel;
+  private ByteBuffer writeBuffer;
+
+  ContentAccumulator() {
+    this(0, null);
+  }
+
+  /**
+   * @param spillThreshold 이 길이(문자 수)를 넘으면 임시 파일로 옮김. 0이면 옮기지 않음
+   * @param spillDirectory 임시 파일 디렉터리. null이면 시스템 임시 디렉터리
+   */
+  ContentAccumulator(final int spillThreshold, final Path spillDirectory) {
+    this.spillThreshold = spillThreshold;
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * 조각을 추가합니다. null은 무시하고, 빈 문자열은 "값이 있음"으로만 기록합니다.
+   */
+  void append(final String text) {
+    if (text == null) {
+      return;
+    }
+    checkOpen();
+    appended = true;
+    if (text.isEmpty()) {
+      return;
+    }
+    pending[pendingCount++] = text;
+    length += text.length();
+    materialized = null;
+    if (pendingCount == BLOCK) {
+      compact();
+    }
+  }
+
+  int length() {
+    return length;
+  }
+
+  /**
+   * null이 아닌 조각이 한 번도 추가되지 않았으면 true (빈 문자열만 추가된 경우는 false).
+   */
+  boolean isEmpty() {
+    return !appended;
+  }
+
+  /**
+   * 임시 파일로 옮겨졌는지 여부.
+   */
+  boolean isSpilled() {
+    return spilled;
+  }
+
+  /**
+   * 모은 텍스트의 view. 옮겨지지 않았으면 String, 옮겨졌으면 임시 파일을 mmap한 CharBuffer (heap 복사 없음).
+   * 이미 얻은 mmap view는 {@link #close()} 이후에도 유효합니다.
+   */
+  CharSequence content() {
+    if (!isSpilled()) {
+      return toString();
+    }
+    checkOpen();
+    flushPending();
+    try {
+      final long size = spillChannel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new EnhancedCompletionClientException(
+            "Spilled content is too large to map (" + size / 2 + " chars); read it with a Reader instead");
+      }
+      return spillChannel.map(FileChannel.MapMode.READ_ONLY, 0, size).asCharBuffer();
+    } catch (IOException e) {
+      throw new EnhancedCompletionClientException("Failed to map spilled content: " + spillFile, e);
+    }
+  }
+
+  /**
+   * 모은 텍스트를 처음부터 읽는 Reader. 옮겨졌으면 임시 파일에서 순차로 읽습니다 (닫는 것은 호출하는 쪽).
+   */
+  Reader openReader() {
+    if (!isSpilled()) {
+      return new StringReader(toString());
+    }
+    checkOpen();
+    flushPending();
+    // 파일 이름은 이미 지워졌을 수 있으므로 열린 채널을 위치 지정 읽기로 공유
+    return Channels.newReader(new PositionalReadChannel(spillChannel), StandardCharsets.UTF_16BE);
+  }
+
+  /**
+   * 모은 텍스트. 옮겨지지 않았으면 마지막 호출 이후 추가된 조각이 없을 때 같은 인스턴스를 돌려주고,
+   * 옮겨졌으면 호출마다 파일에서 읽어 만듭니다 (heap에 전체가 올라옴).
+   */
+  @Override
+  public String toString() {
+    if (isSpilled()) {
+      return content().toString();
+    }
+    if (materialized == null) {
+      materialized = join();
+    }
+    return materialized;
+  }
+
+  /**
+   * 임시 파일을 닫고 지웁니다. 여러 번 불러도 됩니다. heap에 있는 텍스트는 그대로 읽을 수 있습니다.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (spillChannel == null) {
+      return;
+    }
+    final FileChannel channel = spillChannel;
+    spillChannel = null;
+    try {
+      channel.close();
+      // DELETE_ON_CLOSE가 이미 지웠으면 아무것도 하지 않음
+      Files.deleteIfExists(spillFile);
+    } catch (IOException e) {
+      throw new EnhancedCompletionClientException("Failed to delete spilled content: " + spillFile, e);
+    }
+  }
+
+  private void checkOpen() {
+    if (closed && spilled) {
+      throw new IllegalStateException("Spilled content was already closed: " + spillFile);
+    }
+  }
+
+  private String join() {
+    if (blocks.isEmpty() && pendingCount == 1) {
+      return pending[0];
+    }
+    final String[] parts = blocks.toArray(new String[blocks.size() + pendingCount]);
+    System.arraycopy(pending, 0, parts, blocks.size(), pendingCount);
+    return String.join("", parts);
+  }
+
+  private void compact() {
+    final String block = String.join("", pending);
+    Arrays.fill(pending, null);
+    pendingCount = 0;
+    if (spillChannel == null && !closed && spillThreshold > 0 && length > spillThreshold) {
+      openSpill();
+    }
+    if (spillChannel != null) {
+      write(block);
+    } else {
+      blocks.add(block);
+    }
+  }
+
+  private void flushPending() {
+    if (pendingCount > 0) {
+      write(String.join("", Arrays.asList(pending).subList(0, pendingCount)));
+      Arrays.fill(pending, 0, pendingCount, null);
+      pendingCount = 0;
+    }
+  }
+
+  private void openSpill() {
+    try {
+      spillFile = spillDirectory != null
+          ? Files.createTempFile(spillDirectory, "enhanced-completion-", ".utf16")
+          : Files.createTempFile("enhanced-completion-", ".utf16");
+      spillChannel = FileChannel.open(spillFile,
+          StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+      spilled = true;
+    } catch (IOException e) {
+      throw new EnhancedCompletionClientException("Failed to create spill file", e);
+    }
+    for (final String block : blocks) {
+      write(block);
+    }
+    blocks.clear();
+  }
+
+  private void write(final String block) {
+    final int bytes = block.length() * 2;
+    if (writeBuffer == null || writeBuffer.capacity() < bytes) {
+      writeBuffer = ByteBuffer.allocate(Math.max(bytes, 8192));
+    }
+    writeBuffer.clear();
+    writeBuffer.asCharBuffer().put(block);
+    writeBuffer.limit(bytes);
+    try {
+      while (writeBuffer.hasRemaining()) {
+        spillChannel.write(writeBuffer);
+      }
+    } catch (IOException e) {
+      throw new EnhancedCompletionClientException("Failed to spill content: " + spillFile, e);
+    }
+  }
+
+  /**
+   * 공유 FileChannel을 처음부터 위치 지정으로 읽는 채널. 닫아도 원래 채널은 닫지 않습니다.
+   */
+  private static final class PositionalReadChannel implements ReadableByteChannel {
+    private final FileChannel channel;
+    private long position;
+    private boolean open = true;
+
+    PositionalReadChannel(final FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public int read(final ByteBuffer destination) throws IOException {
+      if (!open) {
+        throw new ClosedChannelException();
+      }
+      final int read = channel.read(destination, position);
+      if (read > 0) {
+        position += read;
+      }
+      return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return open;
+    }
+
+    @Override
+    public void close() {
+      open = false;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.hanju.enhancedcompletion.payload.document.IDocument;
+import me.hanju.enhancedcompletion.payload.message.AttachedMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+
+/**
+ * 요청에 주입된 문서의 id → 문서 색인.
+ * 스트리밍 중 cite id를 문서에 O(1)로 매칭하며, 요청마다 한 번 만듭니다. 같은 id가 여러 번 주입되면 먼저 나온 문서를 씁니다.
+ * 응답을 받은 쪽에서 citation의 원본 문서가 필요하면 {@link #ofDocuments}로 Augmenter 결과의 문서 목록을 색인해 {@link #find}로 찾습니다.
+ */
+public final class DocumentIndex {
+
+  /** 주입된 문서가 없는 요청용 */
+  public static final DocumentIndex EMPTY = new DocumentIndex(Map.of());
+
+  private final Map<String, IDocument> documents;
+
+  private DocumentIndex(final Map<String, IDocument> documents) {
+    this.documents = documents;
+  }
+
+  /**
+   * 메시지에 첨부된({@link AttachedMessage}) 문서로 색인을 만듭니다.
+   *
+   * @param messages 문서 주입이 끝난 요청 메시지
+   */
+  public static DocumentIndex of(final List<? extends IMessageable> messages) {
+    if (messages == null) {
+      return EMPTY;
+    }
+    Map<String, IDocument> documents = null;
+    for (final IMessageable message : messages) {
+      if (message instanceof AttachedMessage attached) {
+        documents = put(documents, attached.getDocuments());
+      }
+    }
+    return documents == null ? EMPTY : new DocumentIndex(documents);
+  }
+
+  /**
+   * 문서 목록으로 색인을 만듭니다 (예: {@code response.getAugmentResult().getDocuments()}).
+   *
+   * @param documents 문서 목록. null이면 빈 색인
+   */
+  public static DocumentIndex ofDocuments(final Collection<? extends IDocument> documents) {
+    final Map<String, IDocument> indexed = put(null, documents);
+    return indexed == null ? EMPTY : new DocumentIndex(indexed);
+  }
+
+  private static Map<String, IDocument> put(
+      final Map<String, IDocument> indexed,
+      final Collection<? extends IDocument> documents) {
+    if (documents == null) {
+      return indexed;
+    }
+    Map<String, IDocument> result = indexed;
+    for (final IDocument document : documents) {
+      if (document == null || document.getId() == null) {
+        continue;
+      }
+      if (result == null) {
+        result = new HashMap<>();
+      }
+      result.putIfAbsent(document.getId(), document);
+    }
+    return result;
+  }
+
+  /**
+   * id에 해당하는 문서. 없으면 null.
+   */
+  public IDocument find(final String id) {
+    return id == null ? null : documents.get(id);
+  }
+
+  public boolean isEmpty() {
+    return documents.isEmpty();
+  }
+
+  public int size() {
+    return documents.size();
+  }
+}
@@ -3,38 +3,83 @@ package me.hanju.enhancedcompletion.assembler;
 import java.util.ArrayList;
 import java.util.List;
 
-import me.hanju.adapter.ContentStreamAdapter;
-import me.hanju.adapter.payload.TaggedToken;
-import me.hanju.adapter.transition.TransitionSchema;
 import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
 import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
 import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.document.IDocument;
 import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
 import me.hanju.enhancedcompletion.payload.message.Citation;
 import me.hanju.enhancedcompletion.payload.message.CitedMessage;
+import me.hanju.enhancedcompletion.spi.observe.StreamObservation;
 import me.hanju.streambind.map.StreamMapper;
 
 /**
  * ChatCompletionResponse 스트림을 EnhancedCompletionResponse로 변환하는 StreamMapper.
- * cite 태그를 파싱하여 Citation을 추출하고, 각 delta마다 스트리밍 응답을 반환합니다.
+ * cite 태그를 {@link CiteTagParser}로 파싱하여 Citation을 추출하고, 각 delta마다 스트리밍 응답을 반환합니다.
  * StreamMerger가 delta들을 병합하여 최종 결과를 생성합니다.
  */
 public class EnhancedCompletionDeltaMapper
     implements StreamMapper<ChatCompletionResponse, EnhancedCompletionResponse> {
 
-  private static final TransitionSchema CITE_SCHEMA = TransitionSchema.root()
-      .tag("cite", cite -> cite.tag("id")).alias("rag");
-
-  private final ContentStreamAdapter adapter = new ContentStreamAdapter(CITE_SCHEMA);
+  private final CiteTagParser parser = new CiteTagParser();
+  private final ContentHandler handler = new ContentHandler();
   private final StringBuilder citeIdBuilder = new StringBuilder();
+  private final StreamObservation observation;
+  private final DocumentIndex documents;
+  private final CitationOffsetUnit offsetUnit;
 
   private ChatCompletionResponse lastResponse;
   private int currentIndex = 0;
+  private int currentOffset = 0;
   private int citationIndex = 0;
   private Integer citeStartIndex = null;
+  private int citeStartOffset = 0;
+
+  public EnhancedCompletionDeltaMapper() {
+    this(StreamObservation.NOOP);
+  }
+
+  /**
+   * @param observation chunk별 변환 시간을 받을 observation
+   */
+  public EnhancedCompletionDeltaMapper(final StreamObservation observation) {
+    this(observation, DocumentIndex.EMPTY);
+  }
+
+  /**
+   * @param observation chunk별 변환 시간을 받을 observation
+   * @param documents   cite id를 매칭할 주입 문서 색인
+   */
+  public EnhancedCompletionDeltaMapper(final StreamObservation observation, final DocumentIndex documents) {
+    this(observation, documents, CitationOffsetUnit.UTF_16);
+  }
+
+  /**
+   * @param observation chunk별 변환 시간을 받을 observation
+   * @param documents   cite id를 매칭할 주입 문서 색인
+   * @param offsetUnit  startIndex/endIndex 외에 citation 위치를 함께 셀 단위 (UTF_16이면 세지 않음)
+   */
+  public EnhancedCompletionDeltaMapper(
+      final StreamObservation observation,
+      final DocumentIndex documents,
+      final CitationOffsetUnit offsetUnit) {
+    this.observation = observation;
+    this.documents = documents != null ? documents : DocumentIndex.EMPTY;
+    this.offsetUnit = offsetUnit != null ? offsetUnit : CitationOffsetUnit.UTF_16;
+  }
 
   @Override
   public List<EnhancedCompletionResponse> map(final ChatCompletionResponse response) {
+    if (observation == StreamObservation.NOOP) {
+      return mapChunk(response);
+    }
+    final long startNanos = System.nanoTime();
+    final List<EnhancedCompletionResponse> results = mapChunk(response);
+    observation.chunkMapped(System.nanoTime() - startNanos, results.size());
+    return results;
+  }
+
+  private List<EnhancedCompletionResponse> mapChunk(final ChatCompletionResponse response) {
     if (response == null || response.getChoices() == null || response.getChoices().isEmpty()) {
       return List.of();
     }
@@ -77,49 +122,38 @@ public class EnhancedCompletionDeltaMapper
 
   private List<EnhancedCompletionResponse> processContent(final String text) {
     final List<EnhancedCompletionResponse> results = new ArrayList<>();
-
-    for (final TaggedToken token : adapter.feedToken(text)) {
-      final EnhancedCompletionResponse delta = processTaggedToken(token);
-      if (delta != null) {
-        results.add(delta);
-      }
+    handler.begin(results);
+    parser.feed(text, handler);
+    if (handler.events > 0) {
+      observation.contentFlushed(text.length(), handler.events);
     }
-
     return results;
   }
 
-  private EnhancedCompletionResponse processTaggedToken(final TaggedToken token) {
-    final String path = token.path();
-    final String text = token.content();
-    final String event = token.event();
-
-    if ("/".equals(path) && text != null) {
-      currentIndex += text.length();
-      return createDelta(CitedMessage.builder().content(text).build());
-
-    } else if ("/cite".equals(path)) {
-      if ("OPEN".equals(event)) {
-        citeStartIndex = currentIndex;
-        citeIdBuilder.setLength(0);
-      } else if ("CLOSE".equals(event) && citeStartIndex != null) {
-        final Citation citation = Citation.builder()
-            .index(citationIndex++)
-            .id(citeIdBuilder.toString())
-            .startIndex(citeStartIndex)
-            .endIndex(currentIndex)
-            .build();
-        citeStartIndex = null;
-        return createDelta(CitedMessage.builder().citations(List.of(citation)).build());
-      } else if (text != null) {
-        currentIndex += text.length();
-        return createDelta(CitedMessage.builder().content(text).build());
+  /**
+   * 열린 cite를 닫아 Citation을 만듭니다. 주입된 문서가 있으면 id를 색인에서 찾아 매칭 결과를 채웁니다.
+   */
+  private Citation closeCitation() {
+    final String id = citeIdBuilder.toString();
+    final Citation.CitationBuilder builder = Citation.builder()
+        .index(citationIndex++)
+        .id(id)
+        .startIndex(citeStartIndex)
+        .endIndex(currentIndex);
+    if (offsetUnit != CitationOffsetUnit.UTF_16) {
+      builder.startOffset(citeStartOffset).endOffset(currentOffset);
+    }
+    if (!documents.isEmpty()) {
+      final IDocument document = documents.find(id);
+      builder.resolved(document != null);
+      if (document != null) {
+        builder.url(document.getUrl()).title(document.getTitle());
       }
-
-    } else if ("/cite/id".equals(path) && text != null) {
-      citeIdBuilder.append(text);
     }
-
-    return null;
+    final Citation citation = builder.build();
+    citeStartIndex = null;
+    observation.citationEmitted(citation);
+    return citation;
   }
 
   private EnhancedCompletionResponse createDelta(final CitedMessage delta) {
@@ -149,25 +183,68 @@ public class EnhancedCompletionDeltaMapper
   public List<EnhancedCompletionResponse> flush() {
     final List<EnhancedCompletionResponse> results = new ArrayList<>();
 
-    for (final TaggedToken token : adapter.flush()) {
-      final EnhancedCompletionResponse delta = processTaggedToken(token);
-      if (delta != null) {
-        results.add(delta);
-      }
+    handler.begin(results);
+    parser.flush(handler);
+    if (handler.events > 0) {
+      observation.contentFlushed(0, handler.events);
     }
 
     // 닫히지 않은 cite 태그 처리
     if (citeStartIndex != null) {
-      final Citation citation = Citation.builder()
-          .index(citationIndex++)
-          .id(citeIdBuilder.toString())
-          .startIndex(citeStartIndex)
-          .endIndex(currentIndex)
-          .build();
-      citeStartIndex = null;
-      results.add(createDelta(CitedMessage.builder().citations(List.of(citation)).build()));
+      results.add(createDelta(CitedMessage.builder().citations(List.of(closeCitation())).build()));
     }
 
     return results;
   }
+
+  /**
+   * 파서 이벤트를 delta로 바꿔 현재 chunk의 결과 목록에 담습니다.
+   */
+  private final class ContentHandler implements CiteTagParser.Handler {
+    private List<EnhancedCompletionResponse> results;
+    private int events;
+
+    void begin(final List<EnhancedCompletionResponse> results) {
+      this.results = results;
+      this.events = 0;
+    }
+
+    @Override
+    public void text(final String text) {
+      events++;
+      currentIndex += text.length();
+      if (offsetUnit != CitationOffsetUnit.UTF_16) {
+        currentOffset += offsetUnit.length(text);
+      }
+      add(createDelta(CitedMessage.builder().content(text).build()));
+    }
+
+    @Override
+    public void citeOpened() {
+      events++;
+      citeStartIndex = currentIndex;
+      citeStartOffset = currentOffset;
+      citeIdBuilder.setLength(0);
+    }
+
+    @Override
+    public void citeId(final String source, final int start, final int end) {
+      events++;
+      citeIdBuilder.append(source, start, end);
+    }
+
+    @Override
+    public void citeClosed() {
+      events++;
+      if (citeStartIndex != null) {
+        add(createDelta(CitedMessage.builder().citations(List.of(closeCitation())).build()));
+      }
+    }
+
+    private void add(final EnhancedCompletionResponse delta) {
+      if (delta != null) {
+        results.add(delta);
+      }
+    }
+  }
 }
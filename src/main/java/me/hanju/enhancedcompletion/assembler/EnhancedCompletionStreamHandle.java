@@ -0,0 +1,436 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.CitedMessage;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+import me.hanju.streambind.map.StreamMapper;
+import reactor.core.publisher.Flux;
+
+/**
+ * content/reasoning을 {@link ContentAccumulator}로 모으는 stream handle.
+ *
+ * <p>
+ * StreamHandle의 병합은 delta마다 누적 content에 새 조각을 이어 붙여 String 전체를 다시 만듭니다.
+ * 이 handle은 StreamHandle을 감싸고, {@link #subscribe}에 받은 mapper를 한 번 더 감싸 mapper가 낸 delta에서
+ * content/reasoning을 빼 choice별 rope에 모은 뒤 나머지만 병합에 넘깁니다. 모은 텍스트는 스트림이 끝나거나 실패할 때
+ * delta 하나로 한 번에 넘겨 병합 결과에 들어갑니다. listener는 mapper가 낸 원래 delta를 그대로 받습니다.
+ * StreamHandle에는 subscribe → mapper → 병합이라는 공개 계약만 기대하며 내부 병합 경로에 기대지 않습니다.
+ * </p>
+ * <p>
+ * spill 임계값을 주면 그보다 긴 content/reasoning은 임시 파일로 옮겨지고, heap에는 한 블록 분량만 남습니다.
+ * 옮겨진 텍스트는 {@link #getContent()}(mmap view)나 {@link #openContentReader()}로 읽고,
+ * 전체를 String으로 받으려면 {@link #getWithContent()}를 씁니다. 이때 {@link #get()}은 content를 빠뜨리는 대신 실패하며,
+ * 옮겨진 필드만 비운 병합 결과는 {@link #getMetadata()}로 얻습니다.
+ * 다 읽은 뒤 {@link #close()}로 임시 파일을 지웁니다. 스트림이 실패하거나 취소되면 handle이 스스로 닫습니다.
+ * </p>
+ * <p>
+ * 감싼 StreamHandle을 그대로 내보내려면 {@link #retainingContent}로 만듭니다. 이 handle은 content를 빼지 않고
+ * delta마다 병합에 넘기므로, StreamHandle을 직접 취소한 뒤 {@code get()}해도 그때까지 받은 content가 남습니다.
+ * </p>
+ */
+public class EnhancedCompletionStreamHandle implements AutoCloseable {
+
+  /** 원본 스트림이 실패했음을 mapper에 알리는 표식 */
+  private static final Object FAILED = new Object();
+
+  private final FluxListener<EnhancedCompletionResponse> listener;
+  private final StreamHandle<EnhancedCompletionResponse> delegate;
+  private final int spillThreshold;
+  private final Path spillDirectory;
+  private final boolean retainContent;
+  private final Map<Integer, Texts> texts = new LinkedHashMap<>();
+  private boolean textsEmitted;
+
+  /**
+   * @param listener 토큰 단위 delta를 수신할 리스너
+   */
+  public EnhancedCompletionStreamHandle(final FluxListener<EnhancedCompletionResponse> listener) {
+    this(listener, 0, null);
+  }
+
+  /**
+   * @param listener       토큰 단위 delta를 수신할 리스너
+   * @param spillThreshold 이 길이(문자 수)를 넘는 content/reasoning은 임시 파일로 옮김. 0이면 옮기지 않음
+   * @param spillDirectory 임시 파일 디렉터리. null이면 시스템 임시 디렉터리
+   */
+  public EnhancedCompletionStreamHandle(
+      final FluxListener<EnhancedCompletionResponse> listener,
+      final int spillThreshold,
+      final Path spillDirectory) {
+    this(listener, spillThreshold, spillDirectory, false);
+  }
+
+  private EnhancedCompletionStreamHandle(
+      final FluxListener<EnhancedCompletionResponse> listener,
+      final int spillThreshold,
+      final Path spillDirectory,
+      final boolean retainContent) {
+    this.listener = listener;
+    this.delegate = new StreamHandle<>(EnhancedCompletionResponse.class, new Terminal());
+    this.spillThreshold = spillThreshold;
+    this.spillDirectory = spillDirectory;
+    this.retainContent = retainContent;
+  }
+
+  /**
+   * content/reasoning을 모으지 않고 delta마다 병합에 넘기는 handle. {@link #asStreamHandle()}로 내보낼 때 씁니다.
+   *
+   * @param listener 토큰 단위 delta를 수신할 리스너
+   */
+  public static EnhancedCompletionStreamHandle retainingContent(
+      final FluxListener<EnhancedCompletionResponse> listener) {
+    return new EnhancedCompletionStreamHandle(listener, 0, null, true);
+  }
+
+  /**
+   * source를 mapper로 변환하며 구독합니다. mapper가 낸 delta는 listener로 전달되고 병합됩니다.
+   */
+  public <I> void subscribe(final Flux<I> source, final StreamMapper<I, EnhancedCompletionResponse> mapper) {
+    // 실패하면 오류 신호 앞에 표식을 끼워, 그때까지 모은 텍스트가 병합 결과에 남도록 함
+    final Flux<Object> signals = source.<Object>map(item -> item)
+        .onErrorResume(e -> Flux.just(FAILED).concatWith(Flux.error(e)));
+    delegate.subscribe(signals, new Accumulating<>(mapper));
+  }
+
+  /**
+   * delta 하나를 직접 전달하고 병합합니다 (RAG 결과 등 mapper를 거치지 않는 delta).
+   */
+  public void emitNext(final EnhancedCompletionResponse delta) {
+    if (delta == null) {
+      return;
+    }
+    final EnhancedCompletionResponse stripped;
+    synchronized (this) {
+      stripped = accumulate(delta);
+    }
+    listener.onNext(delta);
+    delegate.emitNext(stripped);
+  }
+
+  public void emitError(final Throwable e) {
+    delegate.emitError(e);
+  }
+
+  public void cancel() {
+    delegate.cancel();
+  }
+
+  public boolean isCancelled() {
+    return delegate.isCancelled();
+  }
+
+  public boolean isError() {
+    return delegate.isError();
+  }
+
+  public Throwable getError() {
+    return delegate.getError();
+  }
+
+  /**
+   * 감싼 StreamHandle. {@link #retainingContent}로 만든 handle에서만 쓸 수 있으며, 구독은 반드시 이 handle의 {@link #subscribe}로 합니다.
+   * 스트림이 끝나거나 실패하거나 취소되어도 {@code get()}이 그때까지 받은 content를 담습니다.
+   *
+   * @throws IllegalStateException content를 모으는 handle인 경우 (취소하면 모은 content가 병합 결과에서 빠지므로)
+   */
+  public StreamHandle<EnhancedCompletionResponse> asStreamHandle() {
+    if (!retainContent) {
+      throw new IllegalStateException("Only a handle created by retainingContent() can be exposed as a plain StreamHandle");
+    }
+    return delegate;
+  }
+
+  /**
+   * 완료를 기다려 병합 결과를 반환합니다.
+   *
+   * @throws IllegalStateException content/reasoning이 임시 파일로 옮겨진 경우.
+   *                               {@link #getWithContent()}, {@link #getContent()}, {@link #getMetadata()}를 씁니다
+   */
+  public EnhancedCompletionResponse get() {
+    return checkNotSpilled(getMetadata());
+  }
+
+  public EnhancedCompletionResponse get(final long timeout, final TimeUnit unit) throws TimeoutException {
+    return checkNotSpilled(materialize(delegate.get(timeout, unit)));
+  }
+
+  /**
+   * 완료를 기다려 병합 결과를 반환합니다. 임시 파일로 옮겨진 content/reasoning은 null입니다 (citations, finish_reason 등을 볼 때).
+   */
+  public EnhancedCompletionResponse getMetadata() {
+    return materialize(delegate.get());
+  }
+
+  /**
+   * 완료를 기다려, 임시 파일로 옮겨진 텍스트까지 String으로 채운 병합 결과를 반환합니다 (heap에 전체가 올라옴).
+   *
+   * @throws IllegalStateException 이미 {@link #close()}된 경우
+   */
+  public EnhancedCompletionResponse getWithContent() {
+    final EnhancedCompletionResponse merged = getMetadata();
+    synchronized (this) {
+      forEachMessage(merged, (message, choiceTexts) -> {
+        if (choiceTexts.content.isSpilled()) {
+          message.setContent(choiceTexts.content.toString());
+        }
+        if (choiceTexts.reasoning.isSpilled()) {
+          message.setReasoning(choiceTexts.reasoning.toString());
+        }
+      });
+    }
+    return merged;
+  }
+
+  /**
+   * 완료를 기다려 첫 choice의 content를 반환합니다. 임시 파일로 옮겨졌으면 파일을 mmap한 view (heap 복사 없음).
+   *
+   * @return content. 없으면 null
+   */
+  public CharSequence getContent() {
+    delegate.get();
+    synchronized (this) {
+      final Texts choiceTexts = firstTexts();
+      return choiceTexts != null && !choiceTexts.content.isEmpty() ? choiceTexts.content.content() : null;
+    }
+  }
+
+  /**
+   * 완료를 기다려 첫 choice의 content를 처음부터 읽는 Reader를 엽니다. 임시 파일로 옮겨졌으면 파일에서 순차로 읽습니다.
+   */
+  public Reader openContentReader() {
+    delegate.get();
+    synchronized (this) {
+      final Texts choiceTexts = firstTexts();
+      return choiceTexts != null ? choiceTexts.content.openReader() : new StringReader("");
+    }
+  }
+
+  /**
+   * 임시 파일을 닫고 지웁니다. 이미 얻은 {@link #getContent()} view는 계속 읽을 수 있지만,
+   * 이후 옮겨진 텍스트를 새로 읽으면 {@link IllegalStateException}을 던집니다.
+   */
+  @Override
+  public synchronized void close() {
+    for (final Texts choiceTexts : texts.values()) {
+      choiceTexts.content.close();
+      choiceTexts.reasoning.close();
+    }
+  }
+
+  /**
+   * mapper가 낸 delta를 listener로 보내고, content/reasoning을 뺀 delta 목록을 병합용으로 돌려줍니다.
+   */
+  private List<EnhancedCompletionResponse> forward(final List<EnhancedCompletionResponse> deltas) {
+    final List<EnhancedCompletionResponse> stripped = new ArrayList<>(deltas.size() + 1);
+    for (final EnhancedCompletionResponse delta : deltas) {
+      if (delta == null) {
+        continue;
+      }
+      synchronized (this) {
+        stripped.add(accumulate(delta));
+      }
+      listener.onNext(delta);
+    }
+    return stripped;
+  }
+
+  /**
+   * 모은 content/reasoning을 한 번에 담은 delta. 옮겨진 텍스트는 넣지 않으며, 한 번만 만듭니다. 넣을 것이 없으면 null.
+   */
+  private synchronized EnhancedCompletionResponse textsDelta() {
+    if (textsEmitted || texts.isEmpty()) {
+      return null;
+    }
+    textsEmitted = true;
+    final List<BaseCompletionResponse.Choice<CitedMessage>> choices = new ArrayList<>(texts.size());
+    texts.forEach((index, choiceTexts) -> {
+      final String content = heapText(choiceTexts.content);
+      final String reasoning = heapText(choiceTexts.reasoning);
+      if (content != null || reasoning != null) {
+        choices.add(BaseCompletionResponse.Choice.<CitedMessage>builder()
+            .index(index)
+            .delta(CitedMessage.builder().content(content).reasoning(reasoning).build())
+            .build());
+      }
+    });
+    return choices.isEmpty() ? null : EnhancedCompletionResponse.builder().choices(choices).build();
+  }
+
+  private static String heapText(final ContentAccumulator accumulator) {
+    return accumulator.isEmpty() || accumulator.isSpilled() ? null : accumulator.toString();
+  }
+
+  /**
+   * delta의 content/reasoning을 rope에 넣고, 둘을 뺀 delta를 돌려줍니다. 둘 다 없거나 content를 모으지 않는 handle이면 delta 그대로.
+   */
+  private EnhancedCompletionResponse accumulate(final EnhancedCompletionResponse delta) {
+    final List<BaseCompletionResponse.Choice<CitedMessage>> choices = delta.getChoices();
+    if (retainContent || choices == null || !hasText(choices)) {
+      return delta;
+    }
+    final List<BaseCompletionResponse.Choice<CitedMessage>> stripped = new ArrayList<>(choices.size());
+    for (final BaseCompletionResponse.Choice<CitedMessage> choice : choices) {
+      final CitedMessage message = choice.getDelta();
+      if (message == null || (message.getContent() == null && message.getReasoning() == null)) {
+        stripped.add(choice);
+        continue;
+      }
+      final Texts choiceTexts = texts.computeIfAbsent(choice.getIndex(),
+          index -> new Texts(spillThreshold, spillDirectory));
+      choiceTexts.content.append(message.getContent());
+      choiceTexts.reasoning.append(message.getReasoning());
+      stripped.add(BaseCompletionResponse.Choice.<CitedMessage>builder()
+          .index(choice.getIndex())
+          .message(choice.getMessage())
+          .delta(message.toBuilder().content(null).reasoning(null).build())
+          .finishReason(choice.getFinishReason())
+          .build());
+    }
+    return delta.toBuilder().choices(stripped).build();
+  }
+
+  private synchronized EnhancedCompletionResponse checkNotSpilled(final EnhancedCompletionResponse merged) {
+    for (final Texts choiceTexts : texts.values()) {
+      if (choiceTexts.content.isSpilled() || choiceTexts.reasoning.isSpilled()) {
+        throw new IllegalStateException(
+            "Content was spilled to disk; use getWithContent(), getContent() or getMetadata() instead of get()");
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * 병합 결과에 heap에 있는 텍스트를 채웁니다. 스트림 끝에 이미 병합되었으면 같은 값으로 덮어쓰며, 취소된 경우를 위한 것입니다.
+   */
+  private synchronized EnhancedCompletionResponse materialize(final EnhancedCompletionResponse merged) {
+    forEachMessage(merged, (message, choiceTexts) -> {
+      if (!choiceTexts.content.isEmpty() && !choiceTexts.content.isSpilled()) {
+        message.setContent(choiceTexts.content.toString());
+      }
+      if (!choiceTexts.reasoning.isEmpty() && !choiceTexts.reasoning.isSpilled()) {
+        message.setReasoning(choiceTexts.reasoning.toString());
+      }
+    });
+    return merged;
+  }
+
+  private void forEachMessage(final EnhancedCompletionResponse merged, final BiConsumer<ResponseMessage, Texts> action) {
+    if (merged == null || merged.getChoices() == null || texts.isEmpty()) {
+      return;
+    }
+    // 병합 결과의 메시지 타입은 런타임에 ResponseMessage일 수도 있으므로 CitedMessage로 꺼내지 않음
+    for (final BaseCompletionResponse.Choice<?> choice : merged.getChoices()) {
+      final Texts choiceTexts = texts.get(choice.getIndex());
+      final ResponseMessage message = choice.getDelta() != null ? choice.getDelta() : choice.getMessage();
+      if (choiceTexts != null && message != null) {
+        action.accept(message, choiceTexts);
+      }
+    }
+  }
+
+  private Texts firstTexts() {
+    return texts.isEmpty() ? null : texts.values().iterator().next();
+  }
+
+  private static boolean hasText(final List<BaseCompletionResponse.Choice<CitedMessage>> choices) {
+    for (final BaseCompletionResponse.Choice<CitedMessage> choice : choices) {
+      final CitedMessage message = choice.getDelta();
+      if (message != null && (message.getContent() != null || message.getReasoning() != null)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * choice 하나의 content/reasoning rope.
+   */
+  private static final class Texts {
+    private final ContentAccumulator content;
+    private final ContentAccumulator reasoning;
+
+    Texts(final int spillThreshold, final Path spillDirectory) {
+      this.content = new ContentAccumulator(spillThreshold, spillDirectory);
+      this.reasoning = new ContentAccumulator(spillThreshold, spillDirectory);
+    }
+  }
+
+  /**
+   * 구독한 mapper를 감싸 delta를 listener로 보내고 텍스트를 뺀 delta만 병합에 넘기는 mapper.
+   * 스트림이 끝나면(flush) 또는 실패 표식을 받으면 모은 텍스트를 delta 하나로 넘깁니다. 실패 때는 감싼 mapper를 flush하지 않습니다.
+   */
+  private final class Accumulating<I> implements StreamMapper<Object, EnhancedCompletionResponse> {
+    private final StreamMapper<I, EnhancedCompletionResponse> mapper;
+
+    Accumulating(final StreamMapper<I, EnhancedCompletionResponse> mapper) {
+      this.mapper = mapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<EnhancedCompletionResponse> map(final Object item) {
+      if (item == FAILED) {
+        final List<EnhancedCompletionResponse> rest = new ArrayList<>(1);
+        addTexts(rest);
+        return rest;
+      }
+      return forward(mapper.map((I) item));
+    }
+
+    @Override
+    public List<EnhancedCompletionResponse> flush() {
+      final List<EnhancedCompletionResponse> rest = forward(mapper.flush());
+      addTexts(rest);
+      return rest;
+    }
+
+    private void addTexts(final List<EnhancedCompletionResponse> deltas) {
+      final EnhancedCompletionResponse textsDelta = textsDelta();
+      if (textsDelta != null) {
+        deltas.add(textsDelta);
+      }
+    }
+  }
+
+  /**
+   * 병합용 delta(content 제거됨)는 버리고 종료 신호만 원래 listener로 전달. delta는 mapper와 {@link #emitNext}가 직접 전달합니다.
+   * 실패와 취소 때는 임시 파일을 바로 닫습니다.
+   */
+  private final class Terminal implements FluxListener<EnhancedCompletionResponse> {
+
+    @Override
+    public void onNext(final EnhancedCompletionResponse delta) {
+    }
+
+    @Override
+    public void onComplete() {
+      listener.onComplete();
+    }
+
+    @Override
+    public void onError(final Throwable e) {
+      close();
+      listener.onError(e);
+    }
+
+    @Override
+    public void onCancel() {
+      close();
+      listener.onCancel();
+    }
+  }
+}
@@ -0,0 +1,252 @@
+package me.hanju.enhancedcompletion.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.web.reactive.function.BodyInserter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.exception.EnhancedCompletionClientException;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * EnhancedCompletionRequest를 중간 ChatCompletionRequest/Message 목록 없이
+ * Chat Completion 요청 JSON으로 직접 스트리밍하는 writer.
+ *
+ * <p>
+ * 본문은 {@link Flux#generate}로 생성되어, 하류(Netty)가 요청할 때마다 메시지 몇 개 분량을
+ * 팩토리(pooled)에서 할당한 {@link DataBuffer}에 써서 내보냅니다.
+ * 필드 이름과 null 생략 규칙은 {@code ChatCompletionRequest}의 Jackson 직렬화와 같습니다.
+ * {@code BaseCompletionRequest}에 필드를 추가하면 {@link #writeTail}에도 추가해야 하며, 테스트가 누락을 검사합니다.
+ * </p>
+ */
+public class CompletionRequestWriter {
+
+  /** 버퍼 하나에 모을 최소 바이트 수 */
+  public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+  private final ObjectMapper objectMapper;
+  private final int chunkSize;
+
+  public CompletionRequestWriter(final ObjectMapper objectMapper) {
+    this(objectMapper, DEFAULT_CHUNK_SIZE);
+  }
+
+  public CompletionRequestWriter(final ObjectMapper objectMapper, final int chunkSize) {
+    this.objectMapper = objectMapper;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * WebClient {@code body(...)}에 사용할 BodyInserter.
+   *
+   * @param request 요청 정보
+   * @param stream  stream 파라미터 값
+   * @return 요청 본문을 스트리밍하는 BodyInserter
+   */
+  public BodyInserter<Flux<DataBuffer>, ReactiveHttpOutputMessage> inserter(
+      final EnhancedCompletionRequest request,
+      final boolean stream) {
+    return (outputMessage, context) -> outputMessage.writeWith(
+        write(request, stream, outputMessage.bufferFactory()));
+  }
+
+  /**
+   * 요청 JSON을 DataBuffer 스트림으로 씁니다.
+   *
+   * @param request 요청 정보
+   * @param stream  stream 파라미터 값
+   * @param factory 버퍼 팩토리
+   * @return 요청 본문 버퍼 스트림
+   */
+  public Flux<DataBuffer> write(
+      final EnhancedCompletionRequest request,
+      final boolean stream,
+      final DataBufferFactory factory) {
+    return Flux.generate(
+        () -> new WriteState(request, stream, factory),
+        (state, sink) -> {
+          state.next(sink);
+          return state;
+        },
+        WriteState::close);
+  }
+
+  /**
+   * 요청 JSON을 JsonGenerator에 씁니다.
+   */
+  public void write(
+      final EnhancedCompletionRequest request,
+      final boolean stream,
+      final JsonGenerator generator) throws IOException {
+    writeHead(request, generator);
+    final List<IMessageable> messages = request.getMessages();
+    if (messages != null) {
+      for (final IMessageable message : messages) {
+        if (message != null) {
+          message.writeTo(generator);
+        }
+      }
+    }
+    writeTail(request, stream, generator);
+  }
+
+  private static void writeHead(final EnhancedCompletionRequest request, final JsonGenerator generator)
+      throws IOException {
+    generator.writeStartObject();
+    if (request.getModel() != null) {
+      generator.writeStringField("model", request.getModel());
+    }
+    generator.writeArrayFieldStart("messages");
+  }
+
+  private static void writeTail(
+      final EnhancedCompletionRequest request,
+      final boolean stream,
+      final JsonGenerator generator) throws IOException {
+    generator.writeEndArray();
+    writeField(generator, "temperature", request.getTemperature());
+    writeField(generator, "top_p", request.getTopP());
+    writeField(generator, "n", request.getN());
+    generator.writeBooleanField("stream", stream);
+    writeField(generator, "stop", request.getStop());
+    writeField(generator, "max_tokens", request.getMaxTokens());
+    writeField(generator, "presence_penalty", request.getPresencePenalty());
+    writeField(generator, "frequency_penalty", request.getFrequencyPenalty());
+    writeField(generator, "logprobs", request.getLogprobs());
+    writeField(generator, "top_logprobs", request.getTopLogprobs());
+    writeField(generator, "user", request.getUser());
+    writeField(generator, "tools", request.getTools());
+    writeField(generator, "tool_choice", request.getToolChoice());
+    writeField(generator, "response_format", request.getResponseFormat());
+    writeField(generator, "seed", request.getSeed());
+    writeField(generator, "continue_final_message", request.getContinueFinalMessage());
+    writeField(generator, "add_generation_prompt", request.getAddGenerationPrompt());
+    generator.writeEndObject();
+  }
+
+  private static void writeField(final JsonGenerator generator, final String name, final Object value)
+      throws IOException {
+    if (value != null) {
+      generator.writeFieldName(name);
+      generator.writeObject(value);
+    }
+  }
+
+  /**
+   * Flux.generate 한 단계마다 버퍼 하나를 채우는 상태 객체.
+   */
+  private final class WriteState {
+    private final EnhancedCompletionRequest request;
+    private final boolean stream;
+    private final DataBufferFactory factory;
+    private final List<IMessageable> messages;
+    private final BufferOutputStream out = new BufferOutputStream();
+    private JsonGenerator generator;
+    private int messageIndex = -1;
+
+    WriteState(final EnhancedCompletionRequest request, final boolean stream, final DataBufferFactory factory) {
+      this.request = request;
+      this.stream = stream;
+      this.factory = factory;
+      this.messages = request.getMessages() != null ? request.getMessages() : List.of();
+    }
+
+    void next(final SynchronousSink<DataBuffer> sink) {
+      final DataBuffer buffer = factory.allocateBuffer(chunkSize);
+      out.target = buffer;
+      try {
+        if (generator == null) {
+          generator = objectMapper.getFactory().createGenerator(out);
+          generator.setCodec(objectMapper);
+          // 취소 시 close()가 닫는 괄호를 쓰지 않도록 함
+          generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+          writeHead(request, generator);
+          messageIndex = 0;
+        }
+        while (messageIndex < messages.size() && buffer.readableByteCount() < chunkSize) {
+          final IMessageable message = messages.get(messageIndex++);
+          if (message != null) {
+            message.writeTo(generator);
+          }
+          generator.flush();
+        }
+        final boolean done = messageIndex >= messages.size();
+        if (done) {
+          writeTail(request, stream, generator);
+        }
+        generator.flush();
+        out.target = null;
+        sink.next(buffer);
+        if (done) {
+          sink.complete();
+        }
+      } catch (IOException | RuntimeException e) {
+        out.target = null;
+        DataBufferUtils.release(buffer);
+        sink.error(new EnhancedCompletionClientException("Failed to write request body", e));
+      }
+    }
+
+    void close() {
+      if (generator != null) {
+        // 오류로 중단되면 generator에 남은 바이트가 있어 close()가 flush하므로, 반환한 버퍼 대신 버림
+        out.discard();
+        try {
+          generator.close();
+        } catch (IOException e) {
+          // 대상이 메모리 버퍼이므로 발생하지 않음. 내부 버퍼 반환이 목적
+        }
+      }
+    }
+  }
+
+  /**
+   * 현재 DataBuffer로 쓰기를 전달하는 OutputStream. 단계마다 대상 버퍼가 바뀝니다.
+   */
+  private static final class BufferOutputStream extends OutputStream {
+    private DataBuffer target;
+    private boolean discarding;
+
+    /**
+     * 이후 쓰기를 버립니다.
+     */
+    void discard() {
+      target = null;
+      discarding = true;
+    }
+
+    @Override
+    public void write(final int b) {
+      if (discarding) {
+        return;
+      }
+      target.ensureWritable(1);
+      target.write((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int off, final int len) {
+      if (discarding) {
+        return;
+      }
+      target.ensureWritable(len);
+      target.write(bytes, off, len);
+    }
+
+    @Override
+    public void close() {
+      target = null;
+    }
+  }
+}
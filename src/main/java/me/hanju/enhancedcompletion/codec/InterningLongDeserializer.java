@@ -0,0 +1,35 @@
+package me.hanju.enhancedcompletion.codec;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.NumberDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+/**
+ * {@link StreamInterner}가 붙어 있으면 직전과 같은 정수 값에 같은 Long 인스턴스를 돌려주는 deserializer.
+ * 붙어 있지 않으면 Jackson 기본 Long 역직렬화와 같습니다.
+ */
+public class InterningLongDeserializer extends StdScalarDeserializer<Long> {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final NumberDeserializers.LongDeserializer DEFAULT =
+      new NumberDeserializers.LongDeserializer(Long.class, null);
+
+  public InterningLongDeserializer() {
+    super(Long.class);
+  }
+
+  @Override
+  public Long deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+    final StreamInterner interner = StreamInterner.from(context);
+    if (interner != null && parser.hasToken(JsonToken.VALUE_NUMBER_INT)
+        && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+      return interner.intern(parser.getLongValue());
+    }
+    return DEFAULT.deserialize(parser, context);
+  }
+}
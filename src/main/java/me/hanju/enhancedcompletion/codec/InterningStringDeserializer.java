@@ -0,0 +1,31 @@
+package me.hanju.enhancedcompletion.codec;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+/**
+ * {@link StreamInterner}가 붙어 있으면 문자열 값을 파서 버퍼에서 바로 intern하는 deserializer.
+ * 붙어 있지 않으면 Jackson 기본 문자열 역직렬화와 같습니다.
+ */
+public class InterningStringDeserializer extends StdScalarDeserializer<String> {
+
+  private static final long serialVersionUID = 1L;
+
+  public InterningStringDeserializer() {
+    super(String.class);
+  }
+
+  @Override
+  public String deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+    final StreamInterner interner = StreamInterner.from(context);
+    if (interner != null && parser.hasToken(JsonToken.VALUE_STRING)) {
+      return interner.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+    return StringDeserializer.instance.deserialize(parser, context);
+  }
+}
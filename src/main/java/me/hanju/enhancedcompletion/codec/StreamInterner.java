@@ -0,0 +1,82 @@
+package me.hanju.enhancedcompletion.codec;
+
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+/**
+ * 스트림 하나 안에서 반복되는 chunk 메타데이터(id, object, model, created)를 공유하는 intern 표.
+ *
+ * <p>
+ * 스트림의 모든 chunk는 같은 id/object/model/created를 가지므로, 파서 버퍼의 문자를 이미 본 값과 비교해
+ * 같으면 새 String을 만들지 않고 처음 본 인스턴스를 돌려줍니다.
+ * 2천 토큰 스트림이면 chunk마다 만들던 String/Long 수천 개가 스트림당 몇 개로 줄어듭니다.
+ * 값 종류가 몇 개뿐이라 작은 배열을 선형 탐색하며, 가득 차면 더 담지 않고 새로 만듭니다.
+ * </p>
+ * <p>
+ * {@code ObjectReader.withAttribute(ATTRIBUTE, new StreamInterner())}로 스트림마다 하나씩 붙입니다.
+ * 한 스트림의 chunk는 순서대로 파싱되므로 동기화하지 않습니다.
+ * </p>
+ */
+public final class StreamInterner {
+
+  /** {@link DeserializationContext} attribute 키 */
+  public static final Object ATTRIBUTE = StreamInterner.class;
+
+  private static final int CAPACITY = 16;
+
+  private final String[] strings = new String[CAPACITY];
+  private int stringCount;
+  private Long lastLong;
+
+  /**
+   * 역직렬화 중인 스트림의 intern 표. 붙어 있지 않으면 null.
+   */
+  public static StreamInterner from(final DeserializationContext context) {
+    return context != null && context.getAttribute(ATTRIBUTE) instanceof StreamInterner interner ? interner : null;
+  }
+
+  /**
+   * 문자 범위와 같은 값을 처음 본 인스턴스로 돌려줍니다.
+   */
+  public String intern(final char[] buffer, final int offset, final int length) {
+    for (int i = 0; i < stringCount; i++) {
+      final String candidate = strings[i];
+      if (candidate.length() == length && matches(candidate, buffer, offset, length)) {
+        return candidate;
+      }
+    }
+    final String value = new String(buffer, offset, length);
+    if (stringCount < CAPACITY) {
+      strings[stringCount++] = value;
+    }
+    return value;
+  }
+
+  /**
+   * 직전 값과 같으면 같은 Long 인스턴스를 돌려줍니다 (created).
+   */
+  public Long intern(final long value) {
+    final Long last = lastLong;
+    if (last != null && last == value) {
+      return last;
+    }
+    final Long boxed = value;
+    lastLong = boxed;
+    return boxed;
+  }
+
+  private static boolean matches(final String candidate, final char[] buffer, final int offset, final int length) {
+    for (int i = 0; i < length; i++) {
+      if (candidate.charAt(i) != buffer[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "StreamInterner" + Arrays.toString(Arrays.copyOf(strings, stringCount));
+  }
+}
@@ -0,0 +1,72 @@
+package me.hanju.enhancedcompletion.endpoint;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 기본 제공 endpoint 분산 전략.
+ */
+public enum BalancingStrategy {
+
+  /**
+   * 순서대로 돌아가며 선택합니다.
+   */
+  ROUND_ROBIN {
+    @Override
+    public EndpointSelector createSelector() {
+      final AtomicInteger next = new AtomicInteger();
+      return candidates -> candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+  },
+
+  /**
+   * 진행 중인 스트림이 가장 적은 endpoint를 선택합니다.
+   */
+  LEAST_OUTSTANDING {
+    @Override
+    public EndpointSelector createSelector() {
+      return candidates -> {
+        Endpoint best = candidates.get(0);
+        for (int i = 1; i < candidates.size(); i++) {
+          final Endpoint candidate = candidates.get(i);
+          if (candidate.getOutstanding() < best.getOutstanding()) {
+            best = candidate;
+          }
+        }
+        return best;
+      };
+    }
+  },
+
+  /**
+   * 무작위로 두 개를 골라 TTFT EWMA × (진행 중 스트림 + 1)이 작은 쪽을 선택합니다.
+   * 관측 전인 endpoint는 점수가 0이므로 먼저 시도됩니다.
+   */
+  POWER_OF_TWO_CHOICES {
+    @Override
+    public EndpointSelector createSelector() {
+      return candidates -> {
+        final int size = candidates.size();
+        if (size == 1) {
+          return candidates.get(0);
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(size);
+        final int second = (first + 1 + random.nextInt(size - 1)) % size;
+        final Endpoint a = candidates.get(first);
+        final Endpoint b = candidates.get(second);
+        return load(b) < load(a) ? b : a;
+      };
+    }
+
+    private static double load(final Endpoint endpoint) {
+      return (double) endpoint.getTtftEwmaNanos() * (endpoint.getOutstanding() + 1);
+    }
+  };
+
+  /**
+   * 전략 인스턴스를 생성합니다. 상태(라운드 로빈 순번 등)는 인스턴스마다 독립적입니다.
+   */
+  public abstract EndpointSelector createSelector();
+
+}
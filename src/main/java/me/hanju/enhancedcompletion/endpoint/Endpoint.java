@@ -0,0 +1,92 @@
+package me.hanju.enhancedcompletion.endpoint;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 추론 백엔드 하나와 그 관측 상태.
+ * 모든 카운터는 lock-free(atomic)로 갱신됩니다.
+ */
+public class Endpoint {
+
+  /** TTFT EWMA 가중치 (새 샘플 비중, 1/N) */
+  private static final int EWMA_DIVISOR = 4;
+
+  private final String baseUrl;
+  private final AtomicInteger outstanding = new AtomicInteger();
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final AtomicLong ttftEwmaNanos = new AtomicLong();
+  private volatile long ejectedUntilNanos;
+  private volatile boolean ejected;
+
+  public Endpoint(final String baseUrl) {
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+  }
+
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  /**
+   * 진행 중인 스트림 수.
+   */
+  public int getOutstanding() {
+    return outstanding.get();
+  }
+
+  /**
+   * 관측된 time-to-first-token의 지수 이동 평균 (나노초). 관측 전에는 0.
+   */
+  public long getTtftEwmaNanos() {
+    return ttftEwmaNanos.get();
+  }
+
+  public int getConsecutiveFailures() {
+    return consecutiveFailures.get();
+  }
+
+  /**
+   * 주어진 시각에 선택 대상인지 여부.
+   */
+  public boolean isAvailable(final long nowNanos) {
+    return !ejected || nowNanos - ejectedUntilNanos >= 0;
+  }
+
+  void acquire() {
+    outstanding.incrementAndGet();
+  }
+
+  void release() {
+    outstanding.decrementAndGet();
+  }
+
+  void recordTtft(final long nanos) {
+    ttftEwmaNanos.getAndUpdate(previous -> previous == 0
+        ? Math.max(nanos, 1)
+        : previous + (nanos - previous) / EWMA_DIVISOR);
+  }
+
+  void recordSuccess() {
+    consecutiveFailures.set(0);
+    ejected = false;
+  }
+
+  /**
+   * @return 연속 실패 횟수
+   */
+  int recordFailure() {
+    return consecutiveFailures.incrementAndGet();
+  }
+
+  void eject(final long untilNanos) {
+    ejectedUntilNanos = untilNanos;
+    ejected = true;
+    consecutiveFailures.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return "Endpoint[" + baseUrl + ", outstanding=" + outstanding.get()
+        + ", ttftEwma=" + ttftEwmaNanos.get() / 1_000_000 + "ms" + (ejected ? ", ejected" : "") + "]";
+  }
+}
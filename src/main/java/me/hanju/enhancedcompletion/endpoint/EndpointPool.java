@@ -0,0 +1,155 @@
+package me.hanju.enhancedcompletion.endpoint;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * endpoint 목록과 분산 전략, passive health ejection을 관리합니다.
+ *
+ * <p>
+ * 연속 실패가 {@code ejectionThreshold}에 도달한 endpoint는 {@code ejectionDuration} 동안 선택에서 제외되고,
+ * 기간이 지나면 다시 후보가 됩니다. 모든 endpoint가 제외된 경우에는 전체를 후보로 사용합니다.
+ * 실패로 보는 오류는 연결/스트림 오류와 5xx, 429 응답입니다.
+ * </p>
+ */
+public class EndpointPool {
+
+  public static final int DEFAULT_EJECTION_THRESHOLD = 3;
+  public static final Duration DEFAULT_EJECTION_DURATION = Duration.ofSeconds(30);
+
+  private final List<Endpoint> endpoints;
+  private final EndpointSelector selector;
+  private final int ejectionThreshold;
+  private final long ejectionNanos;
+  private final LongSupplier clock;
+  private final LatencyWindow ttftWindow = new LatencyWindow();
+
+  public EndpointPool(final List<Endpoint> endpoints, final EndpointSelector selector) {
+    this(endpoints, selector, DEFAULT_EJECTION_THRESHOLD, DEFAULT_EJECTION_DURATION);
+  }
+
+  public EndpointPool(
+      final List<Endpoint> endpoints,
+      final EndpointSelector selector,
+      final int ejectionThreshold,
+      final Duration ejectionDuration) {
+    this(endpoints, selector, ejectionThreshold, ejectionDuration, System::nanoTime);
+  }
+
+  EndpointPool(
+      final List<Endpoint> endpoints,
+      final EndpointSelector selector,
+      final int ejectionThreshold,
+      final Duration ejectionDuration,
+      final LongSupplier clock) {
+    if (endpoints == null || endpoints.isEmpty()) {
+      throw new IllegalArgumentException("At least one endpoint is required");
+    }
+    this.endpoints = List.copyOf(endpoints);
+    this.selector = selector;
+    this.ejectionThreshold = ejectionThreshold;
+    this.ejectionNanos = ejectionDuration.toNanos();
+    this.clock = clock;
+  }
+
+  public List<Endpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * 전체 endpoint의 최근 TTFT 샘플.
+   */
+  public LatencyWindow getTtftWindow() {
+    return ttftWindow;
+  }
+
+  /**
+   * 요청을 보낼 endpoint를 선택합니다.
+   */
+  public Endpoint select() {
+    return select(null);
+  }
+
+  /**
+   * {@code exclude}를 제외하고 endpoint를 선택합니다. 다른 후보가 없으면 {@code exclude}도 후보가 됩니다.
+   */
+  public Endpoint select(final Endpoint exclude) {
+    if (endpoints.size() == 1) {
+      return endpoints.get(0);
+    }
+    final long now = clock.getAsLong();
+    final List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+    for (final Endpoint endpoint : endpoints) {
+      if (endpoint != exclude && endpoint.isAvailable(now)) {
+        candidates.add(endpoint);
+      }
+    }
+    if (candidates.isEmpty()) {
+      for (final Endpoint endpoint : endpoints) {
+        if (endpoint != exclude) {
+          candidates.add(endpoint);
+        }
+      }
+    }
+    return selector.select(candidates);
+  }
+
+  /**
+   * 스트림 시작. 진행 중 스트림 수를 증가시킵니다.
+   */
+  public void onStart(final Endpoint endpoint) {
+    endpoint.acquire();
+  }
+
+  /**
+   * 첫 chunk 수신.
+   */
+  public void onFirstToken(final Endpoint endpoint, final long ttftNanos) {
+    endpoint.recordTtft(ttftNanos);
+    ttftWindow.record(ttftNanos);
+  }
+
+  /**
+   * hedge 경쟁에서 첫 chunk 전에 져서 취소됨.
+   * 경과 시간을 TTFT 하한으로 보고 endpoint EWMA에만 반영합니다.
+   */
+  public void onAbandoned(final Endpoint endpoint, final long elapsedNanos) {
+    endpoint.recordTtft(elapsedNanos);
+  }
+
+  /**
+   * 스트림 정상 종료.
+   */
+  public void onSuccess(final Endpoint endpoint) {
+    endpoint.recordSuccess();
+  }
+
+  /**
+   * 스트림 오류. endpoint 장애로 볼 수 있는 오류만 연속 실패로 계산합니다.
+   */
+  public void onError(final Endpoint endpoint, final Throwable error) {
+    if (isEndpointFailure(error) && endpoint.recordFailure() >= ejectionThreshold) {
+      endpoint.eject(clock.getAsLong() + ejectionNanos);
+    }
+  }
+
+  /**
+   * 스트림 종료(정상/오류/취소 공통). 진행 중 스트림 수를 감소시킵니다.
+   */
+  public void onFinish(final Endpoint endpoint) {
+    endpoint.release();
+  }
+
+  private static boolean isEndpointFailure(final Throwable error) {
+    if (error instanceof WebClientResponseException response) {
+      final int status = response.getStatusCode().value();
+      // 2xx는 응답 도중 연결이 끊긴 경우
+      return status >= 500 || status == 429 || response.getStatusCode().is2xxSuccessful();
+    }
+    return true;
+  }
+}
@@ -0,0 +1,16 @@
+package me.hanju.enhancedcompletion.endpoint;
+
+import java.util.List;
+
+/**
+ * 요청을 보낼 endpoint를 고르는 전략.
+ */
+@FunctionalInterface
+public interface EndpointSelector {
+
+  /**
+   * @param candidates 선택 가능한 endpoint (비어 있지 않음)
+   * @return 선택된 endpoint
+   */
+  Endpoint select(List<Endpoint> candidates);
+}
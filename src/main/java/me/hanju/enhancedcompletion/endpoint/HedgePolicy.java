@@ -0,0 +1,47 @@
+package me.hanju.enhancedcompletion.endpoint;
+
+import java.time.Duration;
+
+/**
+ * Hedged request 지연 정책.
+ *
+ * <p>
+ * 첫 chunk가 최근 TTFT의 {@code percentile} 백분위수 안에 오지 않으면 다른 endpoint로 같은 요청을 보냅니다.
+ * 지연은 {@code [minDelay, maxDelay]}로 제한되며, 샘플이 {@code minSamples}개 미만이면 {@code maxDelay}를 사용합니다.
+ * </p>
+ */
+public class HedgePolicy {
+
+  public static final int DEFAULT_MIN_SAMPLES = 20;
+
+  private final double percentile;
+  private final long minDelayNanos;
+  private final long maxDelayNanos;
+  private final int minSamples;
+
+  public HedgePolicy(final double percentile, final Duration minDelay, final Duration maxDelay) {
+    this(percentile, minDelay, maxDelay, DEFAULT_MIN_SAMPLES);
+  }
+
+  public HedgePolicy(final double percentile, final Duration minDelay, final Duration maxDelay,
+      final int minSamples) {
+    if (percentile <= 0 || percentile > 1) {
+      throw new IllegalArgumentException("percentile must be in (0, 1]: " + percentile);
+    }
+    this.percentile = percentile;
+    this.minDelayNanos = minDelay.toNanos();
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.minSamples = minSamples;
+  }
+
+  /**
+   * 현재 관측값 기준 hedge 지연.
+   */
+  public Duration delay(final LatencyWindow ttft) {
+    if (ttft.size() < minSamples) {
+      return Duration.ofNanos(maxDelayNanos);
+    }
+    final long observed = ttft.percentile(percentile);
+    return Duration.ofNanos(Math.min(Math.max(observed, minDelayNanos), maxDelayNanos));
+  }
+}
@@ -0,0 +1,60 @@
+package me.hanju.enhancedcompletion.endpoint;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 최근 지연 시간 샘플을 보관하는 고정 크기 ring buffer.
+ * 기록은 lock-free이며, 백분위수는 조회 시점의 스냅샷으로 계산합니다.
+ */
+public class LatencyWindow {
+
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private final AtomicLongArray samples;
+  private final AtomicLong recorded = new AtomicLong();
+
+  public LatencyWindow() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public LatencyWindow(final int capacity) {
+    this.samples = new AtomicLongArray(capacity);
+  }
+
+  /**
+   * 샘플을 기록합니다. 가장 오래된 샘플을 덮어씁니다.
+   */
+  public void record(final long nanos) {
+    final long slot = recorded.getAndIncrement();
+    samples.set((int) (slot % samples.length()), nanos);
+  }
+
+  /**
+   * 보관 중인 샘플 수.
+   */
+  public int size() {
+    return (int) Math.min(recorded.get(), samples.length());
+  }
+
+  /**
+   * 보관 중인 샘플의 백분위수 (nearest-rank).
+   *
+   * @param percentile 0 초과 1 이하
+   * @return 나노초, 샘플이 없으면 -1
+   */
+  public long percentile(final double percentile) {
+    final int size = size();
+    if (size == 0) {
+      return -1;
+    }
+    final long[] snapshot = new long[size];
+    for (int i = 0; i < size; i++) {
+      snapshot[i] = samples.get(i);
+    }
+    Arrays.sort(snapshot);
+    final int rank = (int) Math.ceil(percentile * size);
+    return snapshot[Math.min(Math.max(rank, 1), size) - 1];
+  }
+}
@@ -0,0 +1,15 @@
+package me.hanju.enhancedcompletion.exception;
+
+/**
+ * 클라이언트 측 동시성/속도 제한으로 요청이 거절되었을 때 발생합니다.
+ * 서버로 요청을 보내지 않았으므로 호출자가 안전하게 재시도할 수 있습니다.
+ */
+public class AdmissionRejectedException extends EnhancedCompletionClientException {
+  public AdmissionRejectedException(String message) {
+    super(message);
+  }
+
+  public AdmissionRejectedException(String message, Throwable e) {
+    super(message, e);
+  }
+}
@@ -1,6 +1,10 @@
 package me.hanju.enhancedcompletion.exception;
 
 public class EnhancedCompletionClientException extends RuntimeException {
+  public EnhancedCompletionClientException(String message) {
+    super(message);
+  }
+
   public EnhancedCompletionClientException(String message, Throwable e) {
     super(message, e);
   }
@@ -0,0 +1,295 @@
+package me.hanju.enhancedcompletion.limit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+import me.hanju.enhancedcompletion.exception.AdmissionRejectedException;
+import me.hanju.enhancedcompletion.payload.completion.RequestPriority;
+import me.hanju.enhancedcompletion.resilience.RetryPolicy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * TTFT와 오류로 동시 스트림 수 한도를 조절하는 클라이언트 측 admission control (AIMD).
+ *
+ * <p>
+ * 한도 안에서는 바로 요청을 보내고, 넘치는 요청은 제한된 대기열에서 최대 대기 시간만큼 기다립니다.
+ * 대기열이 가득 찼거나 대기 시간이 지나면 {@link AdmissionRejectedException}으로 즉시 실패합니다.
+ * </p>
+ * <ul>
+ * <li>TTFT가 관측된 최소 TTFT의 {@value #LATENCY_TOLERANCE}배 이하이고 한도를 충분히 쓰고 있으면 한도를 1/limit씩 올립니다
+ * (한도만큼의 요청이 끝날 때마다 약 1 증가).</li>
+ * <li>TTFT가 그보다 길면 한도에 {@value #LATENCY_BACKOFF}를, 일시적 오류(5xx/429/연결 끊김)면 {@value #ERROR_BACKOFF}를 곱합니다.
+ * 응답 파싱이나 요청 본문 쓰기 같은 client 쪽 오류는 서버 부하와 무관하므로 한도에 반영하지 않습니다.</li>
+ * </ul>
+ * <p>
+ * permit 계수와 한도 갱신은 모두 CAS로 처리하며 lock을 쓰지 않습니다.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  static final double LATENCY_TOLERANCE = 2.0;
+  static final double LATENCY_BACKOFF = 0.9;
+  static final double ERROR_BACKOFF = 0.5;
+
+  /** 최소 TTFT가 오래된 값에 묶이지 않도록 표본 쪽으로 조금씩 올리는 비율의 역수 */
+  private static final int MIN_TTFT_DRIFT = 256;
+
+  /** 이보다 작은 TTFT 차이는 지연 증가로 보지 않음 (측정 잡음) */
+  private static final long LATENCY_SLACK_NANOS = 1_000_000L;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final int maxQueueSize;
+  private final Duration maxQueueWait;
+  private final WaitQueue queue;
+
+  /** 한도 (double 비트) */
+  private final AtomicLong limitBits;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong minTtftNanos = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong rejectedCount = new AtomicLong();
+  private final AtomicLong timeoutCount = new AtomicLong();
+  private volatile LimiterListener listener = new LimiterListener() {
+  };
+
+  /**
+   * @param initialLimit 시작 한도
+   * @param minLimit     최소 한도
+   * @param maxLimit     최대 한도
+   * @param maxQueueSize 대기열 최대 길이. 0이면 한도를 넘는 요청은 즉시 거절
+   * @param maxQueueWait 대기열 최대 대기 시간
+   */
+  public AdaptiveConcurrencyLimiter(
+      final int initialLimit,
+      final int minLimit,
+      final int maxLimit,
+      final int maxQueueSize,
+      final Duration maxQueueWait) {
+    this(initialLimit, minLimit, maxLimit, maxQueueSize, maxQueueWait, new FifoWaitQueue());
+  }
+
+  /**
+   * @param queue 대기 중인 요청 중 누가 먼저 permit을 받을지 정하는 대기열
+   */
+  public AdaptiveConcurrencyLimiter(
+      final int initialLimit,
+      final int minLimit,
+      final int maxLimit,
+      final int maxQueueSize,
+      final Duration maxQueueWait,
+      final WaitQueue queue) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Invalid concurrency bounds: " + minLimit + ".." + maxLimit);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.maxQueueSize = maxQueueSize;
+    this.maxQueueWait = maxQueueWait;
+    this.queue = queue;
+    this.limitBits = new AtomicLong(Double.doubleToLongBits(clamp(initialLimit)));
+  }
+
+  public void setListener(final LimiterListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * permit을 얻은 뒤 source를 구독하고, 스트림이 끝나면 결과를 한도에 반영하고 permit을 반환합니다.
+   * TTFT는 permit을 얻은 시점부터 첫 요소까지로 잽니다 (대기열 대기 시간 제외).
+   */
+  public <T> Flux<T> limit(final Flux<T> source) {
+    return limit(source, null, RequestPriority.INTERACTIVE);
+  }
+
+  /**
+   * tenant와 우선순위를 지정하여 {@link #limit(Flux)}를 수행합니다.
+   * 한도를 넘어 대기할 때 대기열이 이 값으로 순서를 정합니다.
+   *
+   * @param tenant   tenant 키 (null 가능)
+   * @param priority 우선순위 (null이면 INTERACTIVE)
+   */
+  public <T> Flux<T> limit(final Flux<T> source, final String tenant, final RequestPriority priority) {
+    return acquire(tenant, priority).flatMapMany(permit -> source
+        .doOnNext(item -> permit.firstToken())
+        .doOnComplete(permit::succeed)
+        .doOnError(permit::fail)
+        .doOnCancel(permit::cancel));
+  }
+
+  Mono<Permit> acquire(final String tenant, final RequestPriority priority) {
+    return Mono.defer(() -> {
+      if (tryAcquire()) {
+        return Mono.just(new Permit());
+      }
+      if (queue.size() >= maxQueueSize) {
+        rejectedCount.incrementAndGet();
+        listener.onRejected();
+        return Mono.error(new AdmissionRejectedException("Concurrency limit reached and queue is full"));
+      }
+      final Waiter waiter = new Waiter(tenant, priority);
+      return Mono.<Permit>create(sink -> {
+        waiter.attach(sink);
+        sink.onCancel(() -> {
+          if (waiter.cancel()) {
+            queue.remove(waiter);
+          }
+        });
+        queue.offer(waiter);
+        listener.onQueued(queue.size());
+        // offer 직전에 반환된 permit을 놓치지 않도록 다시 확인
+        drain();
+      })
+          // 취소와 permit 전달이 겹쳐 버려진 permit 반환
+          .doOnDiscard(Permit.class, Permit::cancel)
+          .timeout(maxQueueWait, Mono.defer(() -> {
+            timeoutCount.incrementAndGet();
+            listener.onTimeout();
+            return Mono.error(new AdmissionRejectedException(
+                "Timed out waiting for concurrency permit", new TimeoutException()));
+          }));
+    });
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      final int current = inFlight.get();
+      if (current >= getLimit()) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * 남는 permit을 대기열 앞쪽 waiter에게 나누어 줍니다.
+   */
+  private void drain() {
+    while (queue.size() > 0 && tryAcquire()) {
+      final Waiter waiter = queue.poll();
+      if (waiter == null) {
+        inFlight.decrementAndGet();
+        return;
+      }
+      if (!waiter.grant(new Permit())) {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  private void adjust(final DoubleUnaryOperator update) {
+    long previousBits;
+    double previous;
+    double next;
+    do {
+      previousBits = limitBits.get();
+      previous = Double.longBitsToDouble(previousBits);
+      next = clamp(update.applyAsDouble(previous));
+    } while (!limitBits.compareAndSet(previousBits, Double.doubleToLongBits(next)));
+    if ((int) previous != (int) next) {
+      listener.onLimitChanged((int) previous, (int) next);
+    }
+  }
+
+  private void onSample(final long ttftNanos, final int inFlightAtStart) {
+    final long min = minTtftNanos.accumulateAndGet(ttftNanos,
+        (current, sample) -> sample < current ? sample : current + (sample - current) / MIN_TTFT_DRIFT);
+    if (ttftNanos > Math.max(min * LATENCY_TOLERANCE, min + LATENCY_SLACK_NANOS)) {
+      adjust(limit -> limit * LATENCY_BACKOFF);
+    } else if (inFlightAtStart * 2 >= getLimit()) {
+      // 한도를 절반도 쓰지 않는 중이면 늘려도 의미가 없으므로 유지
+      adjust(limit -> limit + 1 / limit);
+    }
+  }
+
+  private double clamp(final double limit) {
+    return Math.max(minLimit, Math.min(maxLimit, limit));
+  }
+
+  /**
+   * 현재 동시성 한도.
+   */
+  public int getLimit() {
+    return (int) Double.longBitsToDouble(limitBits.get());
+  }
+
+  /**
+   * permit을 가진 (진행 중인) 요청 수.
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * permit을 기다리는 요청 수.
+   */
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /**
+   * 대기열이 가득 차 거절된 요청 수 (누적).
+   */
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  /**
+   * 대기 시간 초과로 거절된 요청 수 (누적).
+   */
+  public long getTimeoutCount() {
+    return timeoutCount.get();
+  }
+
+  /**
+   * 요청 하나가 가진 permit. 한 번만 반환됩니다.
+   */
+  final class Permit {
+    private final long startNanos = System.nanoTime();
+    private final int inFlightAtStart = inFlight.get();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private volatile long ttftNanos = -1;
+
+    void firstToken() {
+      if (ttftNanos < 0) {
+        ttftNanos = System.nanoTime() - startNanos;
+      }
+    }
+
+    void succeed() {
+      if (released.compareAndSet(false, true)) {
+        if (ttftNanos >= 0) {
+          onSample(ttftNanos, inFlightAtStart);
+        }
+        release();
+      }
+    }
+
+    void fail(final Throwable error) {
+      if (released.compareAndSet(false, true)) {
+        // 재시도 정책과 같은 분류: codec 오류는 모든 tenant의 한도를 줄이지 않도록 제외
+        if (RetryPolicy.isTransient(error)) {
+          adjust(limit -> limit * ERROR_BACKOFF);
+        }
+        release();
+      }
+    }
+
+    void cancel() {
+      if (released.compareAndSet(false, true)) {
+        release();
+      }
+    }
+
+    private void release() {
+      inFlight.decrementAndGet();
+      drain();
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package me.hanju.enhancedcompletion.limit;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import me.hanju.enhancedcompletion.payload.completion.RequestPriority;
+
+/**
+ * tenant 간 공정하게 permit을 나누어 주는 대기열 (deficit round-robin).
+ *
+ * <p>
+ * 우선순위마다 lane이 있고, lane 사이와 lane 안의 tenant 사이를 각각 가중치만큼씩 번갈아 꺼냅니다.
+ * 예를 들어 INTERACTIVE:BATCH 가중치가 4:1이면 둘 다 대기 중일 때 interactive 4건마다 batch 1건이 나가므로
+ * batch가 굶지 않습니다. 요청 하나의 비용은 1로 봅니다.
+ * </p>
+ * <p>
+ * 대기열 조작은 짧은 임계 구역이라 모니터 lock으로 보호합니다. permit 계수는 limiter가 lock 없이 처리합니다.
+ * </p>
+ */
+public class FairWaitQueue implements WaitQueue {
+
+  public static final int DEFAULT_INTERACTIVE_WEIGHT = 4;
+  public static final int DEFAULT_BATCH_WEIGHT = 1;
+
+  /** tenant 키가 없는 요청이 함께 쓰는 키 */
+  private static final String ANONYMOUS = "";
+
+  private final Map<String, Integer> tenantWeights;
+  private final Map<RequestPriority, Lane> lanes = new EnumMap<>(RequestPriority.class);
+  private final ArrayDeque<Lane> activeLanes = new ArrayDeque<>();
+  private volatile int size;
+
+  public FairWaitQueue() {
+    this(Map.of(), DEFAULT_INTERACTIVE_WEIGHT, DEFAULT_BATCH_WEIGHT);
+  }
+
+  /**
+   * @param tenantWeights     tenant별 가중치. 없는 tenant는 1
+   * @param interactiveWeight INTERACTIVE lane 가중치
+   * @param batchWeight       BATCH lane 가중치
+   */
+  public FairWaitQueue(
+      final Map<String, Integer> tenantWeights,
+      final int interactiveWeight,
+      final int batchWeight) {
+    this.tenantWeights = tenantWeights != null ? Map.copyOf(tenantWeights) : Map.of();
+    lanes.put(RequestPriority.INTERACTIVE, new Lane(Math.max(1, interactiveWeight)));
+    lanes.put(RequestPriority.BATCH, new Lane(Math.max(1, batchWeight)));
+  }
+
+  @Override
+  public synchronized void offer(final Waiter waiter) {
+    final Lane lane = lanes.get(waiter.getPriority());
+    if (lane.isEmpty()) {
+      activeLanes.addLast(lane);
+    }
+    lane.offer(waiter);
+    size++;
+  }
+
+  @Override
+  public synchronized Waiter poll() {
+    final Lane lane = activeLanes.peekFirst();
+    if (lane == null) {
+      return null;
+    }
+    if (lane.deficit <= 0) {
+      lane.deficit += lane.weight;
+    }
+    final Waiter waiter = lane.poll();
+    lane.deficit--;
+    size--;
+    if (lane.isEmpty()) {
+      activeLanes.pollFirst();
+      lane.deficit = 0;
+    } else if (lane.deficit <= 0) {
+      activeLanes.addLast(activeLanes.pollFirst());
+    }
+    return waiter;
+  }
+
+  @Override
+  public synchronized void remove(final Waiter waiter) {
+    final Lane lane = lanes.get(waiter.getPriority());
+    if (lane.remove(waiter)) {
+      size--;
+      if (lane.isEmpty()) {
+        activeLanes.remove(lane);
+        lane.deficit = 0;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private int weightOf(final String tenant) {
+    return Math.max(1, tenantWeights.getOrDefault(tenant, 1));
+  }
+
+  /**
+   * 우선순위 하나의 대기열. tenant 사이를 deficit round-robin으로 돕니다.
+   */
+  private final class Lane {
+    private final int weight;
+    private final Map<String, TenantQueue> tenants = new HashMap<>();
+    private final ArrayDeque<TenantQueue> active = new ArrayDeque<>();
+    private int deficit;
+
+    Lane(final int weight) {
+      this.weight = weight;
+    }
+
+    boolean isEmpty() {
+      return active.isEmpty();
+    }
+
+    void offer(final Waiter waiter) {
+      final String key = waiter.getTenant() != null ? waiter.getTenant() : ANONYMOUS;
+      final TenantQueue tenant = tenants.computeIfAbsent(key, TenantQueue::new);
+      if (tenant.waiters.isEmpty()) {
+        active.addLast(tenant);
+      }
+      tenant.waiters.addLast(waiter);
+    }
+
+    Waiter poll() {
+      final TenantQueue tenant = active.peekFirst();
+      if (tenant.deficit <= 0) {
+        tenant.deficit += weightOf(tenant.key);
+      }
+      final Waiter waiter = tenant.waiters.pollFirst();
+      tenant.deficit--;
+      if (tenant.waiters.isEmpty()) {
+        active.pollFirst();
+        tenants.remove(tenant.key);
+      } else if (tenant.deficit <= 0) {
+        active.addLast(active.pollFirst());
+      }
+      return waiter;
+    }
+
+    boolean remove(final Waiter waiter) {
+      final TenantQueue tenant = tenants.get(waiter.getTenant() != null ? waiter.getTenant() : ANONYMOUS);
+      if (tenant == null || !tenant.waiters.remove(waiter)) {
+        return false;
+      }
+      if (tenant.waiters.isEmpty()) {
+        active.remove(tenant);
+        tenants.remove(tenant.key);
+      }
+      return true;
+    }
+  }
+
+  private static final class TenantQueue {
+    private final String key;
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private int deficit;
+
+    TenantQueue(final String key) {
+      this.key = key;
+    }
+  }
+}
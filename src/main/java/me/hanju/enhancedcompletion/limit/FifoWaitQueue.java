@@ -0,0 +1,40 @@
+package me.hanju.enhancedcompletion.limit;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 도착 순서대로 permit을 나누어 주는 대기열.
+ */
+public class FifoWaitQueue implements WaitQueue {
+
+  private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  @Override
+  public void offer(final Waiter waiter) {
+    waiters.offer(waiter);
+    size.incrementAndGet();
+  }
+
+  @Override
+  public Waiter poll() {
+    final Waiter waiter = waiters.poll();
+    if (waiter != null) {
+      size.decrementAndGet();
+    }
+    return waiter;
+  }
+
+  @Override
+  public void remove(final Waiter waiter) {
+    if (waiters.remove(waiter)) {
+      size.decrementAndGet();
+    }
+  }
+
+  @Override
+  public int size() {
+    return size.get();
+  }
+}
@@ -0,0 +1,33 @@
+package me.hanju.enhancedcompletion.limit;
+
+/**
+ * 동시성 limiter 이벤트 리스너. 필요한 메서드만 재정의합니다.
+ */
+public interface LimiterListener {
+
+  /**
+   * 동시성 한도가 바뀜 (정수 값 기준).
+   */
+  default void onLimitChanged(final int previous, final int current) {
+  }
+
+  /**
+   * 요청이 대기열에 들어감.
+   *
+   * @param depth 들어간 뒤의 대기열 길이
+   */
+  default void onQueued(final int depth) {
+  }
+
+  /**
+   * 대기열이 가득 차 즉시 거절됨.
+   */
+  default void onRejected() {
+  }
+
+  /**
+   * 대기 시간 초과로 거절됨.
+   */
+  default void onTimeout() {
+  }
+}
@@ -0,0 +1,111 @@
+package me.hanju.enhancedcompletion.limit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * lock 없는 token bucket.
+ *
+ * <p>
+ * GCRA(generic cell rate algorithm) 방식으로 "bucket이 다시 가득 차는 시각"
+ * (theoretical arrival time) 하나만 {@link AtomicLong}에 저장하고 CAS로 갱신합니다.
+ * 토큰 하나는 {@code period / capacity}만큼의 시간에 해당하며, 빌려 쓴 만큼 시각이 미래로 밀립니다.
+ * 잔량과 갱신 시각을 따로 두지 않으므로 두 값을 함께 바꾸기 위한 lock이 필요 없습니다.
+ * </p>
+ */
+public class TokenBucket {
+
+  private final long capacity;
+  private final long nanosPerToken;
+  private final long burstNanos;
+  private final LongSupplier clock;
+  private final AtomicLong fullAt;
+
+  /**
+   * @param capacity 기간당 토큰 수 (최대 누적량)
+   * @param period   capacity만큼 다시 채워지는 기간
+   */
+  public TokenBucket(final long capacity, final Duration period) {
+    this(capacity, period, System::nanoTime);
+  }
+
+  TokenBucket(final long capacity, final Duration period, final LongSupplier clock) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.nanosPerToken = Math.max(1, period.toNanos() / capacity);
+    this.burstNanos = nanosPerToken * capacity;
+    this.clock = clock;
+    this.fullAt = new AtomicLong(clock.getAsLong());
+  }
+
+  /**
+   * cost만큼 토큰을 예약합니다. 잔량이 모자라면 미리 빌려 쓰고, 그만큼 기다려야 하는 시간을 반환합니다.
+   *
+   * @param cost         예약할 토큰 수
+   * @param maxWaitNanos 허용할 최대 대기 시간
+   * @return 대기해야 하는 시간(ns). maxWait를 넘으면 예약하지 않고 -1
+   */
+  public long reserve(final long cost, final long maxWaitNanos) {
+    while (true) {
+      final long now = clock.getAsLong();
+      final long current = fullAt.get();
+      final long next = Math.max(current, now) + cost * nanosPerToken;
+      final long wait = next - burstNanos - now;
+      if (wait > maxWaitNanos) {
+        return -1;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return Math.max(0, wait);
+      }
+    }
+  }
+
+  /**
+   * 예약 이후 실제 사용량과의 차이를 반영합니다.
+   *
+   * @param delta 양수면 추가 차감, 음수면 환급
+   */
+  public void adjust(final long delta) {
+    if (delta == 0) {
+      return;
+    }
+    final long now = clock.getAsLong();
+    fullAt.accumulateAndGet(delta * nanosPerToken, (current, shift) -> shift > 0
+        ? Math.max(current, now) + shift
+        : current + shift);
+  }
+
+  /**
+   * 지정한 시각까지 토큰을 내주지 않습니다 (Retry-After 등). 그 시각부터 빈 bucket에서 다시 채워집니다.
+   *
+   * @param nanoTime {@link System#nanoTime()} 기준 시각
+   */
+  public void blockUntil(final long nanoTime) {
+    fullAt.accumulateAndGet(nanoTime + burstNanos, Math::max);
+  }
+
+  /**
+   * 서버가 알려준 잔량이 로컬 잔량보다 적으면 로컬 잔량을 그만큼 줄입니다.
+   */
+  public void limitRemaining(final long remaining) {
+    final long now = clock.getAsLong();
+    final long clamped = Math.max(0, Math.min(remaining, capacity));
+    fullAt.accumulateAndGet(now + burstNanos - clamped * nanosPerToken, Math::max);
+  }
+
+  /**
+   * 현재 바로 쓸 수 있는 토큰 수. 빌려 쓴 상태이면 0.
+   */
+  public long getAvailable() {
+    final long now = clock.getAsLong();
+    final long debtNanos = Math.max(fullAt.get(), now) - now;
+    return Math.max(0, (burstNanos - debtNanos) / nanosPerToken);
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+}
@@ -0,0 +1,404 @@
+package me.hanju.enhancedcompletion.limit;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import me.hanju.enhancedcompletion.exception.AdmissionRejectedException;
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.AttachedMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import me.hanju.enhancedcompletion.tokenizer.TokenCounter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 분당 요청 수(RPM)와 분당 토큰 수(TPM)를 클라이언트에서 지키는 rate limiter.
+ *
+ * <p>
+ * 요청을 보내기 전에 요청 1건과 (프롬프트 토큰 추정치 + max_tokens)를 각 {@link TokenBucket}에서 예약하고,
+ * 모자라면 최대 대기 시간까지 기다린 뒤 보냅니다. 그보다 오래 기다려야 하면 {@link AdmissionRejectedException}으로 즉시 실패합니다.
+ * 스트림이 끝나면 응답의 usage(없으면 content chunk 수)로 실제 사용량을 계산해 차이를 환급하거나 추가 차감합니다.
+ * </p>
+ * <p>
+ * 재시도/이어받기는 {@link #limitAttempt}로 감싸면 시도마다 다시 예약하므로, 429의 {@code Retry-After}로 막힌 bucket을 기다린 뒤 보내고
+ * 보낸 시도마다 요청 1건과 그 시도의 프롬프트를 차감합니다.
+ * </p>
+ * <p>
+ * 응답 헤더의 {@code Retry-After}와 {@code x-ratelimit-remaining-*}/{@code x-ratelimit-reset-*}도 bucket에 반영합니다.
+ * </p>
+ */
+public class TokenRateLimiter {
+
+  private static final Duration MINUTE = Duration.ofMinutes(1);
+  private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+  private final TokenBucket requests;
+  private final TokenBucket tokens;
+  private final long maxWaitNanos;
+  private final TokenCounter tokenCounter;
+  private final LongSupplier clock;
+  private final AtomicLong rejectedCount = new AtomicLong();
+
+  /**
+   * @param requestsPerMinute 분당 요청 수. 0 이하면 제한하지 않음
+   * @param tokensPerMinute   분당 토큰 수. 0 이하면 제한하지 않음
+   * @param maxWait           예약 후 허용할 최대 대기 시간
+   * @param tokenCounter      프롬프트 토큰 계산기. null이면 글자 수로 추정
+   */
+  public TokenRateLimiter(
+      final long requestsPerMinute,
+      final long tokensPerMinute,
+      final Duration maxWait,
+      final TokenCounter tokenCounter) {
+    this(requestsPerMinute, tokensPerMinute, maxWait, tokenCounter, System::nanoTime);
+  }
+
+  TokenRateLimiter(
+      final long requestsPerMinute,
+      final long tokensPerMinute,
+      final Duration maxWait,
+      final TokenCounter tokenCounter,
+      final LongSupplier clock) {
+    this.requests = requestsPerMinute > 0 ? new TokenBucket(requestsPerMinute, MINUTE, clock) : null;
+    this.tokens = tokensPerMinute > 0 ? new TokenBucket(tokensPerMinute, MINUTE, clock) : null;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.tokenCounter = tokenCounter;
+    this.clock = clock;
+  }
+
+  /**
+   * 요청을 예약한 뒤 source를 구독하고, 스트림이 끝나면 실제 사용량으로 정산합니다.
+   * 이 예약은 source의 첫 시도에 쓰이며, 이후 시도는 {@link #limitAttempt}가 예약합니다.
+   */
+  public Flux<ChatCompletionResponse> limit(
+      final EnhancedCompletionRequest request,
+      final Flux<ChatCompletionResponse> source) {
+    return Flux.defer(() -> {
+      final int promptTokens = countPromptTokens(request.getMessages());
+      final long cost = cost(request, promptTokens);
+      final long wait = reserve(cost);
+      if (wait < 0) {
+        rejectedCount.incrementAndGet();
+        return Flux.error(rejected(cost));
+      }
+      final Charge charge = new Charge(promptTokens, cost);
+      final Flux<ChatCompletionResponse> dispatched = source
+          .doOnSubscribe(s -> charge.dispatched.set(true))
+          .doOnNext(charge::observe)
+          .contextWrite(context -> context.put(Charge.class, charge));
+      final Flux<ChatCompletionResponse> delayed = wait > 0
+          ? Mono.delay(Duration.ofNanos(wait)).thenMany(dispatched)
+          : dispatched;
+      return delayed
+          .doOnComplete(charge::settle)
+          .doOnError(charge::fail)
+          .doOnCancel(charge::settle);
+    });
+  }
+
+  /**
+   * 재시도 루프 안에서 시도 하나를 감쌉니다.
+   * 첫 시도는 {@link #limit}의 예약을 쓰고, 이후 시도는 그 요청의 비용을 다시 예약해 bucket이 허락할 때 보냅니다.
+   * {@link #limit} 밖에서 구독되면 source를 그대로 구독합니다.
+   *
+   * @param request 이번 시도의 요청 (이어받기면 prefill이 붙은 요청)
+   * @param source  이번 시도의 응답 스트림
+   */
+  public Flux<ChatCompletionResponse> limitAttempt(
+      final EnhancedCompletionRequest request,
+      final Flux<ChatCompletionResponse> source) {
+    return Flux.deferContextual(context -> {
+      final Charge charge = context.getOrDefault(Charge.class, null);
+      if (charge == null || charge.attempts.getAndIncrement() == 0) {
+        return source;
+      }
+      final int promptTokens = countPromptTokens(request.getMessages());
+      final long cost = cost(request, promptTokens);
+      final long wait = reserve(cost);
+      if (wait < 0) {
+        rejectedCount.incrementAndGet();
+        charge.retryRejected = true;
+        return Flux.error(rejected(cost));
+      }
+      charge.nextAttempt(promptTokens, cost);
+      return wait > 0 ? Mono.delay(Duration.ofNanos(wait)).thenMany(source) : source;
+    });
+  }
+
+  private static long cost(final EnhancedCompletionRequest request, final int promptTokens) {
+    return promptTokens + (request.getMaxTokens() != null ? request.getMaxTokens() : 0);
+  }
+
+  private static AdmissionRejectedException rejected(final long cost) {
+    return new AdmissionRejectedException("Rate limit exceeded: request needs " + cost + " tokens");
+  }
+
+  /**
+   * 요청 1건과 cost 토큰을 예약합니다. 한쪽이라도 maxWait를 넘으면 이미 예약한 쪽을 되돌립니다.
+   *
+   * @return 대기해야 하는 시간(ns), 거절이면 -1
+   */
+  private long reserve(final long cost) {
+    long wait = 0;
+    if (requests != null) {
+      wait = requests.reserve(1, maxWaitNanos);
+      if (wait < 0) {
+        return -1;
+      }
+    }
+    if (tokens != null) {
+      final long tokenWait = tokens.reserve(cost, maxWaitNanos);
+      if (tokenWait < 0) {
+        if (requests != null) {
+          requests.adjust(-1);
+        }
+        return -1;
+      }
+      wait = Math.max(wait, tokenWait);
+    }
+    return wait;
+  }
+
+  /**
+   * 응답 헤더를 bucket에 반영합니다. 응답 상태와 관계없이 호출합니다.
+   *
+   * @param headers 헤더 이름 → 첫 번째 값 (없으면 null)
+   */
+  public void onResponseHeaders(final Function<String, String> headers) {
+    final long now = clock.getAsLong();
+    final Duration retryAfter = parseRetryAfter(headers.apply("Retry-After"));
+    if (retryAfter != null) {
+      blockUntil(requests, now + retryAfter.toNanos());
+      blockUntil(tokens, now + retryAfter.toNanos());
+    }
+    applyRemaining(requests, headers.apply("x-ratelimit-remaining-requests"),
+        headers.apply("x-ratelimit-reset-requests"), now);
+    applyRemaining(tokens, headers.apply("x-ratelimit-remaining-tokens"),
+        headers.apply("x-ratelimit-reset-tokens"), now);
+  }
+
+  private static void blockUntil(final TokenBucket bucket, final long nanoTime) {
+    if (bucket != null) {
+      bucket.blockUntil(nanoTime);
+    }
+  }
+
+  private static void applyRemaining(final TokenBucket bucket, final String remaining, final String reset,
+      final long now) {
+    if (bucket == null || remaining == null) {
+      return;
+    }
+    final long value;
+    try {
+      value = Long.parseLong(remaining.trim());
+    } catch (NumberFormatException e) {
+      return;
+    }
+    bucket.limitRemaining(value);
+    final Duration resetAfter = parseDuration(reset);
+    if (value <= 0 && resetAfter != null) {
+      bucket.blockUntil(now + resetAfter.toNanos());
+    }
+  }
+
+  /**
+   * {@code Retry-After}: 초 단위 숫자 또는 HTTP-date.
+   */
+  static Duration parseRetryAfter(final String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    final Duration seconds = parseDuration(value);
+    if (seconds != null) {
+      return seconds;
+    }
+    try {
+      final ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+      final Duration delay = Duration.between(ZonedDateTime.now(at.getZone()), at);
+      return delay.isNegative() ? Duration.ZERO : delay;
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  /**
+   * 초 단위 숫자({@code 1.5}) 또는 {@code 6m0s}, {@code 20ms} 형식의 기간.
+   */
+  static Duration parseDuration(final String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    final String trimmed = value.trim();
+    try {
+      return Duration.ofNanos((long) (Double.parseDouble(trimmed) * 1_000_000_000L));
+    } catch (NumberFormatException e) {
+      // 단위가 붙은 형식
+    }
+    final Matcher matcher = DURATION_PART.matcher(trimmed);
+    double nanos = 0;
+    int end = 0;
+    while (matcher.find() && matcher.start() == end) {
+      final double amount = Double.parseDouble(matcher.group(1));
+      nanos += switch (matcher.group(2)) {
+        case "h" -> amount * 3_600_000_000_000L;
+        case "m" -> amount * 60_000_000_000L;
+        case "s" -> amount * 1_000_000_000L;
+        default -> amount * 1_000_000L;
+      };
+      end = matcher.end();
+    }
+    return end > 0 && end == trimmed.length() ? Duration.ofNanos((long) nanos) : null;
+  }
+
+  /**
+   * 요청 메시지의 프롬프트 토큰 수. ChatCompletionRequest로 바꾸지 않고 메시지를 그대로 셉니다.
+   */
+  private int countPromptTokens(final List<? extends IMessageable> messages) {
+    int total = TokenCounter.REPLY_PRIMING_TOKENS;
+    if (messages == null) {
+      return total;
+    }
+    for (final IMessageable message : messages) {
+      if (message == null) {
+        continue;
+      }
+      if (tokenCounter != null) {
+        total += tokenCounter.countTokens(message);
+      } else {
+        // tokenizer가 없으면 4글자당 1토큰으로 추정. 차이는 스트림 종료 후 usage로 정산됨
+        total += TokenCounter.TOKENS_PER_MESSAGE + (contentLength(message) + 3) / 4;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * 전송될 content 길이. 문서가 붙은 메시지는 조각 길이의 합으로 셉니다 (문자열로 합치지 않음).
+   */
+  private static int contentLength(final IMessageable message) {
+    if (message instanceof AttachedMessage attached) {
+      return attached.getContentFragments().length();
+    }
+    final String content = message.getContent();
+    return content != null ? content.length() : 0;
+  }
+
+  /**
+   * 현재 바로 쓸 수 있는 요청 수. 제한하지 않으면 -1.
+   */
+  public long getAvailableRequests() {
+    return requests != null ? requests.getAvailable() : -1;
+  }
+
+  /**
+   * 현재 바로 쓸 수 있는 토큰 수. 제한하지 않으면 -1.
+   */
+  public long getAvailableTokens() {
+    return tokens != null ? tokens.getAvailable() : -1;
+  }
+
+  /**
+   * 대기 시간 초과로 거절된 요청 수 (누적).
+   */
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  /**
+   * 요청 하나(재시도 포함)의 예약과 정산. 시도는 순서대로 일어나며, 사용량은 시도마다 따로 셉니다.
+   */
+  private final class Charge {
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicBoolean dispatched = new AtomicBoolean();
+    private final AtomicBoolean settled = new AtomicBoolean();
+    private volatile boolean retryRejected;
+    private volatile int promptTokens;
+    private volatile long reserved;
+    /** 끝난 시도들의 실제 사용량 합 */
+    private volatile long used;
+    private volatile long usageTotal = -1;
+    private volatile long completionChunks;
+
+    Charge(final int promptTokens, final long reserved) {
+      this.promptTokens = promptTokens;
+      this.reserved = reserved;
+    }
+
+    /**
+     * 이전 시도의 사용량을 확정하고 다음 시도의 예약을 더합니다.
+     */
+    synchronized void nextAttempt(final int nextPromptTokens, final long cost) {
+      used += attemptUsage();
+      usageTotal = -1;
+      completionChunks = 0;
+      promptTokens = nextPromptTokens;
+      reserved += cost;
+    }
+
+    /**
+     * 현재 시도의 사용량. usage가 없으면 content chunk 하나를 토큰 하나로 봄.
+     */
+    private long attemptUsage() {
+      return usageTotal >= 0 ? usageTotal : promptTokens + completionChunks;
+    }
+
+    void observe(final ChatCompletionResponse chunk) {
+      final BaseCompletionResponse.Usage usage = chunk.getUsage();
+      if (usage != null && usage.getTotalTokens() != null) {
+        usageTotal = usage.getTotalTokens();
+      }
+      if (chunk.getChoices() != null) {
+        for (final BaseCompletionResponse.Choice<ResponseMessage> choice : chunk.getChoices()) {
+          final ResponseMessage delta = choice.getDelta();
+          if (delta != null && (delta.getContent() != null || delta.getToolCalls() != null)) {
+            completionChunks++;
+          }
+        }
+      }
+    }
+
+    synchronized void settle() {
+      if (!settled.compareAndSet(false, true)) {
+        return;
+      }
+      if (!dispatched.get()) {
+        refund();
+        return;
+      }
+      if (tokens != null) {
+        tokens.adjust(used + attemptUsage() - reserved);
+      }
+    }
+
+    void fail(final Throwable error) {
+      if (error instanceof AdmissionRejectedException && !retryRejected && settled.compareAndSet(false, true)) {
+        // 하위 limiter에서 거절되어 서버로 보내지 않음
+        refund();
+        return;
+      }
+      settle();
+    }
+
+    private void refund() {
+      if (requests != null) {
+        requests.adjust(-1);
+      }
+      if (tokens != null) {
+        tokens.adjust(-reserved);
+      }
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package me.hanju.enhancedcompletion.limit;
+
+/**
+ * permit 대기열. 어느 waiter가 먼저 permit을 받을지 정합니다.
+ * 구현체는 thread-safe해야 합니다.
+ */
+public interface WaitQueue {
+
+  void offer(Waiter waiter);
+
+  /**
+   * 다음에 permit을 받을 waiter를 꺼냅니다.
+   *
+   * @return 비어 있으면 null
+   */
+  Waiter poll();
+
+  /**
+   * 대기 중에 취소된 waiter를 제거합니다.
+   */
+  void remove(Waiter waiter);
+
+  int size();
+}
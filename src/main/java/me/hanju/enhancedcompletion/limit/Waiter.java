@@ -0,0 +1,61 @@
+package me.hanju.enhancedcompletion.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.hanju.enhancedcompletion.payload.completion.RequestPriority;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * permit을 기다리는 요청 하나.
+ */
+public final class Waiter {
+
+  private static final int WAITING = 0;
+  private static final int GRANTED = 1;
+  private static final int CANCELLED = 2;
+
+  private final String tenant;
+  private final RequestPriority priority;
+  private final AtomicInteger state = new AtomicInteger(WAITING);
+  private volatile MonoSink<AdaptiveConcurrencyLimiter.Permit> sink;
+
+  Waiter(final String tenant, final RequestPriority priority) {
+    this.tenant = tenant;
+    this.priority = priority != null ? priority : RequestPriority.INTERACTIVE;
+  }
+
+  /**
+   * tenant 키. 없으면 null.
+   */
+  public String getTenant() {
+    return tenant;
+  }
+
+  public RequestPriority getPriority() {
+    return priority;
+  }
+
+  void attach(final MonoSink<AdaptiveConcurrencyLimiter.Permit> sink) {
+    this.sink = sink;
+  }
+
+  /**
+   * permit을 전달합니다.
+   *
+   * @return 이미 취소된 waiter이면 false (호출자가 permit을 반환해야 함)
+   */
+  boolean grant(final AdaptiveConcurrencyLimiter.Permit permit) {
+    if (!state.compareAndSet(WAITING, GRANTED)) {
+      return false;
+    }
+    sink.success(permit);
+    return true;
+  }
+
+  /**
+   * @return 대기 중에 취소되었으면 true
+   */
+  boolean cancel() {
+    return state.compareAndSet(WAITING, CANCELLED);
+  }
+}
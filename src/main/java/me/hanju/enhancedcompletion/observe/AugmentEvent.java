@@ -0,0 +1,32 @@
+package me.hanju.enhancedcompletion.observe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR 이벤트: Augmenter 실행 하나.
+ */
+@Name(JfrCompletionObserver.EVENT_PREFIX + "Augment")
+@Label("Augment")
+@Description("Augmenter 실행 하나")
+@Category({ "Enhanced Completion" })
+final class AugmentEvent extends Event {
+
+  @Label("Request Id")
+  long requestId;
+
+  @Label("Model")
+  String model;
+
+  @Label("Augmenter")
+  String augmenter;
+
+  @Label("Documents")
+  int documents;
+
+  @Label("Failed")
+  boolean failed;
+}
@@ -0,0 +1,32 @@
+package me.hanju.enhancedcompletion.observe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR 이벤트: citation 하나가 만들어짐.
+ */
+@Name(JfrCompletionObserver.EVENT_PREFIX + "Citation")
+@Label("Citation")
+@Description("citation 하나가 만들어짐")
+@Category({ "Enhanced Completion" })
+final class CitationEvent extends Event {
+
+  @Label("Request Id")
+  long requestId;
+
+  @Label("Model")
+  String model;
+
+  @Label("Citation Id")
+  String citationId;
+
+  @Label("Start Index")
+  int startIndex;
+
+  @Label("End Index")
+  int endIndex;
+}
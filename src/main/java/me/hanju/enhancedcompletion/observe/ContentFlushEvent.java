@@ -0,0 +1,29 @@
+package me.hanju.enhancedcompletion.observe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR 이벤트: cite 파서가 content를 토큰으로 내보냄.
+ */
+@Name(JfrCompletionObserver.EVENT_PREFIX + "ContentFlush")
+@Label("Content Flush")
+@Description("cite 파서가 content를 토큰으로 내보냄")
+@Category({ "Enhanced Completion" })
+final class ContentFlushEvent extends Event {
+
+  @Label("Request Id")
+  long requestId;
+
+  @Label("Model")
+  String model;
+
+  @Label("Input Length")
+  int inputLength;
+
+  @Label("Tokens")
+  int tokens;
+}
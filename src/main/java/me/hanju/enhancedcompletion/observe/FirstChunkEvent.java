@@ -0,0 +1,29 @@
+package me.hanju.enhancedcompletion.observe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR 이벤트: 요청 시작(RAG 이후)부터 첫 토큰 chunk까지.
+ */
+@Name(JfrCompletionObserver.EVENT_PREFIX + "FirstChunk")
+@Label("First Chunk")
+@Description("요청 시작(RAG 이후)부터 첫 토큰 chunk까지")
+@Category({ "Enhanced Completion" })
+final class FirstChunkEvent extends Event {
+
+  @Label("Request Id")
+  long requestId;
+
+  @Label("Model")
+  String model;
+
+  @Label("Response Id")
+  String responseId;
+
+  @Label("Status")
+  int status;
+}
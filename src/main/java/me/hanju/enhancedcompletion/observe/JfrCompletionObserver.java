@@ -0,0 +1,218 @@
+package me.hanju.enhancedcompletion.observe;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.jfr.EventType;
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.Citation;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import me.hanju.enhancedcompletion.spi.observe.CompletionObserver;
+import me.hanju.enhancedcompletion.spi.observe.StreamObservation;
+
+/**
+ * 스트리밍 파이프라인을 Java Flight Recorder 이벤트로 기록하는 observer.
+ * JFR 기록에서 GC, CPU 샘플과 같은 타임라인으로 볼 수 있습니다.
+ *
+ * <p>
+ * 이벤트 이름은 {@value #EVENT_PREFIX} 아래의 Stream, Augment, FirstChunk, ContentFlush, Citation, Merge이며,
+ * 모두 요청 id(프로세스 내 순번)와 model을 가집니다.
+ * 스트림 시작 시점에 이 이벤트들이 모두 비활성(기록 중이 아님)이면 {@link StreamObservation#NOOP}을 반환하므로,
+ * 운영 환경에 항상 등록해 두어도 기록하지 않는 동안의 비용은 이벤트 활성 여부 확인뿐입니다.
+ * chunk마다 생기는 이벤트도 활성 여부를 먼저 확인한 뒤에 객체를 만듭니다.
+ * </p>
+ */
+public class JfrCompletionObserver implements CompletionObserver {
+
+  static final String EVENT_PREFIX = "me.hanju.enhancedcompletion.";
+
+  private static final EventType STREAM = EventType.getEventType(StreamEvent.class);
+  private static final EventType AUGMENT = EventType.getEventType(AugmentEvent.class);
+  private static final EventType FIRST_CHUNK = EventType.getEventType(FirstChunkEvent.class);
+  private static final EventType CONTENT_FLUSH = EventType.getEventType(ContentFlushEvent.class);
+  private static final EventType CITATION = EventType.getEventType(CitationEvent.class);
+  private static final EventType MERGE = EventType.getEventType(MergeEvent.class);
+
+  private static final AtomicLong SEQUENCE = new AtomicLong();
+
+  @Override
+  public StreamObservation start(final EnhancedCompletionRequest request) {
+    if (!(STREAM.isEnabled() || AUGMENT.isEnabled() || FIRST_CHUNK.isEnabled()
+        || CONTENT_FLUSH.isEnabled() || CITATION.isEnabled() || MERGE.isEnabled())) {
+      return StreamObservation.NOOP;
+    }
+    return new Observation(SEQUENCE.incrementAndGet(), request);
+  }
+
+  private static boolean hasToken(final ChatCompletionResponse chunk) {
+    if (chunk.getChoices() == null) {
+      return false;
+    }
+    for (final BaseCompletionResponse.Choice<ResponseMessage> choice : chunk.getChoices()) {
+      final ResponseMessage delta = choice.getDelta();
+      if (delta != null && (delta.getContent() != null || delta.getReasoning() != null
+          || delta.getToolCalls() != null)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class Observation implements StreamObservation {
+    private final long requestId;
+    private final String model;
+    private final StreamEvent stream = new StreamEvent();
+    private final Map<String, AugmentEvent> augments = new ConcurrentHashMap<>();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile FirstChunkEvent firstChunk = new FirstChunkEvent();
+    private volatile int status;
+    // chunk 관련 필드는 스트림 스레드만 쓰고, 취소 시 finish()가 다른 스레드에서 읽음
+    private volatile int chunks;
+    private volatile int contentLength;
+    private volatile String responseId;
+
+    Observation(final long requestId, final EnhancedCompletionRequest request) {
+      this.requestId = requestId;
+      this.model = request.getModel();
+      stream.begin();
+      stream.requestId = requestId;
+      stream.model = model;
+      stream.messages = request.getMessages() != null ? request.getMessages().size() : 0;
+      stream.maxTokens = request.getMaxTokens() != null ? request.getMaxTokens() : 0;
+      firstChunk.begin();
+    }
+
+    @Override
+    public void augmentStarted(final String augmenter, final String parent) {
+      if (AUGMENT.isEnabled()) {
+        final AugmentEvent event = new AugmentEvent();
+        event.begin();
+        augments.put(augmenter, event);
+      }
+    }
+
+    @Override
+    public void augmentFinished(final String augmenter, final int documents, final Throwable error) {
+      final AugmentEvent event = augments.remove(augmenter);
+      if (event != null) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.requestId = requestId;
+          event.model = model;
+          event.augmenter = augmenter;
+          event.documents = documents;
+          event.failed = error != null;
+          event.commit();
+        }
+      }
+      // 첫 chunk까지의 시간은 RAG 이후부터 잼
+      final FirstChunkEvent pending = firstChunk;
+      if (pending != null) {
+        pending.begin();
+      }
+    }
+
+    @Override
+    public void responseReceived(final int status) {
+      this.status = status;
+    }
+
+    @Override
+    public void chunkReceived(final ChatCompletionResponse chunk) {
+      chunks = chunks + 1;
+      if (responseId == null) {
+        responseId = chunk.getId();
+      }
+      if (chunk.getChoices() != null) {
+        int length = 0;
+        for (final BaseCompletionResponse.Choice<ResponseMessage> choice : chunk.getChoices()) {
+          if (choice.getDelta() != null && choice.getDelta().getContent() != null) {
+            length += choice.getDelta().getContent().length();
+          }
+        }
+        contentLength = contentLength + length;
+      }
+      final FirstChunkEvent event = firstChunk;
+      if (event != null && hasToken(chunk)) {
+        firstChunk = null;
+        event.end();
+        if (event.shouldCommit()) {
+          event.requestId = requestId;
+          event.model = model;
+          event.responseId = responseId;
+          event.status = status;
+          event.commit();
+        }
+      }
+    }
+
+    @Override
+    public void contentFlushed(final int inputChars, final int tokens) {
+      if (CONTENT_FLUSH.isEnabled()) {
+        final ContentFlushEvent event = new ContentFlushEvent();
+        event.requestId = requestId;
+        event.model = model;
+        event.inputLength = inputChars;
+        event.tokens = tokens;
+        event.commit();
+      }
+    }
+
+    @Override
+    public void citationEmitted(final Citation citation) {
+      if (CITATION.isEnabled()) {
+        final CitationEvent event = new CitationEvent();
+        event.requestId = requestId;
+        event.model = model;
+        event.citationId = citation.getId();
+        event.startIndex = citation.getStartIndex();
+        event.endIndex = citation.getEndIndex();
+        event.commit();
+      }
+    }
+
+    @Override
+    public void mergeCompleted(final int deltas) {
+      if (MERGE.isEnabled()) {
+        final MergeEvent event = new MergeEvent();
+        event.requestId = requestId;
+        event.model = model;
+        event.deltas = deltas;
+        event.commit();
+      }
+    }
+
+    @Override
+    public void completed() {
+      finish("success");
+    }
+
+    @Override
+    public void failed(final Throwable error) {
+      finish(error.getClass().getSimpleName());
+    }
+
+    @Override
+    public void cancelled() {
+      finish("cancelled");
+    }
+
+    private void finish(final String outcome) {
+      if (!finished.compareAndSet(false, true)) {
+        return;
+      }
+      stream.end();
+      if (stream.shouldCommit()) {
+        stream.responseId = responseId;
+        stream.chunks = chunks;
+        stream.contentLength = contentLength;
+        stream.outcome = outcome;
+        stream.commit();
+      }
+    }
+  }
+}
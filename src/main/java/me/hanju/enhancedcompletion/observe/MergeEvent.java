@@ -0,0 +1,26 @@
+package me.hanju.enhancedcompletion.observe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR 이벤트: 모든 delta가 전달되고 병합이 끝남.
+ */
+@Name(JfrCompletionObserver.EVENT_PREFIX + "Merge")
+@Label("Merge Complete")
+@Description("모든 delta가 전달되고 병합이 끝남")
+@Category({ "Enhanced Completion" })
+final class MergeEvent extends Event {
+
+  @Label("Request Id")
+  long requestId;
+
+  @Label("Model")
+  String model;
+
+  @Label("Deltas")
+  int deltas;
+}
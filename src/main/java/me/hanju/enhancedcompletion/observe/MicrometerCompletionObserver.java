@@ -0,0 +1,211 @@
+package me.hanju.enhancedcompletion.observe;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import me.hanju.enhancedcompletion.spi.observe.CompletionObserver;
+import me.hanju.enhancedcompletion.spi.observe.StreamObservation;
+
+/**
+ * Micrometer로 스트리밍 지연 시간과 처리량을 기록하는 observer.
+ * micrometer-core는 compileOnly 의존성이므로 사용하는 쪽에서 추가해야 합니다.
+ * {@code active} gauge가 인스턴스에 묶이므로 registry 하나에 인스턴스 하나를 만들어 여러 클라이언트가 공유합니다.
+ *
+ * <ul>
+ * <li>{@code enhanced.completion.ttfb}, {@code .ttft}: 요청 시작(RAG 이후)부터 응답 헤더/첫 토큰까지 (model 태그)</li>
+ * <li>{@code .inter.token}: 토큰 chunk 사이 간격, {@code .tokens.per.second}: 첫 토큰 이후 처리량</li>
+ * <li>{@code .augment}: Augmenter별 실행 시간 (augmenter, outcome 태그), {@code .augment.documents}: 찾은 문서 수</li>
+ * <li>{@code .parse}, {@code .map}: chunk별 JSON 파싱/cite 변환 시간</li>
+ * <li>{@code .duration}: 스트림 전체 시간 (outcome 태그), {@code .active}: 진행 중인 스트림 수</li>
+ * <li>{@code .cancelled}, {@code .errors}: 취소 수, 오류 유형(type 태그)별 수</li>
+ * </ul>
+ */
+public class MicrometerCompletionObserver implements CompletionObserver {
+
+  public static final String PREFIX = "enhanced.completion";
+
+  private static final String UNKNOWN_MODEL = "unknown";
+
+  private final MeterRegistry registry;
+  private final AtomicInteger active = new AtomicInteger();
+  private final Timer parseTimer;
+  private final Timer mapTimer;
+  private final Counter cancelledCounter;
+
+  public MicrometerCompletionObserver(final MeterRegistry registry) {
+    this.registry = registry;
+    Gauge.builder(PREFIX + ".active", active, AtomicInteger::get)
+        .description("진행 중인 스트림 수")
+        .register(registry);
+    this.parseTimer = Timer.builder(PREFIX + ".parse")
+        .description("SSE chunk JSON 파싱 시간")
+        .register(registry);
+    this.mapTimer = Timer.builder(PREFIX + ".map")
+        .description("chunk별 cite 파싱과 delta 변환 시간")
+        .register(registry);
+    this.cancelledCounter = Counter.builder(PREFIX + ".cancelled")
+        .register(registry);
+  }
+
+  @Override
+  public StreamObservation start(final EnhancedCompletionRequest request) {
+    return new Observation(request.getModel() != null ? request.getModel() : UNKNOWN_MODEL);
+  }
+
+  private static boolean hasToken(final ChatCompletionResponse chunk) {
+    if (chunk.getChoices() == null) {
+      return false;
+    }
+    for (final BaseCompletionResponse.Choice<ResponseMessage> choice : chunk.getChoices()) {
+      final ResponseMessage delta = choice.getDelta();
+      if (delta != null && (delta.getContent() != null || delta.getReasoning() != null
+          || delta.getToolCalls() != null)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 스트림 하나의 관측. model 태그가 붙은 meter는 시작 시 한 번만 찾습니다.
+   */
+  private final class Observation implements StreamObservation {
+    private final String model;
+    private final Timer ttfbTimer;
+    private final Timer ttftTimer;
+    private final Timer interTokenTimer;
+    private final Map<String, Long> augmentStarts = new ConcurrentHashMap<>();
+    private final AtomicBoolean firstByte = new AtomicBoolean();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final long startNanos = System.nanoTime();
+    private volatile long requestNanos = startNanos;
+    private long firstTokenNanos = -1;
+    private long lastTokenNanos = -1;
+    private long tokens;
+
+    Observation(final String model) {
+      this.model = model;
+      this.ttfbTimer = Timer.builder(PREFIX + ".ttfb")
+          .description("응답 헤더까지의 시간")
+          .tag("model", model)
+          .publishPercentileHistogram()
+          .register(registry);
+      this.ttftTimer = Timer.builder(PREFIX + ".ttft")
+          .description("첫 토큰까지의 시간")
+          .tag("model", model)
+          .publishPercentileHistogram()
+          .register(registry);
+      this.interTokenTimer = Timer.builder(PREFIX + ".inter.token")
+          .description("토큰 chunk 사이 간격")
+          .tag("model", model)
+          .publishPercentileHistogram()
+          .register(registry);
+      active.incrementAndGet();
+    }
+
+    @Override
+    public void augmentStarted(final String augmenter, final String parent) {
+      augmentStarts.put(augmenter, System.nanoTime());
+    }
+
+    @Override
+    public void augmentFinished(final String augmenter, final int documents, final Throwable error) {
+      final long now = System.nanoTime();
+      final Long started = augmentStarts.remove(augmenter);
+      if (started != null) {
+        Timer.builder(PREFIX + ".augment")
+            .tag("augmenter", augmenter)
+            .tag("outcome", error == null ? "success" : "error")
+            .register(registry)
+            .record(now - started, TimeUnit.NANOSECONDS);
+      }
+      DistributionSummary.builder(PREFIX + ".augment.documents")
+          .tag("augmenter", augmenter)
+          .register(registry)
+          .record(documents);
+      requestNanos = now;
+    }
+
+    @Override
+    public void responseReceived(final int status) {
+      if (firstByte.compareAndSet(false, true)) {
+        ttfbTimer.record(System.nanoTime() - requestNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    @Override
+    public void chunkParsed(final long nanos, final int bytes) {
+      parseTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void chunkReceived(final ChatCompletionResponse chunk) {
+      if (!hasToken(chunk)) {
+        return;
+      }
+      final long now = System.nanoTime();
+      if (firstTokenNanos < 0) {
+        firstTokenNanos = now;
+        ttftTimer.record(now - requestNanos, TimeUnit.NANOSECONDS);
+      } else {
+        interTokenTimer.record(now - lastTokenNanos, TimeUnit.NANOSECONDS);
+      }
+      lastTokenNanos = now;
+      tokens++;
+    }
+
+    @Override
+    public void chunkMapped(final long nanos, final int outputs) {
+      mapTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void completed() {
+      if (tokens > 1 && lastTokenNanos > firstTokenNanos) {
+        DistributionSummary.builder(PREFIX + ".tokens.per.second")
+            .tag("model", model)
+            .register(registry)
+            .record((tokens - 1) * 1e9 / (lastTokenNanos - firstTokenNanos));
+      }
+      finish("success");
+    }
+
+    @Override
+    public void failed(final Throwable error) {
+      Counter.builder(PREFIX + ".errors")
+          .tag("type", error.getClass().getSimpleName())
+          .register(registry)
+          .increment();
+      finish("error");
+    }
+
+    @Override
+    public void cancelled() {
+      cancelledCounter.increment();
+      finish("cancelled");
+    }
+
+    private void finish(final String outcome) {
+      if (finished.compareAndSet(false, true)) {
+        active.decrementAndGet();
+        Timer.builder(PREFIX + ".duration")
+            .tag("model", model)
+            .tag("outcome", outcome)
+            .register(registry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+}
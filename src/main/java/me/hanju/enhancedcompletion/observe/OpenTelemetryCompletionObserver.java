@@ -0,0 +1,257 @@
+package me.hanju.enhancedcompletion.observe;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.Citation;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import me.hanju.enhancedcompletion.spi.observe.CompletionObserver;
+import me.hanju.enhancedcompletion.spi.observe.ExchangeObservation;
+import me.hanju.enhancedcompletion.spi.observe.StreamObservation;
+
+/**
+ * 스트림 하나를 OpenTelemetry trace로 기록하는 observer.
+ * opentelemetry-api는 compileOnly 의존성이므로 사용하는 쪽에서 추가해야 합니다.
+ *
+ * <ul>
+ * <li>{@code chat {model}}: {@code stream()} 호출부터 병합 완료까지. {@code stream()}을 호출한 스레드의 현재 span이 부모</li>
+ * <li>{@code augment {name}}: Augmenter 실행. composite 안의 하위 Augmenter는 부모 Augmenter span 아래에 생김</li>
+ * <li>{@code POST}: 서버로 보낸 HTTP 요청 하나. hedging/재시도마다 생기며 trace context를 요청 헤더로 전파</li>
+ * <li>{@code merge}: 첫 chunk부터 병합 완료까지</li>
+ * </ul>
+ * <p>
+ * 속성은 OpenTelemetry GenAI semantic convention({@code gen_ai.*})을 따르고,
+ * 문서/인용 수는 {@code enhanced_completion.*}로 기록합니다.
+ * 서버가 usage를 보내지 않으면 출력 토큰 수는 content chunk 수로 추정합니다.
+ * </p>
+ */
+public class OpenTelemetryCompletionObserver implements CompletionObserver {
+
+  public static final String INSTRUMENTATION_NAME = "me.hanju.enhanced-completion";
+
+  static final AttributeKey<String> OPERATION_NAME = AttributeKey.stringKey("gen_ai.operation.name");
+  static final AttributeKey<String> REQUEST_MODEL = AttributeKey.stringKey("gen_ai.request.model");
+  static final AttributeKey<Long> REQUEST_MAX_TOKENS = AttributeKey.longKey("gen_ai.request.max_tokens");
+  static final AttributeKey<String> RESPONSE_ID = AttributeKey.stringKey("gen_ai.response.id");
+  static final AttributeKey<String> RESPONSE_MODEL = AttributeKey.stringKey("gen_ai.response.model");
+  static final AttributeKey<Long> INPUT_TOKENS = AttributeKey.longKey("gen_ai.usage.input_tokens");
+  static final AttributeKey<Long> OUTPUT_TOKENS = AttributeKey.longKey("gen_ai.usage.output_tokens");
+  static final AttributeKey<String> AUGMENTER = AttributeKey.stringKey("enhanced_completion.augmenter");
+  static final AttributeKey<Long> DOCUMENTS = AttributeKey.longKey("enhanced_completion.documents");
+  static final AttributeKey<Long> CITATIONS = AttributeKey.longKey("enhanced_completion.citations");
+  static final AttributeKey<Long> DELTAS = AttributeKey.longKey("enhanced_completion.deltas");
+  static final AttributeKey<String> HTTP_METHOD = AttributeKey.stringKey("http.request.method");
+  static final AttributeKey<Long> HTTP_STATUS = AttributeKey.longKey("http.response.status_code");
+  static final AttributeKey<String> URL = AttributeKey.stringKey("url.full");
+  static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("error.type");
+
+  private final Tracer tracer;
+  private final TextMapPropagator propagator;
+
+  public OpenTelemetryCompletionObserver(final OpenTelemetry openTelemetry) {
+    this.tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+  }
+
+  @Override
+  public StreamObservation start(final EnhancedCompletionRequest request) {
+    return new Observation(Context.current(), request);
+  }
+
+  private static void fail(final Span span, final Throwable error) {
+    span.recordException(error);
+    span.setStatus(StatusCode.ERROR);
+    span.setAttribute(ERROR_TYPE, error.getClass().getName());
+  }
+
+  private final class Observation implements StreamObservation {
+    private final Context parent;
+    private final Span stream;
+    private final Context streamContext;
+    private final Map<String, Span> augments = new ConcurrentHashMap<>();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile String rootAugmenter;
+    private volatile Span merge;
+    private volatile long documents;
+    // 응답 관련 필드는 스트림 스레드만 쓰고, 취소 시 finish()가 다른 스레드에서 읽음
+    private volatile long citations;
+    private volatile long contentChunks;
+    private volatile Long inputTokens;
+    private volatile Long outputTokens;
+    private volatile String responseId;
+    private volatile String responseModel;
+
+    Observation(final Context parent, final EnhancedCompletionRequest request) {
+      this.parent = parent;
+      final String model = request.getModel();
+      this.stream = tracer.spanBuilder(model != null ? "chat " + model : "chat")
+          .setParent(parent)
+          .setSpanKind(SpanKind.INTERNAL)
+          .setAttribute(OPERATION_NAME, "chat")
+          .startSpan();
+      if (model != null) {
+        stream.setAttribute(REQUEST_MODEL, model);
+      }
+      if (request.getMaxTokens() != null) {
+        stream.setAttribute(REQUEST_MAX_TOKENS, request.getMaxTokens().longValue());
+      }
+      this.streamContext = parent.with(stream);
+    }
+
+    @Override
+    public void augmentStarted(final String augmenter, final String parentAugmenter) {
+      final Span parentSpan = parentAugmenter != null ? augments.get(parentAugmenter) : null;
+      final Span span = tracer.spanBuilder("augment " + augmenter)
+          .setParent(parentSpan != null ? parent.with(parentSpan) : streamContext)
+          .setAttribute(AUGMENTER, augmenter)
+          .startSpan();
+      augments.put(augmenter, span);
+      if (parentAugmenter == null) {
+        rootAugmenter = augmenter;
+      }
+    }
+
+    @Override
+    public void augmentFinished(final String augmenter, final int documents, final Throwable error) {
+      final Span span = augments.remove(augmenter);
+      if (span == null) {
+        return;
+      }
+      span.setAttribute(DOCUMENTS, documents);
+      if (error != null) {
+        fail(span, error);
+      }
+      span.end();
+      if (augmenter.equals(rootAugmenter)) {
+        // 프롬프트에 주입되는 것은 최상위 Augmenter의 결과
+        this.documents = documents;
+      }
+    }
+
+    @Override
+    public ExchangeObservation exchangeStarted(final String url, final BiConsumer<String, String> headers) {
+      final Span span = tracer.spanBuilder("POST")
+          .setParent(streamContext)
+          .setSpanKind(SpanKind.CLIENT)
+          .setAttribute(HTTP_METHOD, "POST")
+          .setAttribute(URL, url)
+          .startSpan();
+      propagator.inject(streamContext.with(span), headers, BiConsumer::accept);
+      return new ExchangeObservation() {
+        @Override
+        public void responseReceived(final int status) {
+          span.setAttribute(HTTP_STATUS, status);
+          if (status >= 400) {
+            span.setStatus(StatusCode.ERROR);
+            span.setAttribute(ERROR_TYPE, String.valueOf(status));
+          }
+        }
+
+        @Override
+        public void finished(final Throwable error) {
+          if (error != null) {
+            fail(span, error);
+          }
+          span.end();
+        }
+      };
+    }
+
+    @Override
+    public void chunkReceived(final ChatCompletionResponse chunk) {
+      if (merge == null) {
+        merge = tracer.spanBuilder("merge").setParent(streamContext).startSpan();
+      }
+      if (responseId == null) {
+        // responseId가 보이면 responseModel도 보이도록 model을 먼저 씀
+        responseModel = chunk.getModel();
+        responseId = chunk.getId();
+      }
+      final BaseCompletionResponse.Usage usage = chunk.getUsage();
+      if (usage != null) {
+        if (usage.getPromptTokens() != null) {
+          inputTokens = usage.getPromptTokens().longValue();
+        }
+        if (usage.getCompletionTokens() != null) {
+          outputTokens = usage.getCompletionTokens().longValue();
+        }
+      }
+      if (chunk.getChoices() != null) {
+        int count = 0;
+        for (final BaseCompletionResponse.Choice<ResponseMessage> choice : chunk.getChoices()) {
+          final ResponseMessage delta = choice.getDelta();
+          if (delta != null && (delta.getContent() != null || delta.getToolCalls() != null)) {
+            count++;
+          }
+        }
+        contentChunks = contentChunks + count;
+      }
+    }
+
+    @Override
+    public void citationEmitted(final Citation citation) {
+      citations = citations + 1;
+    }
+
+    @Override
+    public void mergeCompleted(final int deltas) {
+      final Span span = merge;
+      if (span != null) {
+        merge = null;
+        span.setAttribute(DELTAS, deltas);
+        span.end();
+      }
+      finish(null);
+    }
+
+    @Override
+    public void failed(final Throwable error) {
+      finish(error);
+    }
+
+    @Override
+    public void cancelled() {
+      finish(null);
+    }
+
+    private void finish(final Throwable error) {
+      if (!finished.compareAndSet(false, true)) {
+        return;
+      }
+      final Span span = merge;
+      if (span != null) {
+        merge = null;
+        span.end();
+      }
+      if (error != null) {
+        fail(stream, error);
+      }
+      if (responseId != null) {
+        stream.setAttribute(RESPONSE_ID, responseId);
+      }
+      if (responseModel != null) {
+        stream.setAttribute(RESPONSE_MODEL, responseModel);
+      }
+      if (inputTokens != null) {
+        stream.setAttribute(INPUT_TOKENS, inputTokens);
+      }
+      stream.setAttribute(OUTPUT_TOKENS, outputTokens != null ? outputTokens : contentChunks);
+      stream.setAttribute(DOCUMENTS, documents);
+      stream.setAttribute(CITATIONS, citations);
+      stream.end();
+    }
+  }
+}
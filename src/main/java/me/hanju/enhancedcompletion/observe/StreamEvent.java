@@ -0,0 +1,41 @@
+package me.hanju.enhancedcompletion.observe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR 이벤트: stream() 호출 하나 (RAG 포함 시작부터 종료까지).
+ */
+@Name(JfrCompletionObserver.EVENT_PREFIX + "Stream")
+@Label("Completion Stream")
+@Description("stream() 호출 하나 (RAG 포함 시작부터 종료까지)")
+@Category({ "Enhanced Completion" })
+final class StreamEvent extends Event {
+
+  @Label("Request Id")
+  long requestId;
+
+  @Label("Model")
+  String model;
+
+  @Label("Messages")
+  int messages;
+
+  @Label("Max Tokens")
+  int maxTokens;
+
+  @Label("Response Id")
+  String responseId;
+
+  @Label("Chunks")
+  int chunks;
+
+  @Label("Content Length")
+  int contentLength;
+
+  @Label("Outcome")
+  String outcome;
+}
@@ -69,4 +69,16 @@ public abstract class BaseCompletionRequest<T extends IMessage> {
   private Map<String, Object> responseFormat;
 
   private Integer seed;
+
+  /**
+   * vLLM 확장. true이면 마지막 assistant 메시지를 닫지 않고 이어서 생성합니다.
+   */
+  @JsonProperty("continue_final_message")
+  private Boolean continueFinalMessage;
+
+  /**
+   * vLLM 확장. continue_final_message와 함께 false로 지정합니다.
+   */
+  @JsonProperty("add_generation_prompt")
+  private Boolean addGenerationPrompt;
 }
@@ -5,6 +5,7 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -15,11 +16,14 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
+import me.hanju.enhancedcompletion.codec.InterningLongDeserializer;
+import me.hanju.enhancedcompletion.codec.InterningStringDeserializer;
 import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
 import me.hanju.streambind.annotation.StreamOverwrite;
 
 /**
  * OpenAI Chat Completion API 응답 기본 객체.
+ * id/object/created/model은 스트림마다 붙는 {@link me.hanju.enhancedcompletion.codec.StreamInterner}로 chunk 간에 공유됩니다.
  *
  * @param <T> 응답 메시지 타입
  */
@@ -32,12 +36,16 @@ import me.hanju.streambind.annotation.StreamOverwrite;
 public abstract class BaseCompletionResponse<T extends ResponseMessage> {
 
   @StreamOverwrite
+  @JsonDeserialize(using = InterningStringDeserializer.class)
   private String id;
   @StreamOverwrite
+  @JsonDeserialize(using = InterningStringDeserializer.class)
   private String object;
   @StreamOverwrite
+  @JsonDeserialize(using = InterningLongDeserializer.class)
   private Long created;
   @StreamOverwrite
+  @JsonDeserialize(using = InterningStringDeserializer.class)
   private String model;
   private List<Choice<T>> choices;
   private Usage usage;
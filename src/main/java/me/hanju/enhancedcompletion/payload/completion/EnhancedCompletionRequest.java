@@ -31,6 +31,27 @@ public class EnhancedCompletionRequest extends BaseCompletionRequest<IMessageabl
   @JsonIgnore
   private Augmenter augmenter;
 
+  /**
+   * 클라이언트 측 공정 대기열에서 사용할 tenant 키 (선택적).
+   * null이면 {@code user}를 사용합니다. 서버로 전송되지 않습니다.
+   */
+  @JsonIgnore
+  private String tenant;
+
+  /**
+   * 클라이언트 측 대기열 우선순위 (선택적). null이면 {@link RequestPriority#INTERACTIVE}.
+   */
+  @JsonIgnore
+  private RequestPriority priority;
+
+  /**
+   * 공정 대기열에서 사용할 tenant 키. tenant가 없으면 user, 둘 다 없으면 null.
+   */
+  @JsonIgnore
+  public String getTenantKey() {
+    return tenant != null ? tenant : getUser();
+  }
+
   @JsonIgnore
   public ChatCompletionRequest toChatCompletionRequest() {
     final List<Message> convertedMessages = new ArrayList<>();
@@ -58,6 +79,8 @@ public class EnhancedCompletionRequest extends BaseCompletionRequest<IMessageabl
         .toolChoice(this.getToolChoice())
         .responseFormat(this.getResponseFormat())
         .seed(this.getSeed())
+        .continueFinalMessage(this.getContinueFinalMessage())
+        .addGenerationPrompt(this.getAddGenerationPrompt())
         .build();
   }
 }
@@ -1,6 +1,9 @@
 package me.hanju.enhancedcompletion.payload.completion;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.AccessLevel;
@@ -28,4 +31,9 @@ public class Message implements IMessage {
   private String toolCallId;
   private String role;
   private String content;
+
+  /** assistant 메시지의 tool 호출 목록 (없으면 직렬화하지 않음) */
+  @JsonProperty("tool_calls")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private List<ToolCall> toolCalls;
 }
@@ -0,0 +1,11 @@
+package me.hanju.enhancedcompletion.payload.completion;
+
+/**
+ * 클라이언트 측 대기열에서의 요청 우선순위.
+ */
+public enum RequestPriority {
+  /** 사용자가 응답을 기다리는 요청 */
+  INTERACTIVE,
+  /** 지연을 허용하는 일괄 처리 요청 */
+  BATCH
+}
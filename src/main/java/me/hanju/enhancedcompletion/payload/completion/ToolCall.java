@@ -1,6 +1,7 @@
 package me.hanju.enhancedcompletion.payload.completion;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AccessLevel;
 import me.hanju.streambind.annotation.StreamOverwrite;
@@ -24,6 +25,7 @@ import lombok.ToString;
 @ToString
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ToolCall {
+  @JsonInclude(JsonInclude.Include.NON_NULL)
   private Integer index;
   @StreamOverwrite
   private String id;
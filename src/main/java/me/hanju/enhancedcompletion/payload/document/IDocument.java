@@ -22,13 +22,33 @@ public interface IDocument {
     return null;
   }
 
+  /**
+   * LLM 프롬프트용 직렬화.
+   * 같은 문서가 반복 주입되는 경우 구현체에서 결과를 캐시하는 것을 권장합니다 ({@link SimpleDocument} 참고).
+   *
+   * @return {@code <document id="...">} 형식 문자열
+   */
   default String toSerializedPrompt() {
-    final StringBuilder sb = new StringBuilder();
-    sb.append("<document id=\"").append(getId()).append("\">\n");
-    if (getTitle() != null && !getTitle().isBlank()) {
-      sb.append("<title>").append(getTitle()).append("</title>\n");
+    return serializePrompt(getId(), getTitle(), getContent());
+  }
+
+  /**
+   * 문서 필드를 프롬프트 형식으로 직렬화합니다. 결과 크기만큼 미리 할당한 버퍼 하나만 사용합니다.
+   */
+  static String serializePrompt(final String id, final String title, final String content) {
+    final boolean hasTitle = title != null && !title.isBlank();
+    final String idText = String.valueOf(id);
+    final String contentText = String.valueOf(content);
+    final int length = 17 + idText.length()
+        + (hasTitle ? 16 + title.length() : 0)
+        + 20 + contentText.length()
+        + 11;
+    final StringBuilder sb = new StringBuilder(length);
+    sb.append("<document id=\"").append(idText).append("\">\n");
+    if (hasTitle) {
+      sb.append("<title>").append(title).append("</title>\n");
     }
-    sb.append("<content>").append(getContent()).append("</content>\n");
+    sb.append("<content>").append(contentText).append("</content>\n");
     sb.append("</document>");
     return sb.toString();
   }
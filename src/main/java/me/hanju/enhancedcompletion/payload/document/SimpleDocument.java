@@ -11,6 +11,7 @@ import lombok.ToString;
 
 /**
  * 기본 문서 구현체.
+ * 프롬프트 직렬화 결과를 캐시하며, 직렬화할 때의 id/title/content가 지금 값과 같을 때만 재사용합니다.
  */
 @Builder
 @Getter
@@ -24,4 +25,48 @@ public class SimpleDocument implements IDocument {
   private String title;
   private String content;
   private String url;
+
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final transient PromptCache promptCache = new PromptCache();
+
+  @Override
+  public String toSerializedPrompt() {
+    final String currentId = id;
+    final String currentTitle = title;
+    final String currentContent = content;
+    final Entry cached = promptCache.entry;
+    if (cached != null && cached.id == currentId && cached.title == currentTitle && cached.content == currentContent) {
+      return cached.prompt;
+    }
+    final String prompt = IDocument.serializePrompt(currentId, currentTitle, currentContent);
+    promptCache.entry = new Entry(currentId, currentTitle, currentContent, prompt);
+    return prompt;
+  }
+
+  /**
+   * 직렬화 결과 보관용. 직렬화에 쓴 필드 값을 함께 보관해, 직렬화 도중 setter가 불려 이전 값의 결과가 저장되더라도
+   * 다음 호출에서 필드와 맞지 않아 다시 계산합니다.
+   */
+  private static final class PromptCache {
+    private volatile Entry entry;
+  }
+
+  /**
+   * 직렬화에 쓴 id/title/content와 그 결과. 필드 비교는 참조로 합니다 (같은 값의 다른 String이면 다시 계산할 뿐).
+   */
+  private static final class Entry {
+    private final String id;
+    private final String title;
+    private final String content;
+    private final String prompt;
+
+    Entry(final String id, final String title, final String content, final String prompt) {
+      this.id = id;
+      this.title = title;
+      this.content = content;
+      this.prompt = prompt;
+    }
+  }
 }
@@ -1,10 +1,12 @@
 package me.hanju.enhancedcompletion.payload.message;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -41,21 +43,50 @@ public class AttachedMessage implements IMessageable {
   @Override
   @JsonIgnore
   public Message toMessage() {
-    final String documentsText = serializeDocuments();
+    final ContentFragments fragments = getContentFragments();
+    return Message.builder()
+        .role(role)
+        .content(fragments.isEmpty() ? content : fragments.toString())
+        .build();
+  }
 
-    String mergedContent;
-    if (documentsText.isEmpty()) {
-      mergedContent = content;
-    } else if (content == null || content.isEmpty()) {
-      mergedContent = documentsText;
+  /**
+   * 문서 조각을 하나의 문자열로 합치지 않고 요청 본문에 바로 씁니다.
+   */
+  @Override
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    final ContentFragments fragments = getContentFragments();
+    generator.writeStartObject();
+    generator.writeStringField("role", role);
+    generator.writeFieldName("content");
+    if (fragments.isEmpty()) {
+      generator.writeString(content);
     } else {
-      mergedContent = content + "\n\n" + documentsText;
+      generator.writeString(fragments.reader(), fragments.length());
     }
+    generator.writeEndObject();
+  }
 
-    return Message.builder()
-        .role(role)
-        .content(mergedContent)
-        .build();
+  /**
+   * LLM에 전송될 content를 조각 단위로 반환합니다.
+   * 문서 조각은 {@link IDocument#toSerializedPrompt()} 결과를 복사 없이 그대로 참조합니다.
+   *
+   * @return content + 문서 목록 조각
+   */
+  @JsonIgnore
+  public ContentFragments getContentFragments() {
+    final boolean hasDocuments = this.documents != null && !this.documents.isEmpty();
+    final boolean hasContent = content != null && !content.isEmpty();
+    if (!hasDocuments) {
+      return hasContent ? ContentFragments.of(List.of(content)) : ContentFragments.empty();
+    }
+    final List<String> fragments = new ArrayList<>(this.documents.size() * 2 + 4);
+    if (hasContent) {
+      fragments.add(content);
+      fragments.add("\n\n");
+    }
+    appendDocumentFragments(fragments);
+    return ContentFragments.of(fragments);
   }
 
   @JsonIgnore
@@ -63,12 +94,17 @@ public class AttachedMessage implements IMessageable {
     if (this.documents == null || this.documents.isEmpty()) {
       return "";
     }
-    final StringBuilder sb = new StringBuilder();
-    sb.append("<documents>\n");
+    final List<String> fragments = new ArrayList<>(this.documents.size() * 2 + 2);
+    appendDocumentFragments(fragments);
+    return ContentFragments.of(fragments).toString();
+  }
+
+  private void appendDocumentFragments(final List<String> fragments) {
+    fragments.add("<documents>\n");
     for (final IDocument doc : this.documents) {
-      sb.append(doc.toSerializedPrompt()).append("\n");
+      fragments.add(doc.toSerializedPrompt());
+      fragments.add("\n");
     }
-    sb.append("</documents>");
-    return sb.toString();
+    fragments.add("</documents>");
   }
 }
@@ -1,5 +1,7 @@
 package me.hanju.enhancedcompletion.payload.message;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +13,7 @@ import lombok.ToString;
 
 /**
  * 인용 정보.
+ * 요청에 주입된 문서가 있으면 스트리밍 중에 id를 문서와 매칭해 {@code url}, {@code title}, {@code resolved}를 채웁니다.
  */
 @Builder
 @Getter
@@ -24,4 +27,19 @@ public class Citation {
   private String id;
   private int startIndex;
   private int endIndex;
+  /** 설정한 단위(code point, UTF-8 바이트)로 센 시작 위치. 단위가 UTF-16이면 null */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer startOffset;
+  /** 설정한 단위로 센 끝 위치 (exclusive) */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer endOffset;
+  /** 매칭된 문서의 URL (문서에 URL이 없거나 매칭되지 않으면 null) */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String url;
+  /** 매칭된 문서의 제목 */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String title;
+  /** 주입된 문서와 매칭되면 true, 어떤 문서와도 맞지 않는 id(환각)면 false, 주입된 문서가 없으면 null */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Boolean resolved;
 }
@@ -1,7 +1,9 @@
 package me.hanju.enhancedcompletion.payload.message;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -30,47 +32,136 @@ import me.hanju.enhancedcompletion.payload.completion.Message;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CitedMessage extends ResponseMessage {
 
+  /** {@code <cite><id></id></cite>} 길이 */
+  private static final int CITE_TAGS_LENGTH = 22;
+
   @Builder.Default
   private List<Citation> citations = new ArrayList<>();
 
+  /**
+   * 마지막 렌더링 결과. content, citations가 바뀌면 다음 호출에서 다시 만듭니다.
+   */
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  @JsonIgnore
+  private final transient RenderCache renderCache = new RenderCache();
+
+  /**
+   * content에 citation 위치대로 {@code <cite><id>..</id>..</cite>} 태그를 다시 넣은 문자열.
+   *
+   * <p>
+   * history로 다시 보낼 때마다 {@link #toMessage()}가 호출되므로, 결과 크기만큼 미리 할당한 버퍼로 한 번에 만들고
+   * content 인스턴스, citations 목록과 각 citation의 위치/id가 그대로면 이전 결과를 재사용합니다.
+   * citations는 스트리밍 순서대로 시작 위치가 정렬되어 있으므로, 정렬되지 않은 경우에만 복사해 정렬합니다.
+   * </p>
+   */
   @JsonIgnore
   public String getContentWithCitations() {
-    if (super.getContent() == null || super.getContent().isEmpty()) {
+    final String content = super.getContent();
+    if (content == null || content.isEmpty()) {
       return "";
     }
     if (citations == null || citations.isEmpty()) {
-      return super.getContent();
+      return content;
     }
 
-    final List<Citation> sorted = citations.stream()
-        .sorted((a, b) -> Integer.compare(a.getStartIndex(), b.getStartIndex()))
-        .toList();
+    final Rendered cached = renderCache.rendered;
+    if (cached != null && cached.matches(content, citations)) {
+      return cached.value;
+    }
+    final String value = render(content, sortedByStart(citations));
+    renderCache.rendered = new Rendered(content, citations, value);
+    return value;
+  }
 
-    final StringBuilder sb = new StringBuilder();
-    int lastEnd = 0;
+  private static String render(final String content, final List<Citation> sorted) {
+    int length = content.length();
+    for (int i = 0; i < sorted.size(); i++) {
+      length += CITE_TAGS_LENGTH + String.valueOf(sorted.get(i).getId()).length();
+    }
 
-    for (final Citation cite : sorted) {
+    final StringBuilder sb = new StringBuilder(length);
+    int lastEnd = 0;
+    for (int i = 0; i < sorted.size(); i++) {
+      final Citation cite = sorted.get(i);
       if (cite.getStartIndex() > lastEnd) {
-        sb.append(super.getContent(), lastEnd, cite.getStartIndex());
+        sb.append(content, lastEnd, cite.getStartIndex());
       }
       sb.append("<cite><id>").append(cite.getId()).append("</id>");
-      sb.append(super.getContent(), cite.getStartIndex(), cite.getEndIndex());
+      sb.append(content, cite.getStartIndex(), cite.getEndIndex());
       sb.append("</cite>");
       lastEnd = cite.getEndIndex();
     }
 
-    if (lastEnd < super.getContent().length()) {
-      sb.append(super.getContent().substring(lastEnd));
+    if (lastEnd < content.length()) {
+      sb.append(content, lastEnd, content.length());
     }
 
     return sb.toString();
   }
 
+  private static List<Citation> sortedByStart(final List<Citation> citations) {
+    for (int i = 1; i < citations.size(); i++) {
+      if (citations.get(i).getStartIndex() < citations.get(i - 1).getStartIndex()) {
+        final List<Citation> sorted = new ArrayList<>(citations);
+        sorted.sort(Comparator.comparingInt(Citation::getStartIndex));
+        return sorted;
+      }
+    }
+    return citations;
+  }
+
   @Override
   public Message toMessage() {
     return Message.builder()
         .role(super.getRole())
         .content(getContentWithCitations())
+        .toolCalls(getToolCalls())
         .build();
   }
+
+  private static final class RenderCache {
+    private volatile Rendered rendered;
+  }
+
+  /**
+   * 렌더링 결과와, 그때의 content 인스턴스, citations 목록, 각 citation의 위치/id 사본.
+   * Citation은 setter로 바뀔 수 있으므로 재사용 전에 사본과 정확히 비교합니다.
+   */
+  private static final class Rendered {
+    private final String content;
+    private final List<Citation> citations;
+    private final int[] positions;
+    private final String[] ids;
+    private final String value;
+
+    Rendered(final String content, final List<Citation> citations, final String value) {
+      this.content = content;
+      this.citations = citations;
+      this.positions = new int[citations.size() * 2];
+      this.ids = new String[citations.size()];
+      for (int i = 0; i < citations.size(); i++) {
+        final Citation cite = citations.get(i);
+        positions[i * 2] = cite.getStartIndex();
+        positions[i * 2 + 1] = cite.getEndIndex();
+        ids[i] = cite.getId();
+      }
+      this.value = value;
+    }
+
+    boolean matches(final String currentContent, final List<Citation> currentCitations) {
+      if (content != currentContent || citations != currentCitations || ids.length != currentCitations.size()) {
+        return false;
+      }
+      for (int i = 0; i < ids.length; i++) {
+        final Citation cite = currentCitations.get(i);
+        if (positions[i * 2] != cite.getStartIndex() || positions[i * 2 + 1] != cite.getEndIndex()
+            || !Objects.equals(ids[i], cite.getId())) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
 }
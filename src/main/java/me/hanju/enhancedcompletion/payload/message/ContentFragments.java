@@ -0,0 +1,119 @@
+package me.hanju.enhancedcompletion.payload.message;
+
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * 여러 문자열 조각으로 이루어진 메시지 content.
+ * 조각을 복사하지 않고 보관하며, 필요할 때 한 번의 presized 버퍼로 합치거나
+ * {@link #reader()}로 요청 본문에 바로 흘려보낼 수 있습니다.
+ */
+public final class ContentFragments {
+
+  private static final ContentFragments EMPTY = new ContentFragments(List.of(), 0);
+
+  private final List<String> fragments;
+  private final int length;
+
+  private ContentFragments(final List<String> fragments, final int length) {
+    this.fragments = fragments;
+    this.length = length;
+  }
+
+  /**
+   * 조각 목록으로 생성합니다. null 조각은 무시됩니다.
+   */
+  public static ContentFragments of(final List<String> fragments) {
+    int total = 0;
+    boolean hasNull = false;
+    for (final String fragment : fragments) {
+      if (fragment == null) {
+        hasNull = true;
+      } else {
+        total += fragment.length();
+      }
+    }
+    if (total == 0) {
+      return EMPTY;
+    }
+    return new ContentFragments(
+        hasNull ? fragments.stream().filter(f -> f != null && !f.isEmpty()).toList() : List.copyOf(fragments),
+        total);
+  }
+
+  public static ContentFragments empty() {
+    return EMPTY;
+  }
+
+  public List<String> getFragments() {
+    return fragments;
+  }
+
+  /**
+   * 전체 문자 수 (UTF-16 단위).
+   */
+  public int length() {
+    return length;
+  }
+
+  public boolean isEmpty() {
+    return length == 0;
+  }
+
+  /**
+   * 조각을 순서대로 읽는 Reader. 중간 문자열을 만들지 않습니다.
+   */
+  public Reader reader() {
+    return new FragmentReader(fragments);
+  }
+
+  /**
+   * 정확한 크기의 버퍼 하나로 조각을 합칩니다.
+   */
+  @Override
+  public String toString() {
+    if (fragments.size() == 1) {
+      return fragments.get(0);
+    }
+    final StringBuilder sb = new StringBuilder(length);
+    for (final String fragment : fragments) {
+      sb.append(fragment);
+    }
+    return sb.toString();
+  }
+
+  private static final class FragmentReader extends Reader {
+    private final List<String> fragments;
+    private int fragmentIndex = 0;
+    private int offset = 0;
+
+    FragmentReader(final List<String> fragments) {
+      this.fragments = fragments;
+    }
+
+    @Override
+    public int read(final char[] buffer, final int off, final int len) {
+      if (len == 0) {
+        return 0;
+      }
+      int written = 0;
+      while (written < len && fragmentIndex < fragments.size()) {
+        final String current = fragments.get(fragmentIndex);
+        final int count = Math.min(len - written, current.length() - offset);
+        current.getChars(offset, offset + count, buffer, off + written);
+        written += count;
+        offset += count;
+        if (offset == current.length()) {
+          fragmentIndex++;
+          offset = 0;
+        }
+      }
+      return written == 0 ? -1 : written;
+    }
+
+    @Override
+    public void close() {
+      fragmentIndex = fragments.size();
+    }
+  }
+}
@@ -1,7 +1,10 @@
 package me.hanju.enhancedcompletion.payload.message;
 
+import java.io.IOException;
+
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonGenerator;
 
 import me.hanju.enhancedcompletion.payload.completion.IMessage;
 import me.hanju.enhancedcompletion.payload.completion.Message;
@@ -19,4 +22,15 @@ import me.hanju.enhancedcompletion.payload.completion.Message;
 })
 public interface IMessageable extends IMessage {
   Message toMessage();
+
+  /**
+   * 요청 본문에 이 메시지를 JSON 객체로 직접 씁니다.
+   * 기본 구현은 {@link #toMessage()} 결과를 직렬화하며, content가 큰 구현체는 조각 단위로 쓰도록 재정의합니다.
+   *
+   * @param generator 요청 본문 JsonGenerator (ObjectMapper codec 포함)
+   * @throws IOException 쓰기 실패 시
+   */
+  default void writeTo(final JsonGenerator generator) throws IOException {
+    generator.writeObject(toMessage());
+  }
 }
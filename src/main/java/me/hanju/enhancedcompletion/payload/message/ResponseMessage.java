@@ -55,6 +55,7 @@ public class ResponseMessage implements IMessageable {
     return Message.builder()
         .role(role)
         .content(content)
+        .toolCalls(toolCalls)
         .build();
   }
 }
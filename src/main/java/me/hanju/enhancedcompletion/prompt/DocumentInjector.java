@@ -0,0 +1,117 @@
+package me.hanju.enhancedcompletion.prompt;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.document.IDocument;
+import me.hanju.enhancedcompletion.payload.message.AttachedMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+
+/**
+ * RAG 결과 문서를 요청 메시지에 주입합니다.
+ *
+ * <p>
+ * 서버 측 prefix(KV) 캐시를 살리려면 이전 턴과 같은 토큰 prefix를 최대한 길게 유지해야 합니다.
+ * {@link DocumentPlacement}로 대화 이력을 건드리지 않는 위치를 고르고,
+ * {@code sortById}로 검색 순서와 무관하게 같은 문서 집합이 항상 같은 텍스트가 되도록 합니다.
+ * </p>
+ */
+public class DocumentInjector {
+
+  private static final String ROLE_USER = "user";
+
+  private static final Comparator<IDocument> BY_ID = Comparator.comparing(
+      IDocument::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+  private final DocumentPlacement placement;
+  private final String documentRole;
+  private final boolean sortById;
+
+  /**
+   * @param placement    주입 위치
+   * @param documentRole 문서 전용 메시지의 role (LAST_USER_MESSAGE에서는 사용하지 않음)
+   * @param sortById     문서를 id 순으로 정렬할지 여부
+   */
+  public DocumentInjector(final DocumentPlacement placement, final String documentRole, final boolean sortById) {
+    this.placement = placement != null ? placement : DocumentPlacement.LAST_USER_MESSAGE;
+    this.documentRole = documentRole;
+    this.sortById = sortById;
+  }
+
+  /**
+   * 문서를 주입한 새 요청을 반환합니다. 문서가 없으면 원본 요청을 그대로 반환합니다.
+   *
+   * @param request   원본 요청
+   * @param documents 주입할 문서
+   * @return 문서가 주입된 요청
+   */
+  public EnhancedCompletionRequest inject(
+      final EnhancedCompletionRequest request,
+      final List<? extends IDocument> documents) {
+
+    if (documents == null || documents.isEmpty()) {
+      return request;
+    }
+
+    final List<IMessageable> messages = request.getMessages();
+    if (messages == null || messages.isEmpty()) {
+      return request;
+    }
+
+    final List<IDocument> docs = new ArrayList<>(documents);
+    if (sortById) {
+      docs.sort(BY_ID);
+    }
+
+    int lastUserIndex = -1;
+    for (int i = messages.size() - 1; i >= 0; i--) {
+      if (ROLE_USER.equals(messages.get(i).getRole())) {
+        lastUserIndex = i;
+        break;
+      }
+    }
+
+    final List<IMessageable> newMessages = new ArrayList<>(messages.size() + 1);
+    switch (placement) {
+      case LAST_USER_MESSAGE -> {
+        for (int i = 0; i < messages.size(); i++) {
+          if (i == lastUserIndex) {
+            final IMessageable original = messages.get(i);
+            newMessages.add(AttachedMessage.builder()
+                .role(original.getRole())
+                .content(original.getContent())
+                .documents(docs)
+                .build());
+          } else {
+            newMessages.add(messages.get(i));
+          }
+        }
+      }
+      case BEFORE_LAST_USER_MESSAGE -> {
+        final int insertAt = lastUserIndex >= 0 ? lastUserIndex : messages.size();
+        newMessages.addAll(messages.subList(0, insertAt));
+        newMessages.add(documentMessage(docs));
+        newMessages.addAll(messages.subList(insertAt, messages.size()));
+      }
+      case AFTER_LAST_USER_MESSAGE -> {
+        final int insertAt = lastUserIndex >= 0 ? lastUserIndex + 1 : messages.size();
+        newMessages.addAll(messages.subList(0, insertAt));
+        newMessages.add(documentMessage(docs));
+        newMessages.addAll(messages.subList(insertAt, messages.size()));
+      }
+    }
+
+    return request.toBuilder()
+        .messages(newMessages)
+        .build();
+  }
+
+  private AttachedMessage documentMessage(final List<IDocument> docs) {
+    return AttachedMessage.builder()
+        .role(documentRole)
+        .documents(docs)
+        .build();
+  }
+}
@@ -0,0 +1,24 @@
+package me.hanju.enhancedcompletion.prompt;
+
+/**
+ * RAG 문서를 요청 메시지에 주입하는 위치.
+ */
+public enum DocumentPlacement {
+
+  /**
+   * 마지막 user 메시지 content 뒤에 문서를 병합합니다 (기본값).
+   */
+  LAST_USER_MESSAGE,
+
+  /**
+   * 마지막 user 메시지 바로 앞에 문서 전용 메시지를 삽입합니다.
+   * user 메시지 content가 변하지 않고 질문이 프롬프트 마지막에 위치합니다.
+   */
+  BEFORE_LAST_USER_MESSAGE,
+
+  /**
+   * 마지막 user 메시지 뒤에 문서 전용 메시지를 추가합니다.
+   * 대화 이력 전체가 그대로 유지되어 다음 턴과 공유하는 prefix가 가장 깁니다 (vLLM prefix caching).
+   */
+  AFTER_LAST_USER_MESSAGE
+}
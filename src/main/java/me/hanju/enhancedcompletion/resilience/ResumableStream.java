@@ -0,0 +1,111 @@
+package me.hanju.enhancedcompletion.resilience;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import reactor.core.publisher.Flux;
+
+/**
+ * 재시도와 이어받기(resume)를 지원하는 completion 스트림.
+ *
+ * <p>
+ * 첫 content 전에 실패하면 같은 요청을 다시 보냅니다. content를 받은 뒤 끊기면
+ * (resume이 켜져 있을 때) 지금까지 받은 원문 content를 assistant 메시지로 덧붙이고
+ * {@code continue_final_message}로 이어서 생성을 요청합니다.
+ * 이어받은 chunk는 같은 스트림으로 이어지므로 하류의 delta mapper 하나가 그대로 처리하며,
+ * content 위치와 citation index가 끊김 전후로 연속됩니다.
+ * </p>
+ * <p>
+ * tool call이나 reasoning을 이미 받은 경우에는 prefill로 재현할 수 없으므로 이어받지 않습니다.
+ * 이어받기 요청의 max_tokens는 받은 content chunk 수(≈ 토큰 수)만큼 줄입니다.
+ * </p>
+ */
+public final class ResumableStream {
+
+  private static final String ROLE_ASSISTANT = "assistant";
+
+  private ResumableStream() {
+  }
+
+  /**
+   * @param request 원본 요청
+   * @param attempt 요청 한 번을 보내는 함수 (재시도마다 다시 호출됨)
+   * @param policy  재시도 정책
+   * @return 재시도/이어받기가 적용된 스트림
+   */
+  public static Flux<ChatCompletionResponse> of(
+      final EnhancedCompletionRequest request,
+      final Function<EnhancedCompletionRequest, Flux<ChatCompletionResponse>> attempt,
+      final RetryPolicy policy) {
+
+    return Flux.defer(() -> {
+      final Progress progress = new Progress();
+      return Flux.defer(() -> attempt.apply(progress.nextRequest(request)))
+          .doOnNext(progress::record)
+          .retryWhen(policy.toRetrySpec()
+              .filter(error -> policy.isRetryable(error) && progress.canRetry(policy.isResume())));
+    });
+  }
+
+  /**
+   * 구독 하나 동안 받은 내용. 재시도는 순차적으로 일어나므로 동기화가 필요하지 않습니다.
+   */
+  private static final class Progress {
+    private final StringBuilder content = new StringBuilder();
+    private int contentChunks;
+    private boolean irreproducible;
+
+    void record(final ChatCompletionResponse response) {
+      if (response.getChoices() == null || response.getChoices().isEmpty()) {
+        return;
+      }
+      final var choice = response.getChoices().get(0);
+      final ResponseMessage delta = choice.getDelta() != null ? choice.getDelta() : choice.getMessage();
+      if (delta == null) {
+        return;
+      }
+      if (delta.getContent() != null && !delta.getContent().isEmpty()) {
+        content.append(delta.getContent());
+        contentChunks++;
+      }
+      if ((delta.getToolCalls() != null && !delta.getToolCalls().isEmpty())
+          || (delta.getReasoning() != null && !delta.getReasoning().isEmpty())) {
+        irreproducible = true;
+      }
+    }
+
+    boolean canRetry(final boolean resume) {
+      if (irreproducible) {
+        return false;
+      }
+      return content.length() == 0 || resume;
+    }
+
+    EnhancedCompletionRequest nextRequest(final EnhancedCompletionRequest request) {
+      if (content.length() == 0) {
+        return request;
+      }
+      final List<IMessageable> messages = new ArrayList<>(
+          request.getMessages() != null ? request.getMessages().size() + 1 : 1);
+      if (request.getMessages() != null) {
+        messages.addAll(request.getMessages());
+      }
+      messages.add(BaseMessage.builder().role(ROLE_ASSISTANT).content(content.toString()).build());
+      final Integer maxTokens = request.getMaxTokens() != null
+          ? Math.max(1, request.getMaxTokens() - contentChunks)
+          : null;
+      return request.toBuilder()
+          .messages(messages)
+          .maxTokens(maxTokens)
+          .continueFinalMessage(true)
+          .addGenerationPrompt(false)
+          .build();
+    }
+  }
+}
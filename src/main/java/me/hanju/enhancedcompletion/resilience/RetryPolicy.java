@@ -0,0 +1,97 @@
+package me.hanju.enhancedcompletion.resilience;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.core.JacksonException;
+
+import me.hanju.enhancedcompletion.exception.EnhancedCompletionClientException;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+/**
+ * 스트리밍 요청 재시도 정책.
+ *
+ * <p>
+ * 연결 오류, 5xx/429 응답, 스트림 도중 끊김(IOException)만 재시도하며,
+ * 재시도 간격은 jitter가 적용된 지수 백오프입니다.
+ * 응답 파싱이나 요청 본문 쓰기 실패처럼 매번 같은 결과가 나는 오류는 재시도하지 않습니다.
+ * </p>
+ */
+public class RetryPolicy {
+
+  public static final double DEFAULT_JITTER = 0.5;
+
+  private final int maxRetries;
+  private final Duration minBackoff;
+  private final Duration maxBackoff;
+  private final double jitter;
+  private final boolean resume;
+
+  /**
+   * @param maxRetries 최대 재시도 횟수
+   * @param minBackoff 첫 재시도 전 대기
+   * @param maxBackoff 재시도 대기 상한
+   * @param resume     스트림 도중 끊겼을 때 생성된 내용을 prefill로 이어서 생성할지 여부
+   */
+  public RetryPolicy(final int maxRetries, final Duration minBackoff, final Duration maxBackoff,
+      final boolean resume) {
+    this(maxRetries, minBackoff, maxBackoff, DEFAULT_JITTER, resume);
+  }
+
+  public RetryPolicy(final int maxRetries, final Duration minBackoff, final Duration maxBackoff,
+      final double jitter, final boolean resume) {
+    this.maxRetries = maxRetries;
+    this.minBackoff = minBackoff;
+    this.maxBackoff = maxBackoff;
+    this.jitter = jitter;
+    this.resume = resume;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  public boolean isResume() {
+    return resume;
+  }
+
+  /**
+   * 재시도 대상 오류인지 판단합니다.
+   */
+  public boolean isRetryable(final Throwable error) {
+    return isTransient(error);
+  }
+
+  /**
+   * 일시적인 서버/네트워크 오류(연결 오류, 5xx/429, 응답 도중 끊김)인지 판단합니다.
+   * JSON 파싱/쓰기 실패와 client 자체의 codec 오류는 어디에 감싸여 있어도 제외합니다.
+   */
+  public static boolean isTransient(final Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof JacksonException || cause instanceof EnhancedCompletionClientException) {
+        return false;
+      }
+    }
+    if (error instanceof WebClientRequestException) {
+      return true;
+    }
+    if (error instanceof WebClientResponseException response) {
+      final int status = response.getStatusCode().value();
+      // 응답 도중 끊김이 WebClientResponseException의 cause로 전달되는 경우
+      return status >= 500 || status == 429 || response.getCause() instanceof IOException;
+    }
+    // 응답 도중 끊김 (reactor-netty PrematureCloseException 등)
+    return error instanceof IOException;
+  }
+
+  RetryBackoffSpec toRetrySpec() {
+    return Retry.backoff(maxRetries, minBackoff)
+        .maxBackoff(maxBackoff)
+        .jitter(jitter)
+        .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+  }
+}
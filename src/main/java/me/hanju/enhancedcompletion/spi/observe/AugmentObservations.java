@@ -0,0 +1,62 @@
+package me.hanju.enhancedcompletion.spi.observe;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionRequest;
+import me.hanju.enhancedcompletion.spi.augment.AugmentResult;
+import me.hanju.enhancedcompletion.spi.augment.Augmenter;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+/**
+ * 다른 Augmenter를 호출하는 Augmenter(composite 등)가 하위 Augmenter 실행을 관측 대상에 포함시키는 도우미.
+ *
+ * <p>
+ * 클라이언트는 최상위 Augmenter를 구독할 때 Reactor Context에 현재 {@link StreamObservation}과 Augmenter 이름을 넣습니다.
+ * composite는 하위 Augmenter를 {@code augmenter.augment(request)} 대신 {@link #augment}로 호출하면
+ * 하위 실행이 부모 이름과 함께 {@link StreamObservation#augmentStarted}/{@link StreamObservation#augmentFinished}로 전달됩니다.
+ * 관측 중이 아니면 그대로 {@code augment}를 호출합니다.
+ * </p>
+ */
+public final class AugmentObservations {
+
+  private static final Class<StreamObservation> OBSERVATION_KEY = StreamObservation.class;
+  private static final String PARENT_KEY = AugmentObservations.class.getName() + ".parent";
+
+  private AugmentObservations() {
+  }
+
+  /**
+   * 관측 정보가 담긴 Reactor Context.
+   *
+   * @param observation 현재 스트림의 observation
+   * @param augmenter   지금 실행 중인 Augmenter 이름 (하위 Augmenter의 부모)
+   */
+  public static Context context(final StreamObservation observation, final String augmenter) {
+    return Context.of(OBSERVATION_KEY, observation, PARENT_KEY, augmenter);
+  }
+
+  /**
+   * 하위 Augmenter를 관측하며 실행합니다.
+   */
+  public static Flux<AugmentResult> augment(final Augmenter augmenter, final ChatCompletionRequest request) {
+    return Flux.deferContextual(view -> {
+      final StreamObservation observation = view.getOrDefault(OBSERVATION_KEY, StreamObservation.NOOP);
+      if (observation == StreamObservation.NOOP) {
+        return augmenter.augment(request);
+      }
+      final String name = augmenter.getName();
+      final String parent = view.getOrDefault(PARENT_KEY, null);
+      final AtomicInteger documents = new AtomicInteger();
+      return Flux.defer(() -> {
+        observation.augmentStarted(name, parent);
+        return augmenter.augment(request);
+      })
+          .doOnNext(result -> documents.addAndGet(result.getDocuments() != null ? result.getDocuments().size() : 0))
+          .doOnComplete(() -> observation.augmentFinished(name, documents.get(), null))
+          .doOnError(e -> observation.augmentFinished(name, documents.get(), e))
+          .doOnCancel(() -> observation.augmentFinished(name, documents.get(), null))
+          .contextWrite(context(observation, name));
+    });
+  }
+}
@@ -0,0 +1,29 @@
+package me.hanju.enhancedcompletion.spi.observe;
+
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+
+/**
+ * 스트리밍 파이프라인 관측 SPI.
+ * {@code stream()} 호출마다 {@link #start}가 불리고, 반환한 {@link StreamObservation}으로 단계별 이벤트를 받습니다.
+ *
+ * <p>
+ * 기본값 {@link #NOOP}은 {@link StreamObservation#NOOP}을 반환하며,
+ * 클라이언트는 이 경우 시간 측정과 관측용 연산자를 모두 건너뛰므로 비활성 시 할당이 없습니다.
+ * </p>
+ */
+public interface CompletionObserver {
+
+  /** 아무것도 기록하지 않는 observer */
+  CompletionObserver NOOP = new CompletionObserver() {
+  };
+
+  /**
+   * 스트림 하나의 관측을 시작합니다.
+   *
+   * @param request 요청 정보
+   * @return 이 스트림의 이벤트를 받을 observation. 기록하지 않으면 {@link StreamObservation#NOOP}
+   */
+  default StreamObservation start(final EnhancedCompletionRequest request) {
+    return StreamObservation.NOOP;
+  }
+}
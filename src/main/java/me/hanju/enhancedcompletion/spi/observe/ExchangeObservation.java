@@ -0,0 +1,26 @@
+package me.hanju.enhancedcompletion.spi.observe;
+
+/**
+ * 서버로 보내는 HTTP 요청 하나의 이벤트.
+ * hedging과 재시도로 스트림 하나에 여러 요청이 생길 수 있습니다.
+ */
+public interface ExchangeObservation {
+
+  /** 아무것도 기록하지 않는 observation */
+  ExchangeObservation NOOP = new ExchangeObservation() {
+  };
+
+  /**
+   * 응답 헤더 수신.
+   */
+  default void responseReceived(final int status) {
+  }
+
+  /**
+   * 요청 종료.
+   *
+   * @param error 실패했으면 오류, 정상 종료나 취소(hedging에서 진 요청 등)면 null
+   */
+  default void finished(final Throwable error) {
+  }
+}
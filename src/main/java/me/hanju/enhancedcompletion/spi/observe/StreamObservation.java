@@ -0,0 +1,120 @@
+package me.hanju.enhancedcompletion.spi.observe;
+
+import java.util.function.BiConsumer;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.Citation;
+
+/**
+ * {@code stream()} 호출 하나의 단계별 이벤트.
+ * 필요한 메서드만 재정의합니다. 이벤트는 여러 스레드에서 올 수 있지만 같은 종류의 chunk 이벤트는 순서대로 옵니다.
+ */
+public interface StreamObservation {
+
+  /** 아무것도 기록하지 않는 observation */
+  StreamObservation NOOP = new StreamObservation() {
+  };
+
+  /**
+   * Augmenter 실행 시작.
+   *
+   * @param augmenter 이름
+   * @param parent    composite 안에서 실행되면 부모 Augmenter 이름, 최상위면 null
+   */
+  default void augmentStarted(final String augmenter, final String parent) {
+  }
+
+  /**
+   * Augmenter 실행 종료.
+   *
+   * @param augmenter 이름
+   * @param documents 찾은 문서 수
+   * @param error     실패했으면 오류, 아니면 null
+   */
+  default void augmentFinished(final String augmenter, final int documents, final Throwable error) {
+  }
+
+  /**
+   * 서버로 HTTP 요청을 보내기 직전. hedging/재시도로 여러 번 올 수 있습니다.
+   *
+   * @param url     요청 URL
+   * @param headers 요청 헤더 추가 (trace context 전파 등)
+   * @return 이 요청의 이벤트를 받을 observation
+   */
+  default ExchangeObservation exchangeStarted(final String url, final BiConsumer<String, String> headers) {
+    return ExchangeObservation.NOOP;
+  }
+
+  /**
+   * 서버 응답 헤더 수신 (time to first byte). hedging/재시도로 여러 번 올 수 있습니다.
+   *
+   * @param status HTTP 상태 코드
+   */
+  default void responseReceived(final int status) {
+  }
+
+  /**
+   * SSE data 하나를 응답 객체로 파싱함.
+   *
+   * @param nanos 파싱 시간
+   * @param bytes data 길이 (문자 수)
+   */
+  default void chunkParsed(final long nanos, final int bytes) {
+  }
+
+  /**
+   * 파싱된 chunk 수신. content/reasoning/tool call이 있는 첫 chunk가 TTFT입니다.
+   */
+  default void chunkReceived(final ChatCompletionResponse chunk) {
+  }
+
+  /**
+   * chunk 하나를 cite 파싱하여 응답 delta로 변환함.
+   *
+   * @param nanos   변환 시간
+   * @param outputs 만들어진 delta 수
+   */
+  default void chunkMapped(final long nanos, final int outputs) {
+  }
+
+  /**
+   * cite 파서(ContentStreamAdapter)가 버퍼에 모은 내용을 토큰으로 내보냄.
+   *
+   * @param inputChars 입력한 content 길이 (종료 시 flush면 0)
+   * @param tokens     내보낸 토큰 수
+   */
+  default void contentFlushed(final int inputChars, final int tokens) {
+  }
+
+  /**
+   * cite 태그가 닫혀 citation이 만들어짐.
+   */
+  default void citationEmitted(final Citation citation) {
+  }
+
+  /**
+   * 모든 delta가 리스너로 전달되고 병합이 끝남.
+   *
+   * @param deltas 전달된 delta 수
+   */
+  default void mergeCompleted(final int deltas) {
+  }
+
+  /**
+   * 스트림 정상 종료.
+   */
+  default void completed() {
+  }
+
+  /**
+   * 스트림 오류 종료.
+   */
+  default void failed(final Throwable error) {
+  }
+
+  /**
+   * 스트림 취소.
+   */
+  default void cancelled() {
+  }
+}
@@ -0,0 +1,30 @@
+package me.hanju.enhancedcompletion.spi.tool;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import me.hanju.enhancedcompletion.payload.completion.ToolCall;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tool 실행 인터페이스.
+ * {@link me.hanju.enhancedcompletion.tool.ToolLoop}가 모델의 tool call을 이름으로 찾아 실행합니다.
+ */
+public interface ToolHandler {
+
+  /**
+   * Tool 이름을 반환합니다. 요청의 {@code tools}에 선언한 function name과 같아야 합니다.
+   *
+   * @return Tool 이름
+   */
+  String getName();
+
+  /**
+   * Tool을 실행합니다.
+   * 블로킹 I/O가 필요하면 구현체에서 적절한 Scheduler로 전환합니다.
+   *
+   * @param toolCall  모델이 생성한 tool call (인자 원문 포함)
+   * @param arguments 파싱된 인자 객체
+   * @return tool 메시지 content로 전달할 실행 결과
+   */
+  Mono<String> handle(ToolCall toolCall, JsonNode arguments);
+}
@@ -0,0 +1,254 @@
+package me.hanju.enhancedcompletion.tokenizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * tiktoken 형식 BPE rank 파일 기반 로컬 토크나이저.
+ * 서버 왕복 없이 토큰 수를 계산하기 위해 사용합니다.
+ *
+ * <p>
+ * 인코딩 경로는 정규식 없이 {@link PreTokenizer}로 조각을 나누고, 각 조각을 UTF-8 바이트로 변환한 뒤
+ * int[] 기반 byte-pair merge를 수행합니다. 인스턴스는 불변이며 스레드 안전합니다.
+ * </p>
+ */
+public final class BpeTokenizer {
+
+  private static final int NO_RANK = Integer.MAX_VALUE;
+
+  private final RankTable ranks;
+
+  private BpeTokenizer(final RankTable ranks) {
+    this.ranks = ranks;
+  }
+
+  /**
+   * tiktoken rank 파일(한 줄에 {@code base64(token) rank})을 읽어 토크나이저를 생성합니다.
+   *
+   * @param rankFile rank 파일 경로 (예: cl100k_base.tiktoken)
+   * @return BpeTokenizer
+   */
+  public static BpeTokenizer load(final Path rankFile) {
+    try (InputStream in = Files.newInputStream(rankFile)) {
+      return load(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read BPE rank file: " + rankFile, e);
+    }
+  }
+
+  /**
+   * tiktoken rank 스트림을 읽어 토크나이저를 생성합니다.
+   *
+   * @param in rank 파일 스트림 (호출자가 닫아야 함)
+   * @return BpeTokenizer
+   */
+  public static BpeTokenizer load(final InputStream in) {
+    final RankTable.Builder builder = new RankTable.Builder();
+    final Base64.Decoder decoder = Base64.getDecoder();
+    try {
+      final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        final int space = line.indexOf(' ');
+        if (space < 0) {
+          throw new IllegalArgumentException("Invalid BPE rank line: " + line);
+        }
+        builder.add(decoder.decode(line.substring(0, space)), Integer.parseInt(line.substring(space + 1).trim()));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read BPE rank stream", e);
+    }
+    return new BpeTokenizer(builder.build());
+  }
+
+  /**
+   * 어휘 크기를 반환합니다.
+   */
+  public int vocabularySize() {
+    return ranks.size();
+  }
+
+  /**
+   * 텍스트를 토큰 id 배열로 인코딩합니다.
+   *
+   * @param text 입력 텍스트
+   * @return 토큰 id 배열
+   */
+  public int[] encode(final CharSequence text) {
+    if (text == null || text.isEmpty()) {
+      return new int[0];
+    }
+    final Scratch scratch = new Scratch(text.length());
+    int[] out = new int[Math.max(16, text.length() / 3)];
+    int size = 0;
+
+    int pos = 0;
+    while (pos < text.length()) {
+      final int end = PreTokenizer.next(text, pos);
+      final int byteLength = scratch.encodeUtf8(text, pos, end);
+      pos = end;
+
+      final int whole = ranks.rank(scratch.bytes, 0, byteLength);
+      if (whole >= 0) {
+        if (size == out.length) {
+          out = Arrays.copyOf(out, size * 2);
+        }
+        out[size++] = whole;
+        continue;
+      }
+
+      final int parts = merge(scratch, byteLength);
+      if (size + parts > out.length) {
+        out = Arrays.copyOf(out, Math.max(size * 2, size + parts));
+      }
+      for (int i = 0; i < parts; i++) {
+        out[size++] = ranks.rank(scratch.bytes, scratch.starts[i], scratch.starts[i + 1]);
+      }
+    }
+    return Arrays.copyOf(out, size);
+  }
+
+  /**
+   * 텍스트의 토큰 수를 계산합니다. 토큰 id 배열을 만들지 않습니다.
+   *
+   * @param text 입력 텍스트
+   * @return 토큰 수
+   */
+  public int countTokens(final CharSequence text) {
+    if (text == null || text.isEmpty()) {
+      return 0;
+    }
+    final Scratch scratch = new Scratch(text.length());
+    int count = 0;
+
+    int pos = 0;
+    while (pos < text.length()) {
+      final int end = PreTokenizer.next(text, pos);
+      final int byteLength = scratch.encodeUtf8(text, pos, end);
+      pos = end;
+
+      if (ranks.rank(scratch.bytes, 0, byteLength) >= 0) {
+        count++;
+      } else {
+        count += merge(scratch, byteLength);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * tiktoken의 byte_pair_merge와 동일한 병합을 수행합니다.
+   * 결과 경계는 scratch.starts[0..parts]에 남습니다.
+   *
+   * @return 병합 후 토큰(part) 수
+   */
+  private int merge(final Scratch scratch, final int byteLength) {
+    final byte[] piece = scratch.bytes;
+    final int[] starts = scratch.starts;
+    final int[] pairRanks = scratch.pairRanks;
+
+    int n = byteLength + 1;
+    for (int i = 0; i < n; i++) {
+      starts[i] = i;
+    }
+    for (int i = 0; i < n - 2; i++) {
+      pairRanks[i] = rankOrMax(piece, i, i + 2);
+    }
+    pairRanks[n - 2] = NO_RANK;
+    pairRanks[n - 1] = NO_RANK;
+
+    while (n > 2) {
+      int minRank = NO_RANK;
+      int minIndex = -1;
+      for (int i = 0; i < n - 1; i++) {
+        if (pairRanks[i] < minRank) {
+          minRank = pairRanks[i];
+          minIndex = i;
+        }
+      }
+      if (minIndex < 0) {
+        break;
+      }
+
+      // minIndex와 minIndex+1 병합: 경계 minIndex+1 제거
+      System.arraycopy(starts, minIndex + 2, starts, minIndex + 1, n - minIndex - 2);
+      System.arraycopy(pairRanks, minIndex + 2, pairRanks, minIndex + 1, n - minIndex - 2);
+      n--;
+
+      pairRanks[minIndex] = minIndex + 2 < n
+          ? rankOrMax(piece, starts[minIndex], starts[minIndex + 2])
+          : NO_RANK;
+      if (minIndex > 0) {
+        pairRanks[minIndex - 1] = rankOrMax(piece, starts[minIndex - 1], starts[minIndex + 1]);
+      }
+    }
+    return n - 1;
+  }
+
+  private int rankOrMax(final byte[] bytes, final int from, final int to) {
+    final int rank = ranks.rank(bytes, from, to);
+    return rank >= 0 ? rank : NO_RANK;
+  }
+
+  /**
+   * 인코딩 호출 하나가 재사용하는 작업 버퍼.
+   */
+  private static final class Scratch {
+    byte[] bytes;
+    int[] starts;
+    int[] pairRanks;
+
+    Scratch(final int textLength) {
+      final int initial = Math.min(Math.max(textLength, 16), 256);
+      this.bytes = new byte[initial * 4];
+      this.starts = new int[initial * 4 + 1];
+      this.pairRanks = new int[initial * 4 + 1];
+    }
+
+    int encodeUtf8(final CharSequence text, final int from, final int to) {
+      final int required = (to - from) * 3;
+      if (required > bytes.length) {
+        bytes = new byte[required];
+        starts = new int[required + 1];
+        pairRanks = new int[required + 1];
+      }
+      int length = 0;
+      for (int i = from; i < to; i++) {
+        final char c = text.charAt(i);
+        if (c < 0x80) {
+          bytes[length++] = (byte) c;
+        } else if (c < 0x800) {
+          bytes[length++] = (byte) (0xC0 | (c >> 6));
+          bytes[length++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(text.charAt(i + 1))) {
+          final int cp = Character.toCodePoint(c, text.charAt(++i));
+          bytes[length++] = (byte) (0xF0 | (cp >> 18));
+          bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+          bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+          bytes[length++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+          // 짝이 없는 surrogate는 U+FFFD로 치환 (String.getBytes와 동일)
+          bytes[length++] = (byte) 0xEF;
+          bytes[length++] = (byte) 0xBF;
+          bytes[length++] = (byte) 0xBD;
+        } else {
+          bytes[length++] = (byte) (0xE0 | (c >> 12));
+          bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+          bytes[length++] = (byte) (0x80 | (c & 0x3F));
+        }
+      }
+      return length;
+    }
+  }
+}
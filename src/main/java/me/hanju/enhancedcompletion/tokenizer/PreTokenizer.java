@@ -0,0 +1,159 @@
+package me.hanju.enhancedcompletion.tokenizer;
+
+/**
+ * tiktoken(cl100k_base) 사전 분할 정규식을 손으로 옮긴 스캐너.
+ *
+ * <pre>
+ * (?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\r\n\p{L}\p{N}]?\p{L}+|\p{N}{1,3}| ?[^\s\p{L}\p{N}]+[\r\n]*|\s*[\r\n]+|\s+(?!\S)|\s+
+ * </pre>
+ *
+ * 정규식 엔진의 백트래킹 없이 code point 단위로 한 번만 훑으며 다음 조각의 끝 위치를 반환합니다.
+ */
+final class PreTokenizer {
+
+  private PreTokenizer() {
+  }
+
+  /**
+   * pos에서 시작하는 다음 조각의 끝 위치(exclusive)를 반환합니다.
+   */
+  static int next(final CharSequence text, final int pos) {
+    final int length = text.length();
+    final int c = Character.codePointAt(text, pos);
+    final int afterC = pos + Character.charCount(c);
+
+    // 1. 축약형 ('s, 't, 're, 've, 'm, 'll, 'd)
+    if (c == '\'' && afterC < length) {
+      final int contractionEnd = contraction(text, afterC);
+      if (contractionEnd > 0) {
+        return contractionEnd;
+      }
+    }
+
+    // 2. [^\r\n\p{L}\p{N}]?\p{L}+
+    if (isLetter(c)) {
+      return skipLetters(text, afterC);
+    }
+    if (c != '\r' && c != '\n' && !isNumber(c) && afterC < length
+        && isLetter(Character.codePointAt(text, afterC))) {
+      return skipLetters(text, afterC);
+    }
+
+    // 3. \p{N}{1,3}
+    if (isNumber(c)) {
+      int end = afterC;
+      for (int digits = 1; digits < 3 && end < length; digits++) {
+        final int d = Character.codePointAt(text, end);
+        if (!isNumber(d)) {
+          break;
+        }
+        end += Character.charCount(d);
+      }
+      return end;
+    }
+
+    // 4. ' ?[^\s\p{L}\p{N}]+[\r\n]*'
+    int punctStart = -1;
+    if (isPunct(c)) {
+      punctStart = pos;
+    } else if (c == ' ' && afterC < length && isPunct(Character.codePointAt(text, afterC))) {
+      punctStart = afterC;
+    }
+    if (punctStart >= 0) {
+      int end = punctStart;
+      while (end < length) {
+        final int p = Character.codePointAt(text, end);
+        if (!isPunct(p)) {
+          break;
+        }
+        end += Character.charCount(p);
+      }
+      while (end < length && isNewline(text.charAt(end))) {
+        end++;
+      }
+      return end;
+    }
+
+    // 5~7. 공백 run
+    int runEnd = pos;
+    int lastNewlineEnd = -1;
+    while (runEnd < length) {
+      final int w = Character.codePointAt(text, runEnd);
+      if (!isWhitespace(w)) {
+        break;
+      }
+      runEnd += Character.charCount(w);
+      if (isNewline(w)) {
+        lastNewlineEnd = runEnd;
+      }
+    }
+    // 5. \s*[\r\n]+
+    if (lastNewlineEnd > 0) {
+      return lastNewlineEnd;
+    }
+    // 6. \s+(?!\S) : 뒤에 비공백이 오면 마지막 공백 하나를 다음 조각에 양보
+    if (runEnd < length) {
+      final int lastWhitespace = runEnd - Character.charCount(Character.codePointBefore(text, runEnd));
+      if (lastWhitespace > pos) {
+        return lastWhitespace;
+      }
+    }
+    // 7. \s+
+    return runEnd;
+  }
+
+  private static int contraction(final CharSequence text, final int from) {
+    final char first = Character.toLowerCase(text.charAt(from));
+    if (first == 's' || first == 't' || first == 'm' || first == 'd') {
+      return from + 1;
+    }
+    if (from + 1 < text.length()) {
+      final char second = Character.toLowerCase(text.charAt(from + 1));
+      if ((first == 'r' || first == 'v') && second == 'e' || first == 'l' && second == 'l') {
+        return from + 2;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipLetters(final CharSequence text, final int from) {
+    int end = from;
+    while (end < text.length()) {
+      final int l = Character.codePointAt(text, end);
+      if (!isLetter(l)) {
+        break;
+      }
+      end += Character.charCount(l);
+    }
+    return end;
+  }
+
+  private static boolean isLetter(final int c) {
+    if (c < 0x80) {
+      return (c | 0x20) >= 'a' && (c | 0x20) <= 'z';
+    }
+    return Character.isLetter(c);
+  }
+
+  private static boolean isNumber(final int c) {
+    if (c < 0x80) {
+      return c >= '0' && c <= '9';
+    }
+    final int type = Character.getType(c);
+    return type == Character.DECIMAL_DIGIT_NUMBER
+        || type == Character.LETTER_NUMBER
+        || type == Character.OTHER_NUMBER;
+  }
+
+  private static boolean isWhitespace(final int c) {
+    return Character.isWhitespace(c) || Character.isSpaceChar(c);
+  }
+
+  private static boolean isNewline(final int c) {
+    return c == '\r' || c == '\n';
+  }
+
+  private static boolean isPunct(final int c) {
+    return !isWhitespace(c) && !isLetter(c) && !isNumber(c);
+  }
+}
@@ -0,0 +1,119 @@
+package me.hanju.enhancedcompletion.tokenizer;
+
+import java.util.Arrays;
+
+/**
+ * 바이트 시퀀스 → BPE rank 조회용 open addressing 해시 테이블.
+ * 모든 토큰 바이트를 하나의 byte[] 풀에 이어 붙이고, 슬롯/오프셋/길이/rank를 int[]로만 관리하여
+ * 조회 시 객체 할당이 없도록 합니다.
+ */
+final class RankTable {
+
+  private static final int EMPTY = -1;
+
+  private final byte[] pool;
+  private final int[] offsets;
+  private final int[] lengths;
+  private final int[] ranks;
+  private final int[] slots;
+  private final int mask;
+  private final int maxTokenLength;
+
+  private RankTable(final byte[] pool, final int[] offsets, final int[] lengths, final int[] ranks,
+      final int[] slots, final int maxTokenLength) {
+    this.pool = pool;
+    this.offsets = offsets;
+    this.lengths = lengths;
+    this.ranks = ranks;
+    this.slots = slots;
+    this.mask = slots.length - 1;
+    this.maxTokenLength = maxTokenLength;
+  }
+
+  /**
+   * rank 조회.
+   *
+   * @return rank, 없으면 -1
+   */
+  int rank(final byte[] bytes, final int from, final int to) {
+    final int length = to - from;
+    if (length > maxTokenLength) {
+      return EMPTY;
+    }
+    int slot = hash(bytes, from, to) & mask;
+    while (true) {
+      final int entry = slots[slot];
+      if (entry == EMPTY) {
+        return EMPTY;
+      }
+      if (lengths[entry] == length
+          && Arrays.equals(pool, offsets[entry], offsets[entry] + length, bytes, from, to)) {
+        return ranks[entry];
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  int size() {
+    return ranks.length;
+  }
+
+  private static int hash(final byte[] bytes, final int from, final int to) {
+    int h = 0x811c9dc5;
+    for (int i = from; i < to; i++) {
+      h = (h ^ bytes[i]) * 0x01000193;
+    }
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * RankTable 빌더. 토큰은 추가된 순서대로 저장됩니다.
+   */
+  static final class Builder {
+    private byte[] pool = new byte[1 << 16];
+    private int poolSize = 0;
+    private int[] offsets = new int[1024];
+    private int[] lengths = new int[1024];
+    private int[] ranks = new int[1024];
+    private int count = 0;
+    private int maxTokenLength = 0;
+
+    Builder add(final byte[] token, final int rank) {
+      if (count == ranks.length) {
+        offsets = Arrays.copyOf(offsets, count * 2);
+        lengths = Arrays.copyOf(lengths, count * 2);
+        ranks = Arrays.copyOf(ranks, count * 2);
+      }
+      if (poolSize + token.length > pool.length) {
+        pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + token.length));
+      }
+      System.arraycopy(token, 0, pool, poolSize, token.length);
+      offsets[count] = poolSize;
+      lengths[count] = token.length;
+      ranks[count] = rank;
+      poolSize += token.length;
+      maxTokenLength = Math.max(maxTokenLength, token.length);
+      count++;
+      return this;
+    }
+
+    RankTable build() {
+      // load factor 0.5 이하 유지
+      final int capacity = Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+      final int[] slots = new int[capacity];
+      Arrays.fill(slots, EMPTY);
+      final int tableMask = capacity - 1;
+      final byte[] finalPool = Arrays.copyOf(pool, poolSize);
+      for (int entry = 0; entry < count; entry++) {
+        final int from = offsets[entry];
+        int slot = hash(finalPool, from, from + lengths[entry]) & tableMask;
+        while (slots[slot] != EMPTY) {
+          slot = (slot + 1) & tableMask;
+        }
+        slots[slot] = entry;
+      }
+      return new RankTable(finalPool, Arrays.copyOf(offsets, count), Arrays.copyOf(lengths, count),
+          Arrays.copyOf(ranks, count), slots, maxTokenLength);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package me.hanju.enhancedcompletion.tokenizer;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.IMessage;
+import me.hanju.enhancedcompletion.payload.completion.Message;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+
+/**
+ * Chat Completion 메시지/요청의 프롬프트 토큰 수를 로컬에서 계산합니다.
+ * OpenAI chat 포맷의 메시지 오버헤드(메시지당 3토큰, 응답 priming 3토큰)를 포함합니다.
+ * tools 정의 등 메시지 외 필드는 계산에 포함하지 않습니다.
+ */
+public class TokenCounter {
+
+  /** 메시지마다 붙는 구분 토큰 수 ({@code <|start|>role\n ... <|end|>}) */
+  public static final int TOKENS_PER_MESSAGE = 3;
+
+  /** assistant 응답 시작을 위한 priming 토큰 수 */
+  public static final int REPLY_PRIMING_TOKENS = 3;
+
+  private final BpeTokenizer tokenizer;
+
+  public TokenCounter(final BpeTokenizer tokenizer) {
+    this.tokenizer = tokenizer;
+  }
+
+  public BpeTokenizer getTokenizer() {
+    return tokenizer;
+  }
+
+  /**
+   * 텍스트 토큰 수.
+   */
+  public int countTokens(final CharSequence text) {
+    return tokenizer.countTokens(text);
+  }
+
+  /**
+   * 단일 메시지의 토큰 수 (LLM에 실제 전송되는 {@link IMessageable#toMessage()} 기준).
+   *
+   * @param message 메시지
+   * @return 메시지 오버헤드를 포함한 토큰 수
+   */
+  public int countTokens(final IMessageable message) {
+    if (message == null) {
+      return 0;
+    }
+    return countMessage(message.toMessage());
+  }
+
+  /**
+   * 요청 전체의 프롬프트 토큰 수.
+   *
+   * @param request Chat Completion 요청
+   * @return 응답 priming을 포함한 프롬프트 토큰 수
+   */
+  public int countTokens(final ChatCompletionRequest request) {
+    int total = REPLY_PRIMING_TOKENS;
+    if (request == null || request.getMessages() == null) {
+      return total;
+    }
+    for (final Message message : request.getMessages()) {
+      total += countMessage(message);
+    }
+    return total;
+  }
+
+  private int countMessage(final IMessage message) {
+    if (message == null) {
+      return 0;
+    }
+    return TOKENS_PER_MESSAGE
+        + tokenizer.countTokens(message.getRole())
+        + tokenizer.countTokens(message.getContent());
+  }
+}
@@ -0,0 +1,167 @@
+package me.hanju.enhancedcompletion.tool;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * tool call 하나의 arguments 조각을 Jackson non-blocking 파서로 점진적으로 파싱합니다.
+ * 최상위 필드 단위로 시작/완성을 {@link Sink}에 알립니다.
+ */
+final class ToolArgumentsParser {
+
+  /**
+   * 파싱 결과 수신자.
+   */
+  interface Sink {
+    void fieldStarted(String field);
+
+    void valueCompleted(String field, JsonNode value);
+
+    void completed(ObjectNode arguments);
+  }
+
+  private final JsonParser parser;
+  private final ByteArrayFeeder feeder;
+  private final JsonNodeFactory nodes;
+  private final Deque<ContainerNode<?>> stack = new ArrayDeque<>();
+
+  private ObjectNode root;
+  private String topField;
+  private String pendingName;
+  private boolean fed;
+  private boolean done;
+
+  ToolArgumentsParser(final JsonFactory factory, final JsonNodeFactory nodes) throws IOException {
+    this.parser = factory.createNonBlockingByteArrayParser();
+    this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    this.nodes = nodes;
+  }
+
+  boolean isDone() {
+    return done;
+  }
+
+  /**
+   * arguments 조각을 입력합니다. 루트 객체가 완성된 뒤의 입력은 무시합니다.
+   */
+  void feed(final String fragment, final Sink sink) throws IOException {
+    if (done || fragment.isEmpty()) {
+      return;
+    }
+    final byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+    feeder.feedInput(bytes, 0, bytes.length);
+    fed = true;
+    drain(sink);
+  }
+
+  /**
+   * 입력 종료. 인자가 비어 있으면 빈 객체로 완성합니다.
+   */
+  void finish(final Sink sink) throws IOException {
+    if (done) {
+      return;
+    }
+    if (!fed) {
+      done = true;
+      sink.completed(nodes.objectNode());
+      return;
+    }
+    feeder.endOfInput();
+    drain(sink);
+    if (!done) {
+      throw new JsonParseException(parser, "Unexpected end of tool call arguments");
+    }
+  }
+
+  private void drain(final Sink sink) throws IOException {
+    JsonToken token;
+    while (!done && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+      handle(token, sink);
+    }
+  }
+
+  private void handle(final JsonToken token, final Sink sink) throws IOException {
+    if (root == null) {
+      if (token != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "Tool call arguments must be a JSON object");
+      }
+      root = nodes.objectNode();
+      stack.push(root);
+      return;
+    }
+
+    switch (token) {
+      case FIELD_NAME -> {
+        pendingName = parser.currentName();
+        if (stack.size() == 1) {
+          topField = pendingName;
+          sink.fieldStarted(topField);
+        }
+      }
+      case START_OBJECT -> {
+        final ObjectNode child = nodes.objectNode();
+        attach(child);
+        stack.push(child);
+      }
+      case START_ARRAY -> {
+        final ArrayNode child = nodes.arrayNode();
+        attach(child);
+        stack.push(child);
+      }
+      case END_OBJECT, END_ARRAY -> {
+        final ContainerNode<?> closed = stack.pop();
+        if (stack.isEmpty()) {
+          done = true;
+          sink.completed(root);
+        } else if (stack.size() == 1) {
+          sink.valueCompleted(topField, closed);
+        }
+      }
+      default -> {
+        final JsonNode value = scalar(token);
+        attach(value);
+        if (stack.size() == 1) {
+          sink.valueCompleted(topField, value);
+        }
+      }
+    }
+  }
+
+  private void attach(final JsonNode value) {
+    final ContainerNode<?> parent = stack.peek();
+    if (parent instanceof ObjectNode object) {
+      object.set(pendingName, value);
+    } else {
+      ((ArrayNode) parent).add(value);
+    }
+  }
+
+  private JsonNode scalar(final JsonToken token) throws IOException {
+    return switch (token) {
+      case VALUE_STRING -> nodes.textNode(parser.getText());
+      case VALUE_TRUE -> nodes.booleanNode(true);
+      case VALUE_FALSE -> nodes.booleanNode(false);
+      case VALUE_NULL -> nodes.nullNode();
+      case VALUE_NUMBER_INT -> switch (parser.getNumberType()) {
+        case INT -> nodes.numberNode(parser.getIntValue());
+        case LONG -> nodes.numberNode(parser.getLongValue());
+        default -> nodes.numberNode(parser.getBigIntegerValue());
+      };
+      case VALUE_NUMBER_FLOAT -> nodes.numberNode(parser.getDecimalValue());
+      default -> throw new JsonParseException(parser, "Unexpected token in tool call arguments: " + token);
+    };
+  }
+}
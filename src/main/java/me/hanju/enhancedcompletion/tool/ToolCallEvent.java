@@ -0,0 +1,53 @@
+package me.hanju.enhancedcompletion.tool;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import me.hanju.enhancedcompletion.payload.completion.ToolCall;
+
+/**
+ * 스트리밍 중인 tool call의 인자 파싱 이벤트.
+ * 이벤트 종류에 따라 채워지는 필드가 다릅니다.
+ */
+@Builder
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode
+@ToString
+public class ToolCallEvent {
+
+  /**
+   * 이벤트 종류.
+   */
+  public enum Type {
+    /** tool call 시작. id와 name이 채워집니다. */
+    STARTED,
+    /** 최상위 인자 필드 시작. field가 채워집니다. */
+    FIELD_STARTED,
+    /** 최상위 인자 값 완성. field와 value가 채워집니다. */
+    VALUE_COMPLETED,
+    /** 인자 JSON 완성. toolCall과 arguments가 채워집니다. */
+    COMPLETED,
+    /** 인자가 올바른 JSON 객체가 아님. error가 채워지며 이후 조각은 무시됩니다. */
+    INVALID
+  }
+
+  private final Type type;
+
+  /** tool call index (delta의 {@code index}) */
+  private final int index;
+
+  private final String id;
+  private final String name;
+  private final String field;
+  private final JsonNode value;
+  private final ToolCall toolCall;
+  private final ObjectNode arguments;
+  private final Throwable error;
+}
@@ -0,0 +1,193 @@
+package me.hanju.enhancedcompletion.tool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ToolCall;
+import me.hanju.enhancedcompletion.payload.completion.ToolFunction;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import me.hanju.streambind.map.StreamMapper;
+
+/**
+ * 스트리밍 delta의 tool call 인자를 도착하는 즉시 점진적으로 파싱하는 StreamMapper.
+ *
+ * <p>
+ * tool call index별로 {@link ToolCallEvent}를 내보냅니다. 인자 JSON이 닫히는 순간
+ * {@link ToolCallEvent.Type#COMPLETED}가 나오므로, 모델이 응답을 끝내기 전에도
+ * 인자를 검증하거나 tool 실행을 시작할 수 있습니다.
+ * 인스턴스는 스트림 하나에서만 사용합니다 (thread-safe하지 않음).
+ * </p>
+ */
+public class ToolCallStreamParser implements StreamMapper<BaseCompletionResponse<?>, ToolCallEvent> {
+
+  private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+  private final ObjectMapper objectMapper;
+  private final Map<Integer, CallState> calls = new TreeMap<>();
+
+  public ToolCallStreamParser() {
+    this(DEFAULT_MAPPER);
+  }
+
+  public ToolCallStreamParser(final ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public List<ToolCallEvent> map(final BaseCompletionResponse<?> response) {
+    if (response == null || response.getChoices() == null || response.getChoices().isEmpty()) {
+      return List.of();
+    }
+    final var choice = response.getChoices().get(0);
+    final ResponseMessage delta = choice.getDelta() != null ? choice.getDelta() : choice.getMessage();
+    if (delta == null || delta.getToolCalls() == null || delta.getToolCalls().isEmpty()) {
+      return List.of();
+    }
+    final List<ToolCallEvent> events = new ArrayList<>();
+    for (final ToolCall toolCall : delta.getToolCalls()) {
+      accept(toolCall, events);
+    }
+    return events;
+  }
+
+  /**
+   * tool call delta 하나를 처리합니다.
+   *
+   * @param delta tool call delta
+   * @return 발생한 이벤트
+   */
+  public List<ToolCallEvent> accept(final ToolCall delta) {
+    final List<ToolCallEvent> events = new ArrayList<>();
+    accept(delta, events);
+    return events;
+  }
+
+  /**
+   * 스트림 종료 처리. 인자가 아직 닫히지 않은 tool call을 완성하거나 INVALID로 처리합니다.
+   */
+  @Override
+  public List<ToolCallEvent> flush() {
+    final List<ToolCallEvent> events = new ArrayList<>();
+    for (final CallState state : calls.values()) {
+      if (!state.isClosed()) {
+        state.out = events;
+        try {
+          state.parser.finish(state);
+        } catch (IOException e) {
+          state.invalidate(e);
+        }
+      }
+    }
+    return events;
+  }
+
+  private void accept(final ToolCall delta, final List<ToolCallEvent> events) {
+    if (delta == null) {
+      return;
+    }
+    final int index = delta.getIndex() != null ? delta.getIndex() : 0;
+    CallState state = calls.get(index);
+    if (state == null) {
+      try {
+        state = new CallState(index);
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to create JSON parser", e);
+      }
+      calls.put(index, state);
+    }
+    state.out = events;
+    state.update(delta);
+  }
+
+  /**
+   * tool call index 하나의 누적 상태.
+   */
+  private final class CallState implements ToolArgumentsParser.Sink {
+    private final int index;
+    private final ToolArgumentsParser parser;
+    private final StringBuilder arguments = new StringBuilder();
+    private String id;
+    private String type;
+    private String name;
+    private boolean started;
+    private boolean invalid;
+    private List<ToolCallEvent> out;
+
+    CallState(final int index) throws IOException {
+      this.index = index;
+      this.parser = new ToolArgumentsParser(objectMapper.getFactory(), objectMapper.getNodeFactory());
+    }
+
+    boolean isClosed() {
+      return invalid || parser.isDone();
+    }
+
+    void update(final ToolCall delta) {
+      if (delta.getId() != null) {
+        id = delta.getId();
+      }
+      if (delta.getType() != null) {
+        type = delta.getType();
+      }
+      final ToolFunction function = delta.getFunction();
+      if (function != null && function.getName() != null) {
+        name = function.getName();
+      }
+      if (!started && name != null) {
+        started = true;
+        out.add(event(ToolCallEvent.Type.STARTED).build());
+      }
+      final String fragment = function != null ? function.getArguments() : null;
+      if (fragment == null || fragment.isEmpty() || isClosed()) {
+        return;
+      }
+      arguments.append(fragment);
+      try {
+        parser.feed(fragment, this);
+      } catch (IOException e) {
+        invalidate(e);
+      }
+    }
+
+    void invalidate(final Throwable error) {
+      invalid = true;
+      out.add(event(ToolCallEvent.Type.INVALID).error(error).build());
+    }
+
+    @Override
+    public void fieldStarted(final String field) {
+      out.add(event(ToolCallEvent.Type.FIELD_STARTED).field(field).build());
+    }
+
+    @Override
+    public void valueCompleted(final String field, final JsonNode value) {
+      out.add(event(ToolCallEvent.Type.VALUE_COMPLETED).field(field).value(value).build());
+    }
+
+    @Override
+    public void completed(final ObjectNode parsed) {
+      final ToolCall toolCall = ToolCall.builder()
+          .index(index)
+          .id(id)
+          .type(type != null ? type : "function")
+          .function(ToolFunction.builder()
+              .name(name)
+              .arguments(arguments.length() > 0 ? arguments.toString() : "{}")
+              .build())
+          .build();
+      out.add(event(ToolCallEvent.Type.COMPLETED).toolCall(toolCall).arguments(parsed).build());
+    }
+
+    private ToolCallEvent.ToolCallEventBuilder event(final ToolCallEvent.Type eventType) {
+      return ToolCallEvent.builder().type(eventType).index(index).id(id).name(name);
+    }
+  }
+}
@@ -0,0 +1,337 @@
+package me.hanju.enhancedcompletion.tool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.exception.EnhancedCompletionClientException;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ToolCall;
+import me.hanju.enhancedcompletion.payload.completion.ToolFunction;
+import me.hanju.enhancedcompletion.payload.message.CitedMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+import me.hanju.enhancedcompletion.payload.message.ToolMessage;
+import me.hanju.enhancedcompletion.spi.tool.ToolHandler;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Tool 호출 루프.
+ *
+ * <p>
+ * completion 응답에 tool call이 있으면 {@link ToolRegistry}의 handler로 실행하고,
+ * assistant/tool 메시지를 덧붙여 다시 요청하는 과정을 tool call이 없을 때까지 반복합니다.
+ * </p>
+ * <ul>
+ * <li>tool call 인자가 스트림에서 완성되는 즉시 실행을 시작하므로 같은 턴의 tool들은 서로,
+ * 그리고 남은 응답 스트리밍과 병렬로 실행됩니다.</li>
+ * <li>실패, 타임아웃, 등록되지 않은 tool은 {@code {"error": ...}} 결과로 모델에 전달합니다.</li>
+ * <li>모든 턴의 delta는 하나의 리스너로 전달되며, onComplete/onError는 루프 종료 시 한 번만 호출됩니다.</li>
+ * </ul>
+ */
+public class ToolLoop {
+
+  public static final int DEFAULT_MAX_ITERATIONS = 8;
+  public static final Duration DEFAULT_TOOL_TIMEOUT = Duration.ofSeconds(30);
+
+  private static final String ROLE_ASSISTANT = "assistant";
+
+  private final EnhancedCompletionClient client;
+  private final ToolRegistry registry;
+  private final int maxIterations;
+  private final Duration toolTimeout;
+
+  public ToolLoop(final EnhancedCompletionClient client, final ToolRegistry registry) {
+    this(client, registry, DEFAULT_MAX_ITERATIONS, DEFAULT_TOOL_TIMEOUT);
+  }
+
+  /**
+   * @param client        completion 클라이언트
+   * @param registry      tool handler 레지스트리
+   * @param maxIterations 최대 completion 요청 횟수
+   * @param toolTimeout   tool 하나의 실행 제한 시간
+   */
+  public ToolLoop(
+      final EnhancedCompletionClient client,
+      final ToolRegistry registry,
+      final int maxIterations,
+      final Duration toolTimeout) {
+    if (maxIterations < 1) {
+      throw new IllegalArgumentException("maxIterations must be positive: " + maxIterations);
+    }
+    this.client = client;
+    this.registry = registry;
+    this.maxIterations = maxIterations;
+    this.toolTimeout = toolTimeout;
+  }
+
+  /**
+   * Tool 루프를 비동기로 실행합니다.
+   * 반환된 future를 취소하면 진행 중인 스트림과 tool 실행이 취소됩니다.
+   *
+   * @param request        첫 요청
+   * @param outputListener 모든 턴의 delta를 수신할 리스너
+   * @return 루프 결과
+   */
+  public CompletableFuture<ToolLoopResult> run(
+      final EnhancedCompletionRequest request,
+      final FluxListener<EnhancedCompletionResponse> outputListener) {
+
+    final CompletableFuture<ToolLoopResult> future = new CompletableFuture<>();
+    final AtomicReference<StreamHandle<EnhancedCompletionResponse>> current = new AtomicReference<>();
+    future.whenComplete((result, error) -> {
+      final StreamHandle<EnhancedCompletionResponse> handle = current.get();
+      if (future.isCancelled() && handle != null) {
+        handle.cancel();
+      }
+    });
+
+    Schedulers.boundedElastic().schedule(() -> {
+      try {
+        loop(request, outputListener, future, current);
+      } catch (RuntimeException e) {
+        fail(future, outputListener, e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Tool 루프를 실행하고 결과를 기다립니다.
+   *
+   * @param request 첫 요청
+   * @return 루프 결과
+   */
+  public ToolLoopResult execute(final EnhancedCompletionRequest request) {
+    try {
+      return run(request, new FluxListener<>() {
+        @Override
+        public void onNext(EnhancedCompletionResponse delta) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void onError(Throwable e) {
+        }
+      }).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new EnhancedCompletionClientException("Tool loop failed", e.getCause());
+    }
+  }
+
+  private void loop(
+      final EnhancedCompletionRequest request,
+      final FluxListener<EnhancedCompletionResponse> listener,
+      final CompletableFuture<ToolLoopResult> future,
+      final AtomicReference<StreamHandle<EnhancedCompletionResponse>> current) {
+
+    final List<IMessageable> messages = new ArrayList<>(
+        request.getMessages() != null ? request.getMessages() : List.of());
+
+    for (int iteration = 1;; iteration++) {
+      final Turn turn = new Turn(listener);
+      final StreamHandle<EnhancedCompletionResponse> handle = client.stream(
+          request.toBuilder().messages(List.copyOf(messages)).build(), turn);
+      current.set(handle);
+      if (future.isCancelled()) {
+        handle.cancel();
+      }
+
+      final EnhancedCompletionResponse response = handle.get();
+      if (future.isCancelled() || handle.isCancelled()) {
+        turn.cancelTools();
+        future.cancel(false);
+        return;
+      }
+      if (handle.isError()) {
+        turn.cancelTools();
+        fail(future, listener, handle.getError());
+        return;
+      }
+
+      final List<PendingCall> calls = turn.finish();
+      if (calls.isEmpty()) {
+        listener.onComplete();
+        future.complete(ToolLoopResult.builder()
+            .response(response)
+            .messages(List.copyOf(messages))
+            .iterations(iteration)
+            .build());
+        return;
+      }
+      if (iteration >= maxIterations) {
+        turn.cancelTools();
+        fail(future, listener, new EnhancedCompletionClientException(
+            "Tool loop exceeded max iterations: " + maxIterations));
+        return;
+      }
+
+      messages.add(assistantMessage(response, calls));
+      for (final PendingCall call : calls) {
+        messages.add(ToolMessage.of(call.id, call.result.join()));
+      }
+    }
+  }
+
+  private static void fail(
+      final CompletableFuture<ToolLoopResult> future,
+      final FluxListener<EnhancedCompletionResponse> listener,
+      final Throwable error) {
+    if (future.completeExceptionally(error)) {
+      listener.onError(error);
+    }
+  }
+
+  /**
+   * 응답 메시지에 실행한 tool call을 담아 다음 턴의 assistant 메시지로 만듭니다.
+   * 요청에는 index를 보내지 않습니다.
+   */
+  private static IMessageable assistantMessage(
+      final EnhancedCompletionResponse response,
+      final List<PendingCall> calls) {
+    final CitedMessage delta = response != null && response.getChoices() != null
+        && !response.getChoices().isEmpty()
+            ? response.getChoices().get(0).getDelta()
+            : null;
+    final List<ToolCall> toolCalls = new ArrayList<>(calls.size());
+    for (final PendingCall call : calls) {
+      toolCalls.add(ToolCall.builder()
+          .id(call.id)
+          .type(call.toolCall.getType())
+          .function(call.toolCall.getFunction())
+          .build());
+    }
+    final CitedMessage.CitedMessageBuilder<?, ?> builder = delta != null ? delta.toBuilder() : CitedMessage.builder();
+    return builder
+        .role(ROLE_ASSISTANT)
+        .toolCalls(toolCalls)
+        .build();
+  }
+
+  private static String errorResult(final String message) {
+    return JsonNodeFactory.instance.objectNode().put("error", message).toString();
+  }
+
+  /**
+   * 실행 중이거나 완료된 tool call 하나.
+   */
+  private static final class PendingCall {
+    private final String id;
+    private final ToolCall toolCall;
+    private final CompletableFuture<String> result;
+
+    PendingCall(final String id, final ToolCall toolCall, final CompletableFuture<String> result) {
+      this.id = id;
+      this.toolCall = toolCall;
+      this.result = result;
+    }
+  }
+
+  /**
+   * 턴 하나의 리스너. delta를 사용자 리스너로 넘기면서 tool call 인자가 완성되는 즉시 실행을 시작합니다.
+   */
+  private final class Turn implements FluxListener<EnhancedCompletionResponse> {
+    private final FluxListener<EnhancedCompletionResponse> listener;
+    private final ToolCallStreamParser parser = new ToolCallStreamParser();
+    private final Map<Integer, PendingCall> calls = new ConcurrentSkipListMap<>();
+
+    Turn(final FluxListener<EnhancedCompletionResponse> listener) {
+      this.listener = listener;
+    }
+
+    @Override
+    public void onNext(final EnhancedCompletionResponse delta) {
+      listener.onNext(delta);
+      parser.map(delta).forEach(this::handle);
+    }
+
+    @Override
+    public void onComplete() {
+      // 루프가 handle.get() 이후 처리
+    }
+
+    @Override
+    public void onError(final Throwable e) {
+      // 루프가 handle.isError()로 처리
+    }
+
+    @Override
+    public void onCancel() {
+      listener.onCancel();
+    }
+
+    /**
+     * 스트림 종료 후 남은 tool call을 시작하고 index 순으로 반환합니다.
+     */
+    List<PendingCall> finish() {
+      parser.flush().forEach(this::handle);
+      return List.copyOf(calls.values());
+    }
+
+    void cancelTools() {
+      calls.values().forEach(call -> call.result.cancel(true));
+    }
+
+    private void handle(final ToolCallEvent event) {
+      switch (event.getType()) {
+        case COMPLETED -> start(event.getIndex(), event.getToolCall(), event.getArguments());
+        case INVALID -> calls.put(event.getIndex(), new PendingCall(
+            callId(event.getIndex(), event.getId()),
+            ToolCall.builder()
+                .type("function")
+                .function(ToolFunction.builder()
+                    .name(event.getName())
+                    .arguments("{}")
+                    .build())
+                .build(),
+            CompletableFuture.completedFuture(errorResult(
+                "Invalid arguments: " + event.getError().getMessage()))));
+        default -> {
+        }
+      }
+    }
+
+    private void start(final int index, final ToolCall toolCall, final JsonNode arguments) {
+      final String name = toolCall.getFunction().getName();
+      final ToolHandler handler = registry.find(name);
+      final Mono<String> execution = handler == null
+          ? Mono.just(errorResult("Unknown tool: " + name))
+          : Mono.defer(() -> handler.handle(toolCall, arguments))
+              .subscribeOn(Schedulers.boundedElastic())
+              .timeout(toolTimeout)
+              .defaultIfEmpty("")
+              .onErrorResume(e -> Mono.just(errorResult(describe(e))));
+      calls.put(index, new PendingCall(callId(index, toolCall.getId()), toolCall, execution.toFuture()));
+    }
+
+    private String describe(final Throwable e) {
+      if (e instanceof TimeoutException) {
+        return "Tool timed out after " + toolTimeout.toMillis() + "ms";
+      }
+      return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static String callId(final int index, final String id) {
+      return id != null ? id : "call_" + index;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package me.hanju.enhancedcompletion.tool;
+
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+
+/**
+ * Tool 루프 실행 결과.
+ */
+@Builder
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode
+@ToString
+public class ToolLoopResult {
+
+  /** tool 호출 없이 끝난 마지막 턴의 병합된 응답 */
+  private final EnhancedCompletionResponse response;
+
+  /** 원본 메시지 + 각 턴의 assistant/tool 메시지 (마지막 응답 제외) */
+  private final List<IMessageable> messages;
+
+  /** 수행한 completion 요청 횟수 */
+  private final int iterations;
+}
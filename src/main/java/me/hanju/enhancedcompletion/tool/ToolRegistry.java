@@ -0,0 +1,45 @@
+package me.hanju.enhancedcompletion.tool;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.hanju.enhancedcompletion.spi.tool.ToolHandler;
+
+/**
+ * 이름으로 {@link ToolHandler}를 찾는 레지스트리.
+ */
+public class ToolRegistry {
+
+  private final Map<String, ToolHandler> handlers = new ConcurrentHashMap<>();
+
+  public static ToolRegistry of(final ToolHandler... handlers) {
+    return of(List.of(handlers));
+  }
+
+  public static ToolRegistry of(final Collection<? extends ToolHandler> handlers) {
+    final ToolRegistry registry = new ToolRegistry();
+    handlers.forEach(registry::register);
+    return registry;
+  }
+
+  /**
+   * Handler를 등록합니다. 같은 이름이 있으면 교체합니다.
+   */
+  public ToolRegistry register(final ToolHandler handler) {
+    handlers.put(handler.getName(), handler);
+    return this;
+  }
+
+  /**
+   * @return 이름에 해당하는 handler, 없으면 null
+   */
+  public ToolHandler find(final String name) {
+    return name != null ? handlers.get(name) : null;
+  }
+
+  public Collection<ToolHandler> getHandlers() {
+    return List.copyOf(handlers.values());
+  }
+}
@@ -0,0 +1,21 @@
+package me.hanju.enhancedcompletion.transport;
+
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import reactor.core.publisher.Flux;
+
+/**
+ * 요청을 보내고 SSE data 문자열 스트림을 받는 방법.
+ * 지정하지 않으면 클라이언트가 WebClient로 endpoint에 직접 요청합니다 (hedging, endpoint 선택 포함).
+ */
+@FunctionalInterface
+public interface CompletionTransport {
+
+  /**
+   * 요청 하나의 SSE data 스트림. {@code [DONE]}은 포함하지 않습니다.
+   * 재시도 시 다시 호출됩니다.
+   *
+   * @param request 요청 정보
+   * @return chunk JSON 문자열 스트림
+   */
+  Flux<String> exchange(EnhancedCompletionRequest request);
+}
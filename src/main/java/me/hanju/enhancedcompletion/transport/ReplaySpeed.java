@@ -0,0 +1,17 @@
+package me.hanju.enhancedcompletion.transport;
+
+/**
+ * 녹화된 SSE 스트림을 재생하는 속도.
+ */
+public enum ReplaySpeed {
+
+  /**
+   * 녹화된 frame 간격 그대로 재생합니다 (TTFT, 토큰 간격 재현).
+   */
+  RECORDED,
+
+  /**
+   * 지연 없이 최대 속도로 재생합니다 (파싱/변환/병합 처리량 측정).
+   */
+  MAXIMUM
+}
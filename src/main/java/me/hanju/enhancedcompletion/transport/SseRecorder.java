@@ -0,0 +1,124 @@
+package me.hanju.enhancedcompletion.transport;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * 서버에서 받은 SSE data frame을 도착 시각과 함께 파일에 녹화합니다.
+ * 녹화 파일은 {@link SseRecording#readAll(Path)}로 읽거나 {@link SseReplayTransport}로 재생합니다.
+ *
+ * <p>
+ * frame은 스트림별로 메모리에 모았다가 스트림이 끝날 때(완료, 오류, 취소) 레코드 하나로 추가하고 flush합니다.
+ * 닫은 뒤에 끝난 스트림은 기록하지 않습니다.
+ * 여러 스트림이 동시에 끝나도 레코드 단위로 직렬화되어 섞이지 않습니다.
+ * </p>
+ */
+public class SseRecorder implements AutoCloseable {
+
+  private final Path file;
+  private final OutputStream out;
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final AtomicLong recorded = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private boolean closed;
+
+  /**
+   * 파일이 없거나 비어 있으면 새로 만들고, 있으면 뒤에 이어서 녹화합니다.
+   */
+  public SseRecorder(final Path file) {
+    this.file = file;
+    try {
+      final boolean empty = !Files.exists(file) || Files.size(file) == 0;
+      this.out = new BufferedOutputStream(Files.newOutputStream(file,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE));
+      if (empty) {
+        out.write(SseRecording.MAGIC);
+        out.flush();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open SSE recording: " + file, e);
+    }
+  }
+
+  /**
+   * data 스트림을 그대로 흘려보내며 녹화합니다. 구독할 때마다 레코드 하나가 생깁니다.
+   */
+  public Flux<String> record(final Flux<String> data) {
+    return Flux.defer(() -> {
+      final long startNanos = System.nanoTime();
+      final List<String> frames = new ArrayList<>();
+      final List<Long> offsets = new ArrayList<>();
+      return data
+          .doOnNext(frame -> {
+            offsets.add(System.nanoTime() - startNanos);
+            frames.add(frame);
+          })
+          // 종료 신호가 하류로 전달되기 전에 기록하여 handle.get() 이후에는 레코드가 파일에 있도록 함
+          .doOnComplete(() -> write(offsets, frames))
+          .doOnError(e -> write(offsets, frames))
+          .doOnCancel(() -> write(offsets, frames));
+    });
+  }
+
+  private synchronized void write(final List<Long> offsets, final List<String> frames) {
+    if (frames.isEmpty() || closed) {
+      return;
+    }
+    final long[] offsetNanos = new long[offsets.size()];
+    for (int i = 0; i < offsetNanos.length; i++) {
+      offsetNanos[i] = offsets.get(i);
+    }
+    try {
+      new SseRecording(offsetNanos, frames.toArray(String[]::new)).writeRecord(out, deflater);
+      out.flush();
+      recorded.incrementAndGet();
+    } catch (IOException e) {
+      // 녹화 실패가 요청을 실패시키지 않도록 버리고 개수만 셈
+      failed.incrementAndGet();
+    }
+  }
+
+  /**
+   * 지금까지 녹화한 스트림 수.
+   */
+  public long getRecordedCount() {
+    return recorded.get();
+  }
+
+  /**
+   * 쓰기에 실패해 버린 스트림 수.
+   */
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      out.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      deflater.end();
+    }
+  }
+}
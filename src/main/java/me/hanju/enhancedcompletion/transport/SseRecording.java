@@ -0,0 +1,192 @@
+package me.hanju.enhancedcompletion.transport;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 녹화된 SSE 스트림 하나 (요청 하나의 data frame과 도착 시각).
+ *
+ * <p>
+ * 파일 형식: {@code ECSSE} + 버전(1바이트) 헤더 뒤에 스트림마다
+ * [varint 압축 길이][deflate(varint frame 수, frame마다 varint 이전 frame과의 간격(µs), varint UTF-8 길이, UTF-8)]
+ * 레코드가 이어집니다. 레코드는 스트림이 끝날 때 하나씩 추가되므로 녹화 중인 파일도 앞부분은 읽을 수 있습니다.
+ * chunk JSON은 스트림 안에서 반복이 많아 deflate로 크게 줄어듭니다.
+ * </p>
+ */
+public final class SseRecording {
+
+  static final byte[] MAGIC = { 'E', 'C', 'S', 'S', 'E', 1 };
+
+  private final long[] offsetNanos;
+  private final String[] frames;
+
+  /**
+   * @param offsetNanos 스트림 시작부터 각 frame 도착까지의 시간(ns)
+   * @param frames      data 문자열
+   */
+  public SseRecording(final long[] offsetNanos, final String[] frames) {
+    if (offsetNanos.length != frames.length) {
+      throw new IllegalArgumentException("offsets and frames must have the same length");
+    }
+    this.offsetNanos = offsetNanos.clone();
+    this.frames = frames.clone();
+  }
+
+  public int size() {
+    return frames.length;
+  }
+
+  public String getFrame(final int index) {
+    return frames[index];
+  }
+
+  public long getOffsetNanos(final int index) {
+    return offsetNanos[index];
+  }
+
+  public List<String> getFrames() {
+    return List.of(frames);
+  }
+
+  /**
+   * 파일의 모든 스트림을 읽습니다. 마지막 레코드가 쓰다 만 상태면 무시합니다.
+   */
+  public static List<SseRecording> readAll(final Path file) {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+      return readAll(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read SSE recording: " + file, e);
+    }
+  }
+
+  static List<SseRecording> readAll(final InputStream input) throws IOException {
+    final DataInputStream in = new DataInputStream(input);
+    final byte[] magic = new byte[MAGIC.length];
+    in.readFully(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("Not an SSE recording (bad header)");
+    }
+    final List<SseRecording> recordings = new ArrayList<>();
+    final Inflater inflater = new Inflater();
+    try {
+      while (true) {
+        final int length;
+        final byte[] compressed;
+        try {
+          length = readVarint(in);
+          compressed = new byte[length];
+          in.readFully(compressed);
+        } catch (EOFException e) {
+          break;
+        }
+        inflater.reset();
+        inflater.setInput(compressed);
+        recordings.add(decode(inflate(inflater)));
+      }
+    } finally {
+      inflater.end();
+    }
+    return recordings;
+  }
+
+  /**
+   * 레코드 하나(압축 길이 + deflate 본문)를 씁니다.
+   */
+  void writeRecord(final OutputStream out, final Deflater deflater) throws IOException {
+    final ByteArrayOutputStream raw = new ByteArrayOutputStream(64 + frames.length * 64);
+    writeVarint(raw, frames.length);
+    long previous = 0;
+    for (int i = 0; i < frames.length; i++) {
+      final long micros = offsetNanos[i] / 1_000;
+      writeVarint(raw, Math.max(0, micros - previous));
+      previous = Math.max(previous, micros);
+      final byte[] bytes = frames[i].getBytes(StandardCharsets.UTF_8);
+      writeVarint(raw, bytes.length);
+      raw.write(bytes);
+    }
+
+    deflater.reset();
+    deflater.setInput(raw.toByteArray());
+    deflater.finish();
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.size() / 4 + 16);
+    final byte[] buffer = new byte[8192];
+    while (!deflater.finished()) {
+      compressed.write(buffer, 0, deflater.deflate(buffer));
+    }
+    writeVarint(out, compressed.size());
+    compressed.writeTo(out);
+  }
+
+  private static byte[] inflate(final Inflater inflater) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    try {
+      while (!inflater.finished()) {
+        final int n = inflater.inflate(buffer);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated SSE recording");
+        }
+        out.write(buffer, 0, n);
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupted SSE recording", e);
+    }
+    return out.toByteArray();
+  }
+
+  private static SseRecording decode(final byte[] raw) throws IOException {
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+    final int count = readVarint(in);
+    final long[] offsets = new long[count];
+    final String[] frames = new String[count];
+    long micros = 0;
+    for (int i = 0; i < count; i++) {
+      micros += readVarint(in);
+      offsets[i] = micros * 1_000;
+      final byte[] bytes = new byte[readVarint(in)];
+      in.readFully(bytes);
+      frames[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return new SseRecording(offsets, frames);
+  }
+
+  static void writeVarint(final OutputStream out, final long value) throws IOException {
+    long v = value;
+    while ((v & ~0x7FL) != 0) {
+      out.write((int) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    out.write((int) v);
+  }
+
+  private static int readVarint(final DataInputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final int b = in.readUnsignedByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value > Integer.MAX_VALUE) {
+          throw new IOException("Varint too large: " + value);
+        }
+        return (int) value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+}
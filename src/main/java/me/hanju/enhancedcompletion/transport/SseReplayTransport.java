@@ -0,0 +1,64 @@
+package me.hanju.enhancedcompletion.transport;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 녹화된 SSE 스트림을 서버 대신 돌려주는 transport.
+ * 요청 내용과 관계없이 녹화된 스트림을 순서대로 돌아가며 재생하므로,
+ * GPU 없이 실제 토큰 분포로 파싱, cite 변환, 병합 경로를 반복 측정할 수 있습니다.
+ */
+public class SseReplayTransport implements CompletionTransport {
+
+  private final List<SseRecording> recordings;
+  private final ReplaySpeed speed;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public SseReplayTransport(final List<SseRecording> recordings, final ReplaySpeed speed) {
+    if (recordings.isEmpty()) {
+      throw new IllegalArgumentException("recordings must not be empty");
+    }
+    this.recordings = List.copyOf(recordings);
+    this.speed = speed != null ? speed : ReplaySpeed.MAXIMUM;
+  }
+
+  /**
+   * 녹화 파일을 읽어 transport를 만듭니다.
+   */
+  public static SseReplayTransport load(final Path file, final ReplaySpeed speed) {
+    return new SseReplayTransport(SseRecording.readAll(file), speed);
+  }
+
+  @Override
+  public Flux<String> exchange(final EnhancedCompletionRequest request) {
+    return replay(recordings.get(Math.floorMod(next.getAndIncrement(), recordings.size())));
+  }
+
+  /**
+   * 녹화 하나를 재생합니다.
+   */
+  public Flux<String> replay(final SseRecording recording) {
+    if (speed == ReplaySpeed.MAXIMUM) {
+      return Flux.fromIterable(recording.getFrames());
+    }
+    return Flux.defer(() -> {
+      final long startNanos = System.nanoTime();
+      return Flux.range(0, recording.size())
+          .concatMap(i -> {
+            final long wait = recording.getOffsetNanos(i) - (System.nanoTime() - startNanos);
+            final Mono<String> frame = Mono.just(recording.getFrame(i));
+            return wait > 0 ? frame.delayElement(Duration.ofNanos(wait)) : frame;
+          });
+    });
+  }
+
+  public int getRecordingCount() {
+    return recordings.size();
+  }
+}
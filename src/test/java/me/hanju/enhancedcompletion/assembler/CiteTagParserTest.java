@@ -0,0 +1,93 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CiteTagParser")
+class CiteTagParserTest {
+
+  private final List<String> events = new ArrayList<>();
+
+  private final CiteTagParser.Handler handler = new CiteTagParser.Handler() {
+    @Override
+    public void text(String text) {
+      events.add("text:" + text);
+    }
+
+    @Override
+    public void citeOpened() {
+      events.add("open");
+    }
+
+    @Override
+    public void citeId(String source, int start, int end) {
+      events.add("id:" + source.substring(start, end));
+    }
+
+    @Override
+    public void citeClosed() {
+      events.add("close");
+    }
+  };
+
+  private List<String> parse(String... chunks) {
+    CiteTagParser parser = new CiteTagParser();
+    for (String chunk : chunks) {
+      parser.feed(chunk, handler);
+    }
+    parser.flush(handler);
+    return events;
+  }
+
+  @Test
+  @DisplayName("태그 사이 텍스트는 잘라내지 않고 구간째 전달")
+  void emitsTextRuns() {
+    assertThat(parse("서울은 <cite><id>doc1</id>수도</cite>입니다"))
+        .containsExactly("text:서울은 ", "open", "id:doc1", "text:수도", "close", "text:입니다");
+  }
+
+  @Test
+  @DisplayName("chunk 경계에 걸친 태그를 이어서 인식")
+  void matchesTagsAcrossChunks() {
+    assertThat(parse("앞<ci", "te><i", "d>do", "c1</", "id>본문</c", "ite>뒤"))
+        .containsExactly("text:앞", "open", "id:do", "id:c1", "text:본문", "close", "text:뒤");
+  }
+
+  @Test
+  @DisplayName("rag는 cite의 별칭")
+  void ragAlias() {
+    assertThat(parse("<rag><id>d</id>x</rag>"))
+        .containsExactly("open", "id:d", "text:x", "close");
+  }
+
+  @Test
+  @DisplayName("문법에 없는 태그와 '<'는 텍스트")
+  void unknownTagsAreText() {
+    assertThat(String.join("", parse("a < b <b>굵게</b> <ci", "x")))
+        .isEqualTo("text:a < b <b>굵게</b> text:<citext:x");
+  }
+
+  @Test
+  @DisplayName("스트림 끝에 남은 잘린 태그는 flush에서 텍스트로")
+  void flushesPendingAsText() {
+    assertThat(parse("끝<ci")).containsExactly("text:끝", "text:<ci");
+  }
+
+  @Test
+  @DisplayName("code point와 UTF-8 단위로 한글과 emoji 길이를 셈")
+  void offsetUnits() {
+    String text = "한글a🙂";
+    assertThat(CitationOffsetUnit.UTF_16.length(text)).isEqualTo(5);
+    assertThat(CitationOffsetUnit.CODE_POINT.length(text)).isEqualTo(4);
+    assertThat(CitationOffsetUnit.UTF_8.length(text)).isEqualTo(3 + 3 + 1 + 4);
+
+    // surrogate 쌍이 chunk 경계에서 갈려도 합계는 같음
+    assertThat(CitationOffsetUnit.UTF_8.length(text.substring(0, 4))
+        + CitationOffsetUnit.UTF_8.length(text.substring(4))).isEqualTo(11);
+  }
+}
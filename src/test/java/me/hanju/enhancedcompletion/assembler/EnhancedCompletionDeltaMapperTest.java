@@ -3,6 +3,7 @@ package me.hanju.enhancedcompletion.assembler;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +16,12 @@ import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
 import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
 import me.hanju.enhancedcompletion.payload.completion.ToolCall;
 import me.hanju.enhancedcompletion.payload.completion.ToolFunction;
+import me.hanju.enhancedcompletion.payload.document.SimpleDocument;
+import me.hanju.enhancedcompletion.payload.message.AttachedMessage;
 import me.hanju.enhancedcompletion.payload.message.Citation;
 import me.hanju.enhancedcompletion.payload.message.CitedMessage;
 import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import me.hanju.enhancedcompletion.spi.observe.StreamObservation;
 import me.hanju.fluxhandle.FluxListener;
 import me.hanju.fluxhandle.StreamHandle;
 import reactor.core.publisher.Flux;
@@ -1024,4 +1028,110 @@ class EnhancedCompletionDeltaMapperTest {
       assertThat(hasCitationDelta).isTrue();
     }
   }
+
+  @Nested
+  @DisplayName("주입 문서 매칭")
+  class DocumentResolution {
+
+    private final DocumentIndex index = DocumentIndex.of(List.of(AttachedMessage.builder()
+        .role("user")
+        .content("질문")
+        .documents(List.of(
+            SimpleDocument.builder().id("doc1").title("서울").url("https://example.com/seoul").content("내용").build(),
+            SimpleDocument.builder().id("doc2").title("부산").content("내용").build()))
+        .build()));
+
+    @Test
+    @DisplayName("cite id를 주입 문서와 매칭해 url/title을 채우고, 없는 id는 환각으로 표시")
+    void resolvesCitedDocuments() {
+      // Given
+      mapper = new EnhancedCompletionDeltaMapper(StreamObservation.NOOP, index);
+      feedCharByChar("<cite><id>doc1</id>수도</cite> 그리고 <cite><id>doc9</id>항구</cite> <cite><id>doc2</id>도시");
+
+      // When
+      CitedMessage message = (CitedMessage) getMessageOrDelta(getMergedResult());
+
+      // Then
+      assertThat(message.getCitations()).hasSize(3);
+      assertThat(message.getCitations().get(0).getResolved()).isTrue();
+      assertThat(message.getCitations().get(0).getUrl()).isEqualTo("https://example.com/seoul");
+      assertThat(message.getCitations().get(0).getTitle()).isEqualTo("서울");
+      assertThat(message.getCitations().get(1).getResolved()).isFalse();
+      assertThat(message.getCitations().get(1).getUrl()).isNull();
+      // 닫히지 않은 cite도 flush에서 매칭
+      assertThat(message.getCitations().get(2).getResolved()).isTrue();
+      assertThat(message.getCitations().get(2).getUrl()).isNull();
+      assertThat(message.getCitations().get(2).getTitle()).isEqualTo("부산");
+    }
+
+    @Test
+    @DisplayName("주입된 문서가 없으면 매칭하지 않음")
+    void skipsResolutionWithoutDocuments() {
+      // Given
+      feedCharByChar("<cite><id>doc1</id>수도</cite>");
+
+      // When
+      CitedMessage message = (CitedMessage) getMessageOrDelta(getMergedResult());
+
+      // Then
+      assertThat(message.getCitations()).singleElement()
+          .satisfies(citation -> assertThat(citation.getResolved()).isNull());
+    }
+
+    @Test
+    @DisplayName("응답을 받은 쪽은 Augmenter 문서 목록으로 색인을 만들어 cite id로 원본 문서를 찾음")
+    void findsSourceDocumentFromAugmentResult() {
+      // Given
+      SimpleDocument seoul = SimpleDocument.builder().id("doc1").title("서울").content("내용").build();
+      SimpleDocument duplicate = SimpleDocument.builder().id("doc1").title("중복").build();
+
+      // When
+      DocumentIndex documents = DocumentIndex.ofDocuments(Arrays.asList(seoul, null, duplicate));
+
+      // Then
+      assertThat(documents.find("doc1")).isSameAs(seoul);
+      assertThat(documents.find("doc9")).isNull();
+      assertThat(DocumentIndex.ofDocuments(null)).isSameAs(DocumentIndex.EMPTY);
+    }
+  }
+
+  @Nested
+  @DisplayName("offset 단위")
+  class OffsetUnit {
+
+    @Test
+    @DisplayName("UTF_8이면 startOffset/endOffset을 바이트로 채우고 index는 UTF-16 그대로")
+    void fillsUtf8Offsets() {
+      // Given
+      mapper = new EnhancedCompletionDeltaMapper(StreamObservation.NOOP, DocumentIndex.EMPTY, CitationOffsetUnit.UTF_8);
+      feedCharByChar("🙂서울 <cite><id>doc1</id>수도</cite>");
+
+      // When
+      CitedMessage message = (CitedMessage) getMessageOrDelta(getMergedResult());
+
+      // Then
+      assertThat(message.getCitations()).singleElement().satisfies(citation -> {
+        assertThat(citation.getStartIndex()).isEqualTo(5);
+        assertThat(citation.getEndIndex()).isEqualTo(7);
+        assertThat(citation.getStartOffset()).isEqualTo(4 + 6 + 1);
+        assertThat(citation.getEndOffset()).isEqualTo(4 + 6 + 1 + 6);
+      });
+    }
+
+    @Test
+    @DisplayName("기본(UTF_16)이면 offset을 채우지 않음")
+    void skipsOffsetsByDefault() {
+      // Given
+      feedCharByChar("서울 <cite><id>doc1</id>수도</cite>");
+
+      // When
+      CitedMessage message = (CitedMessage) getMessageOrDelta(getMergedResult());
+
+      // Then
+      assertThat(message.getCitations()).singleElement().satisfies(citation -> {
+        assertThat(citation.getStartOffset()).isNull();
+        assertThat(citation.getEndOffset()).isNull();
+      });
+    }
+  }
 }
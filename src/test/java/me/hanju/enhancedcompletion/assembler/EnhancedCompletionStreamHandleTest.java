@@ -0,0 +1,248 @@
+package me.hanju.enhancedcompletion.assembler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.CitedMessage;
+import me.hanju.enhancedcompletion.payload.message.ResponseMessage;
+import me.hanju.fluxhandle.FluxListener;
+import reactor.core.publisher.Flux;
+
+@DisplayName("EnhancedCompletionStreamHandle")
+class EnhancedCompletionStreamHandleTest {
+
+  private final List<EnhancedCompletionResponse> received = new ArrayList<>();
+
+  private final FluxListener<EnhancedCompletionResponse> listener = new FluxListener<>() {
+    @Override
+    public void onNext(EnhancedCompletionResponse delta) {
+      received.add(delta);
+    }
+
+    @Override
+    public void onComplete() {}
+
+    @Override
+    public void onError(Throwable e) {}
+  };
+
+  private ChatCompletionResponse createDelta(String content, String reasoning) {
+    return ChatCompletionResponse.builder()
+        .id("chatcmpl-123")
+        .object("chat.completion.chunk")
+        .created(1234567890L)
+        .model("gpt-4")
+        .choices(List.of(BaseCompletionResponse.Choice.<ResponseMessage>builder()
+            .index(0)
+            .delta(ResponseMessage.builder().content(content).reasoning(reasoning).build())
+            .build()))
+        .build();
+  }
+
+  private static ResponseMessage merged(EnhancedCompletionResponse result) {
+    var choice = result.getChoices().get(0);
+    return choice.getDelta() != null ? choice.getDelta() : choice.getMessage();
+  }
+
+  @Test
+  @DisplayName("블록 경계를 여러 번 넘는 긴 출력을 이어 붙인 것과 같은 content로 병합")
+  void mergesLongContent() {
+    // Given
+    final List<ChatCompletionResponse> chunks = new ArrayList<>();
+    final StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < ContentAccumulator.BLOCK * 3 + 17; i++) {
+      final String token = i % 7 == 0 ? " 토큰" + i : " token" + i;
+      chunks.add(createDelta(token, null));
+      expected.append(token);
+    }
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener);
+
+    // When
+    handle.subscribe(Flux.fromIterable(chunks), new EnhancedCompletionDeltaMapper());
+    final EnhancedCompletionResponse result = handle.get();
+
+    // Then
+    assertThat(merged(result).getContent()).isEqualTo(expected.toString());
+    assertThat(result.getId()).isEqualTo("chatcmpl-123");
+  }
+
+  @Test
+  @DisplayName("listener는 content가 담긴 원래 delta를 받음")
+  void listenerReceivesOriginalDeltas() {
+    // Given
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener);
+
+    // When
+    handle.subscribe(Flux.just(createDelta("Hello", null), createDelta(" World", null)),
+        new EnhancedCompletionDeltaMapper());
+    handle.get();
+
+    // Then
+    assertThat(received).extracting(delta -> delta.getChoices().get(0).getDelta().getContent())
+        .containsExactly("Hello", " World");
+  }
+
+  @Test
+  @DisplayName("reasoning과 citation도 함께 병합")
+  void mergesReasoningAndCitations() {
+    // Given
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener);
+
+    // When
+    handle.subscribe(Flux.just(
+        createDelta(null, "생각"),
+        createDelta(null, " 중"),
+        createDelta("<cite><id>doc1</id>인용", null),
+        createDelta("텍스트</cite> 끝", null)), new EnhancedCompletionDeltaMapper());
+    final ResponseMessage message = merged(handle.get());
+
+    // Then
+    assertThat(message.getReasoning()).isEqualTo("생각 중");
+    assertThat(message.getContent()).isEqualTo("인용텍스트 끝");
+    assertThat(message).isInstanceOf(CitedMessage.class);
+    assertThat(((CitedMessage) message).getCitations()).singleElement()
+        .satisfies(citation -> {
+          assertThat(citation.getId()).isEqualTo("doc1");
+          assertThat(citation.getEndIndex()).isEqualTo(5);
+        });
+  }
+
+  @Test
+  @DisplayName("get()을 여러 번 불러도 content는 한 번만 만듦")
+  void materializesOnce() {
+    // Given
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener);
+    handle.subscribe(Flux.just(createDelta("a", null), createDelta("b", null)), new EnhancedCompletionDeltaMapper());
+
+    // When
+    final String first = merged(handle.get()).getContent();
+    final String second = merged(handle.get()).getContent();
+
+    // Then
+    assertThat(first).isEqualTo("ab").isSameAs(second);
+  }
+
+  @Test
+  @DisplayName("취소한 뒤 get()에도 그때까지 모은 content를 채움")
+  void keepsContentOnCancel() {
+    // Given
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener);
+    handle.subscribe(Flux.just(createDelta("Hello", null), createDelta(" Wor", null)).concatWith(Flux.never()),
+        new EnhancedCompletionDeltaMapper());
+
+    // When
+    handle.cancel();
+    final EnhancedCompletionResponse result = handle.get();
+
+    // Then
+    assertThat(merged(result).getContent()).isEqualTo("Hello Wor");
+  }
+
+  @Test
+  @DisplayName("content를 모으는 handle은 StreamHandle로 내보낼 수 없음")
+  void rejectsAsStreamHandleWhenAccumulating() {
+    // Given
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener);
+
+    // When & Then
+    assertThatThrownBy(handle::asStreamHandle).isInstanceOf(IllegalStateException.class);
+    assertThat(EnhancedCompletionStreamHandle.retainingContent(listener).asStreamHandle()).isNotNull();
+  }
+
+  @Test
+  @DisplayName("임계값을 넘은 content는 임시 파일로 옮겨 view와 Reader로 읽음")
+  void spillsLongContentToFile(@TempDir Path directory) throws IOException {
+    // Given
+    final List<ChatCompletionResponse> chunks = new ArrayList<>();
+    final StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < ContentAccumulator.BLOCK * 4 + 3; i++) {
+      final String token = " 토큰" + i;
+      chunks.add(createDelta(token, null));
+      expected.append(token);
+    }
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener, 1000, directory);
+
+    // When
+    handle.subscribe(Flux.fromIterable(chunks), new EnhancedCompletionDeltaMapper());
+    final EnhancedCompletionResponse result = handle.getMetadata();
+    final CharSequence view = handle.getContent();
+    final StringWriter read = new StringWriter();
+    try (Reader reader = handle.openContentReader()) {
+      reader.transferTo(read);
+    }
+
+    // Then
+    assertThat(merged(result).getContent()).isNull();
+    assertThat(view).isNotInstanceOf(String.class);
+    assertThat(view.length()).isEqualTo(expected.length());
+    assertThat(view.toString()).isEqualTo(expected.toString());
+    assertThat(read.toString()).isEqualTo(expected.toString());
+    assertThat(merged(handle.getWithContent()).getContent()).isEqualTo(expected.toString());
+    assertThatThrownBy(handle::get).isInstanceOf(IllegalStateException.class);
+
+    handle.close();
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).isEmpty();
+    }
+    // 닫은 뒤에도 이미 얻은 view는 읽을 수 있고, 새로 읽으면 명확히 실패
+    assertThat(view.charAt(0)).isEqualTo(' ');
+    assertThatThrownBy(handle::getWithContent).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(handle::openContentReader).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("스트림이 실패하면 임시 파일을 바로 닫음")
+  void closesSpillOnError(@TempDir Path directory) throws IOException {
+    // Given
+    final List<ChatCompletionResponse> chunks = new ArrayList<>();
+    for (int i = 0; i < ContentAccumulator.BLOCK * 2; i++) {
+      chunks.add(createDelta(" 토큰" + i, null));
+    }
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener, 100, directory);
+
+    // When
+    handle.subscribe(Flux.fromIterable(chunks).concatWith(Flux.error(new IllegalStateException("끊김"))),
+        new EnhancedCompletionDeltaMapper());
+    handle.getMetadata();
+
+    // Then
+    assertThat(handle.isError()).isTrue();
+    assertThatThrownBy(handle::getContent).isInstanceOf(IllegalStateException.class);
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("임계값보다 짧으면 옮기지 않고 get()에 content를 채움")
+  void keepsShortContentOnHeap(@TempDir Path directory) throws IOException {
+    // Given
+    final EnhancedCompletionStreamHandle handle = new EnhancedCompletionStreamHandle(listener, 1000, directory);
+
+    // When
+    handle.subscribe(Flux.just(createDelta("짧은", null), createDelta(" 응답", null)), new EnhancedCompletionDeltaMapper());
+
+    // Then
+    assertThat(merged(handle.get()).getContent()).isEqualTo("짧은 응답");
+    assertThat(handle.getContent()).isEqualTo("짧은 응답");
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).isEmpty();
+    }
+  }
+}
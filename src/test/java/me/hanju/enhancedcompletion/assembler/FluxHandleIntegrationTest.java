@@ -147,4 +147,94 @@ class FluxHandleIntegrationTest {
       System.out.println("Warning: DeltaMerger returned ResponseMessage instead of CitedMessage: " + responseMessage.getClass());
     }
   }
+
+  @Test
+  @DisplayName("EnhancedCompletionStreamHandle을 거쳐도 listener는 원래 delta를, StreamHandle.get()은 전체 content를 받아야 함")
+  void shouldDeliverDeltasThroughAccumulatingHandle() {
+    // Given
+    List<String> receivedContents = new ArrayList<>();
+    EnhancedCompletionStreamHandle accumulating = EnhancedCompletionStreamHandle.retainingContent(new FluxListener<>() {
+      @Override
+      public void onNext(EnhancedCompletionResponse delta) {
+        receivedContents.add(delta.getChoices().get(0).getDelta().getContent());
+      }
+
+      @Override
+      public void onComplete() {}
+
+      @Override
+      public void onError(Throwable e) {}
+    });
+    StreamHandle<EnhancedCompletionResponse> handle = accumulating.asStreamHandle();
+
+    // When
+    accumulating.subscribe(Flux.just(
+        createDelta("assistant", "Hello"),
+        createDelta(" "),
+        createDelta("<cite><id>doc1</id>World</cite>")), new EnhancedCompletionDeltaMapper());
+    EnhancedCompletionResponse result = handle.get();
+
+    // Then
+    var choice = result.getChoices().get(0);
+    ResponseMessage responseMessage = choice.getMessage() != null ? choice.getMessage() : choice.getDelta();
+    assertThat(responseMessage.getContent()).isEqualTo("Hello World");
+    assertThat(String.join("", receivedContents.stream().filter(c -> c != null).toList())).isEqualTo("Hello World");
+  }
+
+  @Test
+  @DisplayName("스트림이 실패해도 그때까지 받은 content가 StreamHandle.get()에 남아야 함")
+  void shouldKeepPartialContentOnError() {
+    // Given
+    EnhancedCompletionStreamHandle accumulating = EnhancedCompletionStreamHandle.retainingContent(new FluxListener<>() {
+      @Override
+      public void onNext(EnhancedCompletionResponse delta) {}
+
+      @Override
+      public void onComplete() {}
+
+      @Override
+      public void onError(Throwable e) {}
+    });
+    StreamHandle<EnhancedCompletionResponse> handle = accumulating.asStreamHandle();
+
+    // When
+    accumulating.subscribe(Flux.just(createDelta("assistant", "Hello"), createDelta(" Wor"))
+        .concatWith(Flux.error(new IllegalStateException("끊김"))), new EnhancedCompletionDeltaMapper());
+    EnhancedCompletionResponse result = handle.get();
+
+    // Then
+    assertThat(handle.isError()).isTrue();
+    var choice = result.getChoices().get(0);
+    ResponseMessage responseMessage = choice.getMessage() != null ? choice.getMessage() : choice.getDelta();
+    assertThat(responseMessage.getContent()).isEqualTo("Hello Wor");
+  }
+
+  @Test
+  @DisplayName("StreamHandle을 직접 취소한 뒤에도 그때까지 받은 content가 StreamHandle.get()에 남아야 함")
+  void shouldKeepPartialContentOnCancel() {
+    // Given
+    EnhancedCompletionStreamHandle accumulating = EnhancedCompletionStreamHandle.retainingContent(new FluxListener<>() {
+      @Override
+      public void onNext(EnhancedCompletionResponse delta) {}
+
+      @Override
+      public void onComplete() {}
+
+      @Override
+      public void onError(Throwable e) {}
+    });
+    StreamHandle<EnhancedCompletionResponse> handle = accumulating.asStreamHandle();
+    accumulating.subscribe(Flux.just(createDelta("assistant", "Hello"), createDelta(" Wor"))
+        .concatWith(Flux.never()), new EnhancedCompletionDeltaMapper());
+
+    // When - "생성 중지" 버튼처럼 스트림 도중 취소
+    handle.cancel();
+    EnhancedCompletionResponse result = handle.get();
+
+    // Then
+    assertThat(handle.isCancelled()).isTrue();
+    var choice = result.getChoices().get(0);
+    ResponseMessage responseMessage = choice.getMessage() != null ? choice.getMessage() : choice.getDelta();
+    assertThat(responseMessage.getContent()).isEqualTo("Hello Wor");
+  }
 }
@@ -428,5 +428,27 @@ class AugmenterTest {
       assertThat(prompt).doesNotContain("<title>");
       assertThat(prompt).contains("<content>Content only</content>");
     }
+
+    @Test
+    @DisplayName("SimpleDocument는 직렬화 결과를 캐시하고 변경 시 무효화")
+    void shouldCacheSerializedPromptUntilModified() {
+      // Given
+      SimpleDocument doc = SimpleDocument.builder()
+          .id("doc-123")
+          .title("Title")
+          .content("Before")
+          .build();
+
+      // When
+      String first = doc.toSerializedPrompt();
+      String second = doc.toSerializedPrompt();
+      doc.setContent("After");
+      String modified = doc.toSerializedPrompt();
+
+      // Then
+      assertThat(second).isSameAs(first);
+      assertThat(modified).contains("<content>After</content>");
+      assertThat(doc).isEqualTo(SimpleDocument.builder().id("doc-123").title("Title").content("After").build());
+    }
   }
 }
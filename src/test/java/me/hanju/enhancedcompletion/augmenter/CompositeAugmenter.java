@@ -7,6 +7,7 @@ import me.hanju.enhancedcompletion.payload.document.IDocument;
 import me.hanju.enhancedcompletion.spi.augment.AugmentResult;
 import me.hanju.enhancedcompletion.spi.augment.Augmenter;
 import me.hanju.enhancedcompletion.spi.augment.SimpleAugmentResult;
+import me.hanju.enhancedcompletion.spi.observe.AugmentObservations;
 import reactor.core.publisher.Flux;
 
 /**
@@ -43,7 +44,7 @@ public class CompositeAugmenter implements Augmenter {
   public Flux<AugmentResult> augment(final ChatCompletionRequest request) {
     // 모든 Augmenter를 병렬로 실행
     return Flux.fromIterable(augmenters)
-        .flatMap(augmenter -> augmenter.augment(request))
+        .flatMap(augmenter -> AugmentObservations.augment(augmenter, request))
         .flatMapIterable(AugmentResult::getDocuments)
         .distinct(IDocument::getId) // ID 기반 중복 제거
         .take(maxTotalDocuments)
@@ -0,0 +1,212 @@
+package me.hanju.enhancedcompletion.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import me.hanju.enhancedcompletion.exception.EnhancedCompletionClientException;
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.Message;
+import me.hanju.enhancedcompletion.payload.document.SimpleDocument;
+import me.hanju.enhancedcompletion.payload.message.AttachedMessage;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+import me.hanju.enhancedcompletion.payload.message.ToolMessage;
+import reactor.core.publisher.Hooks;
+
+@DisplayName("CompletionRequestWriter")
+class CompletionRequestWriterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private EnhancedCompletionRequest createRequest() {
+    return EnhancedCompletionRequest.builder()
+        .model("gpt-4")
+        .temperature(0.2)
+        .maxTokens(256)
+        .stop(List.of("</answer>"))
+        .tools(List.of(Map.of("type", "function", "function", Map.of("name", "search"))))
+        .toolChoice("auto")
+        .messages(List.of(
+            BaseMessage.builder().role("system").content("You are \"helpful\".\n").build(),
+            AttachedMessage.builder()
+                .role("user")
+                .content("문서를 참고해 답변해주세요.")
+                .documents(List.of(
+                    SimpleDocument.builder().id("doc1").title("제목").content("내용 \\ 1").build(),
+                    SimpleDocument.builder().id("doc2").content("내용 2").build()))
+                .build(),
+            ToolMessage.of("call_1", "{\"ok\":true}")))
+        .build();
+  }
+
+  /**
+   * 기존 경로(ChatCompletionRequest Jackson 직렬화)의 결과.
+   */
+  private JsonNode expectedTree(EnhancedCompletionRequest request) {
+    return withoutNullMessageFields(
+        objectMapper.valueToTree(request.toChatCompletionRequest().toBuilder().stream(true).build()));
+  }
+
+  /**
+   * 메시지의 null 필드(tool_call_id 등)는 비교에서 제외.
+   */
+  private JsonNode withoutNullMessageFields(JsonNode json) {
+    ObjectNode tree = (ObjectNode) json;
+    tree.withArray("messages").forEach(message -> {
+      ObjectNode node = (ObjectNode) message;
+      List<String> nullFields = node.properties().stream()
+          .filter(e -> e.getValue().isNull())
+          .map(Map.Entry::getKey)
+          .toList();
+      node.remove(nullFields);
+    });
+    return tree;
+  }
+
+  private String join(List<DataBuffer> buffers) {
+    StringBuilder sb = new StringBuilder();
+    for (DataBuffer buffer : buffers) {
+      sb.append(buffer.toString(StandardCharsets.UTF_8));
+      DataBufferUtils.release(buffer);
+    }
+    return sb.toString();
+  }
+
+  @Test
+  @DisplayName("ChatCompletionRequest 직렬화와 동일한 JSON을 생성")
+  void shouldWriteSameJsonAsChatCompletionRequest() throws Exception {
+    EnhancedCompletionRequest request = createRequest();
+    CompletionRequestWriter writer = new CompletionRequestWriter(objectMapper);
+
+    List<DataBuffer> buffers = writer.write(request, true, DefaultDataBufferFactory.sharedInstance)
+        .collectList()
+        .block();
+
+    JsonNode actual = objectMapper.readTree(join(buffers));
+    assertThat(withoutNullMessageFields(actual)).isEqualTo(expectedTree(request));
+    assertThat(actual.fieldNames()).toIterable()
+        .containsExactly("model", "messages", "temperature", "stream", "stop", "max_tokens", "tools", "tool_choice");
+  }
+
+  @Test
+  @DisplayName("chunk 크기를 넘으면 메시지 단위로 여러 버퍼에 나누어 씀")
+  void shouldSplitIntoMultipleBuffers() throws Exception {
+    EnhancedCompletionRequest request = createRequest();
+    CompletionRequestWriter writer = new CompletionRequestWriter(objectMapper, 32);
+
+    List<DataBuffer> buffers = writer.write(request, true, DefaultDataBufferFactory.sharedInstance)
+        .collectList()
+        .block();
+
+    assertThat(buffers).hasSizeGreaterThan(1);
+    assertThat(withoutNullMessageFields(objectMapper.readTree(join(buffers)))).isEqualTo(expectedTree(request));
+  }
+
+  @Test
+  @DisplayName("메시지가 없어도 올바른 JSON")
+  void shouldWriteEmptyMessages() throws Exception {
+    EnhancedCompletionRequest request = EnhancedCompletionRequest.builder().model("m").build();
+    CompletionRequestWriter writer = new CompletionRequestWriter(objectMapper);
+
+    String json = join(writer.write(request, false, DefaultDataBufferFactory.sharedInstance).collectList().block());
+
+    assertThat(json).isEqualTo("{\"model\":\"m\",\"messages\":[],\"stream\":false}");
+  }
+
+  @Test
+  @DisplayName("BaseCompletionRequest의 모든 직렬화 필드를 빠짐없이 씀")
+  void shouldCoverEveryRequestProperty() throws Exception {
+    // Given - messages를 뺀 모든 필드를 null이 아닌 값으로 채움
+    EnhancedCompletionRequest request = EnhancedCompletionRequest.builder().messages(List.of()).build();
+    for (Field field : BaseCompletionRequest.class.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers()) || field.getName().equals("messages")) {
+        continue;
+      }
+      field.setAccessible(true);
+      field.set(request, sampleValue(field));
+    }
+    request.setStream(false);
+    CompletionRequestWriter writer = new CompletionRequestWriter(objectMapper);
+
+    // When
+    JsonNode actual = objectMapper.readTree(
+        join(writer.write(request, true, DefaultDataBufferFactory.sharedInstance).collectList().block()));
+
+    // Then - Jackson 직렬화와 같은 필드 집합
+    ObjectNode expected = objectMapper.valueToTree(request);
+    expected.put("stream", true);
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  private Object sampleValue(Field field) {
+    Class<?> type = field.getType();
+    if (type == String.class) {
+      return field.getName();
+    } else if (type == Double.class) {
+      return 0.5;
+    } else if (type == Integer.class) {
+      return 3;
+    } else if (type == Boolean.class) {
+      return true;
+    } else if (type == List.class) {
+      return List.of();
+    } else if (type == Map.class) {
+      return Map.of("type", "json_object");
+    } else if (type == Object.class) {
+      return "auto";
+    }
+    throw new IllegalStateException("sampleValue에 타입 추가 필요: " + field);
+  }
+
+  @Test
+  @DisplayName("메시지 쓰기 중 오류가 나면 남은 바이트를 버리고 오류만 전달")
+  void shouldDiscardPendingBytesOnError() {
+    // Given - 객체를 열어둔 채 실패하는 메시지
+    IMessageable failing = new IMessageable() {
+      @Override public String getRole() { return "user"; }
+      @Override public String getContent() { return null; }
+      @Override public Message toMessage() { throw new UnsupportedOperationException(); }
+
+      @Override
+      public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("role", "user");
+        throw new IOException("boom");
+      }
+    };
+    EnhancedCompletionRequest request = EnhancedCompletionRequest.builder().model("m").messages(List.of(failing)).build();
+    CompletionRequestWriter writer = new CompletionRequestWriter(objectMapper);
+    List<Throwable> dropped = new ArrayList<>();
+    Hooks.onErrorDropped(dropped::add);
+
+    try {
+      // When & Then
+      assertThatThrownBy(() -> writer.write(request, true, DefaultDataBufferFactory.sharedInstance).blockLast())
+          .isInstanceOf(EnhancedCompletionClientException.class)
+          .hasRootCauseMessage("boom");
+      assertThat(dropped).isEmpty();
+    } finally {
+      Hooks.resetOnErrorDropped();
+    }
+  }
+}
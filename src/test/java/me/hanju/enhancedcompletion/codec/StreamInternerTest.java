@@ -0,0 +1,87 @@
+package me.hanju.enhancedcompletion.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+
+@DisplayName("StreamInterner")
+class StreamInternerTest {
+
+  private static final String CHUNK_1 = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"created\":1700000000,"
+      + "\"model\":\"gpt-4\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"안녕\"}}]}";
+  private static final String CHUNK_2 = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"created\":1700000000,"
+      + "\"model\":\"gpt-4\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"하세요\"}}]}";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private ObjectReader streamReader() {
+    return objectMapper.readerFor(ChatCompletionResponse.class)
+        .withAttribute(StreamInterner.ATTRIBUTE, new StreamInterner());
+  }
+
+  @Test
+  @DisplayName("같은 스트림의 chunk는 id/object/created/model 인스턴스를 공유")
+  void sharesMetadataWithinStream() throws Exception {
+    // Given
+    final ObjectReader reader = streamReader();
+
+    // When
+    final ChatCompletionResponse first = reader.readValue(CHUNK_1);
+    final ChatCompletionResponse second = reader.readValue(CHUNK_2);
+
+    // Then
+    assertThat(second.getId()).isEqualTo("chatcmpl-1").isSameAs(first.getId());
+    assertThat(second.getObject()).isSameAs(first.getObject());
+    assertThat(second.getCreated()).isEqualTo(1700000000L).isSameAs(first.getCreated());
+    assertThat(second.getModel()).isEqualTo("gpt-4").isSameAs(first.getModel());
+    assertThat(second.getChoices().get(0).getDelta().getContent()).isEqualTo("하세요");
+  }
+
+  @Test
+  @DisplayName("다른 스트림끼리는 intern 표를 공유하지 않음")
+  void separateTablePerStream() throws Exception {
+    // When
+    final ChatCompletionResponse first = streamReader().readValue(CHUNK_1);
+    final ChatCompletionResponse second = streamReader().readValue(CHUNK_2);
+
+    // Then
+    assertThat(second.getId()).isEqualTo(first.getId()).isNotSameAs(first.getId());
+    assertThat(second.getCreated()).isEqualTo(first.getCreated()).isNotSameAs(first.getCreated());
+  }
+
+  @Test
+  @DisplayName("intern 표가 없으면 기본 역직렬화와 같음")
+  void fallsBackWithoutInterner() throws Exception {
+    // When
+    final ChatCompletionResponse response = objectMapper.readValue(
+        "{\"id\":null,\"created\":\"1700000000\",\"model\":\"gpt-4\"}", ChatCompletionResponse.class);
+
+    // Then
+    assertThat(response.getId()).isNull();
+    assertThat(response.getCreated()).isEqualTo(1700000000L);
+    assertThat(response.getModel()).isEqualTo("gpt-4");
+  }
+
+  @Test
+  @DisplayName("표가 가득 차도 값은 올바르게 반환")
+  void overflowStillReturnsValue() {
+    // Given
+    final StreamInterner interner = new StreamInterner();
+    for (int i = 0; i < 32; i++) {
+      interner.intern(("v" + i).toCharArray(), 0, ("v" + i).length());
+    }
+
+    // When
+    final char[] buffer = "xxv31yy".toCharArray();
+    final String value = interner.intern(buffer, 2, 3);
+
+    // Then
+    assertThat(value).isEqualTo("v31");
+  }
+}
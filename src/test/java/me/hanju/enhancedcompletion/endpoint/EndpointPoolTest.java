@@ -0,0 +1,168 @@
+package me.hanju.enhancedcompletion.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+
+@DisplayName("EndpointPool 테스트")
+class EndpointPoolTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private static List<Endpoint> endpoints(final int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new Endpoint("http://backend-" + i))
+        .toList();
+  }
+
+  @Nested
+  @DisplayName("분산 전략")
+  class Strategies {
+
+    @Test
+    @DisplayName("ROUND_ROBIN은 순서대로 선택")
+    void shouldRotate() {
+      // Given
+      final List<Endpoint> endpoints = endpoints(3);
+      final EndpointPool pool = new EndpointPool(endpoints, BalancingStrategy.ROUND_ROBIN.createSelector());
+
+      // When & Then
+      assertThat(List.of(pool.select(), pool.select(), pool.select(), pool.select()))
+          .containsExactly(endpoints.get(0), endpoints.get(1), endpoints.get(2), endpoints.get(0));
+    }
+
+    @Test
+    @DisplayName("LEAST_OUTSTANDING은 진행 중 스트림이 가장 적은 endpoint 선택")
+    void shouldPickLeastOutstanding() {
+      // Given
+      final List<Endpoint> endpoints = endpoints(3);
+      final EndpointPool pool = new EndpointPool(endpoints, BalancingStrategy.LEAST_OUTSTANDING.createSelector());
+      pool.onStart(endpoints.get(0));
+      pool.onStart(endpoints.get(0));
+      pool.onStart(endpoints.get(2));
+
+      // When & Then
+      assertThat(pool.select()).isSameAs(endpoints.get(1));
+      pool.onStart(endpoints.get(1));
+      pool.onStart(endpoints.get(1));
+      pool.onFinish(endpoints.get(0));
+      pool.onFinish(endpoints.get(0));
+      assertThat(pool.select()).isSameAs(endpoints.get(0));
+    }
+
+    @Test
+    @DisplayName("POWER_OF_TWO_CHOICES는 TTFT가 짧은 endpoint를 선호")
+    void shouldPreferFastEndpoint() {
+      // Given
+      final List<Endpoint> endpoints = endpoints(2);
+      final EndpointPool pool = new EndpointPool(endpoints, BalancingStrategy.POWER_OF_TWO_CHOICES.createSelector());
+      pool.onFirstToken(endpoints.get(0), Duration.ofMillis(900).toNanos());
+      pool.onFirstToken(endpoints.get(1), Duration.ofMillis(50).toNanos());
+
+      // When
+      final Map<Endpoint, Integer> counts = new HashMap<>();
+      for (int i = 0; i < 100; i++) {
+        counts.merge(pool.select(), 1, Integer::sum);
+      }
+
+      // Then - 후보가 둘이면 항상 둘을 비교
+      assertThat(counts).containsOnlyKeys(endpoints.get(1));
+    }
+  }
+
+  @Nested
+  @DisplayName("Passive health ejection")
+  class Ejection {
+
+    @Test
+    @DisplayName("연속 실패 시 제외되고 기간이 지나면 복귀")
+    void shouldEjectAndRecover() {
+      // Given
+      final List<Endpoint> endpoints = endpoints(2);
+      final EndpointPool pool = new EndpointPool(endpoints, BalancingStrategy.ROUND_ROBIN.createSelector(),
+          2, Duration.ofSeconds(10), clock::get);
+
+      // When
+      pool.onError(endpoints.get(0), new IOException("reset"));
+      pool.onError(endpoints.get(0), new IOException("reset"));
+
+      // Then
+      for (int i = 0; i < 4; i++) {
+        assertThat(pool.select()).isSameAs(endpoints.get(1));
+      }
+      clock.addAndGet(Duration.ofSeconds(10).toNanos());
+      assertThat(List.of(pool.select(), pool.select())).contains(endpoints.get(0));
+    }
+
+    @Test
+    @DisplayName("모든 endpoint가 제외되면 전체를 후보로 사용")
+    void shouldFailOpenWhenAllEjected() {
+      // Given
+      final List<Endpoint> endpoints = endpoints(2);
+      final EndpointPool pool = new EndpointPool(endpoints, BalancingStrategy.ROUND_ROBIN.createSelector(),
+          1, Duration.ofSeconds(10), clock::get);
+
+      // When
+      pool.onError(endpoints.get(0), new IOException("reset"));
+      pool.onError(endpoints.get(1), new IOException("reset"));
+
+      // Then
+      assertThat(pool.select()).isNotNull();
+    }
+  }
+
+  @Test
+  @DisplayName("여러 포트의 stub 서버에 분산하고 죽은 endpoint는 제외")
+  void shouldBalanceAcrossStubServersAndEjectDeadOne() throws IOException {
+    final int deadPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      deadPort = socket.getLocalPort();
+    }
+    try (StubCompletionServer first = StubCompletionServer.start(body -> List.of("a"));
+        StubCompletionServer second = StubCompletionServer.start(body -> List.of("b"))) {
+      // Given
+      final EnhancedCompletionProperties properties = new EnhancedCompletionProperties();
+      properties.setEndpoints(List.of(first.getBaseUrl(), "http://127.0.0.1:" + deadPort, second.getBaseUrl()));
+      properties.setEjectionThreshold(1);
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), new ObjectMapper(), properties);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+          .model("stub")
+          .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+          .build();
+
+      // When - 두 번째 요청은 죽은 endpoint로 가서 실패
+      for (int i = 0; i < 6; i++) {
+        client.complete(request);
+      }
+
+      // Then
+      final Endpoint dead = client.getEndpointPool().getEndpoints().get(1);
+      assertThat(dead.isAvailable(System.nanoTime())).isFalse();
+      assertThat(first.getRequestBodies().size() + second.getRequestBodies().size()).isEqualTo(5);
+      assertThat(first.getRequestBodies()).hasSizeGreaterThanOrEqualTo(2);
+      assertThat(second.getRequestBodies()).hasSizeGreaterThanOrEqualTo(2);
+      assertThat(client.getEndpointPool().getEndpoints()).allMatch(e -> e.getOutstanding() == 0);
+    }
+  }
+}
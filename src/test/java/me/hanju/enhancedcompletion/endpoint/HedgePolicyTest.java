@@ -0,0 +1,124 @@
+package me.hanju.enhancedcompletion.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+
+@DisplayName("HedgePolicy 테스트")
+class HedgePolicyTest {
+
+  @Test
+  @DisplayName("LatencyWindow는 최근 샘플만으로 백분위수 계산")
+  void shouldComputePercentileOverRecentSamples() {
+    // Given
+    final LatencyWindow window = new LatencyWindow(100);
+    for (int i = 1; i <= 300; i++) {
+      window.record(i);
+    }
+
+    // When & Then - 201..300만 남음
+    assertThat(window.size()).isEqualTo(100);
+    assertThat(window.percentile(0.5)).isEqualTo(250);
+    assertThat(window.percentile(0.95)).isEqualTo(295);
+    assertThat(window.percentile(1.0)).isEqualTo(300);
+  }
+
+  @Test
+  @DisplayName("샘플이 부족하면 최대 지연, 충분하면 백분위수를 범위로 제한")
+  void shouldClampPercentileDelay() {
+    // Given
+    final HedgePolicy policy = new HedgePolicy(0.9, Duration.ofMillis(20), Duration.ofMillis(500), 10);
+    final LatencyWindow window = new LatencyWindow();
+
+    // When & Then
+    assertThat(policy.delay(window)).isEqualTo(Duration.ofMillis(500));
+    for (int i = 0; i < 10; i++) {
+      window.record(Duration.ofMillis(100 + i).toNanos());
+    }
+    assertThat(policy.delay(window)).isEqualTo(Duration.ofMillis(108));
+    for (int i = 0; i < 10; i++) {
+      window.record(Duration.ofMillis(1).toNanos());
+    }
+    assertThat(policy.delay(window)).isEqualTo(Duration.ofMillis(107));
+  }
+
+  @Test
+  @DisplayName("느린 endpoint 대신 hedge 요청의 스트림을 사용하고 진 스트림은 취소")
+  void shouldUseFasterHedgedStream() {
+    try (StubCompletionServer slow = StubCompletionServer.start(body -> List.of("slow"), Duration.ofSeconds(3));
+        StubCompletionServer fast = StubCompletionServer.start(body -> List.of("fast ", "answer"))) {
+      // Given - ROUND_ROBIN이므로 첫 요청의 primary는 slow
+      final EnhancedCompletionProperties properties = new EnhancedCompletionProperties();
+      properties.setEndpoints(List.of(slow.getBaseUrl(), fast.getBaseUrl()));
+      properties.setHedgingEnabled(true);
+      properties.setHedgeMaxDelay(Duration.ofMillis(100));
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), new ObjectMapper(), properties);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+          .model("stub")
+          .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+          .build();
+
+      // When
+      final long start = System.nanoTime();
+      final EnhancedCompletionResponse response = client.complete(request);
+      final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+      // Then
+      assertThat(response.getChoices().get(0).getDelta().getContent()).isEqualTo("fast answer");
+      assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+      assertThat(slow.getRequestBodies()).hasSize(1);
+      assertThat(fast.getRequestBodies()).hasSize(1);
+      final Endpoint slowEndpoint = client.getEndpointPool().getEndpoints().get(0);
+      assertThat(slowEndpoint.getOutstanding()).isZero();
+      assertThat(slowEndpoint.getTtftEwmaNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+    }
+  }
+
+  @Test
+  @DisplayName("hedge가 아닌 요청을 첫 chunk 전에 취소하면 TTFT로 기록하지 않음")
+  void shouldNotRecordTtftOnCallerCancel() throws Exception {
+    try (StubCompletionServer slow = StubCompletionServer.start(body -> List.of("slow"), Duration.ofSeconds(3))) {
+      // Given
+      final EnhancedCompletionProperties properties = new EnhancedCompletionProperties();
+      properties.setEndpoints(List.of(slow.getBaseUrl()));
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), new ObjectMapper(), properties);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+          .model("stub")
+          .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+          .build();
+
+      // When
+      final StreamHandle<EnhancedCompletionResponse> handle = client.stream(request, new FluxListener<>() {
+        @Override public void onNext(EnhancedCompletionResponse delta) { /* no-op for test */ }
+        @Override public void onComplete() { /* no-op for test */ }
+        @Override public void onError(Throwable e) { /* no-op for test */ }
+      });
+      TimeUnit.MILLISECONDS.sleep(200);
+      handle.cancel();
+
+      // Then
+      final Endpoint endpoint = client.getEndpointPool().getEndpoints().get(0);
+      assertThat(endpoint.getOutstanding()).isZero();
+      assertThat(endpoint.getTtftEwmaNanos()).isZero();
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package me.hanju.enhancedcompletion.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.exception.AdmissionRejectedException;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+@DisplayName("AdaptiveConcurrencyLimiter 테스트")
+class AdaptiveConcurrencyLimiterTest {
+
+  private static AdaptiveConcurrencyLimiter limiter(final int limit, final int maxQueueSize, final Duration maxWait) {
+    return new AdaptiveConcurrencyLimiter(limit, 1, 64, maxQueueSize, maxWait);
+  }
+
+  @Nested
+  @DisplayName("permit과 대기열")
+  class Admission {
+
+    @Test
+    @DisplayName("한도를 넘는 요청은 대기하다가 permit이 반환되면 시작")
+    void shouldQueueBeyondLimit() {
+      // Given
+      final AdaptiveConcurrencyLimiter limiter = limiter(2, 10, Duration.ofSeconds(5));
+      final List<Sinks.Many<String>> sources = new ArrayList<>();
+      final AtomicInteger started = new AtomicInteger();
+      for (int i = 0; i < 3; i++) {
+        final Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
+        sources.add(sink);
+        limiter.limit(sink.asFlux().doOnSubscribe(s -> started.incrementAndGet())).subscribe();
+      }
+
+      // Then - 2개만 시작, 1개 대기
+      assertThat(started).hasValue(2);
+      assertThat(limiter.getInFlight()).isEqualTo(2);
+      assertThat(limiter.getQueueDepth()).isEqualTo(1);
+
+      // When
+      sources.get(0).tryEmitComplete();
+
+      // Then
+      assertThat(started).hasValue(3);
+      assertThat(limiter.getQueueDepth()).isZero();
+      assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 즉시 거절")
+    void shouldRejectWhenQueueFull() {
+      // Given
+      final AdaptiveConcurrencyLimiter limiter = limiter(1, 0, Duration.ofSeconds(5));
+      limiter.limit(Flux.never()).subscribe();
+
+      // When & Then
+      assertThatThrownBy(() -> limiter.limit(Flux.just("a")).blockLast())
+          .isInstanceOf(AdmissionRejectedException.class);
+      assertThat(limiter.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("대기 시간을 넘으면 거절하고 대기열에서 빠짐")
+    void shouldTimeOutWaiting() {
+      // Given
+      final AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofMillis(50));
+      limiter.limit(Flux.never()).subscribe();
+
+      // When & Then
+      assertThatThrownBy(() -> limiter.limit(Flux.just("a")).blockLast())
+          .isInstanceOf(AdmissionRejectedException.class);
+      assertThat(limiter.getTimeoutCount()).isEqualTo(1);
+      assertThat(limiter.getQueueDepth()).isZero();
+      assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("취소해도 permit이 반환됨")
+    void shouldReleaseOnCancel() {
+      // Given
+      final AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofSeconds(5));
+
+      // When
+      limiter.limit(Flux.never()).subscribe().dispose();
+
+      // Then
+      assertThat(limiter.getInFlight()).isZero();
+    }
+  }
+
+  @Nested
+  @DisplayName("한도 조절")
+  class Adjustment {
+
+    @Test
+    @DisplayName("일시적 오류면 한도를 절반으로 줄임")
+    void shouldHalveOnTransientError() {
+      // Given
+      final AdaptiveConcurrencyLimiter limiter = limiter(16, 10, Duration.ofSeconds(5));
+      final List<int[]> changes = new ArrayList<>();
+      limiter.setListener(new LimiterListener() {
+        @Override
+        public void onLimitChanged(final int previous, final int current) {
+          changes.add(new int[] { previous, current });
+        }
+      });
+
+      // When
+      limiter.limit(Flux.error(new IOException("reset"))).onErrorComplete().blockLast();
+      limiter.limit(Flux.error(new IllegalArgumentException("bad"))).onErrorComplete().blockLast();
+
+      // Then - 일시적이지 않은 오류는 반영하지 않음
+      assertThat(limiter.getLimit()).isEqualTo(8);
+      assertThat(changes).containsExactly(new int[] { 16, 8 });
+    }
+
+    @Test
+    @DisplayName("응답 chunk 파싱 오류는 한도를 줄이지 않음")
+    void shouldIgnoreParseError() {
+      try (StubCompletionServer server = StubCompletionServer.startWithChunks(body -> List.of("{not json"))) {
+        // Given
+        final EnhancedCompletionProperties properties = new EnhancedCompletionProperties(server.getBaseUrl(), null);
+        properties.setConcurrencyLimitEnabled(true);
+        properties.setInitialConcurrency(16);
+        final EnhancedCompletionClient client = new EnhancedCompletionClient(
+            WebClient.builder(), new ObjectMapper(), properties);
+        final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+            .model("stub")
+            .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+            .build();
+
+        // When
+        final StreamHandle<EnhancedCompletionResponse> handle = client.stream(request, new FluxListener<>() {
+          @Override public void onNext(EnhancedCompletionResponse delta) { /* no-op for test */ }
+          @Override public void onComplete() { /* no-op for test */ }
+          @Override public void onError(Throwable e) { /* no-op for test */ }
+        });
+        handle.get();
+
+        // Then
+        assertThat(handle.isError()).isTrue();
+        assertThat(client.getConcurrencyLimiter().getLimit()).isEqualTo(16);
+        assertThat(client.getConcurrencyLimiter().getInFlight()).isZero();
+      }
+    }
+
+    @Test
+    @DisplayName("TTFT가 빠르고 한도를 채워 쓰면 한도를 늘림")
+    void shouldIncreaseWhenSaturatedAndFast() {
+      // Given
+      final AdaptiveConcurrencyLimiter limiter = limiter(2, 10, Duration.ofSeconds(5));
+
+      // When - 두 스트림을 동시에 열어 둔 채로 반복
+      for (int i = 0; i < 20; i++) {
+        final Sinks.Many<String> a = Sinks.many().unicast().onBackpressureBuffer();
+        final Sinks.Many<String> b = Sinks.many().unicast().onBackpressureBuffer();
+        limiter.limit(a.asFlux()).subscribe();
+        limiter.limit(b.asFlux()).subscribe();
+        a.tryEmitNext("x");
+        b.tryEmitNext("x");
+        a.tryEmitComplete();
+        b.tryEmitComplete();
+      }
+
+      // Then
+      assertThat(limiter.getLimit()).isGreaterThan(2);
+    }
+
+    @Test
+    @DisplayName("TTFT가 최소 TTFT보다 크게 늘면 한도를 줄임")
+    void shouldDecreaseOnSlowFirstToken() {
+      // Given - 빠른 TTFT로 기준값 확보
+      final AdaptiveConcurrencyLimiter limiter = limiter(20, 10, Duration.ofSeconds(5));
+      limiter.limit(Flux.just("x")).blockLast();
+
+      // When
+      limiter.limit(Flux.just("x").delaySubscription(Duration.ofMillis(50))).blockLast();
+
+      // Then
+      assertThat(limiter.getLimit()).isEqualTo(18);
+    }
+  }
+
+  @Test
+  @DisplayName("클라이언트 stream()이 한도를 넘으면 대기 후 순서대로 처리")
+  void shouldLimitClientStreams() throws Exception {
+    try (StubCompletionServer server = StubCompletionServer.start(
+        body -> List.of("안녕", "하세요"), Duration.ofMillis(100))) {
+      // Given
+      final EnhancedCompletionProperties properties = new EnhancedCompletionProperties(server.getBaseUrl(), null);
+      properties.setConcurrencyLimitEnabled(true);
+      properties.setInitialConcurrency(1);
+      properties.setMaxConcurrency(1);
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), new ObjectMapper(), properties);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+          .model("stub")
+          .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+          .build();
+      final CountDownLatch done = new CountDownLatch(3);
+      final FluxListener<EnhancedCompletionResponse> listener = new FluxListener<>() {
+        @Override
+        public void onNext(EnhancedCompletionResponse delta) {
+        }
+
+        @Override
+        public void onComplete() {
+          done.countDown();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+          done.countDown();
+        }
+
+        @Override
+        public void onCancel() {
+        }
+      };
+
+      // When
+      final List<StreamHandle<EnhancedCompletionResponse>> handles = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        handles.add(client.stream(request, listener));
+      }
+      Thread.sleep(50);
+      final int queued = client.getConcurrencyLimiter().getQueueDepth();
+
+      // Then
+      assertThat(queued).isEqualTo(2);
+      assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+      for (final StreamHandle<EnhancedCompletionResponse> handle : handles) {
+        assertThat(handle.get().getChoices().get(0).getDelta().getContent()).isEqualTo("안녕하세요");
+      }
+      assertThat(client.getConcurrencyLimiter().getInFlight()).isZero();
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package me.hanju.enhancedcompletion.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.enhancedcompletion.payload.completion.RequestPriority;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+@DisplayName("FairWaitQueue 테스트")
+class FairWaitQueueTest {
+
+  private static String drainTenants(final FairWaitQueue queue) {
+    final StringBuilder order = new StringBuilder();
+    Waiter waiter;
+    while ((waiter = queue.poll()) != null) {
+      order.append(waiter.getTenant());
+    }
+    return order.toString();
+  }
+
+  @Test
+  @DisplayName("먼저 많이 넣은 tenant가 있어도 tenant 사이를 번갈아 꺼냄")
+  void shouldRoundRobinAcrossTenants() {
+    // Given
+    final FairWaitQueue queue = new FairWaitQueue();
+    for (int i = 0; i < 4; i++) {
+      queue.offer(new Waiter("a", null));
+    }
+    queue.offer(new Waiter("b", null));
+    queue.offer(new Waiter("b", null));
+
+    // When & Then
+    assertThat(queue.size()).isEqualTo(6);
+    assertThat(drainTenants(queue)).isEqualTo("ababaa");
+    assertThat(queue.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("tenant 가중치만큼 연속으로 꺼냄")
+  void shouldHonourTenantWeights() {
+    // Given
+    final FairWaitQueue queue = new FairWaitQueue(Map.of("a", 2), 4, 1);
+    for (int i = 0; i < 4; i++) {
+      queue.offer(new Waiter("a", null));
+      queue.offer(new Waiter("b", null));
+    }
+
+    // When & Then
+    assertThat(drainTenants(queue)).isEqualTo("aabaabbb");
+  }
+
+  @Test
+  @DisplayName("INTERACTIVE와 BATCH를 가중치 비율로 꺼내 batch가 굶지 않음")
+  void shouldWeightPriorities() {
+    // Given
+    final FairWaitQueue queue = new FairWaitQueue(Map.of(), 2, 1);
+    for (int i = 0; i < 3; i++) {
+      queue.offer(new Waiter("b", RequestPriority.BATCH));
+    }
+    for (int i = 0; i < 4; i++) {
+      queue.offer(new Waiter("i", RequestPriority.INTERACTIVE));
+    }
+
+    // When
+    final List<RequestPriority> order = new ArrayList<>();
+    Waiter waiter;
+    while ((waiter = queue.poll()) != null) {
+      order.add(waiter.getPriority());
+    }
+
+    // Then - batch가 먼저 도착했으므로 batch 1건, 이후 interactive 2 : batch 1
+    assertThat(order).containsExactly(
+        RequestPriority.BATCH,
+        RequestPriority.INTERACTIVE, RequestPriority.INTERACTIVE,
+        RequestPriority.BATCH,
+        RequestPriority.INTERACTIVE, RequestPriority.INTERACTIVE,
+        RequestPriority.BATCH);
+  }
+
+  @Test
+  @DisplayName("취소된 waiter를 제거하면 해당 tenant 순서에서 빠짐")
+  void shouldRemoveWaiter() {
+    // Given
+    final FairWaitQueue queue = new FairWaitQueue();
+    final Waiter cancelled = new Waiter("a", null);
+    queue.offer(cancelled);
+    queue.offer(new Waiter("b", null));
+
+    // When
+    queue.remove(cancelled);
+
+    // Then
+    assertThat(queue.size()).isEqualTo(1);
+    assertThat(drainTenants(queue)).isEqualTo("b");
+  }
+
+  @Test
+  @DisplayName("limiter와 함께 쓰면 한 tenant의 폭주가 다른 tenant를 막지 않음")
+  void shouldDispatchFairlyThroughLimiter() {
+    // Given - 한도 1, tenant a가 먼저 5건 대기
+    final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+        1, 1, 1, 100, Duration.ofSeconds(5), new FairWaitQueue());
+    final Sinks.Many<String> blocker = Sinks.many().unicast().onBackpressureBuffer();
+    limiter.limit(blocker.asFlux()).subscribe();
+    final List<String> started = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      limiter.limit(Flux.<String>empty().doOnSubscribe(s -> started.add("a")), "a", null).subscribe();
+    }
+    limiter.limit(Flux.<String>empty().doOnSubscribe(s -> started.add("b")), "b", null).subscribe();
+
+    // When
+    blocker.tryEmitComplete();
+
+    // Then
+    assertThat(started).containsExactly("a", "b", "a", "a", "a", "a");
+    assertThat(limiter.getInFlight()).isZero();
+  }
+}
@@ -0,0 +1,240 @@
+package me.hanju.enhancedcompletion.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.exception.AdmissionRejectedException;
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import me.hanju.enhancedcompletion.tokenizer.TokenCounter;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+import reactor.core.publisher.Flux;
+
+@DisplayName("TokenRateLimiter 테스트")
+class TokenRateLimiterTest {
+
+  @Nested
+  @DisplayName("TokenBucket")
+  class Bucket {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("잔량을 넘는 예약은 채워질 때까지의 대기 시간을 반환")
+    void shouldReturnWaitWhenBorrowing() {
+      // Given - 분당 60토큰 = 1초당 1토큰
+      final TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), now::get);
+
+      // When & Then
+      assertThat(bucket.reserve(60, 0)).isZero();
+      assertThat(bucket.getAvailable()).isZero();
+      assertThat(bucket.reserve(2, Duration.ofSeconds(5).toNanos())).isEqualTo(Duration.ofSeconds(2).toNanos());
+      assertThat(bucket.reserve(10, Duration.ofSeconds(5).toNanos())).isEqualTo(-1);
+
+      now.addAndGet(Duration.ofSeconds(12).toNanos());
+      assertThat(bucket.getAvailable()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("환급과 추가 차감을 반영하며 용량을 넘겨 쌓이지 않음")
+    void shouldAdjust() {
+      // Given
+      final TokenBucket bucket = new TokenBucket(100, Duration.ofMinutes(1), now::get);
+      bucket.reserve(80, 0);
+
+      // When & Then
+      bucket.adjust(-50);
+      assertThat(bucket.getAvailable()).isEqualTo(70);
+      bucket.adjust(-1000);
+      bucket.reserve(0, 0);
+      assertThat(bucket.getAvailable()).isEqualTo(100);
+      bucket.adjust(30);
+      assertThat(bucket.getAvailable()).isEqualTo(70);
+    }
+
+    @Test
+    @DisplayName("서버 잔량과 Retry-After를 반영")
+    void shouldApplyServerHints() {
+      // Given
+      final TokenBucket bucket = new TokenBucket(100, Duration.ofMinutes(1), now::get);
+
+      // When & Then
+      bucket.limitRemaining(30);
+      assertThat(bucket.getAvailable()).isEqualTo(30);
+      bucket.limitRemaining(90);
+      assertThat(bucket.getAvailable()).isEqualTo(30);
+
+      bucket.blockUntil(now.get() + Duration.ofSeconds(3).toNanos());
+      assertThat(bucket.reserve(1, Duration.ofSeconds(1).toNanos())).isEqualTo(-1);
+    }
+  }
+
+  @Nested
+  @DisplayName("헤더 파싱")
+  class Headers {
+
+    @Test
+    @DisplayName("Retry-After 초 단위와 x-ratelimit-reset 기간 형식")
+    void shouldParseDurations() {
+      assertThat(TokenRateLimiter.parseRetryAfter("2")).isEqualTo(Duration.ofSeconds(2));
+      assertThat(TokenRateLimiter.parseDuration("6m0s")).isEqualTo(Duration.ofMinutes(6));
+      assertThat(TokenRateLimiter.parseDuration("1.5s")).isEqualTo(Duration.ofMillis(1500));
+      assertThat(TokenRateLimiter.parseDuration("20ms")).isEqualTo(Duration.ofMillis(20));
+      assertThat(TokenRateLimiter.parseDuration("soon")).isNull();
+    }
+
+    @Test
+    @DisplayName("잔량 0과 reset 헤더를 받으면 reset까지 예약을 막음")
+    void shouldBlockOnExhaustedRemaining() {
+      // Given
+      final AtomicLong now = new AtomicLong(0);
+      final TokenRateLimiter limiter = new TokenRateLimiter(100, 10_000, Duration.ZERO, null, now::get);
+      final Map<String, String> headers = Map.of(
+          "x-ratelimit-remaining-requests", "0",
+          "x-ratelimit-reset-requests", "3s",
+          "x-ratelimit-remaining-tokens", "2500");
+
+      // When
+      limiter.onResponseHeaders(headers::get);
+
+      // Then
+      assertThat(limiter.getAvailableRequests()).isZero();
+      assertThat(limiter.getAvailableTokens()).isEqualTo(2500);
+    }
+  }
+
+  @Test
+  @DisplayName("max_tokens까지 미리 차감하고, 응답 usage로 정산하면 다음 요청이 통과")
+  void shouldReserveAndReconcile() throws Exception {
+    try (StubCompletionServer server = StubCompletionServer.startWithChunks(body -> List.of(
+        StubCompletionServer.contentChunk("안녕"),
+        StubCompletionServer.usageChunk(10, 5)))) {
+      // Given - 요청당 (프롬프트 추정치 + 60) 토큰이 필요하므로 두 번째 요청은 정산 전에는 거절됨
+      final EnhancedCompletionProperties properties = new EnhancedCompletionProperties(server.getBaseUrl(), null);
+      properties.setTokensPerMinute(100);
+      properties.setRateLimitMaxWait(Duration.ZERO);
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), new ObjectMapper(), properties);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+          .model("stub")
+          .maxTokens(60)
+          .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+          .build();
+      final TokenRateLimiter limiter = client.getRateLimiter();
+
+      // When
+      client.complete(request);
+
+      // Then - 실제 사용량 15토큰만 차감됨
+      assertThat(limiter.getAvailableTokens()).isBetween(85L, 86L);
+      client.complete(request);
+      assertThat(server.getRequestBodies()).hasSize(2);
+
+      // When - 잔량보다 큰 요청
+      final EnhancedCompletionRequest large = request.toBuilder().maxTokens(200).build();
+
+      final StreamHandle<EnhancedCompletionResponse> handle = client.stream(large, new FluxListener<>() {
+        @Override
+        public void onNext(EnhancedCompletionResponse delta) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void onError(Throwable e) {
+        }
+
+        @Override
+        public void onCancel() {
+        }
+      });
+      handle.get();
+
+      // Then
+      assertThat(handle.getError()).isInstanceOf(AdmissionRejectedException.class);
+      assertThat(limiter.getRejectedCount()).isEqualTo(1);
+      assertThat(server.getRequestBodies()).hasSize(2);
+    }
+  }
+
+  @Test
+  @DisplayName("429 재시도는 백오프가 짧아도 Retry-After까지 기다림")
+  void shouldHonorRetryAfterOnRetry() {
+    try (StubCompletionServer server = StubCompletionServer.startRateLimitedOnce(
+        Duration.ofSeconds(1), body -> List.of("안녕"))) {
+      // Given - 재시도 백오프(10ms)는 Retry-After보다 훨씬 짧음
+      final EnhancedCompletionProperties properties = new EnhancedCompletionProperties(server.getBaseUrl(), null);
+      properties.setRequestsPerMinute(600);
+      properties.setRateLimitMaxWait(Duration.ofSeconds(5));
+      properties.setMaxRetries(1);
+      properties.setRetryMinBackoff(Duration.ofMillis(10));
+      properties.setRetryMaxBackoff(Duration.ofMillis(10));
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), new ObjectMapper(), properties);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+          .model("stub")
+          .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+          .build();
+
+      // When
+      final long start = System.nanoTime();
+      final EnhancedCompletionResponse response = client.complete(request);
+      final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+      // Then
+      assertThat(response.getChoices().get(0).getDelta().getContent()).isEqualTo("안녕");
+      assertThat(server.getRequestBodies()).hasSize(2);
+      assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+  }
+
+  @Test
+  @DisplayName("재시도한 시도마다 요청 1건과 그 시도의 사용량을 차감")
+  void shouldChargeEveryAttempt() {
+    // Given - 시각을 고정해 bucket이 다시 차지 않음
+    final AtomicLong now = new AtomicLong(0);
+    final TokenRateLimiter limiter = new TokenRateLimiter(100, 10_000, Duration.ZERO, null, now::get);
+    final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+        .model("stub")
+        .maxTokens(50)
+        .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+        .build();
+    final AtomicLong attempts = new AtomicLong();
+    final ChatCompletionResponse usage = ChatCompletionResponse.builder()
+        .usage(BaseCompletionResponse.Usage.builder().totalTokens(20).build())
+        .build();
+    final Flux<ChatCompletionResponse> attempt = Flux.defer(() -> attempts.incrementAndGet() == 1
+        ? Flux.<ChatCompletionResponse>error(new IOException("reset"))
+        : Flux.just(usage));
+
+    // When - 첫 시도는 응답 없이 끊기고 두 번째 시도가 usage 20으로 끝남
+    limiter.limit(request, Flux.defer(() -> limiter.limitAttempt(request, attempt)).retry(1)).blockLast();
+
+    // Then - 첫 시도는 프롬프트 추정치만큼, 두 번째는 usage만큼
+    final int promptTokens = TokenCounter.REPLY_PRIMING_TOKENS + TokenCounter.TOKENS_PER_MESSAGE + 1;
+    assertThat(attempts).hasValue(2);
+    assertThat(limiter.getAvailableRequests()).isEqualTo(98);
+    assertThat(limiter.getAvailableTokens()).isEqualTo(10_000 - promptTokens - 20);
+  }
+}
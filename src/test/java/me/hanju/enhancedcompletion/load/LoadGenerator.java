@@ -0,0 +1,275 @@
+package me.hanju.enhancedcompletion.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.payload.message.CitedMessage;
+import me.hanju.enhancedcompletion.stub.SseScenario;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import me.hanju.fluxhandle.FluxListener;
+
+/**
+ * 동시에 여러 {@code stream()}을 실행하는 부하 생성기.
+ * TTFT와 토큰 간격 분포(HdrHistogram), 처리량, 힙 할당량과 GC 횟수를 측정합니다.
+ *
+ * <p>
+ * {@code ./gradlew loadTest}로 실행하며 {@code -Pload.*} 속성으로 조정합니다.
+ * {@code load.baseUrl}이 없으면 로컬 {@link StubCompletionServer}를 시나리오대로 띄웁니다.
+ * 할당량은 JVM 전체 기준이므로 로컬 서버를 쓰면 서버 쪽 할당도 포함됩니다.
+ * </p>
+ */
+public final class LoadGenerator {
+
+  private LoadGenerator() {
+  }
+
+  public static void main(final String[] args) throws InterruptedException {
+    final int concurrency = Integer.getInteger("load.concurrency", 64);
+    final int requests = Integer.getInteger("load.requests", 2000);
+    final int warmup = Integer.getInteger("load.warmup", requests / 10);
+    final String baseUrl = System.getProperty("load.baseUrl");
+    final SseScenario scenario = SseScenario.builder()
+        .contentTokens(Integer.getInteger("load.tokens", 200))
+        .tokensPerChunk(Integer.getInteger("load.tokensPerChunk", 1))
+        .citeDensity(Double.parseDouble(System.getProperty("load.citeDensity", "0.05")))
+        .toolCalls(Integer.getInteger("load.toolCalls", 0))
+        .firstTokenDelay(Duration.ofMillis(Long.getLong("load.firstTokenDelayMs", 50)))
+        .interTokenDelay(Duration.ofMillis(Long.getLong("load.interTokenDelayMs", 5)))
+        .errorRate(Double.parseDouble(System.getProperty("load.errorRate", "0")))
+        .disconnectRate(Double.parseDouble(System.getProperty("load.disconnectRate", "0")))
+        .build();
+
+    final StubCompletionServer server = baseUrl == null ? StubCompletionServer.start(scenario) : null;
+    try {
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(WebClient.builder(), new ObjectMapper(),
+          new EnhancedCompletionProperties(server != null ? server.getBaseUrl() : baseUrl, null));
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+          .model(System.getProperty("load.model", "stub"))
+          .messages(List.of(BaseMessage.builder().role("user").content("서울에 대해 알려줘").build()))
+          .build();
+      if (warmup > 0) {
+        run(client, request, concurrency, warmup);
+      }
+      System.out.println(run(client, request, concurrency, requests));
+    } finally {
+      if (server != null) {
+        server.close();
+      }
+    }
+  }
+
+  /**
+   * 동시 실행 수를 concurrency로 유지하며 요청을 requests개 보내고 모두 끝날 때까지 기다립니다.
+   */
+  public static Report run(
+      final EnhancedCompletionClient client,
+      final EnhancedCompletionRequest request,
+      final int concurrency,
+      final int requests) throws InterruptedException {
+    final Report report = new Report(concurrency);
+    final Semaphore slots = new Semaphore(concurrency);
+    final CountDownLatch done = new CountDownLatch(requests);
+    final long allocatedBefore = allocatedBytes();
+    final long[] gcBefore = gcCountAndTime();
+    final long startNanos = System.nanoTime();
+
+    for (int i = 0; i < requests; i++) {
+      slots.acquire();
+      client.stream(request, new TimingListener(report, () -> {
+        slots.release();
+        done.countDown();
+      }));
+    }
+    done.await();
+
+    report.elapsedNanos = System.nanoTime() - startNanos;
+    final long allocatedAfter = allocatedBytes();
+    report.allocatedBytes = allocatedBefore >= 0 && allocatedAfter >= 0 ? allocatedAfter - allocatedBefore : -1;
+    final long[] gcAfter = gcCountAndTime();
+    report.gcCount = gcAfter[0] - gcBefore[0];
+    report.gcMillis = gcAfter[1] - gcBefore[1];
+    return report;
+  }
+
+  private static long allocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+      return threads.getTotalThreadAllocatedBytes();
+    }
+    return -1;
+  }
+
+  private static long[] gcCountAndTime() {
+    long count = 0;
+    long time = 0;
+    for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, gc.getCollectionCount());
+      time += Math.max(0, gc.getCollectionTime());
+    }
+    return new long[] { count, time };
+  }
+
+  /**
+   * 스트림 하나의 시각을 기록하는 리스너. content가 있는 delta를 토큰으로 셉니다.
+   */
+  private static final class TimingListener implements FluxListener<EnhancedCompletionResponse> {
+    private final Report report;
+    private final Runnable onTerminate;
+    private final AtomicBoolean terminated = new AtomicBoolean();
+    private final long startNanos = System.nanoTime();
+    private long lastNanos = -1;
+
+    TimingListener(final Report report, final Runnable onTerminate) {
+      this.report = report;
+      this.onTerminate = onTerminate;
+    }
+
+    @Override
+    public void onNext(final EnhancedCompletionResponse delta) {
+      if (delta.getChoices() == null || delta.getChoices().isEmpty()) {
+        return;
+      }
+      final CitedMessage message = delta.getChoices().get(0).getDelta();
+      if (message == null || message.getContent() == null || message.getContent().isEmpty()) {
+        return;
+      }
+      final long now = System.nanoTime();
+      if (lastNanos < 0) {
+        report.ttft.recordValue(now - startNanos);
+      } else {
+        report.interToken.recordValue(now - lastNanos);
+      }
+      lastNanos = now;
+      report.tokens.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete() {
+      terminate(report.completed);
+    }
+
+    @Override
+    public void onError(final Throwable e) {
+      terminate(report.failed);
+    }
+
+    @Override
+    public void onCancel() {
+      terminate(report.failed);
+    }
+
+    private void terminate(final AtomicLong counter) {
+      if (terminated.compareAndSet(false, true)) {
+        counter.incrementAndGet();
+        onTerminate.run();
+      }
+    }
+  }
+
+  /**
+   * 부하 테스트 결과. 지연 시간은 ns 단위로 기록합니다.
+   */
+  public static final class Report {
+    private final int concurrency;
+    private final Histogram ttft = new ConcurrentHistogram(3);
+    private final Histogram interToken = new ConcurrentHistogram(3);
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private long elapsedNanos;
+    private long allocatedBytes;
+    private long gcCount;
+    private long gcMillis;
+
+    Report(final int concurrency) {
+      this.concurrency = concurrency;
+    }
+
+    public Histogram getTtft() {
+      return ttft;
+    }
+
+    public Histogram getInterToken() {
+      return interToken;
+    }
+
+    public long getCompleted() {
+      return completed.get();
+    }
+
+    public long getFailed() {
+      return failed.get();
+    }
+
+    public long getTokens() {
+      return tokens.get();
+    }
+
+    public double getRequestsPerSecond() {
+      return (completed.get() + failed.get()) * 1e9 / elapsedNanos;
+    }
+
+    public double getTokensPerSecond() {
+      return tokens.get() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * 요청당 힙 할당량 (JVM 전체 기준). 측정할 수 없으면 -1.
+     */
+    public long getAllocatedBytesPerRequest() {
+      final long total = completed.get() + failed.get();
+      return allocatedBytes < 0 || total == 0 ? -1 : allocatedBytes / total;
+    }
+
+    public long getGcCount() {
+      return gcCount;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("""
+          concurrency=%d completed=%d failed=%d elapsed=%.2fs
+          throughput: %.1f req/s, %.1f tokens/s
+          ttft (ms):        %s
+          inter-token (ms): %s
+          heap: %s/request, gc count=%d time=%dms
+          """,
+          concurrency, completed.get(), failed.get(), elapsedNanos / 1e9,
+          getRequestsPerSecond(), getTokensPerSecond(),
+          percentiles(ttft), percentiles(interToken),
+          getAllocatedBytesPerRequest() < 0 ? "n/a" : getAllocatedBytesPerRequest() / 1024 + " KiB",
+          gcCount, gcMillis);
+    }
+
+    private static String percentiles(final Histogram histogram) {
+      if (histogram.getTotalCount() == 0) {
+        return "n/a";
+      }
+      return String.format("p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f",
+          millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+          millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+          millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(final long nanos) {
+      return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package me.hanju.enhancedcompletion.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.stub.SseScenario;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+
+@DisplayName("LoadGenerator 테스트")
+class LoadGeneratorTest {
+
+  private static final EnhancedCompletionRequest REQUEST = EnhancedCompletionRequest.builder()
+      .model("stub")
+      .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+      .build();
+
+  private static EnhancedCompletionClient client(final StubCompletionServer server) {
+    return new EnhancedCompletionClient(WebClient.builder(), new ObjectMapper(),
+        new EnhancedCompletionProperties(server.getBaseUrl(), null));
+  }
+
+  @Test
+  @DisplayName("동시 스트림의 TTFT와 토큰 간격을 기록")
+  void shouldMeasureConcurrentStreams() throws Exception {
+    // Given - cite와 tool call이 섞인 응답
+    final SseScenario scenario = SseScenario.builder()
+        .contentTokens(30)
+        .tokensPerChunk(2)
+        .citeDensity(0.2)
+        .toolCalls(1)
+        .interTokenDelay(Duration.ofMillis(1))
+        .build();
+
+    try (StubCompletionServer server = StubCompletionServer.start(scenario)) {
+      // When
+      final LoadGenerator.Report report = LoadGenerator.run(client(server), REQUEST, 8, 40);
+
+      // Then
+      assertThat(report.getCompleted()).isEqualTo(40);
+      assertThat(report.getFailed()).isZero();
+      assertThat(report.getTtft().getTotalCount()).isEqualTo(40);
+      assertThat(report.getInterToken().getTotalCount()).isPositive();
+      assertThat(report.getTokensPerSecond()).isPositive();
+      assertThat(report.toString()).contains("p99=");
+    }
+  }
+
+  @Test
+  @DisplayName("주입한 HTTP 오류와 연결 끊김은 실패로 집계")
+  void shouldCountInjectedFailures() throws Exception {
+    // Given
+    final SseScenario errors = SseScenario.builder().errorRate(1.0).build();
+    final SseScenario disconnects = SseScenario.builder().contentTokens(20).disconnectRate(1.0).build();
+
+    try (StubCompletionServer errorServer = StubCompletionServer.start(errors);
+        StubCompletionServer disconnectServer = StubCompletionServer.start(disconnects)) {
+      // When
+      final LoadGenerator.Report errorReport = LoadGenerator.run(client(errorServer), REQUEST, 4, 10);
+      final LoadGenerator.Report disconnectReport = LoadGenerator.run(client(disconnectServer), REQUEST, 4, 10);
+
+      // Then
+      assertThat(errorReport.getFailed()).isEqualTo(10);
+      assertThat(errorReport.getTtft().getTotalCount()).isZero();
+      assertThat(disconnectReport.getFailed()).isEqualTo(10);
+      assertThat(disconnectReport.getTtft().getTotalCount()).isEqualTo(10);
+    }
+  }
+}
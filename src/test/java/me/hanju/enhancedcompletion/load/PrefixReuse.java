@@ -0,0 +1,191 @@
+package me.hanju.enhancedcompletion.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.Message;
+import me.hanju.enhancedcompletion.payload.document.IDocument;
+import me.hanju.enhancedcompletion.payload.document.SimpleDocument;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+import me.hanju.enhancedcompletion.prompt.DocumentPlacement;
+import me.hanju.enhancedcompletion.spi.augment.AugmentResult;
+import me.hanju.enhancedcompletion.spi.augment.Augmenter;
+import me.hanju.enhancedcompletion.spi.augment.SimpleAugmentResult;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import reactor.core.publisher.Flux;
+
+/**
+ * 문서 배치 전략별 prefix 캐시 재사용률 측정.
+ * 로컬 stub 서버를 상대로 여러 턴의 대화를 보내고, 서버가 받은 프롬프트를
+ * ChatML 형식으로 렌더링해 prefix 캐시가 재사용할 수 있는 공통 prefix 길이를 잽니다.
+ *
+ * <ul>
+ * <li>턴 간: 이전 턴 프롬프트 + 응답(서버 KV 캐시에 남은 내용)과 다음 턴 프롬프트의 공통 prefix</li>
+ * <li>재시도: 같은 턴을 다시 보냈을 때(검색 순서만 다름) 두 프롬프트의 공통 prefix</li>
+ * </ul>
+ *
+ * <p>
+ * {@code ./gradlew prefixReuse}로 실행하면 전략별 표를 출력합니다.
+ * </p>
+ */
+public final class PrefixReuse {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int TURNS = 6;
+
+  private PrefixReuse() {
+  }
+
+  public static void main(final String[] args) {
+    System.out.println("placement                 sort  turn-prefix  retry-prefix");
+    print(DocumentPlacement.LAST_USER_MESSAGE, false);
+    print(DocumentPlacement.LAST_USER_MESSAGE, true);
+    print(DocumentPlacement.BEFORE_LAST_USER_MESSAGE, true);
+    print(DocumentPlacement.AFTER_LAST_USER_MESSAGE, true);
+  }
+
+  private static void print(final DocumentPlacement placement, final boolean sortById) {
+    final Measurement m = measure(placement, sortById);
+    System.out.printf("%-25s %-5s %10.1f%% %12.1f%%%n",
+        placement, sortById, m.getTurnReuse() * 100, m.getRetryReuse() * 100);
+  }
+
+  /**
+   * 배치 전략 하나로 대화를 보내고 공통 prefix 비율을 잽니다.
+   */
+  public static Measurement measure(final DocumentPlacement placement, final boolean sortById) {
+    try (StubCompletionServer server = StubCompletionServer.start(
+        body -> List.of("답변입니다. ", "문서를 참고했습니다."))) {
+      final EnhancedCompletionProperties properties = new EnhancedCompletionProperties(server.getBaseUrl(), null);
+      properties.setDocumentPlacement(placement);
+      properties.setSortDocumentsById(sortById);
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), MAPPER, properties);
+      final Augmenter augmenter = new ShufflingAugmenter();
+
+      final List<IMessageable> history = new ArrayList<>();
+      history.add(BaseMessage.builder().role("system").content("주어진 문서를 근거로 답변하세요.").build());
+      final List<String> replies = new ArrayList<>();
+      for (int turn = 0; turn < TURNS; turn++) {
+        history.add(BaseMessage.builder().role("user").content("질문 " + turn + "에 답해주세요.").build());
+        final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder()
+            .model("stub")
+            .messages(List.copyOf(history))
+            .augmenter(augmenter)
+            .build();
+        final EnhancedCompletionResponse response = client.complete(request);
+        final String reply = response.getChoices().get(0).getDelta().getContent();
+        replies.add(reply);
+        history.add(BaseMessage.builder().role("assistant").content(reply).build());
+        if (turn == TURNS - 1) {
+          // 마지막 턴은 한 번 더 보내 재시도 상황을 측정
+          client.complete(request);
+        }
+      }
+
+      final List<String> prompts = server.getRequestBodies().stream().map(PrefixReuse::render).toList();
+      long shared = 0;
+      long total = 0;
+      for (int turn = 1; turn < TURNS; turn++) {
+        final String cached = prompts.get(turn - 1) + renderMessage("assistant", replies.get(turn - 1));
+        shared += commonPrefix(cached, prompts.get(turn));
+        total += prompts.get(turn).length();
+      }
+      final String last = prompts.get(TURNS - 1);
+      final String retry = prompts.get(TURNS);
+      return new Measurement((double) shared / total, (double) commonPrefix(last, retry) / retry.length());
+    }
+  }
+
+  /**
+   * 공통 prefix 비율 (0~1).
+   */
+  public static final class Measurement {
+    private final double turnReuse;
+    private final double retryReuse;
+
+    Measurement(final double turnReuse, final double retryReuse) {
+      this.turnReuse = turnReuse;
+      this.retryReuse = retryReuse;
+    }
+
+    /**
+     * 턴 간 공통 prefix 비율.
+     */
+    public double getTurnReuse() {
+      return turnReuse;
+    }
+
+    /**
+     * 같은 턴 재시도 시 공통 prefix 비율.
+     */
+    public double getRetryReuse() {
+      return retryReuse;
+    }
+  }
+
+  /**
+   * 같은 질문에는 같은 문서 집합을, 호출할 때마다 다른 순서로 반환하는 Augmenter.
+   */
+  private static final class ShufflingAugmenter implements Augmenter {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public String getName() {
+      return "shuffling";
+    }
+
+    @Override
+    public Flux<AugmentResult> augment(final ChatCompletionRequest request) {
+      final List<Message> messages = request.getMessages();
+      final String question = messages.get(messages.size() - 1).getContent();
+      final int seed = question.hashCode();
+      final List<IDocument> docs = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        final String id = "doc-" + Math.floorMod(seed + i * 7, 20);
+        docs.add(SimpleDocument.builder().id(id).title("문서 " + id).content(id + " 본문 ".repeat(40)).build());
+      }
+      Collections.shuffle(docs, new Random(calls.incrementAndGet()));
+      return Flux.just(SimpleAugmentResult.builder().documents(docs).build());
+    }
+  }
+
+  private static String render(final String body) {
+    try {
+      final StringBuilder sb = new StringBuilder();
+      for (final JsonNode message : MAPPER.readTree(body).get("messages")) {
+        sb.append(renderMessage(message.get("role").asText(), message.get("content").asText()));
+      }
+      return sb.toString();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String renderMessage(final String role, final String content) {
+    return "<|im_start|>" + role + "\n" + content + "<|im_end|>\n";
+  }
+
+  private static int commonPrefix(final String a, final String b) {
+    final int max = Math.min(a.length(), b.length());
+    int i = 0;
+    while (i < max && a.charAt(i) == b.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+}
@@ -0,0 +1,92 @@
+package me.hanju.enhancedcompletion.observe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.augmenter.MockAugmenter;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.spi.observe.StreamObservation;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+
+@DisplayName("JfrCompletionObserver 테스트")
+class JfrCompletionObserverTest {
+
+  private static final String PREFIX = JfrCompletionObserver.EVENT_PREFIX;
+
+  private static EnhancedCompletionRequest request() {
+    return EnhancedCompletionRequest.builder()
+        .model("stub")
+        .maxTokens(64)
+        .augmenter(new MockAugmenter())
+        .messages(List.of(BaseMessage.builder().role("user").content("수도는?").build()))
+        .build();
+  }
+
+  @Test
+  @DisplayName("기록 중이 아니면 NOOP observation을 반환")
+  void shouldReturnNoopWhenNotRecording() {
+    assertThat(new JfrCompletionObserver().start(request())).isSameAs(StreamObservation.NOOP);
+  }
+
+  @Test
+  @DisplayName("기록 중이면 스트림 단계별 이벤트를 남김")
+  void shouldRecordPipelineEvents() throws Exception {
+    final Path file = Files.createTempFile("enhanced-completion", ".jfr");
+    try (StubCompletionServer server = StubCompletionServer.start(body -> List.of(
+        "서울은 <cite><id>doc1</id>", "수도", "</cite>입니다"));
+        Recording recording = new Recording()) {
+      // Given
+      for (final String name : List.of("Stream", "Augment", "FirstChunk", "ContentFlush", "Citation", "Merge")) {
+        recording.enable(PREFIX + name).withoutThreshold();
+      }
+      recording.start();
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(WebClient.builder(), new ObjectMapper(),
+          new EnhancedCompletionProperties(server.getBaseUrl(), null), new JfrCompletionObserver());
+
+      // When
+      client.complete(request());
+      recording.stop();
+      recording.dump(file);
+
+      // Then
+      final Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+          .filter(e -> e.getEventType().getName().startsWith(PREFIX))
+          .collect(Collectors.groupingBy(e -> e.getEventType().getName().substring(PREFIX.length())));
+      assertThat(events).containsKeys("Stream", "Augment", "FirstChunk", "ContentFlush", "Citation", "Merge");
+
+      final RecordedEvent stream = events.get("Stream").get(0);
+      assertThat(stream.getString("model")).isEqualTo("stub");
+      assertThat(stream.getInt("maxTokens")).isEqualTo(64);
+      assertThat(stream.getInt("chunks")).isEqualTo(3);
+      assertThat(stream.getString("outcome")).isEqualTo("success");
+
+      final long requestId = stream.getLong("requestId");
+      final Function<String, RecordedEvent> first = name -> events.get(name).get(0);
+      assertThat(first.apply("Augment").getLong("requestId")).isEqualTo(requestId);
+      assertThat(first.apply("Augment").getString("augmenter")).isEqualTo("mock-augmenter");
+      assertThat(first.apply("FirstChunk").getInt("status")).isEqualTo(200);
+      assertThat(first.apply("Citation").getString("citationId")).isEqualTo("doc1");
+      assertThat(first.apply("Merge").getInt("deltas")).isPositive();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package me.hanju.enhancedcompletion.observe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.augmenter.MockAugmenter;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+
+@DisplayName("MicrometerCompletionObserver 테스트")
+class MicrometerCompletionObserverTest {
+
+  private static final String P = MicrometerCompletionObserver.PREFIX;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final MicrometerCompletionObserver observer = new MicrometerCompletionObserver(registry);
+
+  private EnhancedCompletionClient client(final String baseUrl) {
+    return new EnhancedCompletionClient(WebClient.builder(), new ObjectMapper(),
+        new EnhancedCompletionProperties(baseUrl, null), observer);
+  }
+
+  private static EnhancedCompletionRequest.EnhancedCompletionRequestBuilder<?, ?> request() {
+    return EnhancedCompletionRequest.builder()
+        .model("stub")
+        .messages(List.of(BaseMessage.builder().role("user").content("hi").build()));
+  }
+
+  private static FluxListener<EnhancedCompletionResponse> ignoring() {
+    return new FluxListener<>() {
+      @Override
+      public void onNext(EnhancedCompletionResponse delta) {
+      }
+
+      @Override
+      public void onComplete() {
+      }
+
+      @Override
+      public void onError(Throwable e) {
+      }
+
+      @Override
+      public void onCancel() {
+      }
+    };
+  }
+
+  @Test
+  @DisplayName("TTFB/TTFT, 토큰 간격, augment, 파싱/변환 시간을 기록")
+  void shouldRecordStreamingMetrics() throws Exception {
+    try (StubCompletionServer server = StubCompletionServer.start(body -> List.of("서울은", " 수도", "입니다"))) {
+      // Given
+      final EnhancedCompletionClient client = client(server.getBaseUrl());
+
+      // When
+      client.complete(request().augmenter(new MockAugmenter()).build());
+
+      // Then
+      assertThat(registry.get(P + ".ttfb").tag("model", "stub").timer().count()).isEqualTo(1);
+      assertThat(registry.get(P + ".ttft").tag("model", "stub").timer().count()).isEqualTo(1);
+      assertThat(registry.get(P + ".inter.token").timer().count()).isEqualTo(2);
+      assertThat(registry.get(P + ".tokens.per.second").summary().count()).isEqualTo(1);
+      assertThat(registry.get(P + ".augment").tag("augmenter", "mock-augmenter").tag("outcome", "success")
+          .timer().count()).isEqualTo(1);
+      assertThat(registry.get(P + ".augment.documents").summary().totalAmount()).isPositive();
+      assertThat(registry.get(P + ".parse").timer().count()).isEqualTo(3);
+      assertThat(registry.get(P + ".map").timer().count()).isEqualTo(3);
+      assertThat(registry.get(P + ".duration").tag("outcome", "success").timer().count()).isEqualTo(1);
+      assertThat(registry.get(P + ".active").gauge().value()).isZero();
+    }
+  }
+
+  @Test
+  @DisplayName("오류는 유형별로, 취소는 별도로 집계")
+  void shouldCountErrorsAndCancellations() throws Exception {
+    final int deadPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      deadPort = socket.getLocalPort();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+
+    // When - 연결 실패
+    client("http://127.0.0.1:" + deadPort).complete(request().build());
+
+    // Then
+    assertThat(registry.get(P + ".errors").tag("type", "WebClientRequestException").counter().count())
+        .isEqualTo(1);
+
+    try (StubCompletionServer server = StubCompletionServer.start(body -> List.of("a"), Duration.ofSeconds(5))) {
+      // When - 첫 chunk 전에 취소
+      final StreamHandle<EnhancedCompletionResponse> handle = client(server.getBaseUrl())
+          .stream(request().build(), ignoring());
+      TimeUnit.MILLISECONDS.sleep(100);
+      assertThat(registry.get(P + ".active").gauge().value()).isEqualTo(1);
+      handle.cancel();
+
+      // Then
+      assertThat(registry.get(P + ".cancelled").counter().count()).isEqualTo(1);
+      assertThat(registry.get(P + ".active").gauge().value()).isZero();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package me.hanju.enhancedcompletion.observe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.augmenter.CompositeAugmenter;
+import me.hanju.enhancedcompletion.augmenter.MockAugmenter;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+
+@DisplayName("OpenTelemetryCompletionObserver 테스트")
+class OpenTelemetryCompletionObserverTest {
+
+  private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+  private final OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder()
+      .setTracerProvider(SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(exporter)).build())
+      .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+      .build();
+
+  @AfterEach
+  void tearDown() {
+    openTelemetry.close();
+  }
+
+  private EnhancedCompletionClient client(final String baseUrl) {
+    return new EnhancedCompletionClient(WebClient.builder(), new ObjectMapper(),
+        new EnhancedCompletionProperties(baseUrl, null), new OpenTelemetryCompletionObserver(openTelemetry));
+  }
+
+  private static EnhancedCompletionRequest.EnhancedCompletionRequestBuilder<?, ?> request() {
+    return EnhancedCompletionRequest.builder()
+        .model("stub")
+        .maxTokens(64)
+        .messages(List.of(BaseMessage.builder().role("user").content("hi").build()));
+  }
+
+  private Map<String, SpanData> spansByName() {
+    return exporter.getFinishedSpanItems().stream()
+        .collect(Collectors.toMap(SpanData::getName, Function.identity()));
+  }
+
+  @Test
+  @DisplayName("stream 아래에 augment(composite 하위 포함), HTTP, merge span을 만들고 trace context를 전파")
+  void shouldRecordSpanHierarchy() throws Exception {
+    try (StubCompletionServer server = StubCompletionServer.startWithChunks(body -> List.of(
+        StubCompletionServer.contentChunk("서울은"),
+        StubCompletionServer.contentChunk(" 수도"),
+        StubCompletionServer.usageChunk(12, 2)))) {
+      // Given
+      final CompositeAugmenter composite = new CompositeAugmenter("composite", List.of(
+          MockAugmenter.builder().name("vector").build(),
+          MockAugmenter.builder().name("keyword").build()), 10);
+      final Span root = openTelemetry.getTracer("test").spanBuilder("request").startSpan();
+
+      // When
+      final Scope scope = root.makeCurrent();
+      try {
+        client(server.getBaseUrl()).complete(request().augmenter(composite).build());
+      } finally {
+        scope.close();
+        root.end();
+      }
+
+      // Then
+      final Map<String, SpanData> spans = spansByName();
+      final SpanData stream = spans.get("chat stub");
+      assertThat(stream.getParentSpanId()).isEqualTo(root.getSpanContext().getSpanId());
+      assertThat(stream.getAttributes().get(OpenTelemetryCompletionObserver.REQUEST_MODEL)).isEqualTo("stub");
+      assertThat(stream.getAttributes().get(OpenTelemetryCompletionObserver.REQUEST_MAX_TOKENS)).isEqualTo(64L);
+      assertThat(stream.getAttributes().get(OpenTelemetryCompletionObserver.INPUT_TOKENS)).isEqualTo(12L);
+      assertThat(stream.getAttributes().get(OpenTelemetryCompletionObserver.OUTPUT_TOKENS)).isEqualTo(2L);
+      assertThat(stream.getAttributes().get(OpenTelemetryCompletionObserver.DOCUMENTS)).isPositive();
+
+      final SpanData compositeSpan = spans.get("augment composite");
+      assertThat(compositeSpan.getParentSpanId()).isEqualTo(stream.getSpanId());
+      assertThat(spans.get("augment vector").getParentSpanId()).isEqualTo(compositeSpan.getSpanId());
+      assertThat(spans.get("augment keyword").getParentSpanId()).isEqualTo(compositeSpan.getSpanId());
+      assertThat(spans.get("augment vector").getAttributes().get(OpenTelemetryCompletionObserver.DOCUMENTS))
+          .isPositive();
+
+      final SpanData http = spans.get("POST");
+      assertThat(http.getParentSpanId()).isEqualTo(stream.getSpanId());
+      assertThat(http.getAttributes().get(OpenTelemetryCompletionObserver.HTTP_STATUS)).isEqualTo(200L);
+      assertThat(spans.get("merge").getParentSpanId()).isEqualTo(stream.getSpanId());
+      assertThat(spans.get("merge").getAttributes().get(OpenTelemetryCompletionObserver.DELTAS)).isPositive();
+
+      // 서버는 HTTP span을 부모로 하는 traceparent를 받음
+      assertThat(server.getRequestHeaders().get(0).get("traceparent"))
+          .isEqualTo("00-" + stream.getTraceId() + "-" + http.getSpanId() + "-01");
+    }
+  }
+
+  @Test
+  @DisplayName("HTTP 오류는 HTTP span과 stream span에 오류로 기록")
+  void shouldRecordErrors() {
+    // Given - 응답하지 않는 경로
+    try (StubCompletionServer server = StubCompletionServer.start(body -> List.of("a"))) {
+      final EnhancedCompletionClient client = client(server.getBaseUrl() + "/missing");
+
+      // When
+      client.complete(request().build());
+
+      // Then
+      final Map<String, SpanData> spans = spansByName();
+      assertThat(spans.get("POST").getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+      assertThat(spans.get("POST").getAttributes().get(OpenTelemetryCompletionObserver.HTTP_STATUS))
+          .isEqualTo(404L);
+      assertThat(spans.get("chat stub").getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+      assertThat(spans).doesNotContainKey("merge");
+    }
+  }
+}
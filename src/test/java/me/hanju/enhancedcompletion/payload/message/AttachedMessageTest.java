@@ -0,0 +1,76 @@
+package me.hanju.enhancedcompletion.payload.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.enhancedcompletion.payload.completion.Message;
+import me.hanju.enhancedcompletion.payload.document.SimpleDocument;
+
+@DisplayName("AttachedMessage")
+class AttachedMessageTest {
+
+  private static AttachedMessage createMessage(String content) {
+    return AttachedMessage.builder()
+        .role("user")
+        .content(content)
+        .documents(List.of(
+            SimpleDocument.builder().id("doc1").title("제목").content("내용1").build(),
+            SimpleDocument.builder().id("doc2").content("내용2").build()))
+        .build();
+  }
+
+  @Test
+  @DisplayName("content 뒤에 문서 목록을 붙여 Message로 변환")
+  void shouldMergeContentAndDocuments() {
+    Message message = createMessage("질문").toMessage();
+
+    assertThat(message.getRole()).isEqualTo("user");
+    assertThat(message.getContent()).isEqualTo("질문\n\n"
+        + "<documents>\n"
+        + "<document id=\"doc1\">\n<title>제목</title>\n<content>내용1</content>\n</document>\n"
+        + "<document id=\"doc2\">\n<content>내용2</content>\n</document>\n"
+        + "</documents>");
+  }
+
+  @Test
+  @DisplayName("content가 없으면 문서 목록만 전송")
+  void shouldSendDocumentsOnlyWhenContentIsEmpty() {
+    AttachedMessage attached = createMessage(null);
+
+    assertThat(attached.toMessage().getContent()).isEqualTo(attached.serializeDocuments());
+  }
+
+  @Test
+  @DisplayName("문서가 없으면 content를 그대로 전송")
+  void shouldKeepContentWithoutDocuments() {
+    AttachedMessage attached = AttachedMessage.builder().role("user").content("질문").build();
+
+    assertThat(attached.toMessage().getContent()).isEqualTo("질문");
+    assertThat(attached.getContentFragments().getFragments()).containsExactly("질문");
+  }
+
+  @Test
+  @DisplayName("content 조각 Reader는 toMessage와 같은 내용을 길이만큼 읽음")
+  void shouldStreamFragmentsThroughReader() throws IOException {
+    AttachedMessage attached = createMessage("질문");
+    ContentFragments fragments = attached.getContentFragments();
+
+    StringBuilder read = new StringBuilder();
+    char[] buffer = new char[7];
+    try (Reader reader = fragments.reader()) {
+      int n;
+      while ((n = reader.read(buffer, 0, buffer.length)) != -1) {
+        read.append(buffer, 0, n);
+      }
+    }
+
+    assertThat(read.toString()).isEqualTo(attached.toMessage().getContent());
+    assertThat(fragments.length()).isEqualTo(read.length());
+  }
+}
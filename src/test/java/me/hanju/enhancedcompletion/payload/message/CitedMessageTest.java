@@ -0,0 +1,117 @@
+package me.hanju.enhancedcompletion.payload.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("CitedMessage")
+class CitedMessageTest {
+
+  private static Citation citation(int index, String id, int start, int end) {
+    return Citation.builder().index(index).id(id).startIndex(start).endIndex(end).build();
+  }
+
+  private static CitedMessage message(String content, List<Citation> citations) {
+    return CitedMessage.builder().role("assistant").content(content).citations(new ArrayList<>(citations)).build();
+  }
+
+  @Test
+  @DisplayName("citation 위치에 cite 태그를 다시 넣음")
+  void rendersCiteTags() {
+    // Given
+    final CitedMessage message = message("서울은 수도이고 부산은 항구다",
+        List.of(citation(0, "doc1", 0, 3), citation(1, "doc2", 9, 12)));
+
+    // When
+    final String rendered = message.getContentWithCitations();
+
+    // Then
+    assertThat(rendered).isEqualTo("<cite><id>doc1</id>서울은</cite> 수도이고 <cite><id>doc2</id>부산은</cite> 항구다");
+    assertThat(message.toMessage().getContent()).isEqualTo(rendered);
+  }
+
+  @Test
+  @DisplayName("정렬되지 않은 citations도 시작 위치 순으로 렌더링하고 목록은 바꾸지 않음")
+  void rendersUnsortedCitations() {
+    // Given
+    final CitedMessage message = message("abcdef", List.of(citation(1, "y", 4, 6), citation(0, "x", 0, 2)));
+
+    // When
+    final String rendered = message.getContentWithCitations();
+
+    // Then
+    assertThat(rendered).isEqualTo("<cite><id>x</id>ab</cite>cd<cite><id>y</id>ef</cite>");
+    assertThat(message.getCitations()).extracting(Citation::getId).containsExactly("y", "x");
+  }
+
+  @Test
+  @DisplayName("변경이 없으면 이전 결과를 재사용")
+  void reusesCachedResult() {
+    // Given
+    final CitedMessage message = message("abcdef", List.of(citation(0, "x", 0, 2)));
+
+    // When
+    final String first = message.getContentWithCitations();
+    final String second = message.getContentWithCitations();
+
+    // Then
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  @DisplayName("content, citations 목록, citation 값이 바뀌면 다시 렌더링")
+  void invalidatesOnMutation() {
+    // Given
+    final CitedMessage message = message("abcdef", List.of(citation(0, "x", 0, 2)));
+    message.getContentWithCitations();
+
+    // When & Then
+    message.setContent("ghijkl");
+    assertThat(message.getContentWithCitations()).isEqualTo("<cite><id>x</id>gh</cite>ijkl");
+
+    message.getCitations().add(citation(1, "y", 4, 6));
+    assertThat(message.getContentWithCitations()).isEqualTo("<cite><id>x</id>gh</cite>ij<cite><id>y</id>kl</cite>");
+
+    message.getCitations().get(0).setId("z");
+    assertThat(message.getContentWithCitations()).isEqualTo("<cite><id>z</id>gh</cite>ij<cite><id>y</id>kl</cite>");
+
+    message.setCitations(List.of());
+    assertThat(message.getContentWithCitations()).isEqualTo("ghijkl");
+  }
+
+  @Test
+  @DisplayName("위치 변경이 서로 상쇄되어도 다시 렌더링 (hash가 아닌 값 비교)")
+  void invalidatesOnCompensatingChange() {
+    // Given - 31진 hash라면 start+1, end-31은 같은 값이 됨
+    final String content = "a".repeat(40);
+    final CitedMessage message = message(content, List.of(citation(0, "x", 0, 33)));
+    message.getContentWithCitations();
+
+    // When
+    message.getCitations().get(0).setStartIndex(1);
+    message.getCitations().get(0).setEndIndex(2);
+
+    // Then
+    assertThat(message.getContentWithCitations()).isEqualTo("a<cite><id>x</id>a</cite>" + "a".repeat(38));
+  }
+
+  @Test
+  @DisplayName("렌더링 캐시는 equals와 JSON에 포함되지 않음")
+  void cacheIsNotPartOfValue() throws Exception {
+    // Given
+    final CitedMessage rendered = message("abcdef", List.of(citation(0, "x", 0, 2)));
+    final CitedMessage fresh = message("abcdef", List.of(citation(0, "x", 0, 2)));
+    rendered.getContentWithCitations();
+
+    // Then
+    assertThat(rendered).isEqualTo(fresh);
+    assertThat(new ObjectMapper().writeValueAsString(rendered))
+        .doesNotContain("renderCache");
+  }
+}
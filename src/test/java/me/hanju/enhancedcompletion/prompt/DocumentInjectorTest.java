@@ -0,0 +1,134 @@
+package me.hanju.enhancedcompletion.prompt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.enhancedcompletion.load.PrefixReuse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.document.IDocument;
+import me.hanju.enhancedcompletion.payload.document.SimpleDocument;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+
+@DisplayName("DocumentInjector 테스트")
+class DocumentInjectorTest {
+
+  private static List<IMessageable> conversation() {
+    return List.of(
+        BaseMessage.builder().role("system").content("sys").build(),
+        BaseMessage.builder().role("user").content("q1").build(),
+        BaseMessage.builder().role("assistant").content("a1").build(),
+        BaseMessage.builder().role("user").content("q2").build());
+  }
+
+  private static List<IDocument> documents(final String... ids) {
+    final List<IDocument> docs = new ArrayList<>();
+    for (final String id : ids) {
+      docs.add(SimpleDocument.builder().id(id).content("content of " + id).build());
+    }
+    return docs;
+  }
+
+  private static List<String> roles(final EnhancedCompletionRequest request) {
+    return request.getMessages().stream().map(IMessageable::getRole).toList();
+  }
+
+  @Nested
+  @DisplayName("주입 위치")
+  class Placement {
+
+    @Test
+    @DisplayName("LAST_USER_MESSAGE는 마지막 user 메시지에 병합")
+    void shouldMergeIntoLastUserMessage() {
+      // Given
+      final DocumentInjector injector = new DocumentInjector(DocumentPlacement.LAST_USER_MESSAGE, "system", false);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder().messages(conversation()).build();
+
+      // When
+      final EnhancedCompletionRequest result = injector.inject(request, documents("d1"));
+
+      // Then
+      assertThat(roles(result)).containsExactly("system", "user", "assistant", "user");
+      assertThat(result.getMessages().get(3).toMessage().getContent()).startsWith("q2\n\n<documents>");
+    }
+
+    @Test
+    @DisplayName("AFTER_LAST_USER_MESSAGE는 대화 이력을 그대로 두고 문서 메시지를 뒤에 추가")
+    void shouldAppendDocumentMessageAfterLastUser() {
+      // Given
+      final DocumentInjector injector = new DocumentInjector(
+          DocumentPlacement.AFTER_LAST_USER_MESSAGE, "system", false);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder().messages(conversation()).build();
+
+      // When
+      final EnhancedCompletionRequest result = injector.inject(request, documents("d1"));
+
+      // Then
+      assertThat(roles(result)).containsExactly("system", "user", "assistant", "user", "system");
+      assertThat(result.getMessages().subList(0, 4)).isEqualTo(conversation());
+      assertThat(result.getMessages().get(4).toMessage().getContent()).startsWith("<documents>");
+    }
+
+    @Test
+    @DisplayName("BEFORE_LAST_USER_MESSAGE는 질문 바로 앞에 문서 메시지를 삽입")
+    void shouldInsertDocumentMessageBeforeLastUser() {
+      // Given
+      final DocumentInjector injector = new DocumentInjector(
+          DocumentPlacement.BEFORE_LAST_USER_MESSAGE, "user", false);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder().messages(conversation()).build();
+
+      // When
+      final EnhancedCompletionRequest result = injector.inject(request, documents("d1"));
+
+      // Then
+      assertThat(roles(result)).containsExactly("system", "user", "assistant", "user", "user");
+      assertThat(result.getMessages().get(4).getContent()).isEqualTo("q2");
+    }
+
+    @Test
+    @DisplayName("sortById이면 검색 순서와 무관하게 같은 프롬프트")
+    void shouldOrderDocumentsById() {
+      // Given
+      final DocumentInjector injector = new DocumentInjector(DocumentPlacement.LAST_USER_MESSAGE, null, true);
+      final EnhancedCompletionRequest request = EnhancedCompletionRequest.builder().messages(conversation()).build();
+
+      // When
+      final String first = injector.inject(request, documents("d2", "d3", "d1"))
+          .getMessages().get(3).toMessage().getContent();
+      final String second = injector.inject(request, documents("d1", "d2", "d3"))
+          .getMessages().get(3).toMessage().getContent();
+
+      // Then
+      assertThat(first).isEqualTo(second);
+      assertThat(first.indexOf("d1")).isLessThan(first.indexOf("d2"));
+    }
+  }
+
+  /**
+   * 표 출력은 {@code ./gradlew prefixReuse}({@link PrefixReuse})로 봅니다.
+   */
+  @Nested
+  @DisplayName("Prefix 재사용")
+  class PrefixReuseRatio {
+
+    @Test
+    @DisplayName("배치 전략별 공통 prefix 비율")
+    void shouldShareLongerPrefixWithStablePlacement() {
+      final PrefixReuse.Measurement merged = PrefixReuse.measure(DocumentPlacement.LAST_USER_MESSAGE, false);
+      final PrefixReuse.Measurement mergedSorted = PrefixReuse.measure(DocumentPlacement.LAST_USER_MESSAGE, true);
+      final PrefixReuse.Measurement before = PrefixReuse.measure(DocumentPlacement.BEFORE_LAST_USER_MESSAGE, true);
+      final PrefixReuse.Measurement after = PrefixReuse.measure(DocumentPlacement.AFTER_LAST_USER_MESSAGE, true);
+
+      assertThat(mergedSorted.getRetryReuse()).isEqualTo(1.0);
+      assertThat(merged.getRetryReuse()).isLessThan(1.0);
+      assertThat(after.getTurnReuse()).isGreaterThan(merged.getTurnReuse());
+      assertThat(after.getTurnReuse()).isGreaterThan(before.getTurnReuse());
+    }
+  }
+}
@@ -0,0 +1,209 @@
+package me.hanju.enhancedcompletion.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.exception.EnhancedCompletionClientException;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.Message;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.payload.message.Citation;
+import me.hanju.enhancedcompletion.payload.message.CitedMessage;
+import me.hanju.enhancedcompletion.payload.message.IMessageable;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import me.hanju.fluxhandle.FluxListener;
+import me.hanju.fluxhandle.StreamHandle;
+import reactor.core.publisher.Flux;
+
+@DisplayName("ResumableStream 테스트")
+class ResumableStreamTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static EnhancedCompletionRequest request() {
+    return EnhancedCompletionRequest.builder()
+        .model("stub")
+        .maxTokens(100)
+        .messages(List.of(BaseMessage.builder().role("user").content("인사해줘").build()))
+        .build();
+  }
+
+  private static EnhancedCompletionProperties properties(final List<String> endpoints, final boolean resume) {
+    final EnhancedCompletionProperties properties = new EnhancedCompletionProperties();
+    properties.setEndpoints(endpoints);
+    properties.setMaxRetries(2);
+    properties.setRetryMinBackoff(Duration.ofMillis(10));
+    properties.setRetryMaxBackoff(Duration.ofMillis(50));
+    properties.setResumeInterruptedStreams(resume);
+    return properties;
+  }
+
+  /**
+   * 스트림을 끝까지 기다린 뒤 실패 원인을 반환합니다.
+   */
+  private static Throwable failure(final EnhancedCompletionClient client, final EnhancedCompletionRequest request) {
+    final StreamHandle<EnhancedCompletionResponse> handle = client.stream(request, new FluxListener<>() {
+      @Override public void onNext(EnhancedCompletionResponse delta) { /* no-op for test */ }
+      @Override public void onComplete() { /* no-op for test */ }
+      @Override public void onError(Throwable e) { /* no-op for test */ }
+    });
+    handle.get();
+    assertThat(handle.isError()).isTrue();
+    return handle.getError();
+  }
+
+  /**
+   * 첫 요청은 cite 태그 중간에서 연결이 끊기고, 이어받기 요청에는 나머지를 응답합니다.
+   */
+  private static Flux<String> interruptedOnce(final String body) {
+    if (body.contains("\"continue_final_message\":true")) {
+      return Flux.just(
+          StubCompletionServer.contentChunk("ld</cite>"),
+          StubCompletionServer.contentChunk(" 반가워요"));
+    }
+    return Flux.just(
+        StubCompletionServer.contentChunk("Hello <cite><id>d1</id>"),
+        StubCompletionServer.contentChunk("wor"))
+        .concatWith(Flux.error(new IllegalStateException("connection lost")));
+  }
+
+  @Test
+  @DisplayName("스트림 도중 끊기면 생성된 content를 prefill로 이어서 생성")
+  void shouldResumeFromGeneratedContent() throws Exception {
+    try (StubCompletionServer server = StubCompletionServer.startWithStream(ResumableStreamTest::interruptedOnce)) {
+      // Given
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), MAPPER, properties(List.of(server.getBaseUrl()), true));
+
+      // When
+      final EnhancedCompletionResponse response = client.complete(request());
+
+      // Then - 끊김 전후의 content와 citation 위치가 연속됨
+      final CitedMessage message = response.getChoices().get(0).getDelta();
+      assertThat(message.getContent()).isEqualTo("Hello world 반가워요");
+      assertThat(message.getCitations()).hasSize(1);
+      final Citation citation = message.getCitations().get(0);
+      assertThat(citation.getId()).isEqualTo("d1");
+      assertThat(message.getContent().substring(citation.getStartIndex(), citation.getEndIndex())).isEqualTo("world");
+
+      final List<String> bodies = server.getRequestBodies();
+      assertThat(bodies).hasSize(2);
+      final JsonNode resumed = MAPPER.readTree(bodies.get(1));
+      final JsonNode prefill = resumed.get("messages").get(1);
+      assertThat(prefill.get("role").asText()).isEqualTo("assistant");
+      assertThat(prefill.get("content").asText()).isEqualTo("Hello <cite><id>d1</id>wor");
+      assertThat(resumed.get("add_generation_prompt").asBoolean()).isFalse();
+      assertThat(resumed.get("max_tokens").asInt()).isEqualTo(98);
+    }
+  }
+
+  @Test
+  @DisplayName("resume이 꺼져 있으면 content를 받은 뒤의 끊김은 재시도하지 않음")
+  void shouldNotRetryAfterContentWithoutResume() {
+    try (StubCompletionServer server = StubCompletionServer.startWithStream(ResumableStreamTest::interruptedOnce)) {
+      // Given
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), MAPPER, properties(List.of(server.getBaseUrl()), false));
+
+      // When
+      client.complete(request());
+
+      // Then
+      assertThat(server.getRequestBodies()).hasSize(1);
+    }
+  }
+
+  @Test
+  @DisplayName("연결 실패는 백오프 후 다른 endpoint로 재시도")
+  void shouldRetryConnectFailure() throws IOException {
+    final int deadPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      deadPort = socket.getLocalPort();
+    }
+    try (StubCompletionServer server = StubCompletionServer.start(body -> List.of("ok"))) {
+      // Given - ROUND_ROBIN이므로 첫 시도는 닫힌 포트
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(WebClient.builder(), MAPPER,
+          properties(List.of("http://127.0.0.1:" + deadPort, server.getBaseUrl()), false));
+
+      // When
+      final EnhancedCompletionResponse response = client.complete(request());
+
+      // Then
+      assertThat(response.getChoices().get(0).getDelta().getContent()).isEqualTo("ok");
+      assertThat(server.getRequestBodies()).hasSize(1);
+    }
+  }
+
+  @Test
+  @DisplayName("응답 chunk 파싱 오류는 매번 같으므로 재시도하지 않음")
+  void shouldNotRetryParseError() {
+    try (StubCompletionServer server = StubCompletionServer.startWithChunks(body -> List.of("{not json"))) {
+      // Given
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), MAPPER, properties(List.of(server.getBaseUrl()), true));
+
+      // When
+      final Throwable error = failure(client, request());
+
+      // Then
+      assertThat(error).hasRootCauseInstanceOf(JsonParseException.class);
+      assertThat(server.getRequestBodies()).hasSize(1);
+    }
+  }
+
+  @Test
+  @DisplayName("요청 본문 쓰기 오류는 재시도하지 않음")
+  void shouldNotRetryWriteError() {
+    try (StubCompletionServer server = StubCompletionServer.start(body -> List.of("ok"))) {
+      // Given - 쓸 때마다 실패하는 메시지
+      final AtomicInteger writes = new AtomicInteger();
+      final IMessageable failing = new IMessageable() {
+        @Override public String getRole() { return "user"; }
+        @Override public String getContent() { return "hi"; }
+        @Override public Message toMessage() { return Message.builder().role("user").content("hi").build(); }
+
+        @Override
+        public void writeTo(final JsonGenerator generator) throws IOException {
+          writes.incrementAndGet();
+          throw new IOException("unserializable");
+        }
+      };
+      final EnhancedCompletionClient client = new EnhancedCompletionClient(
+          WebClient.builder(), MAPPER, properties(List.of(server.getBaseUrl()), true));
+
+      // When
+      final Throwable error = failure(client, request().toBuilder().messages(List.of(failing)).build());
+
+      // Then
+      assertThat(error).hasRootCauseMessage("unserializable");
+      assertThat(writes).hasValue(1);
+    }
+  }
+
+  @Test
+  @DisplayName("codec 오류는 어디에 감싸여 있어도 일시적 오류가 아님")
+  void shouldClassifyCodecErrorsAsPermanent() {
+    assertThat(RetryPolicy.isTransient(new IOException("reset"))).isTrue();
+    assertThat(RetryPolicy.isTransient(new JsonParseException(null, "bad"))).isFalse();
+    assertThat(RetryPolicy.isTransient(
+        new EnhancedCompletionClientException("Failed to write request body", new IOException("x")))).isFalse();
+    assertThat(RetryPolicy.isTransient(new IllegalStateException(new IOException("x")))).isFalse();
+  }
+}
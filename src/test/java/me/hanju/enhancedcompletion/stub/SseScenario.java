@@ -0,0 +1,206 @@
+package me.hanju.enhancedcompletion.stub;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link StubCompletionServer#start(SseScenario)}의 응답 시나리오.
+ *
+ * <p>
+ * 본문은 단어 단위 토큰으로 만들고 {@code citeDensity} 확률로 세 단어를 {@code <cite><id>doc-N</id>..</cite>}로 감쌉니다.
+ * 토큰을 {@code tokensPerChunk}개씩 묶어 chunk 하나로 보내고, 그 뒤에 tool call, finish_reason, usage chunk가 이어집니다.
+ * 요청마다 {@code errorRate} 확률로 HTTP 오류를, {@code disconnectRate} 확률로 스트림 중간 연결 끊김을 주입합니다.
+ * </p>
+ */
+public final class SseScenario {
+
+  private static final String[] WORDS = {
+      "서울은", "대한민국의", "수도이며", "인구는", "약", "천만", "명입니다", "검색된", "문서에", "따르면",
+      "the", "capital", "city", "has", "a", "population", "of", "about", "ten", "million", "people",
+  };
+
+  private final int contentTokens;
+  private final int tokensPerChunk;
+  private final double citeDensity;
+  private final int toolCalls;
+  private final Duration firstTokenDelay;
+  private final Duration interTokenDelay;
+  private final double errorRate;
+  private final int errorStatus;
+  private final double disconnectRate;
+  private final boolean usage;
+  private final long seed;
+
+  private SseScenario(final Builder builder) {
+    this.contentTokens = builder.contentTokens;
+    this.tokensPerChunk = Math.max(1, builder.tokensPerChunk);
+    this.citeDensity = builder.citeDensity;
+    this.toolCalls = builder.toolCalls;
+    this.firstTokenDelay = builder.firstTokenDelay;
+    this.interTokenDelay = builder.interTokenDelay;
+    this.errorRate = builder.errorRate;
+    this.errorStatus = builder.errorStatus;
+    this.disconnectRate = builder.disconnectRate;
+    this.usage = builder.usage;
+    this.seed = builder.seed;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public double getErrorRate() {
+    return errorRate;
+  }
+
+  public int getErrorStatus() {
+    return errorStatus;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * 요청 하나의 chunk JSON 스트림.
+   */
+  Flux<String> chunks(final Random random) {
+    final List<String> chunks = new ArrayList<>();
+    final List<String> tokens = contentTokens(random);
+    for (int i = 0; i < tokens.size(); i += tokensPerChunk) {
+      chunks.add(StubCompletionServer.contentChunk(
+          String.join("", tokens.subList(i, Math.min(tokens.size(), i + tokensPerChunk)))));
+    }
+    for (int i = 0; i < toolCalls; i++) {
+      final String id = "call_" + i;
+      chunks.add(StubCompletionServer.toolCallChunk(i, id, "search", ""));
+      chunks.add(StubCompletionServer.toolCallChunk(i, null, null, "{\"query\":"));
+      chunks.add(StubCompletionServer.toolCallChunk(i, null, null, "\"q" + i + "\"}"));
+    }
+    chunks.add(StubCompletionServer.finishChunk(toolCalls > 0 ? "tool_calls" : "stop"));
+    if (usage) {
+      chunks.add(StubCompletionServer.usageChunk(16, tokens.size()));
+    }
+
+    Flux<String> events = Flux.fromIterable(chunks);
+    if (random.nextDouble() < disconnectRate) {
+      events = events.take(chunks.size() / 2)
+          .concatWith(Flux.error(new IllegalStateException("injected disconnect")));
+    }
+    if (!interTokenDelay.isZero()) {
+      events = events.delayElements(interTokenDelay);
+    }
+    return firstTokenDelay.isZero() ? events : events.delaySubscription(firstTokenDelay);
+  }
+
+  private List<String> contentTokens(final Random random) {
+    final List<String> tokens = new ArrayList<>(contentTokens + contentTokens / 2);
+    int words = 0;
+    while (words < contentTokens) {
+      if (citeDensity > 0 && random.nextDouble() < citeDensity) {
+        tokens.add("<cite>");
+        tokens.add("<id>");
+        tokens.add("doc-" + random.nextInt(20));
+        tokens.add("</id>");
+        for (int i = 0; i < 3 && words < contentTokens; i++, words++) {
+          tokens.add(" " + WORDS[random.nextInt(WORDS.length)]);
+        }
+        tokens.add("</cite>");
+      } else {
+        tokens.add(" " + WORDS[random.nextInt(WORDS.length)]);
+        words++;
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * SseScenario Builder.
+   */
+  public static class Builder {
+    private int contentTokens = 100;
+    private int tokensPerChunk = 1;
+    private double citeDensity;
+    private int toolCalls;
+    private Duration firstTokenDelay = Duration.ZERO;
+    private Duration interTokenDelay = Duration.ZERO;
+    private double errorRate;
+    private int errorStatus = 503;
+    private double disconnectRate;
+    private boolean usage = true;
+    private long seed = 42;
+
+    /** 본문 단어 수 */
+    public Builder contentTokens(final int contentTokens) {
+      this.contentTokens = contentTokens;
+      return this;
+    }
+
+    /** chunk 하나에 담을 토큰 수 */
+    public Builder tokensPerChunk(final int tokensPerChunk) {
+      this.tokensPerChunk = tokensPerChunk;
+      return this;
+    }
+
+    /** 단어마다 cite 구간이 시작될 확률 (0~1) */
+    public Builder citeDensity(final double citeDensity) {
+      this.citeDensity = citeDensity;
+      return this;
+    }
+
+    /** 본문 뒤에 스트리밍할 tool call 수 */
+    public Builder toolCalls(final int toolCalls) {
+      this.toolCalls = toolCalls;
+      return this;
+    }
+
+    /** 첫 chunk 전 지연 */
+    public Builder firstTokenDelay(final Duration firstTokenDelay) {
+      this.firstTokenDelay = firstTokenDelay;
+      return this;
+    }
+
+    /** chunk 사이 지연 (첫 chunk 앞에도 적용) */
+    public Builder interTokenDelay(final Duration interTokenDelay) {
+      this.interTokenDelay = interTokenDelay;
+      return this;
+    }
+
+    /** 요청을 HTTP 오류로 거절할 확률 (0~1) */
+    public Builder errorRate(final double errorRate) {
+      this.errorRate = errorRate;
+      return this;
+    }
+
+    /** 주입할 HTTP 오류 상태 코드 */
+    public Builder errorStatus(final int errorStatus) {
+      this.errorStatus = errorStatus;
+      return this;
+    }
+
+    /** 스트림 중간에 [DONE] 없이 연결을 끊을 확률 (0~1) */
+    public Builder disconnectRate(final double disconnectRate) {
+      this.disconnectRate = disconnectRate;
+      return this;
+    }
+
+    /** 마지막에 usage chunk를 보낼지 */
+    public Builder usage(final boolean usage) {
+      this.usage = usage;
+      return this;
+    }
+
+    public Builder seed(final long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    public SseScenario build() {
+      return new SseScenario(this);
+    }
+  }
+}
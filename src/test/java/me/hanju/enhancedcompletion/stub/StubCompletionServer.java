@@ -0,0 +1,239 @@
+package me.hanju.enhancedcompletion.stub;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * 테스트용 로컬 Chat Completion SSE 서버.
+ * 받은 요청 본문과 헤더를 기록하고, 요청 본문에 따라 정해진 chunk JSON을 SSE 이벤트로 응답합니다.
+ */
+public final class StubCompletionServer implements AutoCloseable {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+  private final List<Map<String, String>> requestHeaders = new CopyOnWriteArrayList<>();
+  private final DisposableServer server;
+
+  private StubCompletionServer(final Function<String, Reply> replies, final boolean recordRequests) {
+    this.server = HttpServer.create()
+        .host("127.0.0.1")
+        .port(0)
+        .route(routes -> routes.post("/v1/chat/completions", (request, response) -> request.receive()
+            .aggregate()
+            .asString()
+            .flatMapMany(body -> {
+              if (recordRequests) {
+                final Map<String, String> headers = new LinkedHashMap<>();
+                request.requestHeaders()
+                    .forEach(entry -> headers.putIfAbsent(entry.getKey().toLowerCase(), entry.getValue()));
+                requestHeaders.add(headers);
+                requestBodies.add(body);
+              }
+              final Reply reply = replies.apply(body);
+              reply.headers.forEach(response::header);
+              if (reply.status != 200) {
+                return response.status(reply.status)
+                    .header("Content-Type", "application/json")
+                    .sendString(Mono.just("{\"error\":{\"message\":\"injected failure\"}}"));
+              }
+              final Flux<String> events = reply.chunks
+                  .map(chunk -> "data: " + chunk + "\n\n")
+                  .concatWithValues("data: [DONE]\n\n");
+              return response.header("Content-Type", "text/event-stream").sendString(events);
+            })
+            .then()))
+        .bindNow();
+  }
+
+  private StubCompletionServer(final Function<String, Flux<String>> chunks, final Duration firstChunkDelay) {
+    this(body -> new Reply(200, chunks.apply(body).delaySubscription(firstChunkDelay)), true);
+  }
+
+  /**
+   * 서버를 시작합니다.
+   *
+   * @param contentChunks 요청 본문 → 응답 content 조각 목록
+   */
+  public static StubCompletionServer start(final Function<String, List<String>> contentChunks) {
+    return start(contentChunks, Duration.ZERO);
+  }
+
+  /**
+   * 첫 chunk를 지연시키는 서버를 시작합니다 (느린 replica 재현용).
+   *
+   * @param contentChunks   요청 본문 → 응답 content 조각 목록
+   * @param firstChunkDelay 첫 chunk 전 지연
+   */
+  public static StubCompletionServer start(
+      final Function<String, List<String>> contentChunks,
+      final Duration firstChunkDelay) {
+    return new StubCompletionServer(body -> Flux.fromIterable(contentChunks.apply(body))
+        .map(StubCompletionServer::contentChunk), firstChunkDelay);
+  }
+
+  /**
+   * chunk JSON을 직접 지정하여 서버를 시작합니다.
+   *
+   * @param chunks 요청 본문 → 응답 chunk JSON 목록
+   */
+  public static StubCompletionServer startWithChunks(final Function<String, List<String>> chunks) {
+    return new StubCompletionServer(body -> Flux.fromIterable(chunks.apply(body)), Duration.ZERO);
+  }
+
+  /**
+   * chunk JSON 스트림을 직접 지정하여 서버를 시작합니다.
+   * 스트림이 오류로 끝나면 [DONE] 없이 연결이 끊깁니다 (중단된 스트림 재현용).
+   *
+   * @param chunks 요청 본문 → 응답 chunk JSON 스트림
+   */
+  public static StubCompletionServer startWithStream(final Function<String, Flux<String>> chunks) {
+    return new StubCompletionServer(chunks, Duration.ZERO);
+  }
+
+  /**
+   * 첫 요청에는 {@code Retry-After} 헤더와 함께 429로, 이후 요청에는 content 조각으로 응답하는 서버를 시작합니다.
+   *
+   * @param retryAfter    Retry-After (초 단위로 보냄)
+   * @param contentChunks 요청 본문 → 응답 content 조각 목록
+   */
+  public static StubCompletionServer startRateLimitedOnce(
+      final Duration retryAfter,
+      final Function<String, List<String>> contentChunks) {
+    final AtomicLong sequence = new AtomicLong();
+    return new StubCompletionServer(body -> sequence.getAndIncrement() == 0
+        ? new Reply(429, Flux.empty(), Map.of("Retry-After", Long.toString(retryAfter.toSeconds())))
+        : new Reply(200, Flux.fromIterable(contentChunks.apply(body)).map(StubCompletionServer::contentChunk)),
+        true);
+  }
+
+  /**
+   * 시나리오대로 응답하는 서버를 시작합니다 (부하 테스트용).
+   * 요청마다 seed + 순번으로 난수를 만들어 실패 주입과 cite 배치가 재현 가능하며, 요청 본문과 헤더는 기록하지 않습니다.
+   */
+  public static StubCompletionServer start(final SseScenario scenario) {
+    final AtomicLong sequence = new AtomicLong();
+    return new StubCompletionServer(body -> {
+      final Random random = new Random(scenario.getSeed() + sequence.getAndIncrement());
+      if (random.nextDouble() < scenario.getErrorRate()) {
+        return new Reply(scenario.getErrorStatus(), Flux.empty());
+      }
+      return new Reply(200, scenario.chunks(random));
+    }, false);
+  }
+
+  public String getBaseUrl() {
+    return "http://127.0.0.1:" + server.port();
+  }
+
+  /**
+   * 지금까지 받은 요청 본문 (수신 순서).
+   */
+  public List<String> getRequestBodies() {
+    return List.copyOf(requestBodies);
+  }
+
+  /**
+   * 지금까지 받은 요청 헤더 (수신 순서, 이름은 소문자).
+   */
+  public List<Map<String, String>> getRequestHeaders() {
+    return List.copyOf(requestHeaders);
+  }
+
+  @Override
+  public void close() {
+    server.disposeNow();
+  }
+
+  /**
+   * content delta chunk JSON.
+   */
+  public static String contentChunk(final String content) {
+    final ObjectNode chunk = chunk();
+    chunk.withArrayProperty("choices").addObject().put("index", 0).putObject("delta").put("content", content);
+    return chunk.toString();
+  }
+
+  /**
+   * tool call delta chunk JSON. id/name은 null이면 생략합니다.
+   */
+  public static String toolCallChunk(final int index, final String id, final String name, final String arguments) {
+    final ObjectNode chunk = chunk();
+    final ObjectNode call = chunk.withArrayProperty("choices").addObject().put("index", 0)
+        .putObject("delta").putArray("tool_calls").addObject().put("index", index);
+    if (id != null) {
+      call.put("id", id).put("type", "function");
+    }
+    final ObjectNode function = call.putObject("function");
+    if (name != null) {
+      function.put("name", name);
+    }
+    function.put("arguments", arguments);
+    return chunk.toString();
+  }
+
+  /**
+   * 내용 없이 finish_reason만 있는 chunk JSON.
+   */
+  public static String finishChunk(final String finishReason) {
+    final ObjectNode chunk = chunk();
+    final ObjectNode choice = chunk.withArrayProperty("choices").addObject().put("index", 0).put("finish_reason", finishReason);
+    choice.putObject("delta");
+    return chunk.toString();
+  }
+
+  /**
+   * choices 없이 usage만 있는 마지막 chunk JSON ({@code stream_options.include_usage}).
+   */
+  public static String usageChunk(final int promptTokens, final int completionTokens) {
+    final ObjectNode chunk = chunk();
+    chunk.putObject("usage")
+        .put("prompt_tokens", promptTokens)
+        .put("completion_tokens", completionTokens)
+        .put("total_tokens", promptTokens + completionTokens);
+    return chunk.toString();
+  }
+
+  /**
+   * 요청 하나에 대한 응답. 200이 아니면 chunks 대신 오류 본문을 보내며, headers는 상태와 관계없이 붙입니다.
+   */
+  private static final class Reply {
+    private final int status;
+    private final Flux<String> chunks;
+    private final Map<String, String> headers;
+
+    Reply(final int status, final Flux<String> chunks) {
+      this(status, chunks, Map.of());
+    }
+
+    Reply(final int status, final Flux<String> chunks, final Map<String, String> headers) {
+      this.status = status;
+      this.chunks = chunks;
+      this.headers = headers;
+    }
+  }
+
+  private static ObjectNode chunk() {
+    final ObjectNode chunk = MAPPER.createObjectNode()
+        .put("id", "chatcmpl-stub")
+        .put("object", "chat.completion.chunk")
+        .put("created", 0)
+        .put("model", "stub");
+    chunk.putArray("choices");
+    return chunk;
+  }
+}
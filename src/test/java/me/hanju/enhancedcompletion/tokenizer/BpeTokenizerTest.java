@@ -0,0 +1,153 @@
+package me.hanju.enhancedcompletion.tokenizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.hanju.enhancedcompletion.payload.completion.ChatCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.Message;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+
+@DisplayName("BpeTokenizer 테스트")
+class BpeTokenizerTest {
+
+  @TempDir
+  static Path tempDir;
+
+  private static BpeTokenizer tokenizer;
+
+  /**
+   * 단일 바이트 256개 + "he", "ll", "hell", " world" 병합 규칙을 가진 rank 파일.
+   */
+  @BeforeAll
+  static void setUp() throws IOException {
+    final Base64.Encoder encoder = Base64.getEncoder();
+    final List<String> lines = new ArrayList<>();
+    for (int b = 0; b < 256; b++) {
+      lines.add(encoder.encodeToString(new byte[] { (byte) b }) + " " + b);
+    }
+    int rank = 256;
+    for (final String merged : List.of("he", "ll", "hell", " w", " wor", "or", "ld", " world")) {
+      lines.add(encoder.encodeToString(merged.getBytes(StandardCharsets.UTF_8)) + " " + rank++);
+    }
+    final Path rankFile = tempDir.resolve("test.tiktoken");
+    Files.write(rankFile, lines);
+    tokenizer = BpeTokenizer.load(rankFile);
+  }
+
+  private static List<String> split(final String text) {
+    final List<String> pieces = new ArrayList<>();
+    int pos = 0;
+    while (pos < text.length()) {
+      final int end = PreTokenizer.next(text, pos);
+      pieces.add(text.substring(pos, end));
+      pos = end;
+    }
+    return pieces;
+  }
+
+  @Nested
+  @DisplayName("PreTokenizer")
+  class PreTokenizerTest {
+
+    @Test
+    @DisplayName("cl100k 정규식과 동일하게 조각을 나눔")
+    void shouldSplitLikeCl100kPattern() {
+      assertThat(split("I'm fine,  ok\n\nyes 123456"))
+          .containsExactly("I", "'m", " fine", ",", " ", " ok", "\n\n", "yes", " ", "123", "456");
+    }
+
+    @Test
+    @DisplayName("공백 + 문장부호와 줄바꿈 처리")
+    void shouldSplitPunctuationWithTrailingNewlines() {
+      assertThat(split("a !?\n\nb   "))
+          .containsExactly("a", " !?\n\n", "b", "   ");
+    }
+
+    @Test
+    @DisplayName("한글과 surrogate pair 문자 처리")
+    void shouldSplitKoreanAndSurrogatePairs() {
+      assertThat(split("안녕 세상😀!"))
+          .containsExactly("안녕", " 세상", "😀!");
+    }
+  }
+
+  @Nested
+  @DisplayName("인코딩")
+  class Encoding {
+
+    @Test
+    @DisplayName("rank 순서대로 byte pair를 병합")
+    void shouldMergeByRank() {
+      // h e l l o → he l l o → he ll o → hell o
+      assertThat(tokenizer.encode("hello")).containsExactly(258, 'o');
+    }
+
+    @Test
+    @DisplayName("조각 전체가 어휘에 있으면 단일 토큰")
+    void shouldUseWholePieceRank() {
+      assertThat(tokenizer.encode("hello world")).containsExactly(258, 'o', 263);
+    }
+
+    @Test
+    @DisplayName("병합 규칙이 없는 멀티바이트 문자는 UTF-8 바이트 단위")
+    void shouldFallBackToBytes() {
+      assertThat(tokenizer.encode("한")).containsExactly(0xED, 0x95, 0x9C);
+    }
+
+    @Test
+    @DisplayName("countTokens는 encode 길이와 동일")
+    void shouldCountSameAsEncode() {
+      final String text = "hello world, 안녕하세요! it's 2024년\n\n  hell";
+      assertThat(tokenizer.countTokens(text)).isEqualTo(tokenizer.encode(text).length);
+    }
+
+    @Test
+    @DisplayName("빈 문자열과 null")
+    void shouldHandleEmptyText() {
+      assertThat(tokenizer.encode("")).isEmpty();
+      assertThat(tokenizer.countTokens(null)).isZero();
+    }
+  }
+
+  @Nested
+  @DisplayName("TokenCounter")
+  class TokenCounterTest {
+
+    @Test
+    @DisplayName("메시지 오버헤드를 포함하여 계산")
+    void shouldCountMessageWithOverhead() {
+      final TokenCounter counter = new TokenCounter(tokenizer);
+      final BaseMessage message = BaseMessage.builder().role("user").content("hello").build();
+
+      // 3 (메시지 오버헤드) + 4 ("user") + 2 ("hell", "o")
+      assertThat(counter.countTokens(message)).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("요청 전체는 응답 priming 토큰을 포함")
+    void shouldCountRequestWithReplyPriming() {
+      final TokenCounter counter = new TokenCounter(tokenizer);
+      final ChatCompletionRequest request = ChatCompletionRequest.builder()
+          .messages(List.of(
+              Message.builder().role("user").content("hello").build(),
+              Message.builder().role("user").content("hello world").build()))
+          .build();
+
+      // 3 + (3 + 4 + 2) + (3 + 4 + 3)
+      assertThat(counter.countTokens(request)).isEqualTo(22);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package me.hanju.enhancedcompletion.tool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.hanju.enhancedcompletion.payload.completion.BaseCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ToolCall;
+import me.hanju.enhancedcompletion.payload.completion.ToolFunction;
+import me.hanju.enhancedcompletion.payload.message.CitedMessage;
+
+@DisplayName("ToolCallStreamParser 테스트")
+class ToolCallStreamParserTest {
+
+  private static ToolCall delta(final int index, final String id, final String name, final String arguments) {
+    return ToolCall.builder()
+        .index(index)
+        .id(id)
+        .function(ToolFunction.builder().name(name).arguments(arguments).build())
+        .build();
+  }
+
+  private static List<ToolCallEvent.Type> types(final List<ToolCallEvent> events) {
+    return events.stream().map(ToolCallEvent::getType).toList();
+  }
+
+  @Test
+  @DisplayName("인자 조각마다 필드 시작/값 완성 이벤트를 발생")
+  void shouldEmitFieldEventsIncrementally() {
+    // Given
+    final ToolCallStreamParser parser = new ToolCallStreamParser();
+
+    // When & Then
+    assertThat(types(parser.accept(delta(0, "call_1", "search", ""))))
+        .containsExactly(ToolCallEvent.Type.STARTED);
+
+    final List<ToolCallEvent> first = parser.accept(delta(0, null, null, "{\"query\": \"서울 날"));
+    assertThat(types(first)).containsExactly(ToolCallEvent.Type.FIELD_STARTED);
+    assertThat(first.get(0).getField()).isEqualTo("query");
+    assertThat(first.get(0).getId()).isEqualTo("call_1");
+
+    final List<ToolCallEvent> second = parser.accept(delta(0, null, null, "씨\", \"filter\": {\"lang\": [\"ko\""));
+    assertThat(types(second)).containsExactly(ToolCallEvent.Type.VALUE_COMPLETED, ToolCallEvent.Type.FIELD_STARTED);
+    assertThat(second.get(0).getValue().asText()).isEqualTo("서울 날씨");
+
+    final List<ToolCallEvent> last = parser.accept(delta(0, null, null, "]}, \"limit\": 5}"));
+    assertThat(types(last)).containsExactly(
+        ToolCallEvent.Type.VALUE_COMPLETED,
+        ToolCallEvent.Type.FIELD_STARTED,
+        ToolCallEvent.Type.VALUE_COMPLETED,
+        ToolCallEvent.Type.COMPLETED);
+    assertThat(last.get(0).getValue().toString()).isEqualTo("{\"lang\":[\"ko\"]}");
+    assertThat(last.get(2).getValue().asInt()).isEqualTo(5);
+
+    final ToolCallEvent completed = last.get(3);
+    assertThat(completed.getArguments().get("query").asText()).isEqualTo("서울 날씨");
+    assertThat(completed.getToolCall().getId()).isEqualTo("call_1");
+    assertThat(completed.getToolCall().getFunction().getName()).isEqualTo("search");
+    assertThat(completed.getToolCall().getFunction().getArguments())
+        .isEqualTo("{\"query\": \"서울 날씨\", \"filter\": {\"lang\": [\"ko\"]}, \"limit\": 5}");
+    assertThat(parser.flush()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("여러 tool call을 index별로 독립적으로 파싱")
+  void shouldTrackEachIndexSeparately() {
+    // Given
+    final ToolCallStreamParser parser = new ToolCallStreamParser();
+    final List<ToolCallEvent> events = new ArrayList<>();
+
+    // When
+    events.addAll(parser.map(response(delta(0, "a", "first", "{\"x\":"), delta(1, "b", "second", "{"))));
+    events.addAll(parser.map(response(delta(1, null, null, "}"), delta(0, null, null, "1}"))));
+
+    // Then
+    final List<ToolCallEvent> completed = events.stream()
+        .filter(e -> e.getType() == ToolCallEvent.Type.COMPLETED)
+        .toList();
+    assertThat(completed).extracting(ToolCallEvent::getName).containsExactly("second", "first");
+    assertThat(completed.get(1).getArguments().get("x").asInt()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("잘못된 JSON은 INVALID 후 무시, 빈 인자는 flush에서 빈 객체로 완성")
+  void shouldHandleInvalidAndEmptyArguments() {
+    // Given
+    final ToolCallStreamParser parser = new ToolCallStreamParser();
+    parser.accept(delta(0, "a", "broken", ""));
+    parser.accept(delta(1, "b", "noargs", ""));
+
+    // When
+    final List<ToolCallEvent> invalid = parser.accept(delta(0, null, null, "[1, 2]"));
+    final List<ToolCallEvent> flushed = parser.flush();
+
+    // Then
+    assertThat(types(invalid)).containsExactly(ToolCallEvent.Type.INVALID);
+    assertThat(invalid.get(0).getError()).isNotNull();
+    assertThat(types(flushed)).containsExactly(ToolCallEvent.Type.COMPLETED);
+    assertThat(flushed.get(0).getArguments().isEmpty()).isTrue();
+    assertThat(flushed.get(0).getToolCall().getFunction().getArguments()).isEqualTo("{}");
+  }
+
+  private static EnhancedCompletionResponse response(final ToolCall... toolCalls) {
+    return EnhancedCompletionResponse.builder()
+        .choices(List.of(BaseCompletionResponse.Choice.<CitedMessage>builder()
+            .index(0)
+            .delta(CitedMessage.builder().toolCalls(List.of(toolCalls)).build())
+            .build()))
+        .build();
+  }
+}
@@ -0,0 +1,173 @@
+package me.hanju.enhancedcompletion.tool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.exception.EnhancedCompletionClientException;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.completion.ToolCall;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.spi.tool.ToolHandler;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import me.hanju.fluxhandle.FluxListener;
+import reactor.core.publisher.Mono;
+
+@DisplayName("ToolLoop 테스트")
+class ToolLoopTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static EnhancedCompletionClient client(final StubCompletionServer server) {
+    return new EnhancedCompletionClient(WebClient.builder(), MAPPER,
+        new EnhancedCompletionProperties(server.getBaseUrl(), null));
+  }
+
+  private static EnhancedCompletionRequest request() {
+    return EnhancedCompletionRequest.builder()
+        .model("stub")
+        .messages(List.of(BaseMessage.builder().role("user").content("서울 날씨와 시간은?").build()))
+        .build();
+  }
+
+  /**
+   * tool 결과가 없으면 tool call 두 개를, 있으면 최종 답변을 응답합니다.
+   */
+  private static List<String> weatherAndTime(final String body) {
+    if (body.contains("\"role\":\"tool\"")) {
+      return List.of(StubCompletionServer.contentChunk("맑고 "), StubCompletionServer.contentChunk("10시입니다."));
+    }
+    return List.of(
+        StubCompletionServer.toolCallChunk(0, "call_w", "weather", "{\"city\":"),
+        StubCompletionServer.toolCallChunk(1, "call_t", "time", "{\"zone\": \"KST\"}"),
+        StubCompletionServer.toolCallChunk(0, null, null, " \"서울\"}"),
+        StubCompletionServer.finishChunk("tool_calls"));
+  }
+
+  private static ToolHandler handler(final String name, final Function<JsonNode, Mono<String>> body) {
+    return new ToolHandler() {
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public Mono<String> handle(final ToolCall toolCall, final JsonNode arguments) {
+        return body.apply(arguments);
+      }
+    };
+  }
+
+  @Test
+  @DisplayName("같은 턴의 tool을 동시에 실행하고 결과와 함께 재요청")
+  void shouldRunToolsConcurrentlyAndContinue() throws Exception {
+    try (StubCompletionServer server = StubCompletionServer.startWithChunks(ToolLoopTest::weatherAndTime)) {
+      // Given - 두 tool이 동시에 실행 중이어야만 latch가 풀림
+      final CountDownLatch bothRunning = new CountDownLatch(2);
+      final ToolHandler weather = handler("weather", args -> Mono.fromCallable(() -> {
+        bothRunning.countDown();
+        assertThat(bothRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        return "{\"city\":\"" + args.get("city").asText() + "\",\"sky\":\"clear\"}";
+      }));
+      final ToolHandler time = handler("time", args -> Mono.fromCallable(() -> {
+        bothRunning.countDown();
+        assertThat(bothRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        return "10:00 " + args.get("zone").asText();
+      }));
+      final ToolLoop loop = new ToolLoop(client(server), ToolRegistry.of(weather, time));
+
+      final List<EnhancedCompletionResponse> deltas = new CopyOnWriteArrayList<>();
+      final AtomicInteger completions = new AtomicInteger();
+
+      // When
+      final ToolLoopResult result = loop.run(request(), new FluxListener<>() {
+        @Override
+        public void onNext(EnhancedCompletionResponse delta) {
+          deltas.add(delta);
+        }
+
+        @Override
+        public void onComplete() {
+          completions.incrementAndGet();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+        }
+      }).get(10, TimeUnit.SECONDS);
+
+      // Then
+      assertThat(result.getIterations()).isEqualTo(2);
+      assertThat(result.getResponse().getChoices().get(0).getDelta().getContent()).isEqualTo("맑고 10시입니다.");
+      assertThat(completions).hasValue(1);
+      assertThat(deltas).anyMatch(d -> d.getChoices().get(0).getDelta().getToolCalls() != null);
+      assertThat(deltas).anyMatch(d -> "맑고 ".equals(d.getChoices().get(0).getDelta().getContent()));
+
+      final JsonNode followUp = MAPPER.readTree(server.getRequestBodies().get(1)).get("messages");
+      assertThat(followUp).hasSize(4);
+      final JsonNode toolCalls = followUp.get(1).get("tool_calls");
+      assertThat(followUp.get(1).get("role").asText()).isEqualTo("assistant");
+      assertThat(toolCalls).hasSize(2);
+      assertThat(toolCalls.get(0).get("id").asText()).isEqualTo("call_w");
+      assertThat(toolCalls.get(0).has("index")).isFalse();
+      assertThat(toolCalls.get(0).get("function").get("arguments").asText()).isEqualTo("{\"city\": \"서울\"}");
+      assertThat(followUp.get(2).get("tool_call_id").asText()).isEqualTo("call_w");
+      assertThat(followUp.get(2).get("content").asText()).contains("clear");
+      assertThat(followUp.get(3).get("tool_call_id").asText()).isEqualTo("call_t");
+      assertThat(result.getMessages()).hasSize(4);
+    }
+  }
+
+  @Test
+  @DisplayName("타임아웃과 미등록 tool은 error 결과로 모델에 전달")
+  void shouldReportTimeoutAndUnknownToolAsResult() throws Exception {
+    try (StubCompletionServer server = StubCompletionServer.startWithChunks(ToolLoopTest::weatherAndTime)) {
+      // Given - time은 등록하지 않음
+      final ToolLoop loop = new ToolLoop(client(server),
+          ToolRegistry.of(handler("weather", args -> Mono.never())), 4, Duration.ofMillis(100));
+
+      // When
+      loop.execute(request());
+
+      // Then
+      final JsonNode followUp = MAPPER.readTree(server.getRequestBodies().get(1)).get("messages");
+      assertThat(followUp.get(2).get("content").asText()).contains("\"error\"").contains("timed out");
+      assertThat(followUp.get(3).get("content").asText()).contains("Unknown tool: time");
+    }
+  }
+
+  @Test
+  @DisplayName("최대 반복 횟수를 넘으면 예외")
+  void shouldStopAtMaxIterations() {
+    try (StubCompletionServer server = StubCompletionServer.startWithChunks(body -> List.of(
+        StubCompletionServer.toolCallChunk(0, "call_1", "weather", "{}"),
+        StubCompletionServer.finishChunk("tool_calls")))) {
+      // Given
+      final ToolLoop loop = new ToolLoop(client(server),
+          ToolRegistry.of(handler("weather", args -> Mono.just("ok"))), 3, Duration.ofSeconds(1));
+
+      // When & Then
+      assertThatThrownBy(() -> loop.execute(request()))
+          .isInstanceOf(EnhancedCompletionClientException.class)
+          .hasMessageContaining("max iterations");
+      assertThat(server.getRequestBodies()).hasSize(3);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package me.hanju.enhancedcompletion.transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.hanju.enhancedcompletion.EnhancedCompletionClient;
+import me.hanju.enhancedcompletion.EnhancedCompletionProperties;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionRequest;
+import me.hanju.enhancedcompletion.payload.completion.EnhancedCompletionResponse;
+import me.hanju.enhancedcompletion.payload.message.BaseMessage;
+import me.hanju.enhancedcompletion.spi.observe.CompletionObserver;
+import me.hanju.enhancedcompletion.stub.StubCompletionServer;
+import reactor.core.publisher.Flux;
+
+@DisplayName("SSE 녹화/재생 테스트")
+class SseRecordingTest {
+
+  private static final EnhancedCompletionRequest REQUEST = EnhancedCompletionRequest.builder()
+      .model("stub")
+      .messages(List.of(BaseMessage.builder().role("user").content("hi").build()))
+      .build();
+
+  @TempDir
+  Path dir;
+
+  @Test
+  @DisplayName("실제 stream()의 data frame을 녹화하고 재생하면 같은 응답이 나옴")
+  void shouldRecordAndReplay() throws Exception {
+    final Path file = dir.resolve("traffic.sse");
+    try (StubCompletionServer server = StubCompletionServer.start(body -> List.of("서울은", " 수도", "입니다"))) {
+      // Given
+      final EnhancedCompletionProperties properties = new EnhancedCompletionProperties(server.getBaseUrl(), null);
+      properties.setSseRecordFile(file.toString());
+      try (EnhancedCompletionClient client = new EnhancedCompletionClient(WebClient.builder(), new ObjectMapper(),
+          properties)) {
+        // When - client를 닫으면 녹화 파일도 닫힘
+        client.complete(REQUEST);
+        client.complete(REQUEST);
+      }
+
+      // Then
+      final List<SseRecording> recordings = SseRecording.readAll(file);
+      assertThat(recordings).hasSize(2);
+      assertThat(recordings.get(0).getFrames()).containsExactly(
+          StubCompletionServer.contentChunk("서울은"),
+          StubCompletionServer.contentChunk(" 수도"),
+          StubCompletionServer.contentChunk("입니다"));
+      assertThat(recordings.get(0).getOffsetNanos(2)).isGreaterThanOrEqualTo(recordings.get(0).getOffsetNanos(0));
+    }
+
+    // When - 서버 없이 재생
+    final EnhancedCompletionClient replaying = new EnhancedCompletionClient(WebClient.builder(), new ObjectMapper(),
+        new EnhancedCompletionProperties("http://127.0.0.1:1", null), CompletionObserver.NOOP,
+        SseReplayTransport.load(file, ReplaySpeed.MAXIMUM));
+    final EnhancedCompletionResponse response = replaying.complete(REQUEST);
+
+    // Then
+    assertThat(response.getChoices().get(0).getDelta().getContent()).isEqualTo("서울은 수도입니다");
+  }
+
+  @Test
+  @DisplayName("RECORDED 속도는 녹화된 간격을 지키고 MAXIMUM은 바로 재생")
+  void shouldHonorReplaySpeed() {
+    // Given
+    final SseRecording recording = new SseRecording(
+        new long[] { 0, Duration.ofMillis(100).toNanos(), Duration.ofMillis(200).toNanos() },
+        new String[] { "a", "b", "c" });
+
+    // When
+    final long recordedStart = System.nanoTime();
+    final List<String> recorded = new SseReplayTransport(List.of(recording), ReplaySpeed.RECORDED)
+        .exchange(REQUEST).collectList().block();
+    final long recordedNanos = System.nanoTime() - recordedStart;
+    final long maximumStart = System.nanoTime();
+    final List<String> maximum = new SseReplayTransport(List.of(recording), ReplaySpeed.MAXIMUM)
+        .exchange(REQUEST).collectList().block();
+    final long maximumNanos = System.nanoTime() - maximumStart;
+
+    // Then
+    assertThat(recorded).containsExactly("a", "b", "c");
+    assertThat(maximum).containsExactly("a", "b", "c");
+    assertThat(recordedNanos).isGreaterThanOrEqualTo(Duration.ofMillis(190).toNanos());
+    assertThat(maximumNanos).isLessThan(Duration.ofMillis(100).toNanos());
+  }
+
+  @Test
+  @DisplayName("쓰다 만 마지막 레코드는 무시")
+  void shouldIgnoreTruncatedTail() throws IOException {
+    // Given
+    final Path file = dir.resolve("partial.sse");
+    try (SseRecorder recorder = new SseRecorder(file)) {
+      recorder.record(Flux.just("x", "y")).blockLast();
+    }
+    Files.write(file, new byte[] { 100, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+    // When
+    final List<SseRecording> recordings = SseRecording.readAll(file);
+
+    // Then
+    assertThat(recordings).hasSize(1);
+    assertThat(recordings.get(0).getFrames()).containsExactly("x", "y");
+  }
+}